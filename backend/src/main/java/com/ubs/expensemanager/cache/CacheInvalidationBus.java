@@ -0,0 +1,256 @@
+package com.ubs.expensemanager.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide invalidation of in-process caches over Postgres {@code LISTEN/NOTIFY}.
+ *
+ * <p>A change is published with {@code pg_notify} in the transaction that makes it, so
+ * Postgres delivers it once that transaction commits and drops it on rollback. Every
+ * instance keeps a dedicated connection listening on {@value #CHANNEL} and hands each
+ * notification to the local cache subscribed to its region, the publishing instance
+ * included.</p>
+ *
+ * <p>Notifications sent while the listener connection is down are lost, so each time it
+ * (re)connects every subscribed cache is flushed. The delay between publishing and
+ * handling is recorded as {@code cache.invalidation.lag}; it is measured across instance
+ * clocks, so it includes their skew.</p>
+ *
+ * <p>Payloads are {@code <region>:<id>:<published at, epoch millis>}; the ID may itself
+ * contain colons. With {@code app.cache-bus.enabled=false} publishing does nothing and no
+ * listener is started, which leaves each cache to its local invalidation.</p>
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "expense_manager_cache";
+    static final String LISTENER_NAME = "cache-invalidation-listener";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration reconnectBackoff;
+    private final Duration pollInterval;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Timer lagTimer;
+    private final Counter connectionCounter;
+    private final Meter.MeterProvider<Counter> receivedCounters;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(NamedParameterJdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache-bus.enabled:true}") boolean enabled,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                @Value("${app.cache-bus.reconnect-backoff-ms:5000}") long reconnectBackoffMs,
+                                @Value("${app.cache-bus.poll-interval-ms:10000}") long pollIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.reconnectBackoff = Duration.ofMillis(reconnectBackoffMs);
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.lagTimer = Timer.builder("cache.invalidation.lag")
+                .description("Delay between publishing an invalidation and evicting it here")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.connectionCounter = Counter.builder("cache.invalidation.connections")
+                .description("Connections of the invalidation listener, each followed by a full flush")
+                .register(meterRegistry);
+        this.receivedCounters = Counter.builder("cache.invalidation.received")
+                .description("Invalidations received from the bus, by region")
+                .withRegistry(meterRegistry);
+        Gauge.builder("cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0)
+                .description("Whether the invalidation listener is connected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes a local cache to a region. Only the last subscription of a region is kept.
+     *
+     * @param region the region, which must not contain a colon
+     * @param evict evicts the entry of the ID a notification carries
+     * @param flush evicts every entry, when notifications may have been missed
+     */
+    public void subscribe(String region, Consumer<String> evict, Runnable flush) {
+        if (region.contains(":")) {
+            throw new IllegalArgumentException("Cache region must not contain a colon: " + region);
+        }
+        subscriptions.put(region, new Subscription(evict, flush));
+    }
+
+    /**
+     * Publishes the change of an entry to every instance. Inside a transaction, the
+     * notification is delivered when it commits; outside of one, immediately.
+     *
+     * @param region the region of the changed entry
+     * @param id the ID of the changed entry
+     */
+    public void publish(String region, Object id) {
+        if (!enabled) {
+            return;
+        }
+        String payload = region + ":" + id + ":" + System.currentTimeMillis();
+        jdbcTemplate.query("SELECT pg_notify(:channel, :payload)",
+                new MapSqlParameterSource()
+                        .addValue("channel", CHANNEL)
+                        .addValue("payload", payload),
+                (ResultSetExtractor<Void>) rs -> null);
+        log.debug("Published cache invalidation {}", payload);
+    }
+
+    /**
+     * Starts the listener once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, LISTENER_NAME);
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = listenerThread;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(pollInterval.toMillis());
+        }
+    }
+
+    /**
+     * @return whether the listener connection is up
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Handles one notification payload.
+     */
+    void dispatch(String payload) {
+        int regionEnd = payload.indexOf(':');
+        int idEnd = payload.lastIndexOf(':');
+        if (regionEnd < 0 || idEnd <= regionEnd) {
+            log.warn("Ignoring malformed cache invalidation {}", payload);
+            return;
+        }
+        String region = payload.substring(0, regionEnd);
+        String id = payload.substring(regionEnd + 1, idEnd);
+        long publishedAt;
+        try {
+            publishedAt = Long.parseLong(payload.substring(idEnd + 1));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation {}", payload);
+            return;
+        }
+
+        Subscription subscription = subscriptions.get(region);
+        if (subscription != null) {
+            subscription.evict().accept(id);
+        }
+        lagTimer.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - publishedAt)));
+        receivedCounters.withTag("region", region).increment();
+    }
+
+    /**
+     * Flushes every subscribed cache.
+     */
+    void flushAll() {
+        subscriptions.values().forEach(subscription -> subscription.flush().run());
+        log.info("Flushed {} cache regions", subscriptions.size());
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                flushAll();
+                connected = true;
+                connectionCounter.increment();
+                log.info("Listening for cache invalidations on {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    } else if (!connection.isValid((int) Math.max(1, pollInterval.toSeconds()))) {
+                        // A silently dropped connection only shows on the next round trip
+                        throw new SQLException("Cache invalidation listener connection is no longer valid");
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                connected = false;
+                if (!running) {
+                    break;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}",
+                        reconnectBackoff.toMillis(), e.getMessage());
+                try {
+                    Thread.sleep(reconnectBackoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        connected = false;
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("ApplicationName", LISTENER_NAME);
+        return properties;
+    }
+
+    private record Subscription(Consumer<String> evict, Runnable flush) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.ubs.expensemanager.cache;
+
+import com.ubs.expensemanager.dto.response.ExpenseCategoryResponse;
+import com.ubs.expensemanager.repository.projection.ExpenseCategorySnapshotRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of historical expense categories, keyed by category and revision, for the
+ * point-in-time lookups of {@code ExpenseCategoryService#findById}.
+ *
+ * <p>A revision never changes once written, so entries need neither expiry nor
+ * invalidation, on this instance or the others. They are immutable {@link Snapshot}s, and
+ * every lookup gets its own response built from one. Beyond
+ * {@code app.category-snapshot-cache.max-size} Caffeine evicts the entries least likely
+ * to be used again. Concurrent misses on the same revision load it once. Revisions that
+ * deleted the category are not cached. Hits, misses and evictions are published as the
+ * {@code cache.*} meters tagged {@code cache=category.snapshot}.</p>
+ */
+@Component
+public class ExpenseCategorySnapshotCache {
+
+    private final Cache<Key, Snapshot> entries;
+
+    public ExpenseCategorySnapshotCache(@Value("${app.category-snapshot-cache.max-size:5000}") int maxSize,
+                                        MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "category.snapshot");
+    }
+
+    /**
+     * Returns the category as of a revision, loading and caching its snapshot on a miss.
+     *
+     * @param categoryId category identifier
+     * @param revision revision number
+     * @param loader loads the category at the revision on a miss
+     * @return a new response built from the snapshot, empty if the revision deleted the category
+     */
+    public Optional<ExpenseCategoryResponse> get(Long categoryId, int revision,
+                                                 Supplier<Optional<ExpenseCategorySnapshotRow>> loader) {
+        // A null from the mapping function leaves the key uncached
+        Snapshot snapshot = entries.get(new Key(categoryId, revision),
+                key -> loader.get().map(Snapshot::of).orElse(null));
+        return Optional.ofNullable(snapshot).map(Snapshot::toResponse);
+    }
+
+    private record Key(Long categoryId, int revision) {
+    }
+
+    /**
+     * What the response shows of a category at a revision.
+     */
+    record Snapshot(Long id, String name, BigDecimal dailyBudget, BigDecimal monthlyBudget,
+                    String currencyName, BigDecimal exchangeRate) {
+
+        static Snapshot of(ExpenseCategorySnapshotRow row) {
+            return new Snapshot(
+                    row.getId(),
+                    row.getName(),
+                    row.getDailyBudget(),
+                    row.getMonthlyBudget(),
+                    row.getCurrencyName(),
+                    row.getExchangeRate());
+        }
+
+        ExpenseCategoryResponse toResponse() {
+            return ExpenseCategoryResponse.builder()
+                    .id(id)
+                    .name(name)
+                    .dailyBudget(dailyBudget)
+                    .monthlyBudget(monthlyBudget)
+                    .currencyName(currencyName)
+                    .exchangeRate(exchangeRate)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ubs.expensemanager.cache;
+
+import com.ubs.expensemanager.config.CacheRegions;
+import com.ubs.expensemanager.model.Currency;
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.ExpenseCategory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Entity listener publishing every write of a cached reference entity on the
+ * {@link CacheInvalidationBus}, so that the other instances evict their copy.
+ *
+ * <p>Created by Hibernate through the Spring bean container, which injects the bus.
+ * Inserts are published as well, since they change the cached lists.</p>
+ */
+public class ReferenceDataChangeListener {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public ReferenceDataChangeListener(CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        switch (entity) {
+            case Currency currency -> cacheInvalidationBus.publish(CacheRegions.CURRENCIES, currency.getId());
+            case Department department -> cacheInvalidationBus.publish(CacheRegions.DEPARTMENTS, department.getId());
+            case ExpenseCategory category -> cacheInvalidationBus.publish(CacheRegions.EXPENSE_CATEGORIES, category.getId());
+            default -> throw new IllegalArgumentException(
+                    "Not a cached reference entity: " + entity.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ubs.expensemanager.cache;
+
+import com.ubs.expensemanager.config.CacheRegions;
+import com.ubs.expensemanager.model.Currency;
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.ExpenseCategory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the reference data that other instances changed from the second-level cache.
+ *
+ * <p>An entity is evicted by ID together with the cached queries, whose lists and
+ * by-name lookups it may be part of. Hibernate already keeps this instance's cache in
+ * step with its own writes.</p>
+ */
+@Component
+public class ReferenceDataInvalidation {
+
+    public ReferenceDataInvalidation(CacheInvalidationBus cacheInvalidationBus,
+                                     EntityManagerFactory entityManagerFactory) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        subscribe(cacheInvalidationBus, cache, CacheRegions.CURRENCIES, Currency.class);
+        subscribe(cacheInvalidationBus, cache, CacheRegions.DEPARTMENTS, Department.class);
+        subscribe(cacheInvalidationBus, cache, CacheRegions.EXPENSE_CATEGORIES, ExpenseCategory.class);
+    }
+
+    private static void subscribe(CacheInvalidationBus cacheInvalidationBus, Cache cache,
+                                  String region, Class<?> entityClass) {
+        cacheInvalidationBus.subscribe(region,
+                id -> {
+                    cache.evictEntityData(entityClass, Long.valueOf(id));
+                    cache.evictQueryRegion(CacheRegions.REFERENCE_QUERIES);
+                },
+                () -> {
+                    cache.evictEntityData(entityClass);
+                    cache.evictQueryRegion(CacheRegions.REFERENCE_QUERIES);
+                });
+    }
+}
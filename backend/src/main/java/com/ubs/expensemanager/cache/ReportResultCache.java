@@ -0,0 +1,245 @@
+package com.ubs.expensemanager.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ubs.expensemanager.model.ReportJobType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of current-state reports, keyed by report type and effective date
+ * range, which also coalesces identical concurrent requests into one computation.
+ *
+ * <p>The first request for a key computes the report; identical requests arriving
+ * meanwhile wait for its result instead of running the same scan. A completed report is
+ * then served for {@code app.report-cache.ttl-ms}, which also bounds how stale a report
+ * gets when budgets or names change. A failed computation is not cached; its waiters get
+ * its exception. Beyond {@code app.report-cache.max-size} Caffeine evicts the entries
+ * least likely to be used again. Besides the {@code report.cache} counters, the cache
+ * publishes the {@code cache.*} meters tagged {@code cache=report}.</p>
+ *
+ * <p>Writes drop the reports whose range covers a changed date through {@link #invalidate},
+ * or every report through {@link #invalidateAll}. Inside a transaction the dates are
+ * collected, published to the other instances over the {@link CacheInvalidationBus} in one
+ * notification just before commit, which Postgres delivers once the transaction commits,
+ * and dropped on this instance after commit. A computation still running when its entry
+ * is dropped completes for its waiters but is not kept. Reports are shared between callers
+ * and must not be modified.</p>
+ */
+@Component
+public class ReportResultCache {
+
+    static final String INVALIDATION_REGION = "reports";
+    static final String ALL_DATES = "*";
+
+    /**
+     * Above this many dates a transaction drops every report, which keeps the notification
+     * well within the payload limit of {@code pg_notify}.
+     */
+    static final int MAX_PUBLISHED_DATES = 100;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AsyncCache<Key, Object> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public ReportResultCache(@Value("${app.report-cache.ttl-ms:30000}") long ttlMs,
+                             @Value("${app.report-cache.max-size:500}") int maxSize,
+                             MeterRegistry meterRegistry,
+                             CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        // An entry's time to live starts once its computation completes
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "report");
+        this.hitCounter = Counter.builder("report.cache")
+                .tag("result", "hit")
+                .description("Reports served from the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("report.cache")
+                .tag("result", "miss")
+                .description("Reports computed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("report.cache")
+                .tag("result", "coalesced")
+                .description("Reports served by waiting for an identical computation in progress")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe(INVALIDATION_REGION, this::evict, this::clear);
+    }
+
+    /**
+     * Returns the report of the given type and range, joining the computation in progress
+     * or computing it on a miss.
+     *
+     * @param type the report type
+     * @param startDate effective start date (inclusive)
+     * @param endDate effective end date (inclusive)
+     * @param loader computes the report on a miss
+     * @param <T> the report type
+     * @return the report, shared with the other callers of the same key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportJobType type, LocalDate startDate, LocalDate endDate, Supplier<T> loader) {
+        CompletableFuture<Object> computation = new CompletableFuture<>();
+        CompletableFuture<Object> result = entries.get(new Key(type, startDate, endDate), (key, executor) -> computation);
+
+        if (result == computation) {
+            missCounter.increment();
+            return compute(computation, loader);
+        }
+        (result.isDone() ? hitCounter : coalescedCounter).increment();
+        try {
+            return (T) result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the reports covering a date changed by a write. Inside a transaction they are
+     * dropped when it commits, so a request racing the write cannot keep a report computed
+     * from the old state, and the date is published with the others of the transaction.
+     *
+     * @param date the date written
+     */
+    public void invalidate(LocalDate date) {
+        PendingInvalidation pending = pendingInvalidation();
+        if (pending == null) {
+            evictDate(date);
+            cacheInvalidationBus.publish(INVALIDATION_REGION, date);
+        } else if (!pending.all) {
+            pending.dates.add(date);
+        }
+    }
+
+    /**
+     * Drops every report, for writes that may change any date, in the same way as
+     * {@link #invalidate(LocalDate)}.
+     */
+    public void invalidateAll() {
+        PendingInvalidation pending = pendingInvalidation();
+        if (pending == null) {
+            clear();
+            cacheInvalidationBus.publish(INVALIDATION_REGION, ALL_DATES);
+        } else {
+            pending.all = true;
+            pending.dates.clear();
+        }
+    }
+
+    private <T> T compute(CompletableFuture<Object> computation, Supplier<T> loader) {
+        T report;
+        try {
+            report = loader.get();
+        } catch (RuntimeException | Error e) {
+            // Caffeine drops the entry of a failed computation
+            computation.completeExceptionally(e);
+            throw e;
+        }
+        computation.complete(report);
+        return report;
+    }
+
+    /**
+     * Handles a notification, which carries {@link #ALL_DATES} or comma-separated dates.
+     */
+    private void evict(String dates) {
+        if (ALL_DATES.equals(dates)) {
+            clear();
+        } else {
+            evictDates(Arrays.stream(dates.split(",")).map(LocalDate::parse).toList());
+        }
+    }
+
+    private void evictDate(LocalDate date) {
+        evictDates(Set.of(date));
+    }
+
+    private void evictDates(Collection<LocalDate> dates) {
+        entries.asMap().keySet().removeIf(key -> dates.stream()
+                .anyMatch(date -> !date.isBefore(key.startDate()) && !date.isAfter(key.endDate())));
+    }
+
+    private void clear() {
+        entries.synchronous().invalidateAll();
+    }
+
+    /**
+     * Returns the invalidation pending in the current transaction, registering it on first
+     * use, or {@code null} outside of one.
+     */
+    private PendingInvalidation pendingInvalidation() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidation pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingInvalidation pending = new PendingInvalidation();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private record Key(ReportJobType type, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * The dates a transaction changed, published once before it commits and evicted once
+     * after. The synchronization holds them, so a suspended outer transaction keeps its own.
+     */
+    private final class PendingInvalidation implements TransactionSynchronization {
+
+        private final Set<LocalDate> dates = new TreeSet<>();
+        private boolean all;
+
+        private ReportResultCache owner() {
+            return ReportResultCache.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (all || dates.size() > MAX_PUBLISHED_DATES) {
+                all = true;
+                cacheInvalidationBus.publish(INVALIDATION_REGION, ALL_DATES);
+            } else if (!dates.isEmpty()) {
+                cacheInvalidationBus.publish(INVALIDATION_REGION, dates.stream()
+                        .map(LocalDate::toString)
+                        .collect(Collectors.joining(",")));
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (all) {
+                clear();
+            } else if (!dates.isEmpty()) {
+                evictDates(dates);
+            }
+        }
+    }
+}
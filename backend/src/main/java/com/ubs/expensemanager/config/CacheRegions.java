@@ -0,0 +1,25 @@
+package com.ubs.expensemanager.config;
+
+import java.util.List;
+
+/**
+ * Names of the Hibernate second-level cache regions.
+ *
+ * <p>Reference data, the currencies, departments and expense categories, is small and
+ * rarely written, so it is cached by ID and its natural-key and list queries are cached
+ * in {@link #REFERENCE_QUERIES}. Hibernate keeps the regions in step with every write
+ * made through the persistence context, so the write paths need no explicit eviction.
+ * The region sizes are set in {@code application.conf}.</p>
+ */
+public final class CacheRegions {
+
+    public static final String CURRENCIES = "currencies";
+    public static final String DEPARTMENTS = "departments";
+    public static final String EXPENSE_CATEGORIES = "expense-categories";
+    public static final String REFERENCE_QUERIES = "reference-queries";
+
+    public static final List<String> ALL = List.of(CURRENCIES, DEPARTMENTS, EXPENSE_CATEGORIES, REFERENCE_QUERIES);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.ubs.expensemanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.stereotype.Component;
+
+/**
+ * The database the application runs against, for the few statements whose syntax differs
+ * between Postgres and the H2 database of the API tests.
+ */
+@Component
+public class DatabasePlatform {
+
+    private final boolean h2;
+
+    public DatabasePlatform(@Value("${spring.datasource.url}") String url) {
+        this.h2 = DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.H2;
+    }
+
+    /**
+     * H2 has no {@code INSERT ... ON CONFLICT DO UPDATE}, so upserts use {@code MERGE} there.
+     *
+     * @return whether the database is H2
+     */
+    public boolean isH2() {
+        return h2;
+    }
+}
@@ -2,6 +2,7 @@ package com.ubs.expensemanager.controller;
 
 import com.ubs.expensemanager.dto.response.AlertListResponse;
 import com.ubs.expensemanager.dto.response.AlertResponse;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
 import com.ubs.expensemanager.dto.response.ErrorResponse;
 import com.ubs.expensemanager.service.AlertService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -65,6 +66,47 @@ public class AlertController {
         return ResponseEntity.ok(alerts);
     }
 
+    @Operation(
+        summary = "List Alerts with a cursor",
+        description = "Keyset-paginated variant of the alert list, selected by the 'after' parameter. " +
+            "Alerts are returned in ID order without a total count. Pass an empty 'after' for the " +
+            "first page and the returned 'nextCursor' for the following ones."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Alerts retrieved successfully",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CursorPageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageResponse<AlertListResponse>> listAlertsAfter(
+        @RequestParam String after,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        log.info("Retrieving alerts after cursor: {}, size: {}", after, size);
+        return ResponseEntity.ok(alertService.findAllAfter(after, size));
+    }
+
     @Operation(
         summary = "Resolve Alert",
         description = "Updates an alert's status to RESOLVED. Only users with FINANCE role can access this endpoint."
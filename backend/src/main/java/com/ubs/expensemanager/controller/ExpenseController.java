@@ -1,10 +1,13 @@
 package com.ubs.expensemanager.controller;
 
+import com.ubs.expensemanager.dto.request.ExpenseBatchCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseFilterRequest;
 import com.ubs.expensemanager.dto.request.ExpenseUpdateRequest;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
 import com.ubs.expensemanager.dto.response.ErrorResponse;
 import com.ubs.expensemanager.dto.response.ExpenseAuditResponse;
+import com.ubs.expensemanager.dto.response.ExpenseBatchResponse;
 import com.ubs.expensemanager.dto.response.ExpenseResponse;
 import com.ubs.expensemanager.service.ExpenseService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,6 +36,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -99,6 +103,45 @@ public class ExpenseController {
     return ResponseEntity.created(URI.create("/api/expenses/" + response.getId())).body(response);
   }
 
+  @Operation(
+      summary = "Create Expenses in bulk",
+      description = "Creates up to 100 expenses for the authenticated user in one request. " +
+          "Each item is validated and checked against the budgets on its own, in request order; " +
+          "failed items are reported with the status and error they would have had as a single create, " +
+          "while the other items are still created."
+  )
+  @ApiResponses({
+      @ApiResponse(
+          responseCode = "200",
+          description = "Batch processed, see the per-item results",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ExpenseBatchResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Empty batch or more than 100 items",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "401",
+          description = "Unauthorized",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      )
+  })
+  @PostMapping("/batch")
+  public ResponseEntity<ExpenseBatchResponse> createBatch(@Valid @RequestBody ExpenseBatchCreateRequest request) {
+    log.info("Creating batch of {} expenses", request.getExpenses().size());
+    return ResponseEntity.ok(expenseService.createBatch(request.getExpenses()));
+  }
+
   @Operation(
       summary = "List all Expenses",
       description = "Retrieves expenses with optional filtering and pagination. " +
@@ -134,6 +177,49 @@ public class ExpenseController {
     return ResponseEntity.ok(expenses);
   }
 
+  @Operation(
+      summary = "List Expenses with a cursor",
+      description = "Keyset-paginated variant of the expense list, selected by the 'after' parameter. " +
+          "Expenses are returned newest first (expense date, then ID, descending) with the same filters " +
+          "and visibility rules as the paginated list, but without a total count. " +
+          "Pass an empty 'after' for the first page and the returned 'nextCursor' for the following ones."
+  )
+  @ApiResponses({
+      @ApiResponse(
+          responseCode = "200",
+          description = "Expenses retrieved successfully",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = CursorPageResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Invalid cursor",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "401",
+          description = "Unauthorized",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      )
+  })
+  @GetMapping(params = "after")
+  public ResponseEntity<CursorPageResponse<ExpenseResponse>> findAllAfter(
+      @ModelAttribute ExpenseFilterRequest filters,
+      @RequestParam String after,
+      @RequestParam(defaultValue = "10") int size
+  ) {
+    log.info("Retrieving expenses with filters: {}, after: {}, size: {}", filters, after, size);
+    return ResponseEntity.ok(expenseService.findAllAfter(filters, after, size));
+  }
+
   @Operation(
       summary = "Get Expense by ID",
       description = "Retrieves detailed information about a specific expense. " +
@@ -405,7 +491,10 @@ public class ExpenseController {
       summary = "Get Audit History for Expense",
       description = "Retrieves the complete audit trail of an expense including all historical revisions. " +
           "Returns all modifications, status changes, and updates ordered by revision number (ascending). " +
-          "Each revision includes the revision type (ADD, MOD, DEL) and timestamp."
+          "Each revision includes the revision type (ADD, MOD, DEL) and timestamp. " +
+          "'fromRevision' and 'toRevision' limit the trail to a revision range (inclusive). " +
+          "The whole range is returned at once, up to " + ExpenseService.MAX_UNPAGED_AUDIT_REVISIONS +
+          " revisions; page through longer trails with the 'after' cursor."
   )
   @ApiResponses({
       @ApiResponse(
@@ -416,6 +505,14 @@ public class ExpenseController {
               schema = @Schema(implementation = ExpenseAuditResponse.class)
           )
       ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "The range holds too many revisions to be returned at once; use the 'after' cursor",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      ),
       @ApiResponse(
           responseCode = "401",
           description = "Unauthorized",
@@ -434,8 +531,65 @@ public class ExpenseController {
       )
   })
   @GetMapping("/{id}/audit")
-  public ResponseEntity<List<ExpenseAuditResponse>> getAuditHistory(@PathVariable Long id) {
-    log.info("Retrieving audit history for expense id={}", id);
-    return ResponseEntity.ok(expenseService.getAuditHistory(id));
+  public ResponseEntity<List<ExpenseAuditResponse>> getAuditHistory(
+      @PathVariable Long id,
+      @RequestParam(required = false) Integer fromRevision,
+      @RequestParam(required = false) Integer toRevision
+  ) {
+    log.info("Retrieving audit history for expense id={}, revisions {}..{}", id, fromRevision, toRevision);
+    return ResponseEntity.ok(expenseService.getAuditHistory(id, fromRevision, toRevision));
+  }
+
+  @Operation(
+      summary = "Get Audit History for Expense with a cursor",
+      description = "Keyset-paginated variant of the audit trail, selected by the 'after' parameter. " +
+          "Revisions are returned in ascending order, optionally limited to a revision range (inclusive). " +
+          "Pass an empty 'after' for the first page and the returned 'nextCursor' for the following ones."
+  )
+  @ApiResponses({
+      @ApiResponse(
+          responseCode = "200",
+          description = "Audit history page retrieved successfully",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = CursorPageResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "400",
+          description = "Invalid cursor",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "401",
+          description = "Unauthorized",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      ),
+      @ApiResponse(
+          responseCode = "404",
+          description = "Expense not found",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(implementation = ErrorResponse.class)
+          )
+      )
+  })
+  @GetMapping(value = "/{id}/audit", params = "after")
+  public ResponseEntity<CursorPageResponse<ExpenseAuditResponse>> getAuditHistoryPage(
+      @PathVariable Long id,
+      @RequestParam String after,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) Integer fromRevision,
+      @RequestParam(required = false) Integer toRevision
+  ) {
+    log.info("Retrieving audit history for expense id={}, after: {}, size: {}, revisions {}..{}",
+        id, after, size, fromRevision, toRevision);
+    return ResponseEntity.ok(expenseService.getAuditHistoryPage(id, after, size, fromRevision, toRevision));
   }
 }
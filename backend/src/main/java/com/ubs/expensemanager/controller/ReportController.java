@@ -5,7 +5,10 @@ import com.ubs.expensemanager.dto.response.DepartmentExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.EmployeeExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.ErrorResponse;
 import com.ubs.expensemanager.dto.response.PersonalExpenseSummaryResponse;
+import com.ubs.expensemanager.service.ExpenseDailyRollupService;
+import com.ubs.expensemanager.service.ExpenseSummaryCounterService;
 import com.ubs.expensemanager.service.ReportService;
+import com.ubs.expensemanager.util.CsvExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,9 +24,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller responsible for expense reports and analytics endpoints.
@@ -38,7 +45,14 @@ import java.util.List;
 @Tag(name = "Reports", description = "Expense Reports and Analytics Endpoints")
 public class ReportController {
 
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final String ACCEPT_ENCODING_DESCRIPTION =
+            "The response is gzip-compressed when this lists 'gzip', or '*' without an explicit 'gzip' entry, " +
+            "with a non-zero quality value, e.g. 'gzip' or 'gzip;q=0.8'. 'gzip;q=0' turns compression off.";
+
     private final ReportService reportService;
+    private final ExpenseDailyRollupService expenseDailyRollupService;
+    private final ExpenseSummaryCounterService expenseSummaryCounterService;
 
     @Operation(
             summary = "Get expenses by employee",
@@ -89,11 +103,15 @@ public class ReportController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf
     ) {
-        log.info("Request received for expense report by employee: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for expense report by employee: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        List<EmployeeExpenseReportResponse> report = reportService.getExpensesByEmployeeReport(startDate, endDate);
+        List<EmployeeExpenseReportResponse> report = reportService.getExpensesByEmployeeReport(startDate, endDate, asOf);
         
         log.info("Successfully generated report with {} employees", report.size());
         return ResponseEntity.ok(report);
@@ -139,23 +157,27 @@ public class ReportController {
     })
     @GetMapping("/expenses/by-employee/csv")
     @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
-    public ResponseEntity<String> getExpensesByEmployeeCsv(
+    public ResponseEntity<StreamingResponseBody> getExpensesByEmployeeCsv(
             @Parameter(description = "Start date (inclusive). Defaults to first day of current month.", example = "2026-01-01")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf,
+
+            @Parameter(description = ACCEPT_ENCODING_DESCRIPTION)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        log.info("Request received for CSV expense report by employee: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for CSV expense report by employee: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        String csv = reportService.getExpensesByEmployeeCsvReport(startDate, endDate);
+        CsvExport csv = reportService.getExpensesByEmployeeCsvReport(startDate, endDate, asOf);
         String filename = reportService.generateCsvFilename("expenses-by-employee", startDate, endDate);
         
-        log.info("Successfully generated CSV report: {}", filename);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+        log.info("Streaming CSV report: {}", filename);
+        return csvResponse(csv, filename, acceptEncoding);
     }
 
     @Operation(
@@ -193,11 +215,15 @@ public class ReportController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf
     ) {
-        log.info("Request received for expense report by category: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for expense report by category: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        List<CategoryExpenseReportResponse> report = reportService.getExpensesByCategoryReport(startDate, endDate);
+        List<CategoryExpenseReportResponse> report = reportService.getExpensesByCategoryReport(startDate, endDate, asOf);
         
         log.info("Successfully generated report with {} categories", report.size());
         return ResponseEntity.ok(report);
@@ -243,23 +269,27 @@ public class ReportController {
     })
     @GetMapping("/expenses/by-category/csv")
     @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
-    public ResponseEntity<String> getExpensesByCategoryCsv(
+    public ResponseEntity<StreamingResponseBody> getExpensesByCategoryCsv(
             @Parameter(description = "Start date (inclusive). Defaults to first day of current month.", example = "2026-01-01")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf,
+
+            @Parameter(description = ACCEPT_ENCODING_DESCRIPTION)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        log.info("Request received for CSV expense report by category: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for CSV expense report by category: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        String csv = reportService.getExpensesByCategoryCsvReport(startDate, endDate);
+        CsvExport csv = reportService.getExpensesByCategoryCsvReport(startDate, endDate, asOf);
         String filename = reportService.generateCsvFilename("expenses-by-category", startDate, endDate);
         
-        log.info("Successfully generated CSV report: {}", filename);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+        log.info("Streaming CSV report: {}", filename);
+        return csvResponse(csv, filename, acceptEncoding);
     }
 
     @Operation(
@@ -309,11 +339,15 @@ public class ReportController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-31")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf
     ) {
-        log.info("Request received for expense report by department: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for expense report by department: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        List<DepartmentExpenseReportResponse> report = reportService.getExpensesByDepartmentReport(startDate, endDate);
+        List<DepartmentExpenseReportResponse> report = reportService.getExpensesByDepartmentReport(startDate, endDate, asOf);
         
         log.info("Successfully generated report with {} departments", report.size());
         return ResponseEntity.ok(report);
@@ -361,23 +395,27 @@ public class ReportController {
     })
     @GetMapping("/department/budgets-vs-expenses/csv")
     @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
-    public ResponseEntity<String> getExpensesByDepartmentCsv(
+    public ResponseEntity<StreamingResponseBody> getExpensesByDepartmentCsv(
             @Parameter(description = "Start date (inclusive). Defaults to first day of current month.", example = "2026-01-01")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "End date (inclusive). Defaults to current date.", example = "2026-01-13")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report the expenses as they were at this instant, rebuilt from their audit history. " +
+                    "Defaults to their current state.", example = "2026-02-01T09:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime asOf,
+
+            @Parameter(description = ACCEPT_ENCODING_DESCRIPTION)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        log.info("Request received for CSV expense report by department: startDate={}, endDate={}", startDate, endDate);
+        log.info("Request received for CSV expense report by department: startDate={}, endDate={}, asOf={}", startDate, endDate, asOf);
         
-        String csv = reportService.getExpensesByDepartmentCsvReport(startDate, endDate);
+        CsvExport csv = reportService.getExpensesByDepartmentCsvReport(startDate, endDate, asOf);
         String filename = reportService.generateCsvFilename("expenses-by-department", startDate, endDate);
         
-        log.info("Successfully generated CSV report: {}", filename);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+        log.info("Streaming CSV report: {}", filename);
+        return csvResponse(csv, filename, acceptEncoding);
     }
 
     @Operation(
@@ -416,4 +454,109 @@ public class ReportController {
         log.info("Successfully generated expense summary");
         return ResponseEntity.ok(summary);
     }
+
+    @Operation(
+            summary = "Rebuild expense aggregates",
+            description = "Recomputes the daily expense rollup used by reports and budget checks " +
+                    "from the expenses table, then the expense summary counters from the rollup. Intended as a repair tool and should be run in a quiet period. " +
+                    "Only FINANCE role can access this endpoint."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Rollup rebuilt successfully"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Only FINANCE role can rebuild the aggregates",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('FINANCE')")
+    public ResponseEntity<Void> rebuildRollup() {
+        log.info("Request received to rebuild expense aggregates");
+
+        int rollupRows = expenseDailyRollupService.rebuild();
+        int counterRows = expenseSummaryCounterService.rebuild();
+
+        log.info("Successfully rebuilt expense aggregates: {} rollup rows, {} summary counter rows", rollupRows, counterRows);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Builds a streaming CSV download response. Rows are written directly to the servlet
+     * output stream, gzip-compressed when the client advertises support for it.
+     *
+     * @param csv the CSV export to write
+     * @param filename the download filename
+     * @param acceptEncoding the request {@code Accept-Encoding} header (nullable)
+     * @return streaming response
+     */
+    private ResponseEntity<StreamingResponseBody> csvResponse(CsvExport csv, String filename, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType("text/csv"));
+
+        if (!gzip) {
+            return response.body(csv::writeTo);
+        }
+
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    csv.writeTo(gzipOut);
+                    gzipOut.finish();
+                });
+    }
+
+    /**
+     * Tells whether an {@code Accept-Encoding} header accepts gzip: listed as {@code gzip}
+     * or {@code *} with a non-zero quality value. An explicit {@code gzip} entry overrides
+     * {@code *}, so {@code gzip;q=0} refuses it.
+     *
+     * @param acceptEncoding the request {@code Accept-Encoding} header (nullable)
+     * @return whether the response may be gzip-compressed
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
 }
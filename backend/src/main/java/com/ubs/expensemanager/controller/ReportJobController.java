@@ -0,0 +1,139 @@
+package com.ubs.expensemanager.controller;
+
+import com.ubs.expensemanager.dto.request.ReportJobCreateRequest;
+import com.ubs.expensemanager.dto.response.ErrorResponse;
+import com.ubs.expensemanager.dto.response.ReportJobResponse;
+import com.ubs.expensemanager.service.report.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * REST controller for reports generated in the background.
+ *
+ * <p>A report is submitted, polled until it is {@code COMPLETED}, then downloaded. Only
+ * MANAGER and FINANCE roles can access these endpoints.</p>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/reports/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Report Jobs", description = "Background report generation endpoints")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Submits a report for background generation.
+     */
+    @Operation(
+            summary = "Submit a report job",
+            description = "Queues a report for generation and returns the job to poll. " +
+                    "An identical report that is queued, running or just completed is returned instead of a new job. " +
+                    "Dates default as on the matching report endpoint."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Report job accepted"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Validation error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Too many report jobs queued",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping
+    @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
+    public ResponseEntity<ReportJobResponse> submit(@Valid @RequestBody ReportJobCreateRequest request) {
+
+        log.info("Submitting report job: type={}, startDate={}, endDate={}, format={}",
+                request.getType(), request.getStartDate(), request.getEndDate(), request.getFormat());
+
+        ReportJobResponse response = reportJobService.submit(request);
+
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/reports/jobs/" + response.getId()))
+                .body(response);
+    }
+
+    /**
+     * Retrieves the status of a report job.
+     */
+    @Operation(
+            summary = "Get a report job",
+            description = "Returns the status of a report job"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Report job retrieved successfully"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Report job not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
+    public ResponseEntity<ReportJobResponse> findById(@PathVariable UUID id) {
+
+        return ResponseEntity.ok(reportJobService.findById(id));
+    }
+
+    /**
+     * Downloads the file of a completed report job.
+     */
+    @Operation(
+            summary = "Download a report job",
+            description = "Downloads the file generated by a completed report job"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Report file downloaded"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Report job not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Report job not completed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAnyRole('MANAGER', 'FINANCE')")
+    public ResponseEntity<Resource> download(@PathVariable UUID id) {
+
+        log.info("Downloading report job {}", id);
+
+        ReportJobService.Download download = reportJobService.download(id);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(download.filename()).build().toString())
+                .contentType(MediaType.parseMediaType(download.contentType()))
+                .body(new ByteArrayResource(download.content()));
+    }
+}
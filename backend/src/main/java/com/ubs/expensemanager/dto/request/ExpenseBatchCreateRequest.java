@@ -0,0 +1,29 @@
+package com.ubs.expensemanager.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO Request for submitting several expenses at once.
+ *
+ * <p>The items are deliberately not validated as a whole: each invalid item is reported
+ * in its own result, while the valid ones are still created.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchCreateRequest {
+
+    public static final int MAX_ITEMS = 100;
+
+    @Schema(description = "Expenses to create, processed in order (at most 100)")
+    @NotEmpty(message = "expenses must not be empty")
+    @Size(max = MAX_ITEMS, message = "at most " + MAX_ITEMS + " expenses can be submitted at once")
+    private List<ExpenseCreateRequest> expenses;
+}
@@ -0,0 +1,36 @@
+package com.ubs.expensemanager.dto.request;
+
+import com.ubs.expensemanager.model.ReportFormat;
+import com.ubs.expensemanager.model.ReportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DTO Request for generating a report in the background.
+ *
+ * <p>Dates default as on the synchronous report endpoints.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobCreateRequest {
+
+    @Schema(description = "Report to generate", example = "EXPENSES_BY_CATEGORY")
+    @NotNull(message = "type is required")
+    private ReportJobType type;
+
+    @Schema(description = "Start date (inclusive). Defaults to first day of current month, " +
+            "or to the current date for DEPARTMENT_BUDGETS.", example = "2025-01-01")
+    private LocalDate startDate;
+
+    @Schema(description = "End date (inclusive). Defaults to current date.", example = "2025-12-31")
+    private LocalDate endDate;
+
+    @Schema(description = "File format of the result. Defaults to CSV.", example = "CSV")
+    private ReportFormat format;
+}
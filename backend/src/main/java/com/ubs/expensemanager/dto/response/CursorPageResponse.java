@@ -0,0 +1,53 @@
+package com.ubs.expensemanager.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * DTO Response representing one page of a keyset (cursor) paginated list.
+ *
+ * <p>Unlike a page, it carries no total count; the next page is requested with
+ * {@code nextCursor} as the {@code after} parameter.</p>
+ *
+ * @param <T> the element type
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Elements of this page")
+    private List<T> content;
+
+    @Schema(description = "Maximum number of elements per page", example = "10")
+    private int size;
+
+    @Schema(description = "Whether there is a page after this one", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor to pass as 'after' for the next page, absent on the last page", example = "MjAyNi0wMS0wOHwxMDE")
+    private String nextCursor;
+
+    /**
+     * @param slice the page
+     * @param nextCursor the cursor of the last element, or {@code null} on the last page
+     * @return the response of the slice
+     */
+    public static <T> CursorPageResponse<T> of(Slice<T> slice, String nextCursor) {
+        return CursorPageResponse.<T>builder()
+                .content(slice.getContent())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? nextCursor : null)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ubs.expensemanager.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO Response representing the outcome of one item of a bulk expense submission.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchItemResponse {
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "HTTP status the item would have had on its own", example = "201")
+    private int status;
+
+    @Schema(description = "Created expense, present when the item succeeded")
+    private ExpenseResponse expense;
+
+    @Schema(description = "Reason the item failed, present when it did", example = "Expense category not found")
+    private String error;
+}
@@ -0,0 +1,31 @@
+package com.ubs.expensemanager.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO Response representing the result of a bulk expense submission, one item per
+ * submitted expense in request order.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchResponse {
+
+    @Schema(description = "Number of expenses created", example = "2")
+    private int createdCount;
+
+    @Schema(description = "Number of expenses rejected", example = "1")
+    private int failedCount;
+
+    @Schema(description = "Per-item results in request order")
+    private List<ExpenseBatchItemResponse> items;
+}
@@ -0,0 +1,53 @@
+package com.ubs.expensemanager.dto.response;
+
+import com.ubs.expensemanager.model.ReportFormat;
+import com.ubs.expensemanager.model.ReportJobStatus;
+import com.ubs.expensemanager.model.ReportJobType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO Response representing a report job and where it stands.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobResponse {
+
+    @Schema(description = "Job identifier", example = "3f1c1f8e-5a8e-4c55-9a8c-0c1d6f1e2b7a")
+    private UUID id;
+
+    @Schema(description = "Report being generated", example = "EXPENSES_BY_CATEGORY")
+    private ReportJobType type;
+
+    @Schema(description = "Effective start date (inclusive)", example = "2025-01-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Effective end date (inclusive)", example = "2025-12-31")
+    private LocalDate endDate;
+
+    @Schema(description = "File format of the result", example = "CSV")
+    private ReportFormat format;
+
+    @Schema(description = "Job status", example = "COMPLETED")
+    private ReportJobStatus status;
+
+    @Schema(description = "When the job was submitted")
+    private Instant createdAt;
+
+    @Schema(description = "When the job completed or failed")
+    private Instant finishedAt;
+
+    @Schema(description = "Why the job failed", example = "Report generation failed")
+    private String error;
+}
@@ -0,0 +1,195 @@
+package com.ubs.expensemanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubs.expensemanager.event.outbox.OutboxEvent;
+import com.ubs.expensemanager.event.outbox.OutboxEventHandler;
+import com.ubs.expensemanager.model.AlertStatus;
+import com.ubs.expensemanager.model.AlertType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outbox handler that writes budget alerts in batches.
+ *
+ * <p>Budget alerts reach this handler through the transactional outbox, so an alert is
+ * written if and only if its expense has committed, off the request's critical path. Each
+ * dispatched batch coalesces all pending alerts of the same expense into one, merges them
+ * into the expense's existing NEW alert if there is one, and writes the result with one
+ * JDBC batch of inserts and one of updates, inside the dispatcher transaction. Alerts of
+ * expenses deleted before the batch was dispatched are dropped.</p>
+ */
+@Component
+@Slf4j
+public class BudgetAlertPipeline implements OutboxEventHandler {
+
+    public static final String EVENT_TYPE = "BUDGET_ALERT";
+    static final int MAX_MESSAGE_LENGTH = 2000;
+    private static final String MESSAGE_SEPARATOR = "; ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter writtenCounter;
+    private final Counter coalescedCounter;
+    private final Counter skippedCounter;
+
+    public BudgetAlertPipeline(NamedParameterJdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.writtenCounter = Counter.builder("alerts.pipeline.written")
+                .description("Alert rows inserted or updated by the pipeline")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("alerts.pipeline.coalesced")
+                .description("Alerts merged into another alert of the same expense")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("alerts.pipeline.skipped")
+                .description("Alerts dropped because their expense was deleted before dispatch")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String eventType() {
+        return EVENT_TYPE;
+    }
+
+    /**
+     * Coalesces the alerts of a dispatched batch per expense and writes them.
+     *
+     * @param events outbox events carrying a {@link PendingAlert} payload
+     */
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Map<Long, Coalesced> byExpense = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            PendingAlert alert = fromJson(event.payload());
+            Coalesced existing = byExpense.get(alert.expenseId());
+            if (existing == null) {
+                byExpense.put(alert.expenseId(), new Coalesced(null, alert.type(), alert.message()));
+            } else {
+                byExpense.put(alert.expenseId(), existing.merge(alert.type(), alert.message()));
+                coalescedCounter.increment();
+            }
+        }
+
+        mergeWithExisting(byExpense);
+        if (!byExpense.isEmpty()) {
+            writeCoalesced(byExpense);
+        }
+        writtenCounter.increment(byExpense.size());
+    }
+
+    /**
+     * Merges the alerts into the NEW alert an expense may already have, e.g. from an earlier
+     * batch, and drops those of expenses that no longer exist, in one query.
+     */
+    private void mergeWithExisting(Map<Long, Coalesced> byExpense) {
+        Set<Long> existingExpenses = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT e.id AS expense_id, a.id AS alert_id, a.type, a.message FROM expenses e " +
+                "LEFT JOIN alerts a ON a.expense_id = e.id AND a.status = :status " +
+                "WHERE e.id IN (:expenseIds)",
+                new MapSqlParameterSource()
+                        .addValue("status", AlertStatus.NEW.name())
+                        .addValue("expenseIds", byExpense.keySet()),
+                rs -> {
+                    long expenseId = rs.getLong("expense_id");
+                    existingExpenses.add(expenseId);
+                    long alertId = rs.getLong("alert_id");
+                    if (rs.wasNull()) {
+                        return;
+                    }
+                    Coalesced pending = byExpense.get(expenseId);
+                    if (pending.id() == null) {
+                        byExpense.put(expenseId, new Coalesced(alertId, AlertType.valueOf(rs.getString("type")),
+                                rs.getString("message")).merge(pending.type(), pending.message()));
+                        coalescedCounter.increment();
+                    }
+                });
+
+        int before = byExpense.size();
+        byExpense.keySet().retainAll(existingExpenses);
+        if (byExpense.size() < before) {
+            skippedCounter.increment(before - byExpense.size());
+            log.debug("Dropped budget alerts of {} deleted expenses", before - byExpense.size());
+        }
+    }
+
+    private void writeCoalesced(Map<Long, Coalesced> byExpense) {
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        List<SqlParameterSource> updates = new ArrayList<>();
+        byExpense.forEach((expenseId, alert) -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("id", alert.id())
+                    .addValue("expenseId", expenseId)
+                    .addValue("type", alert.type().name())
+                    .addValue("message", truncate(alert.message()))
+                    .addValue("status", AlertStatus.NEW.name())
+                    .addValue("now", now);
+            (alert.id() == null ? inserts : updates).add(params);
+        });
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO alerts (type, message, status, expense_id, created_at, updated_at) " +
+                    "VALUES (:type, :message, :status, :expenseId, :now, :now)",
+                    inserts.toArray(SqlParameterSource[]::new));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE alerts SET type = :type, message = :message, updated_at = :now WHERE id = :id",
+                    updates.toArray(SqlParameterSource[]::new));
+        }
+        log.debug("Wrote budget alerts: {} inserted, {} updated", inserts.size(), updates.size());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private PendingAlert fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, PendingAlert.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read budget alert payload " + payload, e);
+        }
+    }
+
+    /**
+     * Outbox payload of a budget alert.
+     *
+     * @param expenseId the expense the alert belongs to
+     * @param type the scope of the exceeded budget
+     * @param message the alert message
+     */
+    public record PendingAlert(Long expenseId, AlertType type, String message) {
+    }
+
+    /**
+     * Alert of one expense after coalescing; {@code id} is set when it updates an existing row.
+     */
+    private record Coalesced(Long id, AlertType type, String message) {
+
+        Coalesced merge(AlertType otherType, String otherMessage) {
+            AlertType mergedType = type == otherType ? type : AlertType.ALL;
+            return new Coalesced(id, mergedType, message + MESSAGE_SEPARATOR + otherMessage);
+        }
+    }
+}
@@ -1,17 +1,13 @@
 package com.ubs.expensemanager.event;
 
-import com.ubs.expensemanager.model.Alert;
-import com.ubs.expensemanager.model.AlertStatus;
+import com.ubs.expensemanager.event.outbox.OutboxPublisher;
 import com.ubs.expensemanager.model.AlertType;
-import com.ubs.expensemanager.repository.AlertRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * Listener for budget exceeded events that creates alerts.
@@ -21,68 +17,29 @@ import java.util.List;
 @Slf4j
 public class BudgetExceededEventListener {
 
-    private final AlertRepository alertRepository;
+    private final OutboxPublisher outboxPublisher;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
 
     /**
-     * Handles budget exceeded events by creating alerts.
+     * Handles budget exceeded events by appending an alert to the outbox, in the transaction
+     * of the expense that exceeded the budget. The {@link BudgetAlertPipeline} writes it once
+     * dispatched, coalesced with the other alerts of the same expense.
      *
      * @param event the budget exceeded event
      */
     @EventListener
-    @Transactional
     public void handleBudgetExceededEvent(BudgetExceededEvent event) {
         log.info("Handling budget exceeded event: {}", event);
 
         String message = createAlertMessage(event);
-        AlertType alertType = event.getBudgetType() == BudgetExceededEvent.BudgetType.DEPARTAMENT 
-                ? AlertType.DEPARTMENT 
+        AlertType alertType = event.getBudgetType() == BudgetExceededEvent.BudgetType.DEPARTAMENT
+                ? AlertType.DEPARTMENT
                 : AlertType.CATEGORY;
 
-        // Check if there's already an alert for this expense (regardless of type)
-        // Create a mutable list to combine results from both queries
-        List<Alert> existingAlerts = new java.util.ArrayList<>(
-                alertRepository.findAllByExpenseAndTypeAndStatus(
-                        event.getExpense(), AlertType.CATEGORY, AlertStatus.NEW));
-        
-        // Also check for ALL type alerts
-        existingAlerts.addAll(alertRepository.findAllByExpenseAndTypeAndStatus(
-                event.getExpense(), AlertType.ALL, AlertStatus.NEW));
-
-        if (!existingAlerts.isEmpty()) {
-            // Update the first alert found and delete any duplicates
-            Alert alertToUpdate = existingAlerts.get(0);
-            
-            // Append the new violation to the existing message
-            String combinedMessage = alertToUpdate.getMessage() + "; " + message;
-            alertToUpdate.setMessage(combinedMessage);
-            
-            // Update type if necessary
-            if (alertType == AlertType.DEPARTMENT && alertToUpdate.getType() == AlertType.CATEGORY) {
-                alertToUpdate.setType(AlertType.ALL);
-            }
-            
-            alertRepository.save(alertToUpdate);
-            log.info("Updated existing alert with combined message: {}", alertToUpdate);
-            
-            // Delete any duplicate alerts (if more than one was found)
-            for (int i = 1; i < existingAlerts.size(); i++) {
-                alertRepository.delete(existingAlerts.get(i));
-                log.info("Deleted duplicate alert: {}", existingAlerts.get(i));
-            }
-            return;
-        }
-
-        // Create a new alert if no existing alert was found
-        Alert alert = Alert.builder()
-                .type(alertType)
-                .message(message)
-                .expense(event.getExpense())
-                .build();
-
-        alertRepository.save(alert);
-        log.info("Created new alert: {}", alert);
+        Long expenseId = event.getExpense().getId();
+        outboxPublisher.append(BudgetAlertPipeline.EVENT_TYPE, expenseId,
+                new BudgetAlertPipeline.PendingAlert(expenseId, alertType, message));
     }
 
     /**
@@ -7,6 +7,10 @@ import org.springframework.stereotype.Component;
 
 /**
  * Service responsible for publishing domain events.
+ *
+ * <p>Events are published synchronously within the caller's transaction. Listeners that
+ * need durable delivery outside the request append to the transactional outbox through
+ * {@link com.ubs.expensemanager.event.outbox.OutboxPublisher}.</p>
  */
 @Component
 @RequiredArgsConstructor
@@ -0,0 +1,265 @@
+package com.ubs.expensemanager.event.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers {@code outbox_events} to the {@link OutboxEventHandler} of their type.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, handled and marked as
+ * delivered in one transaction, so any number of instances can drain the outbox in
+ * parallel without delivering an event twice while it succeeds. When a batch fails, its
+ * events are retried one per transaction to isolate the failing ones, which are then
+ * backed off and given up after {@code app.outbox.max-attempts}.</p>
+ *
+ * <p>With {@code app.outbox.async=false} the scheduled poll is off and events are
+ * dispatched on the committing thread right after their transaction commits.</p>
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxEventHandler> handlers;
+    private final Timer lagTimer;
+    private final Meter.MeterProvider<Counter> dispatchedCounters;
+    private final Meter.MeterProvider<Counter> failedCounters;
+    private final AtomicLong pendingEvents = new AtomicLong();
+
+    @Value("${app.outbox.async:true}")
+    private boolean async;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${app.outbox.retention-hours:72}")
+    private long retentionHours;
+
+    public OutboxDispatcher(NamedParameterJdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            List<OutboxEventHandler> handlers,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.handlers = handlers.stream()
+                .collect(Collectors.toMap(OutboxEventHandler::eventType, Function.identity()));
+        this.lagTimer = Timer.builder("outbox.dispatch.lag")
+                .description("Time from appending an outbox event until it is delivered")
+                .register(meterRegistry);
+        this.dispatchedCounters = Counter.builder("outbox.events.dispatched")
+                .description("Outbox events delivered to their handler, by type")
+                .withRegistry(meterRegistry);
+        this.failedCounters = Counter.builder("outbox.events.failed")
+                .description("Outbox event deliveries that failed, by type")
+                .withRegistry(meterRegistry);
+        Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+                .description("Undelivered outbox events at the last poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return whether events are delivered by the scheduled poll rather than after commit
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Whether an event of the given type about an aggregate has not been delivered yet,
+     * including events given up after the maximum attempts, whose effects will never appear
+     * without intervention.
+     *
+     * @param eventType the event type
+     * @param aggregateId the ID of the entity the event is about
+     * @return whether such an event is still in the outbox undelivered
+     */
+    public boolean hasPending(String eventType, Long aggregateId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM outbox_events " +
+                "WHERE aggregate_id = :aggregateId AND event_type = :eventType AND dispatched_at IS NULL)",
+                new MapSqlParameterSource()
+                        .addValue("aggregateId", aggregateId)
+                        .addValue("eventType", eventType),
+                Boolean.class));
+    }
+
+    /**
+     * Polls the outbox and delivers everything currently due.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!async) {
+            return;
+        }
+        drain();
+        Long pending = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE dispatched_at IS NULL AND attempts < :maxAttempts",
+                new MapSqlParameterSource("maxAttempts", maxAttempts), Long.class);
+        pendingEvents.set(pending != null ? pending : 0L);
+    }
+
+    /**
+     * Delivers batches until the outbox has no due events left that are not locked by
+     * another dispatcher.
+     */
+    public void drain() {
+        while (dispatchBatch() >= batchSize) {
+            // Keep going while batches come back full
+        }
+    }
+
+    /**
+     * Claims, delivers and marks one batch.
+     *
+     * @return the number of events claimed
+     */
+    int dispatchBatch() {
+        List<OutboxEvent> batch = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.addAll(claim(batchSize));
+                deliver(batch);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch of {} events failed, retrying one by one", batch.size(), e);
+            return dispatchOneByOne(batch.size());
+        }
+        recordDelivered(batch);
+        return batch.size();
+    }
+
+    /**
+     * Removes delivered events older than the retention period.
+     */
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 * * * *}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM outbox_events WHERE dispatched_at < :cutoff",
+                new MapSqlParameterSource("cutoff",
+                        Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours))));
+        if (deleted > 0) {
+            log.info("Purged {} delivered outbox events", deleted);
+        }
+    }
+
+    private int dispatchOneByOne(int count) {
+        int claimed = 0;
+        for (int i = 0; i < count; i++) {
+            List<OutboxEvent> single = new ArrayList<>(1);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    single.addAll(claim(1));
+                    deliver(single);
+                });
+            } catch (RuntimeException e) {
+                if (single.isEmpty()) {
+                    throw e;
+                }
+                recordFailure(single.get(0), e);
+                claimed++;
+                continue;
+            }
+            if (single.isEmpty()) {
+                break;
+            }
+            recordDelivered(single);
+            claimed++;
+        }
+        return claimed;
+    }
+
+    private List<OutboxEvent> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(
+                "SELECT id, event_type, aggregate_id, payload, created_at FROM outbox_events " +
+                "WHERE dispatched_at IS NULL AND available_at <= :now AND attempts < :maxAttempts " +
+                "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource()
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("maxAttempts", maxAttempts)
+                        .addValue("limit", limit),
+                (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"),
+                        rs.getString("event_type"),
+                        rs.getObject("aggregate_id", Long.class),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    private void deliver(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<String, List<OutboxEvent>> byType = new LinkedHashMap<>();
+        events.forEach(event -> byType.computeIfAbsent(event.eventType(), type -> new ArrayList<>()).add(event));
+        byType.forEach((type, typed) -> {
+            OutboxEventHandler handler = handlers.get(type);
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for event type " + type);
+            }
+            handler.handle(typed);
+        });
+
+        jdbcTemplate.update(
+                "UPDATE outbox_events SET dispatched_at = :now WHERE id IN (:ids)",
+                new MapSqlParameterSource()
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                        .addValue("ids", events.stream().map(OutboxEvent::id).toList()));
+    }
+
+    private void recordDelivered(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            lagTimer.record(Duration.between(event.createdAt(), now));
+            dispatchedCounters.withTag("type", event.eventType()).increment();
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException error) {
+        failedCounters.withTag("type", event.eventType()).increment();
+
+        String message = String.valueOf(error.getMessage());
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE outbox_events SET attempts = attempts + 1, last_error = :error, available_at = :retryAt " +
+                "WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", event.id())
+                        .addValue("error", message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH))
+                        .addValue("retryAt", Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMs))))));
+        log.error("Outbox event {} of type {} failed, retrying after {} ms (at most {} attempts)",
+                event.id(), event.eventType(), retryBackoffMs, maxAttempts, error);
+    }
+}
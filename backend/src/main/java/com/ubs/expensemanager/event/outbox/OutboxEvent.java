@@ -0,0 +1,15 @@
+package com.ubs.expensemanager.event.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@code outbox_events} handed to an {@link OutboxEventHandler}.
+ *
+ * @param id the outbox row ID, increasing in append order
+ * @param eventType the type the handler is selected by
+ * @param aggregateId the ID of the entity the event is about (nullable)
+ * @param payload the event as JSON
+ * @param createdAt when the originating transaction appended the event
+ */
+public record OutboxEvent(Long id, String eventType, Long aggregateId, String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,25 @@
+package com.ubs.expensemanager.event.outbox;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events of one type.
+ *
+ * <p>Handlers run inside the dispatcher transaction that marks the events as delivered, so
+ * their database writes commit together with the delivery. Delivery is at least once: a
+ * handler that throws gets the events again on a later attempt.</p>
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * @return the event type this handler consumes
+     */
+    String eventType();
+
+    /**
+     * Handles a batch of events of {@link #eventType()}, in append order.
+     *
+     * @param events the events to handle, never empty
+     */
+    void handle(List<OutboxEvent> events);
+}
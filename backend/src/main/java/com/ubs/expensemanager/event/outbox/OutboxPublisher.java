@@ -0,0 +1,85 @@
+package com.ubs.expensemanager.event.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Appends domain events to {@code outbox_events} inside the transaction of the change
+ * they describe, so an event exists if and only if that change has committed.
+ */
+@Component
+@Slf4j
+public class OutboxPublisher {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher outboxDispatcher;
+    private final Meter.MeterProvider<Counter> appendedCounters;
+
+    public OutboxPublisher(NamedParameterJdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           OutboxDispatcher outboxDispatcher,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxDispatcher = outboxDispatcher;
+        this.appendedCounters = Counter.builder("outbox.events.appended")
+                .description("Events appended to the outbox, by type")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Appends an event to the outbox.
+     *
+     * @param eventType the type the dispatcher selects the handler by
+     * @param aggregateId the ID of the entity the event is about (nullable)
+     * @param payload the event, serialized as JSON
+     * @throws IllegalStateException if called outside a transaction
+     */
+    public void append(String eventType, Long aggregateId, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be appended inside the transaction of their change");
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(
+                "INSERT INTO outbox_events (event_type, aggregate_id, payload, attempts, created_at, available_at) " +
+                "VALUES (:eventType, :aggregateId, :payload, 0, :now, :now)",
+                new MapSqlParameterSource()
+                        .addValue("eventType", eventType)
+                        .addValue("aggregateId", aggregateId)
+                        .addValue("payload", toJson(payload))
+                        .addValue("now", now));
+        appendedCounters.withTag("type", eventType).increment();
+        log.debug("Appended {} outbox event for aggregate {}", eventType, aggregateId);
+
+        if (!outboxDispatcher.isAsync()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.drain();
+                }
+            });
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ubs.expensemanager.exception;
+
+import com.ubs.expensemanager.messages.Messages;
+
+public class AuditHistoryTooLongException extends RuntimeException {
+
+    public AuditHistoryTooLongException(int maxRevisions) {
+        super(Messages.formatMessage(Messages.AUDIT_HISTORY_TOO_LONG, maxRevisions));
+    }
+}
@@ -144,6 +144,48 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles pagination cursors that were not issued by the API or were tampered with.
+     *
+     * @param ex the thrown Exception
+     * @param request the HTTP request that triggered the exception
+     * @return a {@link ErrorResponse} with status 400 (Bad Request)
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(
+            InvalidCursorException ex,
+            HttpServletRequest request
+    ) {
+        return buildErrorResponse(
+                HttpServletResponse.SC_BAD_REQUEST,
+                "Bad Request",
+                ex.getMessage(),
+                request.getServletPath(),
+                null
+        );
+    }
+
+    /**
+     * Handles unpaged audit histories too long to be returned at once.
+     *
+     * @param ex the thrown Exception
+     * @param request the HTTP request that triggered the exception
+     * @return a {@link ErrorResponse} with status 400 (Bad Request)
+     */
+    @ExceptionHandler(AuditHistoryTooLongException.class)
+    public ResponseEntity<ErrorResponse> handleAuditHistoryTooLong(
+            AuditHistoryTooLongException ex,
+            HttpServletRequest request
+    ) {
+        return buildErrorResponse(
+                HttpServletResponse.SC_BAD_REQUEST,
+                "Bad Request",
+                ex.getMessage(),
+                request.getServletPath(),
+                null
+        );
+    }
+
     /**
      * Handles authentication failures due to invalid credentials.
      *
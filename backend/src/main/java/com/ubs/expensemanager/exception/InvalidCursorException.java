@@ -0,0 +1,10 @@
+package com.ubs.expensemanager.exception;
+
+import com.ubs.expensemanager.messages.Messages;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super(Messages.INVALID_CURSOR);
+    }
+}
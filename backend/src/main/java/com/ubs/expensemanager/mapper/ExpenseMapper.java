@@ -8,6 +8,9 @@ import com.ubs.expensemanager.model.Expense;
 import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.repository.projection.ArchivedExpenseRow;
+import com.ubs.expensemanager.util.CurrencyConverter;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
@@ -21,12 +24,16 @@ public interface ExpenseMapper {
   @Mapping(target = "user", source = "currentUser")
   @Mapping(target = "currency", source = "currency")
   @Mapping(target = "expenseCategory", source = "expenseCategory")
+  @Mapping(target = "amountUsd", ignore = true)
+  @Mapping(target = "departmentId", ignore = true)
   Expense toEntity(ExpenseCreateRequest expenseCreateRequest, Currency currency, ExpenseCategory expenseCategory, User currentUser, ExpenseStatus status);
 
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "status", source = "status")
   @Mapping(target = "currency", source = "currency")
   @Mapping(target = "expenseCategory", source = "expenseCategory")
+  @Mapping(target = "amountUsd", ignore = true)
+  @Mapping(target = "departmentId", ignore = true)
   Expense updateEntity(@MappingTarget Expense expense, ExpenseUpdateRequest expenseUpdateRequest, Currency currency, ExpenseCategory expenseCategory, ExpenseStatus status);
 
   @Mapping(target = "userId", source = "user.id")
@@ -38,4 +45,17 @@ public interface ExpenseMapper {
   @Mapping(target = "exchangeRate", source = "currency.exchangeRate")
   ExpenseResponse toResponse(Expense expense);
 
+  ExpenseResponse toResponse(ArchivedExpenseRow archivedExpense);
+
+  /**
+   * Fixes the denormalised USD amount at the current exchange rate and captures the
+   * owner's department, whenever an expense is created or its amount or currency may
+   * have changed.
+   */
+  @AfterMapping
+  default void denormalize(@MappingTarget Expense expense) {
+    expense.setAmountUsd(CurrencyConverter.convertToUsd(expense));
+    expense.setDepartmentId(expense.getUser().getDepartment() != null ? expense.getUser().getDepartment().getId() : null);
+  }
+
 }
@@ -39,10 +39,14 @@ public final class Messages {
   public static final String USER_NOT_FOUND_WITH_ID = "There is no user with id %s";
   public static final String ALERT_NOT_FOUND = "Alert not found";
   public static final String NO_AUDIT_RECORD_FOUND = "No audit record found for category at specified date";
+  public static final String REPORT_JOB_NOT_FOUND = "Report job not found";
 
   // ===== Conflict =====
   public static final String DEPARTMENT_NAME_CONFLICT = "Department with this name already exists";
   public static final String EXPENSE_CATEGORY_NAME_CONFLICT = "Expense category with this name already exists";
+  public static final String BUDGET_RESERVATION_TIMEOUT = "Too many expenses are being submitted against the same budget, please retry";
+  public static final String REPORT_JOB_QUEUE_FULL = "Too many reports are being generated, please retry later";
+  public static final String REPORT_JOB_NOT_COMPLETED = "Report job is %s, it can be downloaded once COMPLETED";
 
   // ===== Unauthorized Access =====
   public static final String UNAUTHORIZED_ACCESS_EXPENSE = "You do not have permission to access this expense";
@@ -60,6 +64,9 @@ public final class Messages {
   public static final String USER_EMAIL_EXISTS = "The email '%s' is already registered";
   public static final String EMAIL_CANNOT_BE_CHANGED = "Email cannot be changed";
   public static final String ROLE_CANNOT_BE_CHANGED = "Role cannot be changed";
+  public static final String INVALID_CURSOR = "Invalid pagination cursor";
+  public static final String AUDIT_HISTORY_TOO_LONG =
+      "The audit history has more than %d revisions in this range; page through it with the 'after' parameter";
 
   // ===== Budget Exceeded =====
   public static final String MONTHLY_DEPARTMENT_BUDGET_EXCEEDED =
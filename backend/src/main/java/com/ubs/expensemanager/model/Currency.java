@@ -1,11 +1,15 @@
 package com.ubs.expensemanager.model;
 
+import com.ubs.expensemanager.cache.ReferenceDataChangeListener;
+import com.ubs.expensemanager.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.envers.Audited;
 
 import java.math.BigDecimal;
@@ -23,6 +27,8 @@ import java.math.BigDecimal;
         @UniqueConstraint(name = "uk_currencies_name", columnNames = "name")
     }
 )
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CURRENCIES)
+@EntityListeners(ReferenceDataChangeListener.class)
 @Audited
 @Getter
 @Setter
@@ -1,11 +1,15 @@
 package com.ubs.expensemanager.model;
 
+import com.ubs.expensemanager.cache.ReferenceDataChangeListener;
+import com.ubs.expensemanager.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.envers.Audited;
 import java.math.BigDecimal;
 
@@ -23,6 +27,8 @@ import java.math.BigDecimal;
         @UniqueConstraint(name = "uk_departments_name", columnNames = "name")
     }
 )
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DEPARTMENTS)
+@EntityListeners(ReferenceDataChangeListener.class)
 @Audited
 @Getter
 @Setter
@@ -66,7 +72,7 @@ public class Department {
      * References the Currency entity to ensure referential integrity
      * and exchange-rate flexibility.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "currency_id", nullable = false)
     private Currency currency;
 }
@@ -5,11 +5,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,8 +27,30 @@ import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
 import org.hibernate.type.SqlTypes;
 
+/**
+ * Expense submitted by a user.
+ *
+ * <p>All associations are lazy; read paths choose what to fetch with the entity graphs
+ * below: {@value #LIST_GRAPH} for what an expense list renders, {@value #DETAIL_GRAPH}
+ * additionally with the owner's department and the budget currencies that updates and
+ * workflow transitions read.</p>
+ */
 @Entity
 @Table(name = "expenses")
+@NamedEntityGraph(name = Expense.LIST_GRAPH, attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode("expenseCategory"),
+    @NamedAttributeNode("currency")
+})
+@NamedEntityGraph(name = Expense.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode(value = "user", subgraph = "user"),
+    @NamedAttributeNode(value = "expenseCategory", subgraph = "expenseCategory"),
+    @NamedAttributeNode("currency")
+}, subgraphs = {
+    @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode(value = "department", subgraph = "department")),
+    @NamedSubgraph(name = "department", attributeNodes = @NamedAttributeNode("currency")),
+    @NamedSubgraph(name = "expenseCategory", attributeNodes = @NamedAttributeNode("currency"))
+})
 @Audited
 @Getter
 @Setter
@@ -33,8 +59,15 @@ import org.hibernate.type.SqlTypes;
 @Builder
 public class Expense extends Auditable {
 
+  public static final String LIST_GRAPH = "Expense.list";
+  public static final String DETAIL_GRAPH = "Expense.detail";
+
+  /**
+   * Taken from the pooled {@code expenses_seq} sequence rather than an identity column,
+   * so Hibernate knows IDs before inserting and can batch expense inserts.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_seq")
   private Long id;
 
   /**
@@ -59,24 +92,38 @@ public class Expense extends Auditable {
    * User who created the expense.
    */
   @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", nullable = false)
   private User user;
 
   /**
    * Expense category for budget tracking.
    */
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "expense_category_id", nullable = false)
   private ExpenseCategory expenseCategory;
 
   /**
    * Currency in which the expense was incurred.
    */
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "currency_id", nullable = false)
   private Currency currency;
 
+  /**
+   * Amount in USD at the exchange rate in effect when the amount or currency was last set.
+   * Stored so that budget and report queries need no join to currencies.
+   */
+  @Column(name = "amount_usd", precision = 19, scale = 2)
+  private BigDecimal amountUsd;
+
+  /**
+   * Department of the owner, stored so that department queries need no join to users.
+   * Follows the owner when they move to another department.
+   */
+  @Column(name = "department_id")
+  private Long departmentId;
+
   /**
    * Optional URL to the expense receipt/proof.
    */
@@ -1,11 +1,15 @@
 package com.ubs.expensemanager.model;
 
+import com.ubs.expensemanager.cache.ReferenceDataChangeListener;
+import com.ubs.expensemanager.config.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NotFound;
 import org.hibernate.annotations.NotFoundAction;
 import org.hibernate.envers.Audited;
@@ -25,6 +29,8 @@ import java.math.BigDecimal;
         @UniqueConstraint(name = "uk_expense_categories_name", columnNames = "name")
     }
 )
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.EXPENSE_CATEGORIES)
+@EntityListeners(ReferenceDataChangeListener.class)
 @Audited
 @Getter
 @Setter
@@ -50,7 +56,7 @@ public class ExpenseCategory {
      * Currency associated with this expense category.
      * All budget values (daily and monthly) are expressed in this currency.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "currency_id", nullable = false)
     private Currency currency;
 }
@@ -0,0 +1,54 @@
+package com.ubs.expensemanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pre-aggregated expense totals per day, user, category, currency and status.
+ *
+ * <p>Rows are maintained incrementally in the same transaction as every expense write,
+ * so reports and budget checks can read a handful of rows instead of scanning
+ * {@code expenses}. Amounts are converted to USD and rounded to 2 decimal places per
+ * expense before being added, matching the conversion used by the reports.</p>
+ *
+ * <p>Rows whose {@link #expenseCount} dropped to zero are kept and must be ignored by readers.</p>
+ */
+@Entity
+@Table(name = "expense_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseDailyRollup {
+
+  @EmbeddedId
+  private ExpenseDailyRollupId id;
+
+  /**
+   * Department of the user at the time of the last write. Kept in sync when the
+   * user moves to another department, so it always matches {@code users.department_id}.
+   */
+  @Column(name = "department_id")
+  private Long departmentId;
+
+  /**
+   * Number of expenses aggregated into this row.
+   */
+  @Column(name = "expense_count", nullable = false)
+  private long expenseCount;
+
+  /**
+   * Sum of the aggregated expense amounts converted to USD.
+   */
+  @Column(name = "amount_usd", nullable = false, precision = 19, scale = 2)
+  private BigDecimal amountUsd;
+}
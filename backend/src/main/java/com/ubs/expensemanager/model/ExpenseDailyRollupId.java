@@ -0,0 +1,47 @@
+package com.ubs.expensemanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Composite key of an {@link ExpenseDailyRollup} row.
+ *
+ * <p>The department is not part of the key because it is determined by the user;
+ * see {@link ExpenseDailyRollup#getDepartmentId()}.</p>
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class ExpenseDailyRollupId implements Serializable {
+
+  @Column(name = "expense_date", nullable = false)
+  private LocalDate expenseDate;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "category_id", nullable = false)
+  private Long categoryId;
+
+  @Column(name = "currency_id", nullable = false)
+  private Long currencyId;
+
+  @Enumerated(EnumType.STRING)
+  @JdbcTypeCode(SqlTypes.VARCHAR)
+  @Column(nullable = false, length = 50)
+  private ExpenseStatus status;
+}
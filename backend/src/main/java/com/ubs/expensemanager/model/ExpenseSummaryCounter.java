@@ -0,0 +1,50 @@
+package com.ubs.expensemanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Dashboard summary counters per user and month.
+ *
+ * <p>Rows are maintained incrementally in the same transaction as every expense write,
+ * so the expense summary is answered from a few rows instead of loading every expense.
+ * REJECTED expenses are never counted.</p>
+ */
+@Entity
+@Table(name = "expense_summary_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseSummaryCounter {
+
+  @EmbeddedId
+  private ExpenseSummaryCounterId id;
+
+  /**
+   * Sum of the non-rejected expense amounts converted to USD.
+   */
+  @Column(name = "amount_usd", nullable = false, precision = 19, scale = 2)
+  private BigDecimal amountUsd;
+
+  /**
+   * Number of APPROVED_BY_FINANCE expenses.
+   */
+  @Column(name = "approved_count", nullable = false)
+  private long approvedCount;
+
+  /**
+   * Number of PENDING and APPROVED_BY_MANAGER expenses.
+   */
+  @Column(name = "pending_count", nullable = false)
+  private long pendingCount;
+}
@@ -0,0 +1,35 @@
+package com.ubs.expensemanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Composite key of an {@link ExpenseSummaryCounter} row.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class ExpenseSummaryCounterId implements Serializable {
+
+  /**
+   * Owner of the counters.
+   */
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  /**
+   * First day of the month the counted expenses are dated in.
+   */
+  @Column(name = "month_start", nullable = false)
+  private LocalDate monthStart;
+}
@@ -0,0 +1,32 @@
+package com.ubs.expensemanager.model;
+
+/**
+ * Defines the file formats a report job can produce.
+ */
+public enum ReportFormat {
+    /**
+     * Comma-separated values, as the CSV export endpoints write them.
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * JSON array, as the report endpoints return it.
+     */
+    JSON("application/json", "json");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ubs.expensemanager.model;
+
+/**
+ * Defines the lifecycle of a report job.
+ */
+public enum ReportJobStatus {
+    /**
+     * Job is waiting for a worker.
+     */
+    QUEUED,
+
+    /**
+     * Job is being generated.
+     */
+    RUNNING,
+
+    /**
+     * Job has finished and its file can be downloaded.
+     */
+    COMPLETED,
+
+    /**
+     * Job has failed; submitting the same report again starts a new job.
+     */
+    FAILED
+}
@@ -0,0 +1,34 @@
+package com.ubs.expensemanager.model;
+
+/**
+ * Defines the reports that can be generated as background jobs.
+ */
+public enum ReportJobType {
+    /**
+     * Expense totals grouped by employee.
+     */
+    EXPENSES_BY_EMPLOYEE("expenses-by-employee"),
+
+    /**
+     * Expense totals grouped by category.
+     */
+    EXPENSES_BY_CATEGORY("expenses-by-category"),
+
+    /**
+     * Department expenses against their budgets, within one month or a single day.
+     */
+    DEPARTMENT_BUDGETS("expenses-by-department");
+
+    private final String baseName;
+
+    ReportJobType(String baseName) {
+        this.baseName = baseName;
+    }
+
+    /**
+     * @return base name of the downloaded file, as used by the synchronous CSV exports
+     */
+    public String getBaseName() {
+        return baseName;
+    }
+}
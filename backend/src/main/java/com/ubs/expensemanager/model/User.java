@@ -44,11 +44,11 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
 
@@ -56,6 +56,13 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean active = true;
 
+    /**
+     * Version of the user's self-contained tokens; tokens of an older version are revoked.
+     */
+    @Builder.Default
+    @Column(name = "token_version", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int tokenVersion = 0;
+
     @Override
     public String getUsername() {
         return email;
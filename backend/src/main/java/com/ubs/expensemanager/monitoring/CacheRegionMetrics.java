@@ -0,0 +1,49 @@
+package com.ubs.expensemanager.monitoring;
+
+import com.ubs.expensemanager.config.CacheRegions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes the hits, misses and puts of each second-level cache region as
+ * {@code cache.gets} and {@code cache.puts}, tagged with the region as {@code cache}.
+ *
+ * <p>The counters read Hibernate's statistics, so they stay at zero unless
+ * {@code hibernate.generate_statistics} is on, and for a region the cache is disabled for.</p>
+ */
+@Component
+public class CacheRegionMetrics {
+
+    public CacheRegionMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : CacheRegions.ALL) {
+            register(meterRegistry, "cache.gets", region, "hit", "Lookups served by the cache region",
+                    statistics, CacheRegionStatistics::getHitCount);
+            register(meterRegistry, "cache.gets", region, "miss", "Lookups the cache region could not serve",
+                    statistics, CacheRegionStatistics::getMissCount);
+            register(meterRegistry, "cache.puts", region, null, "Entries put in the cache region",
+                    statistics, CacheRegionStatistics::getPutCount);
+        }
+    }
+
+    private static void register(MeterRegistry meterRegistry, String name, String region, String result,
+                                 String description, Statistics statistics, ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter.builder(name, statistics, stats -> {
+                    CacheRegionStatistics regionStatistics = stats.getCacheRegionStatistics(region);
+                    return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+                })
+                .tag("cache", region)
+                .description(description);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(meterRegistry);
+    }
+}
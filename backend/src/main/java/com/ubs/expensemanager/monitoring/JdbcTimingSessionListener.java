@@ -0,0 +1,43 @@
+package com.ubs.expensemanager.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time each Hibernate session spends executing JDBC statements and batches to
+ * the current request's {@link RequestSqlStats}.
+ *
+ * <p>Hibernate creates one instance per session, so the start timestamps need no
+ * synchronization.</p>
+ */
+public class JdbcTimingSessionListener extends BaseSessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.jdbcTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ubs.expensemanager.monitoring;
+
+/**
+ * SQL activity of the HTTP request being served on the current thread.
+ *
+ * <p>Opened and closed by {@link SqlBudgetFilter}; {@link SqlCountingDataSource} and the
+ * Hibernate hooks add to it while it is open and do nothing on threads that serve no request, e.g. schedulers.</p>
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final int budget;
+    private final boolean failOnExceed;
+    private int statements;
+    private long jdbcNanos;
+    private int entitiesLoaded;
+
+    private RequestSqlStats(int budget, boolean failOnExceed) {
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    /**
+     * Starts collecting for the current thread.
+     *
+     * @param budget the number of statements the request is expected to stay within
+     * @param failOnExceed whether the statement over the budget fails the request
+     * @return the opened stats
+     */
+    static RequestSqlStats open(int budget, boolean failOnExceed) {
+        RequestSqlStats stats = new RequestSqlStats(budget, failOnExceed);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stops collecting for the current thread.
+     */
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the stats of the request served on the current thread, or {@code null}
+     */
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared(String sql) {
+        statements++;
+        if (failOnExceed && statements > budget) {
+            throw new IllegalStateException(
+                    "SQL statement budget of " + budget + " exceeded by statement: " + sql);
+        }
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
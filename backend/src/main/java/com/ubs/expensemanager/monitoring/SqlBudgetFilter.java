@@ -0,0 +1,145 @@
+package com.ubs.expensemanager.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SQL each HTTP request issues: statements on any connection of the
+ * application, and the JDBC time and entities loaded of Hibernate, exported per endpoint as {@code http.server.requests.sql.statements},
+ * {@code http.server.requests.sql.time} and {@code http.server.requests.sql.entities}.
+ *
+ * <p>Each endpoint has a statement budget, {@code app.sql-budget.default} unless listed in
+ * {@code app.sql-budget.endpoints} as comma-separated {@code METHOD /path/{pattern}=N}
+ * entries. A request over its budget is logged and counted; with
+ * {@code app.sql-budget.fail-on-exceed=true} the statement over the budget throws instead,
+ * so tests fail on a fetch-plan regression such as an N+1 query.</p>
+ *
+ * <p>Runs ahead of the security filters so the principal lookup is part of the count.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final Meter.MeterProvider<DistributionSummary> statementSummaries;
+    private final Meter.MeterProvider<Timer> timeTimers;
+    private final Meter.MeterProvider<DistributionSummary> entitySummaries;
+    private final Meter.MeterProvider<Counter> exceededCounters;
+    private final int defaultBudget;
+    private final boolean failOnExceed;
+    private final List<EndpointBudget> budgets;
+
+    public SqlBudgetFilter(MeterRegistry meterRegistry,
+                           @Value("${app.sql-budget.default:50}") int defaultBudget,
+                           @Value("${app.sql-budget.fail-on-exceed:false}") boolean failOnExceed,
+                           @Value("${app.sql-budget.endpoints:}") List<String> endpoints) {
+        this.statementSummaries = DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements issued per request")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.timeTimers = Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL per request")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.entitySummaries = DistributionSummary.builder("http.server.requests.sql.entities")
+                .description("Entities loaded per request")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.exceededCounters = Counter.builder("http.server.requests.sql.budget.exceeded")
+                .description("Requests that issued more SQL statements than their budget")
+                .withRegistry(meterRegistry);
+        this.defaultBudget = defaultBudget;
+        this.failOnExceed = failOnExceed;
+        this.budgets = parse(endpoints);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.open(budgetFor(request), failOnExceed);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.close();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        String method = request.getMethod();
+
+        Tags tags = Tags.of("uri", uri, "method", method);
+
+        statementSummaries.withTags(tags).record(stats.getStatements());
+        timeTimers.withTags(tags).record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        entitySummaries.withTags(tags).record(stats.getEntitiesLoaded());
+
+        if (stats.getStatements() > stats.getBudget()) {
+            exceededCounters.withTags(tags).increment();
+            log.warn("{} {} issued {} SQL statements, over its budget of {} ({} entities loaded)",
+                    method, uri, stats.getStatements(), stats.getBudget(), stats.getEntitiesLoaded());
+        }
+    }
+
+    private int budgetFor(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (EndpointBudget budget : budgets) {
+            if (budget.method().equalsIgnoreCase(request.getMethod()) && budget.pattern().matches(path)) {
+                return budget.statements();
+            }
+        }
+        return defaultBudget;
+    }
+
+    private static List<EndpointBudget> parse(List<String> endpoints) {
+        List<EndpointBudget> parsed = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            if (endpoint.isBlank()) {
+                continue;
+            }
+            String[] methodAndRest = endpoint.trim().split("\\s+", 2);
+            int separator = methodAndRest.length == 2 ? methodAndRest[1].lastIndexOf('=') : -1;
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid SQL budget entry, expected 'METHOD /path=N': " + endpoint);
+            }
+            parsed.add(new EndpointBudget(
+                    methodAndRest[0],
+                    PathPatternParser.defaultInstance.parse(methodAndRest[1].substring(0, separator).trim()),
+                    Integer.parseInt(methodAndRest[1].substring(separator + 1).trim())));
+        }
+        // Most specific pattern first, so /api/expenses/batch wins over /api/expenses/{id}
+        parsed.sort(Comparator.comparing(EndpointBudget::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+        return List.copyOf(parsed);
+    }
+
+    private record EndpointBudget(String method, PathPattern pattern, int statements) {
+    }
+}
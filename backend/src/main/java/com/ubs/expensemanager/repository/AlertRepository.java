@@ -4,6 +4,9 @@ import com.ubs.expensemanager.model.Alert;
 import com.ubs.expensemanager.model.AlertStatus;
 import com.ubs.expensemanager.model.AlertType;
 import com.ubs.expensemanager.model.Expense;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
@@ -23,6 +26,17 @@ public interface AlertRepository extends
         JpaRepository<Alert, Long>,
         JpaSpecificationExecutor<Alert> {
 
+    /**
+     * Finds a page of alerts with the expense, its owner and currency that the alert list
+     * renders fetched in the same query.
+     *
+     * @param pageable the pagination information
+     * @return page of alerts
+     */
+    @Override
+    @EntityGraph(attributePaths = {"expense", "expense.user", "expense.currency"})
+    Page<Alert> findAll(Pageable pageable);
+
     /**
      * Finds all alerts with the specified status.
      *
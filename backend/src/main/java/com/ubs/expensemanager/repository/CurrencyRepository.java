@@ -1,19 +1,42 @@
 package com.ubs.expensemanager.repository;
 
+import com.ubs.expensemanager.config.CacheRegions;
 import com.ubs.expensemanager.model.Currency;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 /**
  * Repository responsible for data access operations related to {@link Currency}.
  *
  * This interface abstracts all persistence logic and provides
  * CRUD operations through Spring Data JPA.
+ * Currencies are cached, see {@link CacheRegions}.
  */
 @Repository
 public interface CurrencyRepository extends JpaRepository<Currency, Long> {
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<Currency> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     Optional<Currency> findByName(String name);
+
     boolean existsByName(String name);
+    List<Currency> findAllByNameIn(Collection<String> names);
 }
@@ -1,20 +1,43 @@
 package com.ubs.expensemanager.repository;
 
+import com.ubs.expensemanager.config.CacheRegions;
 import com.ubs.expensemanager.model.Department;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 /**
  * Repository responsible for data access operations related to {@link Department}.
  *
  * This interface abstracts all persistence logic and provides
  * CRUD operations through Spring Data JPA.
+ * Departments are cached, see {@link CacheRegions}.
  */
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = "currency")
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
+    List<Department> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     Optional<Department> findByNameIgnoreCase(String name);
+
     boolean existsByNameIgnoreCase(String name);
 }
\ No newline at end of file
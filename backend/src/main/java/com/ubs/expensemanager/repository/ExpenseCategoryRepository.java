@@ -1,23 +1,83 @@
 package com.ubs.expensemanager.repository;
 
+import com.ubs.expensemanager.config.CacheRegions;
 import com.ubs.expensemanager.model.ExpenseCategory;
+import com.ubs.expensemanager.repository.projection.ExpenseCategorySnapshotRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 /**
  * Repository responsible for data access operations related to {@link ExpenseCategory}.
  *
  * This interface abstracts all persistence logic and provides
  * CRUD operations through Spring Data JPA.
+ * Categories are cached by ID, see {@link CacheRegions}.
  */
 @Repository
 public interface ExpenseCategoryRepository extends 
         JpaRepository<ExpenseCategory, Long>,
         JpaSpecificationExecutor<ExpenseCategory>
 {
+    @Override
+    @EntityGraph(attributePaths = "currency")
+    Optional<ExpenseCategory> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "currency")
+    Page<ExpenseCategory> findAll(Specification<ExpenseCategory> spec, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheRegions.REFERENCE_QUERIES)
+    })
     Optional<ExpenseCategory> findByNameIgnoreCase(String name);
+
     boolean existsByNameIgnoreCase(String name);
+
+    /**
+     * Finds the latest revision of a category made at or before a point in time, in one
+     * query served by the primary key of {@code expense_categories_aud} and
+     * {@code idx_revinfo_revtstmp}.
+     *
+     * @param id category identifier
+     * @param timestamp the point in time, in epoch milliseconds as Envers stores it
+     * @return the revision number, empty if the category had no revision by then
+     */
+    @Query(value = "SELECT MAX(a.rev) FROM expense_categories_aud a " +
+            "JOIN revinfo r ON r.rev = a.rev " +
+            "WHERE a.id = :id AND r.revtstmp <= :timestamp",
+            nativeQuery = true)
+    Optional<Integer> findRevisionAt(@Param("id") Long id, @Param("timestamp") long timestamp);
+
+    /**
+     * Loads a category as of a revision, with its currency as of the same revision, as
+     * Envers would resolve it.
+     *
+     * @param id category identifier
+     * @param revision revision number
+     * @return the snapshot, empty if the revision deleted the category
+     */
+    @Query(value = "SELECT a.id AS \"id\", a.name AS \"name\", " +
+            "a.daily_budget AS \"dailyBudget\", a.monthly_budget AS \"monthlyBudget\", " +
+            "c.name AS \"currencyName\", c.exchange_rate AS \"exchangeRate\" " +
+            "FROM expense_categories_aud a " +
+            "LEFT JOIN currencies_aud c ON c.id = a.currency_id AND c.rev = " +
+            "(SELECT MAX(c2.rev) FROM currencies_aud c2 WHERE c2.id = a.currency_id AND c2.rev <= a.rev) " +
+            "WHERE a.id = :id AND a.rev = :revision AND a.revtype <> 2",
+            nativeQuery = true)
+    Optional<ExpenseCategorySnapshotRow> findSnapshotAtRevision(@Param("id") Long id, @Param("revision") int revision);
 }
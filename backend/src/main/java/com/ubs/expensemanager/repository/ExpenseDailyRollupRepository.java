@@ -0,0 +1,335 @@
+package com.ubs.expensemanager.repository;
+
+import com.ubs.expensemanager.model.ExpenseDailyRollup;
+import com.ubs.expensemanager.model.ExpenseDailyRollupId;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.repository.projection.BudgetTotalsRow;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotal;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotal;
+import com.ubs.expensemanager.repository.projection.ScopedDailyTotal;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Repository responsible for data access operations related to {@link ExpenseDailyRollup}.
+ *
+ * <p>Provides the incremental update statements used by the expense write paths and the
+ * aggregate queries used by reports and budget validation. Rows with a zero
+ * {@code expenseCount} may exist and are ignored by the readers.</p>
+ */
+@Repository
+public interface ExpenseDailyRollupRepository extends JpaRepository<ExpenseDailyRollup, ExpenseDailyRollupId> {
+
+    /**
+     * JDBC fetch size used by the streaming CSV export queries, so rows are pulled
+     * from a forward-only cursor in chunks instead of being buffered all at once.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Adds a delta to a rollup row, creating it on first use, with Postgres
+     * {@code INSERT ... ON CONFLICT}. A concurrent writer of the same row waits for the
+     * caller's transaction instead of failing.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO expense_daily_rollup " +
+                   "(expense_date, user_id, department_id, category_id, currency_id, status, expense_count, amount_usd) " +
+                   "VALUES (:expenseDate, :userId, :departmentId, :categoryId, :currencyId, :status, :countDelta, :amountUsdDelta) " +
+                   "ON CONFLICT (expense_date, user_id, category_id, currency_id, status) DO UPDATE SET " +
+                   "expense_count = expense_daily_rollup.expense_count + EXCLUDED.expense_count, " +
+                   "amount_usd = expense_daily_rollup.amount_usd + EXCLUDED.amount_usd, " +
+                   "department_id = EXCLUDED.department_id",
+           nativeQuery = true)
+    void upsertRow(
+            @Param("expenseDate") LocalDate expenseDate,
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("currencyId") Long currencyId,
+            @Param("status") String status,
+            @Param("departmentId") Long departmentId,
+            @Param("countDelta") long countDelta,
+            @Param("amountUsdDelta") BigDecimal amountUsdDelta
+    );
+
+    /**
+     * Same as {@link #upsertRow} with {@code MERGE}, for H2.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO expense_daily_rollup r " +
+                   "USING (SELECT CAST(:expenseDate AS DATE) AS expense_date, CAST(:userId AS BIGINT) AS user_id, " +
+                   "CAST(:departmentId AS BIGINT) AS department_id, CAST(:categoryId AS BIGINT) AS category_id, " +
+                   "CAST(:currencyId AS BIGINT) AS currency_id, CAST(:status AS VARCHAR(50)) AS status, " +
+                   "CAST(:countDelta AS BIGINT) AS expense_count, CAST(:amountUsdDelta AS DECIMAL(19,2)) AS amount_usd) d " +
+                   "ON r.expense_date = d.expense_date AND r.user_id = d.user_id AND r.category_id = d.category_id " +
+                   "AND r.currency_id = d.currency_id AND r.status = d.status " +
+                   "WHEN MATCHED THEN UPDATE SET expense_count = r.expense_count + d.expense_count, " +
+                   "amount_usd = r.amount_usd + d.amount_usd, department_id = d.department_id " +
+                   "WHEN NOT MATCHED THEN INSERT " +
+                   "(expense_date, user_id, department_id, category_id, currency_id, status, expense_count, amount_usd) " +
+                   "VALUES (d.expense_date, d.user_id, d.department_id, d.category_id, d.currency_id, d.status, " +
+                   "d.expense_count, d.amount_usd)",
+           nativeQuery = true)
+    void mergeRow(
+            @Param("expenseDate") LocalDate expenseDate,
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("currencyId") Long currencyId,
+            @Param("status") String status,
+            @Param("departmentId") Long departmentId,
+            @Param("countDelta") long countDelta,
+            @Param("amountUsdDelta") BigDecimal amountUsdDelta
+    );
+
+    /**
+     * Moves all rollup rows of a user to a new department.
+     *
+     * @return number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExpenseDailyRollup r SET r.departmentId = :departmentId WHERE r.id.userId = :userId")
+    int reassignDepartment(@Param("userId") Long userId, @Param("departmentId") Long departmentId);
+
+    /**
+     * Deletes every rollup row. Used before a full rebuild.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExpenseDailyRollup")
+    int deleteAllRows();
+
+    /**
+     * Recomputes every rollup row from the {@code expenses} and {@code expenses_archive}
+     * tables, from the USD amounts and departments stored on each expense, without joining
+     * users or currencies.
+     *
+     * <p>Rows are grouped by the primary key, which leaves the department out. The expenses
+     * of a row normally share one department, as a department move reassigns all of the
+     * user's expenses, but a create that read the old department may commit after the move;
+     * the highest department ID is then kept, so the rebuild never inserts a key twice and
+     * always picks the same department.</p>
+     *
+     * @return number of rows inserted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO expense_daily_rollup " +
+                   "(expense_date, user_id, department_id, category_id, currency_id, status, expense_count, amount_usd) " +
+                   "SELECT e.expense_date, e.user_id, MAX(e.department_id), e.expense_category_id, e.currency_id, e.status, " +
+                   "COUNT(*), SUM(e.amount_usd) " +
+                   "FROM (SELECT expense_date, user_id, department_id, expense_category_id, currency_id, status, amount_usd " +
+                   "FROM expenses " +
+                   "UNION ALL " +
+                   "SELECT expense_date, user_id, department_id, expense_category_id, currency_id, status, amount_usd " +
+                   "FROM expenses_archive) e " +
+                   "GROUP BY e.expense_date, e.user_id, e.expense_category_id, e.currency_id, e.status",
+           nativeQuery = true)
+    int insertAggregatedFromExpenses();
+
+    /**
+     * Sums the USD amount of expenses within a date range grouped by employee name.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @param status the status to exclude
+     * @return one row per employee name with its USD total
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.NamedExpenseTotal(u.name, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r JOIN User u ON u.id = r.id.userId " +
+           "WHERE r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != :status " +
+           "GROUP BY u.name " +
+           "HAVING SUM(r.expenseCount) > 0")
+    List<NamedExpenseTotal> sumUsdGroupedByEmployee(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") ExpenseStatus status
+    );
+
+    /**
+     * Sums the USD amount of expenses within a date range grouped by category name.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @param status the status to exclude
+     * @return one row per category name with its USD total
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.NamedExpenseTotal(ec.name, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r JOIN ExpenseCategory ec ON ec.id = r.id.categoryId " +
+           "WHERE r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != :status " +
+           "GROUP BY ec.name " +
+           "HAVING SUM(r.expenseCount) > 0")
+    List<NamedExpenseTotal> sumUsdGroupedByCategory(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") ExpenseStatus status
+    );
+
+    /**
+     * Sums the USD amount of expenses within a date range grouped by the submitter's department.
+     * Expenses from users without a department are not included.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @param status the status to exclude
+     * @return one row per department with its USD total
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.DepartmentExpenseTotal(r.departmentId, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r " +
+           "WHERE r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != :status " +
+           "AND r.departmentId IS NOT NULL " +
+           "GROUP BY r.departmentId")
+    List<DepartmentExpenseTotal> sumUsdGroupedByDepartment(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") ExpenseStatus status
+    );
+
+    /**
+     * Streams the USD amount of expenses within a date range grouped by employee name,
+     * ordered by total descending (ties by name). Intended for CSV exports: the caller
+     * must consume and close the stream inside a transaction.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @param status the status to exclude
+     * @return stream of employee totals backed by a database cursor
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.NamedExpenseTotal(u.name, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r JOIN User u ON u.id = r.id.userId " +
+           "WHERE r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != :status " +
+           "GROUP BY u.name " +
+           "HAVING SUM(r.expenseCount) > 0 " +
+           "ORDER BY SUM(r.amountUsd) DESC, u.name")
+    Stream<NamedExpenseTotal> streamUsdGroupedByEmployee(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") ExpenseStatus status
+    );
+
+    /**
+     * Streams the USD amount of expenses within a date range grouped by category name,
+     * ordered by total descending (ties by name). Intended for CSV exports: the caller
+     * must consume and close the stream inside a transaction.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @param status the status to exclude
+     * @return stream of category totals backed by a database cursor
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.NamedExpenseTotal(ec.name, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r JOIN ExpenseCategory ec ON ec.id = r.id.categoryId " +
+           "WHERE r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != :status " +
+           "GROUP BY ec.name " +
+           "HAVING SUM(r.expenseCount) > 0 " +
+           "ORDER BY SUM(r.amountUsd) DESC, ec.name")
+    Stream<NamedExpenseTotal> streamUsdGroupedByCategory(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") ExpenseStatus status
+    );
+
+    /**
+     * Calculates the department-daily, department-monthly, category-daily and category-monthly
+     * USD totals a new expense is checked against, in a single round trip.
+     * Only the rollup rows of the expense month that belong to the department or the
+     * category are read. Excludes REJECTED expenses from all totals.
+     *
+     * @param departmentId the department of the expense owner (nullable, giving zero department totals)
+     * @param categoryId the expense category ID
+     * @param date the expense date
+     * @param monthStart first day of the expense month
+     * @param monthEnd last day of the expense month
+     * @return the four totals, each 0 if no expenses found
+     */
+    @Query(value = "SELECT " +
+                   "COALESCE(SUM(r.amount_usd) FILTER (WHERE r.department_id = :departmentId AND r.expense_date = :date), 0) AS \"departmentDay\", " +
+                   "COALESCE(SUM(r.amount_usd) FILTER (WHERE r.department_id = :departmentId), 0) AS \"departmentMonth\", " +
+                   "COALESCE(SUM(r.amount_usd) FILTER (WHERE r.category_id = :categoryId AND r.expense_date = :date), 0) AS \"categoryDay\", " +
+                   "COALESCE(SUM(r.amount_usd) FILTER (WHERE r.category_id = :categoryId), 0) AS \"categoryMonth\" " +
+                   "FROM expense_daily_rollup r " +
+                   "WHERE r.expense_date BETWEEN :monthStart AND :monthEnd " +
+                   "AND r.status <> 'REJECTED' " +
+                   "AND (r.department_id = :departmentId OR r.category_id = :categoryId)",
+           nativeQuery = true)
+    BudgetTotalsRow sumBudgetTotals(
+            @Param("departmentId") Long departmentId,
+            @Param("categoryId") Long categoryId,
+            @Param("date") LocalDate date,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("monthEnd") LocalDate monthEnd
+    );
+
+    /**
+     * Sums the non-rejected USD amounts of one department per day within a date range.
+     * Used to check a bulk submission against its budgets in one pass.
+     *
+     * @param departmentId the department ID
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @return one row per day with expenses
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.ScopedDailyTotal(" +
+           "r.departmentId, r.id.expenseDate, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r " +
+           "WHERE r.departmentId = :departmentId " +
+           "AND r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != 'REJECTED' " +
+           "GROUP BY r.departmentId, r.id.expenseDate")
+    List<ScopedDailyTotal> sumUsdGroupedByDateForDepartment(
+            @Param("departmentId") Long departmentId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Sums the non-rejected USD amounts of the given categories per category and day within
+     * a date range. Used to check a bulk submission against its budgets in one pass.
+     *
+     * @param categoryIds the category IDs
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate the end date of the range (inclusive)
+     * @return one row per category and day with expenses
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.ScopedDailyTotal(" +
+           "r.id.categoryId, r.id.expenseDate, SUM(r.amountUsd)) " +
+           "FROM ExpenseDailyRollup r " +
+           "WHERE r.id.categoryId IN :categoryIds " +
+           "AND r.id.expenseDate BETWEEN :startDate AND :endDate " +
+           "AND r.id.status != 'REJECTED' " +
+           "GROUP BY r.id.categoryId, r.id.expenseDate")
+    List<ScopedDailyTotal> sumUsdGroupedByCategoryAndDateBetween(
+            @Param("categoryIds") Collection<Long> categoryIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+}
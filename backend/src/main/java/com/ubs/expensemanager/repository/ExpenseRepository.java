@@ -1,16 +1,26 @@
 package com.ubs.expensemanager.repository;
 
+import com.ubs.expensemanager.dto.response.LastExpenseDto;
 import com.ubs.expensemanager.model.Expense;
 import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.repository.projection.ArchivedExpenseRow;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotalRow;
+import com.ubs.expensemanager.repository.projection.ExpenseAuditRow;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotalRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository responsible for data access operations related to {@link Expense}.
@@ -25,265 +35,258 @@ public interface ExpenseRepository extends
         JpaSpecificationExecutor<Expense> {
 
     /**
-     * Calculates the total expense amount for a user in a specific category on a specific date.
-     * Excludes REJECTED expenses from the calculation.
-     * All amounts are converted to USD before summing.
-     *
-     * @param userId the user ID
-     * @param categoryId the expense category ID
-     * @param date the expense date
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * Native select of the revisions of an expense with their revision info and the current
+     * user, category and currency, as {@link ExpenseAuditRow}. Outer joins keep the
+     * revisions of deletions, which carry no data.
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND e.expenseCategory.id = :categoryId " +
-           "AND e.expenseDate = :date " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByUserAndCategoryAndDate(
-            @Param("userId") Long userId,
-            @Param("categoryId") Long categoryId,
-            @Param("date") LocalDate date
-    );
+    String AUDIT_SELECT =
+            "SELECT a.id AS \"id\", a.amount AS \"amount\", a.description AS \"description\", " +
+            "a.expense_date AS \"expenseDate\", a.user_id AS \"userId\", u.name AS \"userName\", " +
+            "a.expense_category_id AS \"expenseCategoryId\", c.name AS \"expenseCategoryName\", " +
+            "cur.name AS \"currencyName\", cur.exchange_rate AS \"exchangeRate\", " +
+            "a.receipt_url AS \"receiptUrl\", a.status AS \"status\", " +
+            "a.rev AS \"revisionNumber\", a.revtype AS \"revisionType\", " +
+            "r.revtstmp AS \"revisionTimestamp\", r.modified_by AS \"revisionUserEmail\" " +
+            "FROM expenses_aud a " +
+            "JOIN revinfo r ON r.rev = a.rev " +
+            "LEFT JOIN users u ON u.id = a.user_id " +
+            "LEFT JOIN expense_categories c ON c.id = a.expense_category_id " +
+            "LEFT JOIN currencies cur ON cur.id = a.currency_id " +
+            "WHERE a.id = :id AND a.rev > :afterRevision AND a.rev <= :toRevision ";
 
     /**
-     * Calculates the total expense amount for a user in a specific category on a specific date,
-     * excluding a specific expense.
-     * Excludes REJECTED expenses and the specified expense from the calculation.
-     * All amounts are converted to USD before summing.
-     *
-     * @param categoryId the expense category ID
-     * @param date the expense date
-     * @param expenseId the expense ID to exclude from calculation
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * Native common table expression {@code as_of} of the expenses dated within
+     * {@code :startDate} and {@code :endDate} as they were at {@code :asOf} (epoch
+     * milliseconds), rebuilt from {@code expenses_aud} in one pass: the latest revision of
+     * each expense at that instant is picked by {@code MAX(rev)} per ID, and expenses that
+     * were deleted or had status {@code :status} then are left out. Only expenses with a
+     * revision dated within the range are read, through {@code idx_expenses_aud_date_id}.
+     * Revisions written before USD amounts and departments were stored on expenses fall
+     * back to the current exchange rate and the owner's current department.
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.expenseCategory.id = :categoryId " +
-           "AND e.expenseDate = :date " +
-           "AND e.id != :expenseId " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByCategoryAndDateExcludingExpense(
-            @Param("categoryId") Long categoryId,
-            @Param("date") LocalDate date,
-            @Param("expenseId") Long expenseId
-    );
+    String AS_OF_EXPENSES =
+            "WITH latest AS (" +
+            "SELECT a.id, MAX(a.rev) AS rev FROM expenses_aud a " +
+            "JOIN revinfo r ON r.rev = a.rev " +
+            "WHERE r.revtstmp <= :asOf " +
+            "AND a.id IN (SELECT d.id FROM expenses_aud d WHERE d.expense_date BETWEEN :startDate AND :endDate) " +
+            "GROUP BY a.id), " +
+            "as_of AS (" +
+            "SELECT e.user_id, e.expense_category_id, " +
+            "COALESCE(e.department_id, u.department_id) AS department_id, " +
+            "COALESCE(e.amount_usd, ROUND(e.amount / cur.exchange_rate, 2)) AS amount_usd " +
+            "FROM latest l " +
+            "JOIN expenses_aud e ON e.id = l.id AND e.rev = l.rev " +
+            "JOIN users u ON u.id = e.user_id " +
+            "LEFT JOIN currencies cur ON cur.id = e.currency_id " +
+            "WHERE e.revtype <> 2 AND e.status <> :status " +
+            "AND e.expense_date BETWEEN :startDate AND :endDate) ";
 
     /**
-     * Calculates the total expense amount for a user in a specific category within a date range.
-     * Excludes REJECTED expenses from the calculation.
-     * All amounts are converted to USD before summing.
+     * Finds an expense with its owner, the owner's department, its category and the
+     * currencies of all three, i.e. everything its detail view, updates and the approval
+     * workflow read, in one query. Without an {@code expense_date} bound this cannot be
+     * pruned to one monthly partition, and probes the primary key index of each of them.
      *
-     * @param userId the user ID
-     * @param categoryId the expense category ID
-     * @param startDate the start date of the range (inclusive)
-     * @param endDate the end date of the range (inclusive)
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param id the expense ID
+     * @return the expense, if found
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.id = :userId " +
-           "AND e.expenseCategory.id = :categoryId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByUserAndCategoryAndDateRange(
-            @Param("userId") Long userId,
-            @Param("categoryId") Long categoryId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
+    @Override
+    @EntityGraph(Expense.DETAIL_GRAPH)
+    Optional<Expense> findById(Long id);
 
     /**
-     * Calculates the total expense amount for a user in a specific category within a date range,
-     * excluding a specific expense.
-     * Excludes REJECTED expenses and the specified expense from the calculation.
-     * All amounts are converted to USD before summing.
+     * Finds an expense moved to {@code expenses_archive}, with the names its response shows.
      *
-     * @param categoryId the expense category ID
-     * @param startDate the start date of the range (inclusive)
-     * @param endDate the end date of the range (inclusive)
-     * @param expenseId the expense ID to exclude from calculation
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param id the expense ID
+     * @return the archived expense, if found
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.expenseCategory.id = :categoryId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
-           "AND e.id != :expenseId " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByCategoryAndDateRangeExcludingExpense(
-            @Param("categoryId") Long categoryId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("expenseId") Long expenseId
-    );
+    @Query(value = "SELECT e.id AS \"id\", e.amount AS \"amount\", e.description AS \"description\", " +
+                   "e.expense_date AS \"expenseDate\", u.id AS \"userId\", u.name AS \"userName\", " +
+                   "u.email AS \"userEmail\", c.id AS \"expenseCategoryId\", c.name AS \"expenseCategoryName\", " +
+                   "cur.name AS \"currencyName\", cur.exchange_rate AS \"exchangeRate\", " +
+                   "e.receipt_url AS \"receiptUrl\", e.status AS \"status\", " +
+                   "e.created_at AS \"createdAt\", e.updated_at AS \"updatedAt\" " +
+                   "FROM expenses_archive e " +
+                   "JOIN users u ON u.id = e.user_id " +
+                   "JOIN expense_categories c ON c.id = e.expense_category_id " +
+                   "JOIN currencies cur ON cur.id = e.currency_id " +
+                   "WHERE e.id = :id",
+           nativeQuery = true)
+    Optional<ArchivedExpenseRow> findArchivedById(@Param("id") Long id);
 
     /**
-     * Calculates the total expense amount for a department on a specific date.
-     * Excludes REJECTED expenses from the calculation.
-     * All amounts are converted to USD before summing.
-     *
-     * @param departmentId the department ID
-     * @param date the expense date
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param id the expense ID
+     * @return whether the expense has been moved to {@code expenses_archive}
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.department.id = :departmentId " +
-           "AND e.expenseDate = :date " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByDepartmentAndDate(
-            @Param("departmentId") Long departmentId,
-            @Param("date") LocalDate date
-    );
+    @Query(value = "SELECT COUNT(*) > 0 FROM expenses_archive WHERE id = :id", nativeQuery = true)
+    boolean existsArchivedById(@Param("id") Long id);
 
     /**
-     * Calculates the total expense amount for a department on a specific date,
-     * excluding a specific expense.
-     * Excludes REJECTED expenses and the specified expense from the calculation.
-     * All amounts are converted to USD before summing.
+     * Finds up to {@code limit} revisions of an expense in a revision range, oldest first,
+     * in one statement.
      *
-     * @param departmentId the department ID
-     * @param date the expense date
-     * @param expenseId the expense ID to exclude from calculation
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param id the expense ID
+     * @param afterRevision the revision after which to start (exclusive)
+     * @param toRevision the last revision to include
+     * @param limit the maximum number of revisions
+     * @return the revisions
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.department.id = :departmentId " +
-           "AND e.expenseDate = :date " +
-           "AND e.id != :expenseId " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByDepartmentAndDateExcludingExpense(
-            @Param("departmentId") Long departmentId,
-            @Param("date") LocalDate date,
-            @Param("expenseId") Long expenseId
+    @Query(value = AUDIT_SELECT + "ORDER BY a.rev LIMIT :limit", nativeQuery = true)
+    List<ExpenseAuditRow> findAuditRevisions(
+            @Param("id") Long id,
+            @Param("afterRevision") int afterRevision,
+            @Param("toRevision") int toRevision,
+            @Param("limit") int limit
     );
 
     /**
-     * Calculates the total expense amount for a department within a date range.
-     * Excludes REJECTED expenses from the calculation.
-     * All amounts are converted to USD before summing.
+     * Sums the USD amount of expenses within a date range, as they were at a past instant,
+     * grouped by employee name, highest total first. See {@link #AS_OF_EXPENSES}.
      *
-     * @param departmentId the department ID
      * @param startDate the start date of the range (inclusive)
      * @param endDate the end date of the range (inclusive)
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param status the status to exclude
+     * @param asOf the instant, in epoch milliseconds as Envers stores it
+     * @return one row per employee name with its USD total
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.department.id = :departmentId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByDepartmentAndDateRange(
-            @Param("departmentId") Long departmentId,
+    @Query(value = AS_OF_EXPENSES +
+                   "SELECT u.name AS \"name\", SUM(x.amount_usd) AS \"total\" " +
+                   "FROM as_of x JOIN users u ON u.id = x.user_id " +
+                   "GROUP BY u.name ORDER BY 2 DESC, 1",
+           nativeQuery = true)
+    List<NamedExpenseTotalRow> sumUsdAsOfGroupedByEmployee(
             @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("endDate") LocalDate endDate,
+            @Param("status") String status,
+            @Param("asOf") long asOf
     );
 
     /**
-     * Calculates the total expense amount for a department within a date range,
-     * excluding a specific expense.
-     * Excludes REJECTED expenses and the specified expense from the calculation.
-     * All amounts are converted to USD before summing.
+     * Sums the USD amount of expenses within a date range, as they were at a past instant,
+     * grouped by category name, highest total first. See {@link #AS_OF_EXPENSES}.
      *
-     * @param departmentId the department ID
      * @param startDate the start date of the range (inclusive)
      * @param endDate the end date of the range (inclusive)
-     * @param expenseId the expense ID to exclude from calculation
-     * @return the sum of all expense amounts in USD, or 0 if no expenses found
+     * @param status the status to exclude
+     * @param asOf the instant, in epoch milliseconds as Envers stores it
+     * @return one row per category name with its USD total
      */
-    @Query("SELECT COALESCE(ROUND(SUM(e.amount / e.currency.exchangeRate), 2), 0) FROM Expense e " +
-           "WHERE e.user.department.id = :departmentId " +
-           "AND e.expenseDate BETWEEN :startDate AND :endDate " +
-           "AND e.id != :expenseId " +
-           "AND e.status != 'REJECTED'")
-    BigDecimal sumAmountByDepartmentAndDateRangeExcludingExpense(
-            @Param("departmentId") Long departmentId,
+    @Query(value = AS_OF_EXPENSES +
+                   "SELECT c.name AS \"name\", SUM(x.amount_usd) AS \"total\" " +
+                   "FROM as_of x JOIN expense_categories c ON c.id = x.expense_category_id " +
+                   "GROUP BY c.name ORDER BY 2 DESC, 1",
+           nativeQuery = true)
+    List<NamedExpenseTotalRow> sumUsdAsOfGroupedByCategory(
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
-            @Param("expenseId") Long expenseId
+            @Param("status") String status,
+            @Param("asOf") long asOf
     );
 
     /**
-     * Finds all expenses within a date range excluding REJECTED expenses.
-     * Used for generating reports.
+     * Sums the USD amount of expenses within a date range, as they were at a past instant,
+     * grouped by department. Expenses without a department are not included. See
+     * {@link #AS_OF_EXPENSES}.
      *
      * @param startDate the start date of the range (inclusive)
      * @param endDate the end date of the range (inclusive)
-     * @return list of expenses within the date range
+     * @param status the status to exclude
+     * @param asOf the instant, in epoch milliseconds as Envers stores it
+     * @return one row per department with its USD total
      */
-    List<Expense> findAllByExpenseDateBetweenAndStatusNot(
-            LocalDate startDate,
-            LocalDate endDate,
-            ExpenseStatus status
+    @Query(value = AS_OF_EXPENSES +
+                   "SELECT x.department_id AS \"departmentId\", SUM(x.amount_usd) AS \"total\" " +
+                   "FROM as_of x WHERE x.department_id IS NOT NULL " +
+                   "GROUP BY x.department_id",
+           nativeQuery = true)
+    List<DepartmentExpenseTotalRow> sumUsdAsOfGroupedByDepartment(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") String status,
+            @Param("asOf") long asOf
     );
 
     /**
-     * Finds all expenses for a specific user excluding REJECTED expenses.
-     * Used for personal expense reports.
+     * Finds a page of expenses with the associations the list view renders fetched in the
+     * same query. Date filters and keyset bounds on {@code expenseDate} restrict the scan to
+     * the monthly partitions they cover.
      *
-     * @param userId the user ID
-     * @return list of user's expenses
+     * @param spec the filters
+     * @param pageable the pagination information
+     * @return page of expenses
      */
-    List<Expense> findAllByUserIdAndStatusNot(Long userId, ExpenseStatus status);
+    @Override
+    @EntityGraph(Expense.LIST_GRAPH)
+    Page<Expense> findAll(Specification<Expense> spec, Pageable pageable);
 
     /**
      * Finds the most recent expenses for a specific user, excluding REJECTED expenses.
      * Orders by expense date descending and then by ID descending.
+     * Returns DTOs directly so no {@link Expense} entities are loaded.
      *
      * @param userId the user ID
      * @param status the status to exclude
-     * @param limit the maximum number of results
+     * @param pageable the maximum number of results
      * @return list of recent expenses
      */
-    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.status != :status " +
+    @Query("SELECT new com.ubs.expensemanager.dto.response.LastExpenseDto(e.description, e.expenseDate, e.status) " +
+           "FROM Expense e WHERE e.user.id = :userId AND e.status != :status " +
            "ORDER BY e.expenseDate DESC, e.id DESC")
-    List<Expense> findTopByUserIdAndStatusNotOrderByExpenseDateDesc(
+    List<LastExpenseDto> findLastExpensesByUserIdAndStatusNot(
             @Param("userId") Long userId,
             @Param("status") ExpenseStatus status,
-            @Param("limit") org.springframework.data.domain.Pageable pageable
+            Pageable pageable
     );
 
     /**
-     * Finds all expenses for a specific user within a date range, excluding REJECTED expenses.
+     * Moves the stored department of all expenses of a user to their new department.
      *
      * @param userId the user ID
-     * @param startDate the start date of the range (inclusive)
-     * @param endDate the end date of the range (inclusive)
-     * @param status the status to exclude
-     * @return list of user's expenses within the date range
+     * @param departmentId the new department ID (nullable)
+     * @return number of expenses updated
      */
-    List<Expense> findAllByUserIdAndExpenseDateBetweenAndStatusNot(
-            Long userId,
-            LocalDate startDate,
-            LocalDate endDate,
-            ExpenseStatus status
-    );
+    @Modifying
+    @Query("UPDATE Expense e SET e.departmentId = :departmentId WHERE e.user.id = :userId")
+    int reassignDepartment(@Param("userId") Long userId, @Param("departmentId") Long departmentId);
 
     /**
-     * Finds all expenses for a specific user with a specific status.
+     * Moves the stored department of all archived expenses of a user to their new
+     * department, as {@link #reassignDepartment} does for the current ones, so the rollup
+     * rows of archived days keep matching the expenses they are rebuilt from.
      *
      * @param userId the user ID
-     * @param status the expense status
-     * @return list of user's expenses with the specified status
+     * @param departmentId the new department ID (nullable)
+     * @return number of archived expenses updated
      */
-    List<Expense> findAllByUserIdAndStatus(Long userId, ExpenseStatus status);
+    @Modifying
+    @Query(value = "UPDATE expenses_archive SET department_id = :departmentId WHERE user_id = :userId",
+           nativeQuery = true)
+    int reassignArchivedDepartment(@Param("userId") Long userId, @Param("departmentId") Long departmentId);
 
     /**
-     * Finds all expenses excluding a specific status.
-     * Used for generating overall reports.
+     * Finds all expenses for a specific user with a specific status.
      *
-     * @param status the status to exclude
-     * @return list of all expenses excluding the specified status
+     * @param userId the user ID
+     * @param status the expense status
+     * @return list of user's expenses with the specified status
      */
-    List<Expense> findAllByStatusNot(ExpenseStatus status);
+    List<Expense> findAllByUserIdAndStatus(Long userId, ExpenseStatus status);
 
     /**
      * Finds the most recent expenses, excluding a specific status.
      * Orders by expense date descending and then by ID descending.
+     * Returns DTOs directly so no {@link Expense} entities are loaded.
      *
      * @param status the status to exclude
      * @param pageable the pagination information
      * @return list of recent expenses
      */
-    @Query("SELECT e FROM Expense e WHERE e.status != :status " +
+    @Query("SELECT new com.ubs.expensemanager.dto.response.LastExpenseDto(e.description, e.expenseDate, e.status) " +
+           "FROM Expense e WHERE e.status != :status " +
            "ORDER BY e.expenseDate DESC, e.id DESC")
-    List<Expense> findTopByStatusNotOrderByExpenseDateDesc(
+    List<LastExpenseDto> findLastExpensesByStatusNot(
             @Param("status") ExpenseStatus status,
-            org.springframework.data.domain.Pageable pageable
+            Pageable pageable
     );
 }
@@ -0,0 +1,139 @@
+package com.ubs.expensemanager.repository;
+
+import com.ubs.expensemanager.model.ExpenseSummaryCounter;
+import com.ubs.expensemanager.model.ExpenseSummaryCounterId;
+import com.ubs.expensemanager.repository.projection.ExpenseSummaryTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Repository responsible for data access operations related to {@link ExpenseSummaryCounter}.
+ *
+ * <p>Provides the incremental update statements used by the expense write paths and the
+ * aggregate query used by the expense summary.</p>
+ */
+@Repository
+public interface ExpenseSummaryCounterRepository extends JpaRepository<ExpenseSummaryCounter, ExpenseSummaryCounterId> {
+
+    /**
+     * Native subquery over the non-rejected rollup rows with their month start, aliased as {@code r} by callers.
+     */
+    String NON_REJECTED_ROLLUP_BY_MONTH =
+            "SELECT user_id, CAST(DATE_TRUNC('month', expense_date) AS DATE) AS month_start, " +
+            "status, expense_count, amount_usd FROM expense_daily_rollup WHERE status <> 'REJECTED'";
+
+    /**
+     * Native select list computing the counter columns from rows of {@link #NON_REJECTED_ROLLUP_BY_MONTH}.
+     */
+    String SUMMARY_COLUMNS =
+            "SUM(r.amount_usd), " +
+            "SUM(CASE WHEN r.status = 'APPROVED_BY_FINANCE' THEN r.expense_count ELSE 0 END), " +
+            "SUM(CASE WHEN r.status IN ('PENDING', 'APPROVED_BY_MANAGER') THEN r.expense_count ELSE 0 END) ";
+
+    /**
+     * Adds deltas to a counter row, creating it on first use, with Postgres
+     * {@code INSERT ... ON CONFLICT}.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO expense_summary_counters " +
+                   "(user_id, month_start, amount_usd, approved_count, pending_count) " +
+                   "VALUES (:userId, :monthStart, :amountUsdDelta, :approvedDelta, :pendingDelta) " +
+                   "ON CONFLICT (user_id, month_start) DO UPDATE SET " +
+                   "amount_usd = expense_summary_counters.amount_usd + EXCLUDED.amount_usd, " +
+                   "approved_count = expense_summary_counters.approved_count + EXCLUDED.approved_count, " +
+                   "pending_count = expense_summary_counters.pending_count + EXCLUDED.pending_count",
+           nativeQuery = true)
+    void upsertRow(
+            @Param("userId") Long userId,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("amountUsdDelta") BigDecimal amountUsdDelta,
+            @Param("approvedDelta") long approvedDelta,
+            @Param("pendingDelta") long pendingDelta
+    );
+
+    /**
+     * Same as {@link #upsertRow} with {@code MERGE}, for H2.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO expense_summary_counters c " +
+                   "USING (SELECT CAST(:userId AS BIGINT) AS user_id, CAST(:monthStart AS DATE) AS month_start, " +
+                   "CAST(:amountUsdDelta AS DECIMAL(19,2)) AS amount_usd, CAST(:approvedDelta AS BIGINT) AS approved_count, " +
+                   "CAST(:pendingDelta AS BIGINT) AS pending_count) d " +
+                   "ON c.user_id = d.user_id AND c.month_start = d.month_start " +
+                   "WHEN MATCHED THEN UPDATE SET amount_usd = c.amount_usd + d.amount_usd, " +
+                   "approved_count = c.approved_count + d.approved_count, " +
+                   "pending_count = c.pending_count + d.pending_count " +
+                   "WHEN NOT MATCHED THEN INSERT (user_id, month_start, amount_usd, approved_count, pending_count) " +
+                   "VALUES (d.user_id, d.month_start, d.amount_usd, d.approved_count, d.pending_count)",
+           nativeQuery = true)
+    void mergeRow(
+            @Param("userId") Long userId,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("amountUsdDelta") BigDecimal amountUsdDelta,
+            @Param("approvedDelta") long approvedDelta,
+            @Param("pendingDelta") long pendingDelta
+    );
+
+    /**
+     * Deletes every counter row. Used before a full rebuild.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ExpenseSummaryCounter")
+    int deleteAllRows();
+
+    /**
+     * Recomputes the counter rows from the {@code expense_daily_rollup} table.
+     * Uses the same statement as the backfill in the migration that created the table.
+     *
+     * @return number of rows inserted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO expense_summary_counters " +
+                   "(user_id, month_start, amount_usd, approved_count, pending_count) " +
+                   "SELECT r.user_id, r.month_start, " + SUMMARY_COLUMNS +
+                   "FROM (" + NON_REJECTED_ROLLUP_BY_MONTH + ") r " +
+                   "GROUP BY r.user_id, r.month_start",
+           nativeQuery = true)
+    int insertAggregatedFromRollup();
+
+    /**
+     * Reads the summary totals of a user. Fields are null when no row exists.
+     *
+     * @param userId the user ID
+     * @param monthStart first day of the month whose total is returned as {@code monthUsd}
+     * @return the summary totals
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.ExpenseSummaryTotals(" +
+           "SUM(c.amountUsd), SUM(c.approvedCount), SUM(c.pendingCount), " +
+           "SUM(CASE WHEN c.id.monthStart = :monthStart THEN c.amountUsd END)) " +
+           "FROM ExpenseSummaryCounter c " +
+           "WHERE c.id.userId = :userId")
+    ExpenseSummaryTotals sumTotals(
+            @Param("userId") Long userId,
+            @Param("monthStart") LocalDate monthStart
+    );
+
+    /**
+     * Reads the summary totals of all users by summing the rows of every user.
+     * Fields are null when no row exists.
+     *
+     * @param monthStart first day of the month whose total is returned as {@code monthUsd}
+     * @return the summary totals
+     */
+    @Query("SELECT new com.ubs.expensemanager.repository.projection.ExpenseSummaryTotals(" +
+           "SUM(c.amountUsd), SUM(c.approvedCount), SUM(c.pendingCount), " +
+           "SUM(CASE WHEN c.id.monthStart = :monthStart THEN c.amountUsd END)) " +
+           "FROM ExpenseSummaryCounter c")
+    ExpenseSummaryTotals sumTotalsOfAllUsers(@Param("monthStart") LocalDate monthStart);
+}
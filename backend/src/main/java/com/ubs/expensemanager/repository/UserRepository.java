@@ -2,6 +2,10 @@ package com.ubs.expensemanager.repository;
 
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
@@ -14,8 +18,20 @@ public interface UserRepository extends
         JpaRepository<User, Long>,
         JpaSpecificationExecutor<User>
 {
+    /**
+     * Loads a user on login with the department and manager its response shows.
+     */
+    @EntityGraph(attributePaths = {"department", "manager"})
     Optional<User> findByEmail(String email);
 
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    Optional<User> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    Page<User> findAll(Specification<User> spec, Pageable pageable);
+
     Boolean existsByEmail(String email);
     Boolean existsByEmailAndIdNot(String email, Long id);
     Boolean existsByManagerAndActiveTrue(User manager);
@@ -0,0 +1,42 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Native query projection of an expense in {@code expenses_archive}, with the names its
+ * response shows. Getter names match the quoted column aliases of the query.
+ */
+public interface ArchivedExpenseRow {
+
+    Long getId();
+
+    BigDecimal getAmount();
+
+    String getDescription();
+
+    LocalDate getExpenseDate();
+
+    Long getUserId();
+
+    String getUserName();
+
+    String getUserEmail();
+
+    Long getExpenseCategoryId();
+
+    String getExpenseCategoryName();
+
+    String getCurrencyName();
+
+    BigDecimal getExchangeRate();
+
+    String getReceiptUrl();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
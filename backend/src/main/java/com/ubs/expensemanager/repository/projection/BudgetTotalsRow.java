@@ -0,0 +1,18 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Native query projection holding the four USD totals a new expense is checked against.
+ * Getter names match the quoted column aliases of the query.
+ */
+public interface BudgetTotalsRow {
+
+    BigDecimal getDepartmentDay();
+
+    BigDecimal getDepartmentMonth();
+
+    BigDecimal getCategoryDay();
+
+    BigDecimal getCategoryMonth();
+}
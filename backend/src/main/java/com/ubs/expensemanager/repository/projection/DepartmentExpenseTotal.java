@@ -0,0 +1,13 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row holding the USD total of expenses submitted by the users
+ * of a department.
+ *
+ * @param departmentId the department identifier
+ * @param total        sum of the expense amounts converted to USD
+ */
+public record DepartmentExpenseTotal(Long departmentId, BigDecimal total) {
+}
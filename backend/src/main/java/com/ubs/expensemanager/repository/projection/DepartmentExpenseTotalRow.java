@@ -0,0 +1,14 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Native query counterpart of {@link DepartmentExpenseTotal}. Getter names match the
+ * quoted column aliases of the query.
+ */
+public interface DepartmentExpenseTotalRow {
+
+    Long getDepartmentId();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,44 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Native query projection of one revision of an expense from {@code expenses_aud}, with
+ * its revision info and the current names of its user, category and currency. Getter names
+ * match the quoted column aliases of the query.
+ */
+public interface ExpenseAuditRow {
+
+    Long getId();
+
+    BigDecimal getAmount();
+
+    String getDescription();
+
+    LocalDate getExpenseDate();
+
+    Long getUserId();
+
+    String getUserName();
+
+    Long getExpenseCategoryId();
+
+    String getExpenseCategoryName();
+
+    String getCurrencyName();
+
+    BigDecimal getExchangeRate();
+
+    String getReceiptUrl();
+
+    String getStatus();
+
+    Integer getRevisionNumber();
+
+    Short getRevisionType();
+
+    Long getRevisionTimestamp();
+
+    String getRevisionUserEmail();
+}
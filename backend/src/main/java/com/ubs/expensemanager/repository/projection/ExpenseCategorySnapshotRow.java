@@ -0,0 +1,23 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Native query projection of an expense category at one revision of
+ * {@code expense_categories_aud}, with its currency at that revision. Getter names match
+ * the quoted column aliases of the query.
+ */
+public interface ExpenseCategorySnapshotRow {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getDailyBudget();
+
+    BigDecimal getMonthlyBudget();
+
+    String getCurrencyName();
+
+    BigDecimal getExchangeRate();
+}
@@ -0,0 +1,14 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Expense summary totals read from the summary counters.
+ *
+ * @param totalUsd USD total of all non-rejected expenses
+ * @param approvedCount number of APPROVED_BY_FINANCE expenses
+ * @param pendingCount number of PENDING and APPROVED_BY_MANAGER expenses
+ * @param monthUsd USD total of the non-rejected expenses of the requested month
+ */
+public record ExpenseSummaryTotals(BigDecimal totalUsd, Long approvedCount, Long pendingCount, BigDecimal monthUsd) {
+}
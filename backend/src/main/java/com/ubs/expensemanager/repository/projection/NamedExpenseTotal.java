@@ -0,0 +1,16 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregate row holding the USD total of expenses grouped by a name
+ * (employee name or category name).
+ *
+ * <p>Built directly by JPQL constructor expressions so reports do not need
+ * to load {@code Expense} entities.</p>
+ *
+ * @param name  the grouping key
+ * @param total sum of the expense amounts converted to USD
+ */
+public record NamedExpenseTotal(String name, BigDecimal total) {
+}
@@ -0,0 +1,15 @@
+package com.ubs.expensemanager.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate row holding the USD total of expenses for one budget scope
+ * (department or category) on one day.
+ *
+ * @param scopeId the department or category ID
+ * @param date    the expense date
+ * @param total   sum of the expense amounts converted to USD
+ */
+public record ScopedDailyTotal(Long scopeId, LocalDate date, BigDecimal total) {
+}
@@ -0,0 +1,22 @@
+package com.ubs.expensemanager.repository.specification;
+
+import com.ubs.expensemanager.model.Alert;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * JPA Specifications for filtering Alert entities.
+ */
+public class AlertSpecifications {
+
+    /**
+     * Creates a keyset specification matching the alerts that follow a given one in
+     * {@code id} order.
+     *
+     * @param id the ID of the last alert of the previous page, or {@code null} to start from the first
+     * @return a specification that matches alerts with a greater ID, or {@code null} if id is {@code null}
+     */
+    public static Specification<Alert> withIdAfter(Long id) {
+        return (root, query, cb) ->
+                id == null ? null : cb.greaterThan(root.get("id"), id);
+    }
+}
@@ -68,4 +68,26 @@ public class ExpenseSpecifications {
         return (root, query, cb) ->
                 userId == null ? null : cb.equal(root.get("user").get("id"), userId);
     }
+
+    /**
+     * Creates a keyset specification matching the expenses that follow a given one in
+     * {@code expenseDate DESC, id DESC} order.
+     *
+     * <p>The redundant {@code expenseDate <= date} bound lets the database start the scan of
+     * the {@code (expense_date DESC, id DESC)} index at the cursor instead of filtering
+     * from its beginning.</p>
+     *
+     * @param expenseDate the expense date of the last expense of the previous page
+     * @param id the ID of the last expense of the previous page
+     * @return a specification that matches expenses after the given one
+     */
+    public static Specification<Expense> before(LocalDate expenseDate, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("expenseDate"), expenseDate),
+                cb.or(
+                        cb.lessThan(root.get("expenseDate"), expenseDate),
+                        cb.lessThan(root.get("id"), id)
+                )
+        );
+    }
 }
@@ -0,0 +1,122 @@
+package com.ubs.expensemanager.scheduler;
+
+import com.ubs.expensemanager.model.ExpenseStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Moves closed expenses older than {@code app.archive.horizon-months} and their alerts to
+ * {@code expenses_archive} and {@code alerts_archive}, out of the indexes of the write path.
+ *
+ * <p>Only expenses in a final status move, so no workflow step ever finds its expense in
+ * the archive. Rows move in chunks of {@code app.archive.chunk-size} expenses per
+ * transaction, which bounds how long their locks are held. Chunks are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so instances running the job at the same time split the
+ * work, and an expense being changed is left for the next run.</p>
+ *
+ * <p>The daily rollup keeps the archived expenses, so budgets and reports that read it
+ * are unchanged; {@code ExpenseService#findById} falls back to the archive.</p>
+ */
+@Component
+@Slf4j
+public class ExpenseArchiveScheduler {
+
+    private static final List<String> FINAL_STATUSES =
+            List.of(ExpenseStatus.APPROVED_BY_FINANCE.name(), ExpenseStatus.REJECTED.name());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final boolean enabled;
+    private final int horizonMonths;
+    private final int chunkSize;
+
+    public ExpenseArchiveScheduler(NamedParameterJdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.archive.enabled:true}") boolean enabled,
+                                   @Value("${app.archive.horizon-months:24}") int horizonMonths,
+                                   @Value("${app.archive.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("archive.expenses.moved")
+                .description("Expenses moved to the archive")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.horizonMonths = horizonMonths;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Archives what has passed the horizon, nightly.
+     */
+    @Scheduled(cron = "${app.archive.cron:0 0 3 * * *}")
+    public void run() {
+        if (enabled) {
+            archive(LocalDate.now());
+        }
+    }
+
+    /**
+     * Moves the closed expenses dated before the first day of the month
+     * {@code horizonMonths} before {@code today}, chunk by chunk, until none is left.
+     *
+     * @param today the current date
+     * @return number of expenses moved
+     */
+    int archive(LocalDate today) {
+        LocalDate cutoff = YearMonth.from(today).minusMonths(horizonMonths).atDay(1);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveChunk(cutoff));
+            total += moved;
+            archivedCounter.increment(moved);
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            log.info("Archived {} expenses dated before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int moveChunk(LocalDate cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM expenses WHERE expense_date < :cutoff AND status IN (:statuses) " +
+                "ORDER BY expense_date, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource()
+                        .addValue("cutoff", cutoff)
+                        .addValue("statuses", FINAL_STATUSES)
+                        .addValue("limit", chunkSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("cutoff", cutoff);
+        // Alerts first, as an expense that still has alerts cannot be deleted
+        jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM alerts WHERE expense_id IN (:ids) RETURNING *) " +
+                "INSERT INTO alerts_archive SELECT * FROM moved",
+                params);
+        // The date bound prunes the delete to the partitions past the horizon
+        return jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM expenses WHERE id IN (:ids) AND expense_date < :cutoff RETURNING *) " +
+                "INSERT INTO expenses_archive SELECT * FROM moved",
+                params);
+    }
+}
@@ -0,0 +1,155 @@
+package com.ubs.expensemanager.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of {@code expenses}.
+ *
+ * <p>Creates the partitions of the current month and the next
+ * {@code app.expense-partitions.months-ahead}, so new expenses never land in
+ * {@code expenses_default}. A partition whose month has rows in the default partition, such
+ * as expenses dated far ahead, is created empty, filled with those rows and then attached.
+ * Partitions more than {@code app.expense-partitions.brin-after-months} in the past no
+ * longer change much, and get a BRIN index on {@code expense_date}, which costs a few pages
+ * per partition.</p>
+ *
+ * <p>Each run takes a transaction-level advisory lock, so only one instance maintains the
+ * partitions at a time; the others skip the run.</p>
+ */
+@Component
+@Slf4j
+public class ExpensePartitionScheduler {
+
+    static final String DEFAULT_PARTITION = "expenses_default";
+    private static final String PARTITION_PREFIX = "expenses_p";
+    private static final String BRIN_SUFFIX = "_date_brin";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long LOCK_KEY = 0x4558504152544eL;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int brinAfterMonths;
+
+    public ExpensePartitionScheduler(NamedParameterJdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.expense-partitions.enabled:true}") boolean enabled,
+                                     @Value("${app.expense-partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${app.expense-partitions.brin-after-months:3}") int brinAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.brinAfterMonths = brinAfterMonths;
+    }
+
+    /**
+     * Maintains the partitions at startup and then daily.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.expense-partitions.cron:0 30 2 * * *}")
+    public void run() {
+        if (enabled) {
+            maintain(LocalDate.now());
+        }
+    }
+
+    /**
+     * Creates the partitions from the month of {@code today} up to {@code monthsAhead} later
+     * and adds BRIN indexes to the partitions that are old enough.
+     *
+     * @param today the current date
+     * @return whether this instance maintained the partitions, rather than another one
+     */
+    boolean maintain(LocalDate today) {
+        Boolean maintained = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                    new MapSqlParameterSource("key", LOCK_KEY), Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("Expense partitions are being maintained by another instance");
+                return false;
+            }
+            YearMonth current = YearMonth.from(today);
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            indexOldPartitions(current.minusMonths(brinAfterMonths));
+            return true;
+        });
+        return Boolean.TRUE.equals(maintained);
+    }
+
+    /**
+     * Creates the partition of a month unless it exists, moving its rows out of the
+     * default partition first.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (exists(partition)) {
+            return;
+        }
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("from", month.atDay(1))
+                .addValue("to", month.plusMonths(1).atDay(1));
+
+        jdbcTemplate.update("CREATE TABLE " + partition + " (LIKE expenses INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                new MapSqlParameterSource());
+        int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " " +
+                "WHERE expense_date >= :from AND expense_date < :to RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved",
+                range);
+        jdbcTemplate.update("ALTER TABLE expenses ATTACH PARTITION " + partition + " " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')",
+                new MapSqlParameterSource());
+        log.info("Created expense partition {} with {} expenses from the default partition", partition, moved);
+    }
+
+    /**
+     * Adds a BRIN index on {@code expense_date} to every partition of a month before
+     * {@code cutoff} that does not have one yet.
+     */
+    private void indexOldPartitions(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'expenses'::regclass AND c.relname LIKE :pattern " +
+                "AND c.relname < :cutoff " +
+                "AND NOT EXISTS (SELECT 1 FROM pg_class x WHERE x.relname = c.relname || :suffix) " +
+                "ORDER BY c.relname",
+                new MapSqlParameterSource()
+                        .addValue("pattern", PARTITION_PREFIX + "%")
+                        .addValue("cutoff", partitionName(cutoff))
+                        .addValue("suffix", BRIN_SUFFIX),
+                String.class);
+        for (String partition : partitions) {
+            jdbcTemplate.update("CREATE INDEX " + partition + BRIN_SUFFIX + " ON " + partition + " USING brin (expense_date)",
+                    new MapSqlParameterSource());
+            log.info("Added BRIN index to expense partition {}", partition);
+        }
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(:table) IS NOT NULL",
+                new MapSqlParameterSource("table", table), Boolean.class));
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
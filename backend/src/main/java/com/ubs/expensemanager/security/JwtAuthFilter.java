@@ -1,6 +1,7 @@
 package com.ubs.expensemanager.security;
 
 import com.ubs.expensemanager.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -25,6 +26,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
  *
  * <p> Extracts the token from cookies (preferred) or Authorization header,
  * validates it, and sets the authentication in the SecurityContext if valid. </p>
+ *
+ * <p> The principal is read from a self-contained token's claims when it has them, or
+ * otherwise comes from {@link PrincipalCache}; either way a steady stream of requests by
+ * the same user does not query the database. Deactivated users are not authenticated. </p>
  */
 @Slf4j
 @Component
@@ -49,14 +54,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             token = extractTokenFromHeader(request);
         }
 
-        String username = null;
+        // Parsing verifies the signature and expiration, once per request
+        Claims claims = null;
         if (token != null) {
-            username = jwtUtil.extractUsername(token);
+            claims = jwtUtil.parseClaims(token);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(claims);
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -76,6 +83,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
       filterChain.doFilter(request, response);
     }
 
+    /**
+     * Self-contained tokens carry the principal and are only checked against the revocation
+     * list; other tokens are resolved through the principal cache.
+     *
+     * @return the principal, or {@code null} if the token has been revoked
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (!jwtUtil.isSelfContained(claims)) {
+            return userDetailsService.loadPrincipal(claims.getSubject());
+        }
+        if (jwtUtil.isRevoked(claims)) {
+            log.warn("Revoked JWT presented for {}", claims.getSubject());
+            return null;
+        }
+        return jwtUtil.toPrincipal(claims);
+    }
+
     private String extractTokenFromCookie(HttpServletRequest request) {
         if (request.getCookies() == null) {
             return null;
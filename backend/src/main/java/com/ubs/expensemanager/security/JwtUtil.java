@@ -1,9 +1,13 @@
 package com.ubs.expensemanager.security;
 
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.model.UserRole;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -25,18 +29,34 @@ import java.util.function.Function;
  *        <li>Generating JWT tokens for authenticated users.</li>
  *        <li>Extracting username and expiration claims from tokens.</li>
  *        <li>Validating tokens against user details and expiration.</li>
+ *        <li>With {@code jwt.self-contained=true}, embedding the user ID, role, department,
+ *        manager and token version, so a request can be authenticated from its token
+ *        alone, subject to the {@link TokenRevocationList}.</li>
  *    </ul>
  *  </p>
  */
 @Component
 public class JwtUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String DEPARTMENT_ID_CLAIM = "dept";
+    static final String MANAGER_ID_CLAIM = "mgr";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration-ms}")
     private Long expirationMs;
 
+    /** Whether issued tokens carry the principal, so requests need no user lookup */
+    @Value("${jwt.self-contained:false}")
+    private boolean selfContained;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     /** parsed secret key */
     private SecretKey key;
 
@@ -49,6 +69,13 @@ public class JwtUtil {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (selfContained && userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(DEPARTMENT_ID_CLAIM, user.getDepartment() != null ? user.getDepartment().getId() : null);
+            claims.put(MANAGER_ID_CLAIM, user.getManager() != null ? user.getManager().getId() : null);
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
         return Jwts.builder()
                 .claims(claims)
                 .subject(userDetails.getUsername())
@@ -58,10 +85,59 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * @param claims verified claims
+     * @return whether the token carries the principal itself, see {@link #toPrincipal}
+     */
+    public boolean isSelfContained(Claims claims) {
+        return claims.get(USER_ID_CLAIM) != null;
+    }
+
+    /**
+     * @param claims verified claims of a self-contained token
+     * @return whether the token has been revoked since it was issued
+     */
+    public boolean isRevoked(Claims claims) {
+        return tokenRevocationList.isRevoked(
+                claims.get(USER_ID_CLAIM, Long.class), claims.get(TOKEN_VERSION_CLAIM, Integer.class));
+    }
+
+    /**
+     * Builds the principal of a self-contained token from its claims alone; its department
+     * and manager are ID-only references.
+     *
+     * @param claims verified claims of a self-contained token
+     * @return the principal
+     */
+    public User toPrincipal(Claims claims) {
+        Long departmentId = claims.get(DEPARTMENT_ID_CLAIM, Long.class);
+        Long managerId = claims.get(MANAGER_ID_CLAIM, Long.class);
+        return User.builder()
+                .id(claims.get(USER_ID_CLAIM, Long.class))
+                .email(claims.getSubject())
+                .role(UserRole.valueOf(claims.get(ROLE_CLAIM, String.class)))
+                .department(departmentId != null ? Department.builder().id(departmentId).build() : null)
+                .manager(managerId != null ? User.builder().id(managerId).build() : null)
+                .tokenVersion(claims.get(TOKEN_VERSION_CLAIM, Integer.class))
+                .build();
+    }
+
     /** Validates that the token matches the user and is not expired */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
+    }
+
+    /**
+     * Verifies the token's signature and expiration and returns its claims, so a request
+     * parses its token once.
+     *
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
 
     public String extractUsername(String token) {
@@ -85,8 +161,4 @@ public class JwtUtil {
                 .parseSignedClaims(token)
                 .getPayload();
     }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
 }
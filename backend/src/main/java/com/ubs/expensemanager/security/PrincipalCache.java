@@ -0,0 +1,154 @@
+package com.ubs.expensemanager.security;
+
+import com.ubs.expensemanager.cache.CacheInvalidationBus;
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.model.UserRole;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of the authenticated principals, keyed by email, so that
+ * authenticated requests do not query the user they are made by.
+ *
+ * <p>Holds {@link Snapshot}s rather than entities: the principal built from one carries
+ * its department and manager as ID-only references. Entries are dropped by
+ * {@link #invalidate} when the user changes, and otherwise expire after
+ * {@code app.principal-cache.ttl-ms}, which bounds how stale another instance's entry
+ * can be. Beyond {@code app.principal-cache.max-size} the least recently used entry is
+ * evicted. Invalidations are also published on the {@link CacheInvalidationBus}, which
+ * drops the entry on the other instances once the change commits.</p>
+ */
+@Component
+public class PrincipalCache {
+
+    static final String INVALIDATION_REGION = "principals";
+
+    private final long ttlMs;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Map<String, Entry> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PrincipalCache(@Value("${app.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${app.principal-cache.max-size:10000}") int maxSize,
+                          MeterRegistry meterRegistry,
+                          CacheInvalidationBus cacheInvalidationBus) {
+        this.ttlMs = ttlMs;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hitCounter = Counter.builder("auth.principal.cache")
+                .tag("result", "hit")
+                .description("Principal lookups served from the cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("auth.principal.cache")
+                .tag("result", "miss")
+                .description("Principal lookups that loaded the user")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe(INVALIDATION_REGION, this::remove, this::clear);
+    }
+
+    /**
+     * Returns the principal of the given email, loading and caching its snapshot on a miss.
+     *
+     * @param email the principal's email
+     * @param loader loads the user on a miss; may throw if there is none
+     * @return a detached principal built from the snapshot
+     */
+    public User get(String email, Function<String, User> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(email);
+        }
+        if (entry != null && entry.expiresAt() > now) {
+            hitCounter.increment();
+            return entry.snapshot().toPrincipal();
+        }
+
+        missCounter.increment();
+        Snapshot snapshot = Snapshot.of(loader.apply(email));
+        synchronized (entries) {
+            entries.put(email, new Entry(snapshot, now + ttlMs));
+        }
+        return snapshot.toPrincipal();
+    }
+
+    /**
+     * Drops the cached principal of the given email. Inside a transaction it is dropped
+     * again after commit, so a request racing the change cannot re-cache the old state.
+     * The other instances drop it when the change commits.
+     *
+     * @param email the email of the changed user
+     */
+    public void invalidate(String email) {
+        remove(email);
+        cacheInvalidationBus.publish(INVALIDATION_REGION, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(email);
+                }
+            });
+        }
+    }
+
+    private void remove(String email) {
+        synchronized (entries) {
+            entries.remove(email);
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private record Entry(Snapshot snapshot, long expiresAt) {
+    }
+
+    /**
+     * What the application reads from the principal.
+     */
+    record Snapshot(Long id, String email, String name, UserRole role, Long departmentId, Long managerId,
+                    boolean active) {
+
+        static Snapshot of(User user) {
+            return new Snapshot(
+                    user.getId(),
+                    user.getEmail(),
+                    user.getName(),
+                    user.getRole(),
+                    user.getDepartment() != null ? user.getDepartment().getId() : null,
+                    user.getManager() != null ? user.getManager().getId() : null,
+                    user.isActive());
+        }
+
+        User toPrincipal() {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .name(name)
+                    .role(role)
+                    .department(departmentId != null ? Department.builder().id(departmentId).build() : null)
+                    .manager(managerId != null ? User.builder().id(managerId).build() : null)
+                    .active(active)
+                    .build();
+        }
+    }
+}
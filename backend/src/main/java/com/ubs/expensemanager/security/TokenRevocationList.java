@@ -0,0 +1,165 @@
+package com.ubs.expensemanager.security;
+
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory denylist of self-contained JWTs, checked without touching the database.
+ *
+ * <p>Revoking a user's tokens bumps their {@code token_version} and records it in
+ * {@code token_revocations}; a token is revoked when its version is older than the
+ * recorded one. Lookups go through a Bloom filter of revoked user IDs first, so the
+ * common case of a user with nothing revoked costs a few bit tests; only on a hit is the
+ * exact map consulted.</p>
+ *
+ * <p>The list is reloaded from {@code token_revocations} every
+ * {@code jwt.revocations.refresh-ms}, which is how revocations made on other instances
+ * arrive; revocations made here apply as soon as their transaction commits. Rows older
+ * than the token lifetime are purged on reload, as every token they revoke has expired.</p>
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Denylist denylist = Denylist.empty(MIN_CAPACITY);
+    /** Revocations applied locally since the last reload started, guarded by {@code this} */
+    private final Map<Long, Integer> appliedSinceRefresh = new HashMap<>();
+
+    @Value("${jwt.expiration-ms}")
+    private long expirationMs;
+
+    public TokenRevocationList(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("auth.token.revocations", this, list -> list.denylist.minVersions().size())
+                .description("Users with revoked tokens in the in-memory denylist")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userId the {@code uid} claim of the token
+     * @param tokenVersion the {@code ver} claim of the token
+     * @return whether the token has been revoked
+     */
+    public boolean isRevoked(long userId, int tokenVersion) {
+        return denylist.isRevoked(userId, tokenVersion);
+    }
+
+    /**
+     * Revokes every token issued to the user so far. Must run in the transaction that
+     * saves the user, which persists its bumped {@code tokenVersion}.
+     *
+     * @param user the managed user
+     */
+    public void revoke(User user) {
+        long userId = user.getId();
+        int version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("version", version)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        int updated = jdbcTemplate.update(
+                "UPDATE token_revocations SET token_version = :version, revoked_at = :now WHERE user_id = :userId",
+                params);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO token_revocations (user_id, token_version, revoked_at) VALUES (:userId, :version, :now)",
+                    params);
+        }
+        log.info("Revoked tokens of user {} before version {}", userId, version);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, version);
+                }
+            });
+        } else {
+            apply(userId, version);
+        }
+    }
+
+    /**
+     * Purges expired revocations and reloads the denylist from {@code token_revocations}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocations.refresh-ms:30000}", initialDelayString = "${jwt.revocations.refresh-ms:30000}")
+    public void refresh() {
+        jdbcTemplate.update(
+                "DELETE FROM token_revocations WHERE revoked_at < :cutoff",
+                new MapSqlParameterSource("cutoff",
+                        Timestamp.valueOf(LocalDateTime.now().minus(Duration.ofMillis(expirationMs)))));
+
+        Map<Long, Integer> minVersions = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, token_version FROM token_revocations",
+                rs -> {
+                    minVersions.put(rs.getLong("user_id"), rs.getInt("token_version"));
+                });
+
+        synchronized (this) {
+            // Keep what committed here while the rows were being read
+            appliedSinceRefresh.forEach((userId, version) -> minVersions.merge(userId, version, Math::max));
+            appliedSinceRefresh.clear();
+
+            BloomFilter revokedUsers = new BloomFilter(Math.max(MIN_CAPACITY, minVersions.size() * 2), FALSE_POSITIVE_RATE);
+            minVersions.keySet().forEach(revokedUsers::add);
+            denylist = new Denylist(revokedUsers, Map.copyOf(minVersions));
+        }
+        log.debug("Loaded {} token revocations", minVersions.size());
+    }
+
+    private synchronized void apply(long userId, int version) {
+        appliedSinceRefresh.merge(userId, version, Math::max);
+        denylist = denylist.with(userId, version);
+    }
+
+    /**
+     * Immutable snapshot of the denylist, replaced as a whole on every change.
+     */
+    private record Denylist(BloomFilter revokedUsers, Map<Long, Integer> minVersions) {
+
+        static Denylist empty(int capacity) {
+            return new Denylist(new BloomFilter(capacity, FALSE_POSITIVE_RATE), Map.of());
+        }
+
+        boolean isRevoked(long userId, int tokenVersion) {
+            if (!revokedUsers.mightContain(userId)) {
+                return false;
+            }
+            Integer minVersion = minVersions.get(userId);
+            return minVersion != null && tokenVersion < minVersion;
+        }
+
+        Denylist with(long userId, int version) {
+            BloomFilter filter = revokedUsers.copy();
+            filter.add(userId);
+            Map<Long, Integer> versions = new HashMap<>(minVersions);
+            versions.merge(userId, version, Math::max);
+            return new Denylist(filter, Map.copyOf(versions));
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.ubs.expensemanager.service;
 import com.ubs.expensemanager.dto.request.AlertUpdateRequest;
 import com.ubs.expensemanager.dto.response.AlertListResponse;
 import com.ubs.expensemanager.dto.response.AlertResponse;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
+import com.ubs.expensemanager.exception.InvalidCursorException;
 import com.ubs.expensemanager.exception.ResourceNotFoundException;
 import com.ubs.expensemanager.mapper.AlertMapper;
 import com.ubs.expensemanager.messages.Messages;
@@ -10,10 +12,14 @@ import com.ubs.expensemanager.model.Alert;
 import com.ubs.expensemanager.model.AlertStatus;
 import com.ubs.expensemanager.model.AlertType;
 import com.ubs.expensemanager.repository.AlertRepository;
+import com.ubs.expensemanager.repository.specification.AlertSpecifications;
+import com.ubs.expensemanager.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +49,37 @@ public class AlertService {
                 .map(this::mapToAlertListResponse);
     }
 
+    /**
+     * Retrieves alerts with keyset pagination in ID order, without a count query.
+     *
+     * @param after cursor returned with the previous page, or blank for the first page
+     * @param size maximum number of alerts, capped at {@value ExpenseService#MAX_CURSOR_PAGE_SIZE}
+     * @return page of alerts with the cursor of the next page
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AlertListResponse> findAllAfter(String after, int size) {
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                afterId = Long.valueOf(KeysetCursor.decode(after, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException();
+            }
+        }
+        log.info("Retrieving alerts after id: {}, size: {}", afterId, size);
+
+        int limit = Math.clamp(size, 1, ExpenseService.MAX_CURSOR_PAGE_SIZE);
+        Slice<Alert> slice = KeysetCursor.toSlice(alertRepository.findBy(AlertSpecifications.withIdAfter(afterId),
+                query -> query.project("expense", "expense.user", "expense.currency")
+                        .sortBy(Sort.by("id")).limit(limit + 1).all()), limit);
+
+        String nextCursor = slice.hasNext()
+                ? KeysetCursor.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+                : null;
+        return CursorPageResponse.of(slice.map(this::mapToAlertListResponse), nextCursor);
+    }
+
     /**
      * Maps an Alert entity to an AlertListResponse DTO.
      *
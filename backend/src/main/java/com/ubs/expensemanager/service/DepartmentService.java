@@ -1,5 +1,6 @@
 package com.ubs.expensemanager.service;
 
+import com.ubs.expensemanager.cache.ReportResultCache;
 import com.ubs.expensemanager.dto.request.DepartmentCreateRequest;
 import com.ubs.expensemanager.dto.request.DepartmentUpdateRequest;
 import com.ubs.expensemanager.dto.response.DepartmentResponse;
@@ -21,7 +22,8 @@ import org.springframework.stereotype.Service;
  *
  * <p>This class orchestrates validation, persistence and transformation
  * between entities and DTOs. All department currency references are validated
- * against the currencies table to ensure referential integrity.</p>
+ * against the currencies table to ensure referential integrity. Department writes
+ * drop the cached reports, which show department names and budgets.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -30,6 +32,7 @@ public class DepartmentService {
     private final DepartmentRepository departmentRepository;
     private final CurrencyRepository currencyRepository;
     private final DepartmentMapper departmentMapper;
+    private final ReportResultCache reportResultCache;
 
     /**
      * Creates a new department.
@@ -67,6 +70,7 @@ public class DepartmentService {
                 .build();
 
         Department savedDepartment = departmentRepository.save(department);
+        reportResultCache.invalidateAll();
 
         return departmentMapper.toResponse(savedDepartment);
     }
@@ -122,6 +126,7 @@ public class DepartmentService {
         department.setCurrency(currency);
 
         Department updatedDepartment = departmentRepository.save(department);
+        reportResultCache.invalidateAll();
 
         return departmentMapper.toResponse(updatedDepartment);
     }
@@ -138,6 +143,7 @@ public class DepartmentService {
         }
 
         departmentRepository.deleteById(id);
+        reportResultCache.invalidateAll();
     }
 
 }
@@ -1,5 +1,6 @@
 package com.ubs.expensemanager.service;
 
+import com.ubs.expensemanager.cache.ExpenseCategorySnapshotCache;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryFilterRequest;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryUpdateRequest;
@@ -20,8 +21,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -47,6 +46,7 @@ public class ExpenseCategoryService {
     private final CurrencyRepository currencyRepository;
     private final EntityManager entityManager;
     private final ExpenseCategoryMapper expenseCategoryMapper;
+    private final ExpenseCategorySnapshotCache expenseCategorySnapshotCache;
 
     /**
      * Creates a new expense category.
@@ -95,7 +95,8 @@ public class ExpenseCategoryService {
      * Retrieves a single expense category by its identifier.
      * 
      * <p> If dateTime is provided, queries the audit history to retrieve the version
-     * that was active at the specified moment. Otherwise, retrieves the current version. </p>
+     * that was active at the specified moment. Otherwise, retrieves the current version.
+     * Historical versions are cached by revision, see {@link ExpenseCategorySnapshotCache}. </p>
      *
      * @param id       category identifier
      * @param dateTime optional date-time to query historical data (null for current version)
@@ -110,29 +111,13 @@ public class ExpenseCategoryService {
                     .orElseThrow(() -> new ResourceNotFoundException(Messages.EXPENSE_CATEGORY_NOT_FOUND));
             return expenseCategoryMapper.toResponse(category);
         }
-        // Else, find the audit relative to that provided date
-        
-        var auditReader = AuditReaderFactory.get(entityManager);
-        
-        Date queryDate = Date.from(dateTime.toInstant());
-        
-        List results = auditReader.createQuery()
-                .forEntitiesAtRevision(ExpenseCategory.class, auditReader.getRevisions(ExpenseCategory.class, id)
-                    .stream()
-                    .filter(rev -> {
-                        Date revDate = auditReader.getRevisionDate(rev);
-                        return !revDate.after(queryDate);
-                    })
-                    .max(Comparator.comparingInt(Number::intValue))
-                    .orElseThrow(() -> new ResourceNotFoundException(Messages.NO_AUDIT_RECORD_FOUND)))
-                .add(AuditEntity.id().eq(id))
-                .getResultList();
-        
-        if (results.isEmpty()) {
-            throw new ResourceNotFoundException(Messages.EXPENSE_CATEGORY_NOT_FOUND_IN_AUDIT);
-        }
-        
-        return expenseCategoryMapper.toResponse((ExpenseCategory) results.getFirst());
+        // Else, find the revision that was current at that date
+        Integer revision = expenseCategoryRepository.findRevisionAt(id, dateTime.toInstant().toEpochMilli())
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.NO_AUDIT_RECORD_FOUND));
+
+        return expenseCategorySnapshotCache.get(id, revision,
+                        () -> expenseCategoryRepository.findSnapshotAtRevision(id, revision))
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.EXPENSE_CATEGORY_NOT_FOUND_IN_AUDIT));
     }
 
     /**
@@ -0,0 +1,155 @@
+package com.ubs.expensemanager.service;
+
+import com.ubs.expensemanager.cache.ReportResultCache;
+import com.ubs.expensemanager.config.DatabasePlatform;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
+import com.ubs.expensemanager.util.CurrencyConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Service responsible for keeping the {@code expense_daily_rollup} table in sync with expenses.
+ *
+ * <p>Every expense write path calls this service inside its own transaction, so the rollup
+ * commits or rolls back together with the expense. The deltas of a transaction are merged
+ * per row and written just before it commits, in primary key order, each as one atomic
+ * upsert that creates the row on first use. Concurrent writers therefore never overwrite
+ * each other's deltas, need no second connection, and lock shared rows in the same order.</p>
+ *
+ * <p>Every delta also drops the cached reports covering its date from the
+ * {@link ReportResultCache}.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseDailyRollupService {
+
+    private final ExpenseDailyRollupRepository rollupRepository;
+    private final DatabasePlatform databasePlatform;
+    private final ReportResultCache reportResultCache;
+    private final SortedRowDeltas<RollupRow, RollupDelta> pendingRows =
+            new SortedRowDeltas<>(0, RollupDelta::plus, this::write);
+
+    /**
+     * Adds an expense to the rollup using its current values.
+     *
+     * @param expense the created or updated expense
+     */
+    public void add(Expense expense) {
+        apply(expense, expense.getStatus(), 1);
+    }
+
+    /**
+     * Removes an expense from the rollup using its current values.
+     * Must be called before the expense is modified or deleted.
+     *
+     * @param expense the expense about to change
+     */
+    public void subtract(Expense expense) {
+        apply(expense, expense.getStatus(), -1);
+    }
+
+    /**
+     * Moves an expense between status rows after a status transition.
+     *
+     * @param expense the expense, already holding its new status
+     * @param previousStatus the status before the transition
+     */
+    public void changeStatus(Expense expense, ExpenseStatus previousStatus) {
+        if (previousStatus == expense.getStatus()) {
+            return;
+        }
+        apply(expense, previousStatus, -1);
+        apply(expense, expense.getStatus(), 1);
+    }
+
+    /**
+     * Moves all rollup rows of a user to their new department.
+     *
+     * @param userId the user ID
+     * @param departmentId the new department ID (nullable)
+     */
+    public void reassignDepartment(Long userId, Long departmentId) {
+        int rows = rollupRepository.reassignDepartment(userId, departmentId);
+        log.info("Moved {} rollup rows of user {} to department {}", rows, userId, departmentId);
+        if (rows > 0) {
+            reportResultCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Recomputes the whole rollup from the {@code expenses} table and its archive.
+     * Intended as a repair tool when the rollup has drifted; concurrent expense writes
+     * during the rebuild may be missed, so it should be run in a quiet period.
+     *
+     * @return number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        int deleted = rollupRepository.deleteAllRows();
+        int inserted = rollupRepository.insertAggregatedFromExpenses();
+        log.info("Rebuilt expense daily rollup: {} rows removed, {} rows written", deleted, inserted);
+        reportResultCache.invalidateAll();
+        return inserted;
+    }
+
+    /**
+     * Applies a signed delta for one expense to the row of the given status. The row takes
+     * the department stored on the expense, as {@link #rebuild()} does.
+     */
+    private void apply(Expense expense, ExpenseStatus status, int sign) {
+        BigDecimal amountUsd = CurrencyConverter.storedUsd(expense);
+        BigDecimal amountUsdDelta = sign < 0 ? amountUsd.negate() : amountUsd;
+        pendingRows.add(new RollupRow(expense.getExpenseDate(), expense.getUser().getId(),
+                        expense.getExpenseCategory().getId(), expense.getCurrency().getId(), status),
+                new RollupDelta(expense.getDepartmentId(), sign, amountUsdDelta));
+
+        reportResultCache.invalidate(expense.getExpenseDate());
+    }
+
+    private void write(RollupRow row, RollupDelta delta) {
+        if (delta.count() == 0 && delta.amountUsd().signum() == 0) {
+            return;
+        }
+        if (databasePlatform.isH2()) {
+            rollupRepository.mergeRow(row.expenseDate(), row.userId(), row.categoryId(), row.currencyId(),
+                    row.status().name(), delta.departmentId(), delta.count(), delta.amountUsd());
+        } else {
+            rollupRepository.upsertRow(row.expenseDate(), row.userId(), row.categoryId(), row.currencyId(),
+                    row.status().name(), delta.departmentId(), delta.count(), delta.amountUsd());
+        }
+    }
+
+    /**
+     * Primary key of a rollup row, ordered like the table's primary key.
+     */
+    private record RollupRow(LocalDate expenseDate, Long userId, Long categoryId, Long currencyId,
+                             ExpenseStatus status) implements Comparable<RollupRow> {
+
+        private static final Comparator<RollupRow> ORDER = Comparator.comparing(RollupRow::expenseDate)
+                .thenComparing(RollupRow::userId)
+                .thenComparing(RollupRow::categoryId)
+                .thenComparing(RollupRow::currencyId)
+                .thenComparing(row -> row.status().name());
+
+        @Override
+        public int compareTo(RollupRow other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record RollupDelta(Long departmentId, long count, BigDecimal amountUsd) {
+
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(other.departmentId(), count + other.count(), amountUsd.add(other.amountUsd()));
+        }
+    }
+}
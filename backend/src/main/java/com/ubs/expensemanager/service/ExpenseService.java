@@ -3,8 +3,16 @@ package com.ubs.expensemanager.service;
 import com.ubs.expensemanager.dto.request.ExpenseCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseFilterRequest;
 import com.ubs.expensemanager.dto.request.ExpenseUpdateRequest;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
 import com.ubs.expensemanager.dto.response.ExpenseAuditResponse;
+import com.ubs.expensemanager.dto.response.ExpenseBatchItemResponse;
+import com.ubs.expensemanager.dto.response.ExpenseBatchResponse;
 import com.ubs.expensemanager.dto.response.ExpenseResponse;
+import com.ubs.expensemanager.event.BudgetAlertPipeline;
+import com.ubs.expensemanager.event.outbox.OutboxDispatcher;
+import com.ubs.expensemanager.exception.AuditHistoryTooLongException;
+import com.ubs.expensemanager.exception.BudgetExceededException;
+import com.ubs.expensemanager.exception.InvalidCursorException;
 import com.ubs.expensemanager.exception.InvalidStatusTransitionException;
 import com.ubs.expensemanager.exception.ResourceNotFoundException;
 import com.ubs.expensemanager.exception.UnauthorizedExpenseAccessException;
@@ -16,31 +24,48 @@ import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
-import com.ubs.expensemanager.model.audit.CustomRevisionEntity;
 import com.ubs.expensemanager.model.AlertStatus;
 import com.ubs.expensemanager.repository.AlertRepository;
 import com.ubs.expensemanager.repository.CurrencyRepository;
 import com.ubs.expensemanager.repository.ExpenseCategoryRepository;
 import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.repository.UserRepository;
+import com.ubs.expensemanager.repository.projection.ArchivedExpenseRow;
+import com.ubs.expensemanager.repository.projection.ExpenseAuditRow;
 import com.ubs.expensemanager.repository.specification.ExpenseSpecifications;
+import com.ubs.expensemanager.service.budget.BudgetBatchTotals;
+import com.ubs.expensemanager.service.budget.BudgetReservations;
+import com.ubs.expensemanager.service.budget.BudgetTotals;
+import com.ubs.expensemanager.service.budget.BudgetTotalsReader;
 import com.ubs.expensemanager.service.budget.CategoryBudgetValidationStrategy;
 import com.ubs.expensemanager.service.budget.DepartmentBudgetValidationStrategy;
 import com.ubs.expensemanager.service.expense.state.ExpenseStateFactory;
 import com.ubs.expensemanager.service.expense.state.ExpenseState;
 import com.ubs.expensemanager.service.expense.state.StateContext;
-import jakarta.persistence.EntityManager;
+import com.ubs.expensemanager.util.KeysetCursor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.envers.AuditReaderFactory;
-import org.hibernate.envers.RevisionType;
-import org.hibernate.envers.query.AuditEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -56,15 +81,39 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ExpenseService {
 
+    /**
+     * Largest page served by {@link #findAllAfter}.
+     */
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    /**
+     * Most revisions served by {@link #getAuditHistory}; longer histories are read with
+     * {@link #getAuditHistoryPage}.
+     */
+    public static final int MAX_UNPAGED_AUDIT_REVISIONS = 1000;
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("expenseDate"), Sort.Order.desc("id"));
+
+    /**
+     * Associations fetched with a cursor page, the same as {@link Expense#LIST_GRAPH}.
+     */
+    private static final List<String> LIST_ASSOCIATIONS = List.of("user", "expenseCategory", "currency");
+
     private final ExpenseRepository expenseRepository;
     private final ExpenseCategoryRepository expenseCategoryRepository;
+    private final UserRepository userRepository;
     private final CurrencyRepository currencyRepository;
     private final ExpenseMapper expenseMapper;
-    private final EntityManager entityManager;
     private final CategoryBudgetValidationStrategy categoryBudgetValidationStrategy;
     private final DepartmentBudgetValidationStrategy departmentBudgetValidationStrategy;
+    private final BudgetReservations budgetReservations;
+    private final BudgetTotalsReader budgetTotalsReader;
     private final ExpenseStateFactory stateFactory;
     private final AlertRepository alertRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ExpenseDailyRollupService expenseDailyRollupService;
+    private final ExpenseSummaryCounterService expenseSummaryCounterService;
+    private final Validator validator;
 
     /**
      * Creates a new expense with budget validation.
@@ -84,27 +133,135 @@ public class ExpenseService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         Messages.formatMessage(Messages.CURRENCY_NOT_FOUND, request.getCurrencyName())));
 
-        ExpenseStatus initialStatus = determineInitialStatus(currentUser);
+        User owner = loadOwner(currentUser);
+        ExpenseStatus initialStatus = determineInitialStatus(owner);
 
-        Expense expense = expenseMapper.toEntity(request, currency, category, currentUser, initialStatus);
+        Expense expense = expenseMapper.toEntity(request, currency, category, owner, initialStatus);
 
-        // BLOCKING VALIDATION: Monthly department budget - throws exception if exceeded
-        departmentBudgetValidationStrategy.validate(currentUser.getId(), category, expense, request.getAmount());
+        // Hold the department-month and category-day budgets until commit, so concurrent
+        // creates against the same budget are checked one after the other
+        budgetReservations.reserve(expense);
 
-        // Save expense only if blocking validations pass
         Expense savedExpense = expenseRepository.save(expense);
 
-        // WARNING-ONLY VALIDATIONS: These publish events for alerts but don't block
-        // Daily department budget validation
-        departmentBudgetValidationStrategy.validateDailyBudgetOnly(currentUser.getId(), category, savedExpense, request.getAmount());
-        // Category budget validation (daily and monthly)
-        categoryBudgetValidationStrategy.validate(currentUser.getId(), category, savedExpense, request.getAmount());
+        // Evaluate every budget in one pass over one set of totals. The blocking monthly
+        // department check runs first; if it fails, the insert is rolled back with the transaction
+        BudgetTotals budgetTotals = budgetTotalsReader.totalsFor(savedExpense);
+        departmentBudgetValidationStrategy.validate(currentUser.getId(), category, savedExpense, request.getAmount(), budgetTotals);
+        categoryBudgetValidationStrategy.validate(currentUser.getId(), category, savedExpense, request.getAmount(), budgetTotals);
+
+        // Add to the daily rollup only after the validations, which read it without this expense
+        expenseDailyRollupService.add(savedExpense);
+        expenseSummaryCounterService.add(savedExpense);
 
         log.info("Expense {} created successfully with status {}", savedExpense.getId(), initialStatus);
 
         return expenseMapper.toResponse(savedExpense);
     }
 
+    /**
+     * Creates several expenses of the current user in one transaction, reporting the outcome
+     * of each item separately.
+     *
+     * <p>Items that fail validation, reference an unknown category or currency, or would
+     * exceed the monthly department budget are reported as failed and skipped; the others
+     * are created. All items are checked in one pass against totals read once for the whole
+     * batch, each one including the items accepted before it. The accepted expenses are
+     * written with a single flush, so Hibernate sends their inserts as JDBC batches.</p>
+     *
+     * @param requests the expenses to create, in order
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public ExpenseBatchResponse createBatch(List<ExpenseCreateRequest> requests) {
+        User currentUser = getCurrentUser();
+        log.info("Creating batch of {} expenses for user {}", requests.size(), currentUser.getId());
+
+        Map<Long, ExpenseCategory> categories = expenseCategoryRepository.findAllById(requests.stream()
+                        .map(ExpenseCreateRequest::getExpenseCategoryId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ExpenseCategory::getId, Function.identity()));
+        Map<String, Currency> currencies = currencyRepository.findAllByNameIn(requests.stream()
+                        .map(ExpenseCreateRequest::getCurrencyName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Currency::getName, Function.identity()));
+        User owner = loadOwner(currentUser);
+        ExpenseStatus initialStatus = determineInitialStatus(owner);
+
+        ExpenseBatchItemResponse[] results = new ExpenseBatchItemResponse[requests.size()];
+        Map<Integer, Expense> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseCreateRequest request = requests.get(i);
+            String violations = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            ExpenseCategory category = categories.get(request.getExpenseCategoryId());
+            Currency currency = currencies.get(request.getCurrencyName());
+            if (!violations.isEmpty()) {
+                results[i] = failedItem(i, HttpStatus.BAD_REQUEST, violations);
+            } else if (category == null) {
+                results[i] = failedItem(i, HttpStatus.NOT_FOUND, Messages.EXPENSE_CATEGORY_NOT_FOUND);
+            } else if (currency == null) {
+                results[i] = failedItem(i, HttpStatus.NOT_FOUND,
+                        Messages.formatMessage(Messages.CURRENCY_NOT_FOUND, request.getCurrencyName()));
+            } else {
+                candidates.put(i, expenseMapper.toEntity(request, currency, category, owner, initialStatus));
+            }
+        }
+
+        List<Expense> created = new ArrayList<>(candidates.size());
+        if (!candidates.isEmpty()) {
+            // Same reservations and checks as a single create, taken once for the whole batch
+            budgetReservations.reserve(candidates.values());
+            BudgetBatchTotals batchTotals = budgetTotalsReader.batchTotalsFor(candidates.values());
+
+            for (Map.Entry<Integer, Expense> candidate : candidates.entrySet()) {
+                Expense expense = candidate.getValue();
+                BudgetTotals budgetTotals = batchTotals.totalsFor(expense);
+                try {
+                    departmentBudgetValidationStrategy.checkMonthlyBudget(expense, expense.getAmount(), budgetTotals);
+                } catch (BudgetExceededException e) {
+                    results[candidate.getKey()] = failedItem(candidate.getKey(), HttpStatus.BAD_REQUEST, e.getMessage());
+                    continue;
+                }
+
+                // The ID comes from the pooled sequence; the insert itself waits for the flush
+                Expense savedExpense = expenseRepository.save(expense);
+                departmentBudgetValidationStrategy.validate(currentUser.getId(), savedExpense.getExpenseCategory(),
+                        savedExpense, savedExpense.getAmount(), budgetTotals);
+                categoryBudgetValidationStrategy.validate(currentUser.getId(), savedExpense.getExpenseCategory(),
+                        savedExpense, savedExpense.getAmount(), budgetTotals);
+                batchTotals.add(savedExpense);
+                created.add(savedExpense);
+                results[candidate.getKey()] = ExpenseBatchItemResponse.builder()
+                        .index(candidate.getKey())
+                        .status(HttpStatus.CREATED.value())
+                        .expense(expenseMapper.toResponse(savedExpense))
+                        .build();
+            }
+
+            // The aggregate rows are written at commit, after the batch inserts, in key order
+            for (Expense savedExpense : created) {
+                expenseDailyRollupService.add(savedExpense);
+                expenseSummaryCounterService.add(savedExpense);
+            }
+        }
+
+        log.info("Expense batch for user {} done: {} created, {} failed",
+                currentUser.getId(), created.size(), requests.size() - created.size());
+
+        return ExpenseBatchResponse.builder()
+                .createdCount(created.size())
+                .failedCount(requests.size() - created.size())
+                .items(List.of(results))
+                .build();
+    }
+
     /**
      * Retrieves all expenses with filtering and pagination.
      * EMPLOYEE role: Only sees own expenses
@@ -116,6 +273,53 @@ public class ExpenseService {
      */
     @Transactional(readOnly = true)
     public Page<ExpenseResponse> findAll(ExpenseFilterRequest filters, Pageable pageable) {
+        return expenseRepository.findAll(filterSpecification(filters), pageable).map(expenseMapper::toResponse);
+    }
+
+    /**
+     * Retrieves expenses with filtering and keyset pagination, newest first
+     * ({@code expenseDate DESC, id DESC}). Same visibility rules as {@link #findAll}.
+     *
+     * <p>Pages are read by seeking past the cursor rather than skipping an offset, and no
+     * count query is run, so the cost of a page does not grow with its depth.</p>
+     *
+     * @param filters optional filters for expenses
+     * @param after cursor returned with the previous page, or blank for the first page
+     * @param size maximum number of expenses, capped at {@value #MAX_CURSOR_PAGE_SIZE}
+     * @return page of expenses with the cursor of the next page
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ExpenseResponse> findAllAfter(ExpenseFilterRequest filters, String after, int size) {
+        Specification<Expense> spec = filterSpecification(filters);
+        if (after != null && !after.isBlank()) {
+            String[] keys = KeysetCursor.decode(after, 2);
+            try {
+                spec = spec.and(ExpenseSpecifications.before(LocalDate.parse(keys[0]), Long.valueOf(keys[1])));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidCursorException();
+            }
+        }
+
+        int limit = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        Slice<Expense> slice = KeysetCursor.toSlice(
+                expenseRepository.findBy(spec, query -> query.project(LIST_ASSOCIATIONS)
+                        .sortBy(KEYSET_SORT).limit(limit + 1).all()), limit);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Expense last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = KeysetCursor.encode(last.getExpenseDate(), last.getId());
+        }
+        return CursorPageResponse.of(slice.map(expenseMapper::toResponse), nextCursor);
+    }
+
+    /**
+     * Builds the list filter of the current user.
+     * EMPLOYEE role: Only sees own expenses
+     * MANAGER/FINANCE: Can see all expenses
+     */
+    private Specification<Expense> filterSpecification(ExpenseFilterRequest filters) {
         User currentUser = getCurrentUser();
         Specification<Expense> spec = Specification.where(null);
 
@@ -133,25 +337,30 @@ public class ExpenseService {
         spec = spec.and(ExpenseSpecifications.withStartDate(filters.getStartDate()));
         spec = spec.and(ExpenseSpecifications.withEndDate(filters.getEndDate()));
         spec = spec.and(ExpenseSpecifications.withExpenseCategoryId(filters.getExpenseCategoryId()));
-
-        return expenseRepository.findAll(spec, pageable).map(expenseMapper::toResponse);
+        return spec;
     }
 
     /**
      * Retrieves a single expense by ID with authorization check.
      * EMPLOYEE: Can only view own expenses
      * MANAGER/FINANCE: Can view any expense
+     * Expenses moved to the archive are looked up there when not found among the current ones.
      *
      * @param id expense identifier
      * @return expense as response DTO
      */
     @Transactional(readOnly = true)
     public ExpenseResponse findById(Long id) {
-        Expense expense = expenseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(Messages.EXPENSE_NOT_FOUND));
+        Optional<Expense> expense = expenseRepository.findById(id);
+        if (expense.isPresent()) {
+            validateAccess(expense.get());
+            return expenseMapper.toResponse(expense.get());
+        }
 
-        validateAccess(expense);
-        return expenseMapper.toResponse(expense);
+        ArchivedExpenseRow archived = expenseRepository.findArchivedById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.EXPENSE_NOT_FOUND));
+        validateAccess(archived.getId(), archived.getUserId());
+        return expenseMapper.toResponse(archived);
     }
 
     /**
@@ -188,9 +397,15 @@ public class ExpenseService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         Messages.formatMessage(Messages.CURRENCY_NOT_FOUND, request.getCurrencyName())));
 
+        // Remove the previous values from the aggregates before the entity is modified
+        expenseDailyRollupService.subtract(expense);
+        expenseSummaryCounterService.subtract(expense);
+
         expense = expenseMapper.updateEntity(expense, request, currency, category, ExpenseStatus.PENDING);
 
         Expense updatedExpense = expenseRepository.save(expense);
+        expenseDailyRollupService.add(updatedExpense);
+        expenseSummaryCounterService.add(updatedExpense);
         return expenseMapper.toResponse(updatedExpense);
     }
 
@@ -216,6 +431,8 @@ public class ExpenseService {
         }
 
         log.info("Deleting expense {} by user {}", id, currentUser.getId());
+        expenseDailyRollupService.subtract(expense);
+        expenseSummaryCounterService.subtract(expense);
         expenseRepository.delete(expense);
     }
 
@@ -232,15 +449,17 @@ public class ExpenseService {
         Expense expense = expenseRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
 
-        // Check for unresolved alerts
-        if (!alertRepository.findByExpenseAndStatus(expense, AlertStatus.NEW).isEmpty()) {
+        // Check for unresolved alerts, including those still waiting in the outbox to be written
+        if (!alertRepository.findByExpenseAndStatus(expense, AlertStatus.NEW).isEmpty()
+                || outboxDispatcher.hasPending(BudgetAlertPipeline.EVENT_TYPE, expense.getId())) {
             throw new InvalidStatusTransitionException(Messages.CANNOT_APPROVE_WITH_NEW_ALERT);
         }
 
         log.debug(Messages.formatMessage(Messages.USER_ATTEMPTING_ACTION,
             currentUser.getId(), currentUser.getRole(), "approve", id, expense.getStatus()));
 
-        ExpenseState currentState = stateFactory.getState(expense.getStatus());
+        ExpenseStatus previousStatus = expense.getStatus();
+        ExpenseState currentState = stateFactory.getState(previousStatus);
 
         StateContext context = StateContext.builder()
             .expense(expense)
@@ -249,6 +468,8 @@ public class ExpenseService {
             .build();
 
         Expense updatedExpense = currentState.approve(context);
+        expenseDailyRollupService.changeStatus(updatedExpense, previousStatus);
+        expenseSummaryCounterService.changeStatus(updatedExpense, previousStatus);
 
         return expenseMapper.toResponse(updatedExpense);
     }
@@ -269,7 +490,8 @@ public class ExpenseService {
         log.debug(Messages.formatMessage(Messages.USER_ATTEMPTING_ACTION,
             currentUser.getId(), currentUser.getRole(), "reject", id, expense.getStatus()));
 
-        ExpenseState currentState = stateFactory.getState(expense.getStatus());
+        ExpenseStatus previousStatus = expense.getStatus();
+        ExpenseState currentState = stateFactory.getState(previousStatus);
 
         StateContext context = StateContext.builder()
             .expense(expense)
@@ -278,6 +500,8 @@ public class ExpenseService {
             .build();
 
         Expense updatedExpense = currentState.reject(context);
+        expenseDailyRollupService.changeStatus(updatedExpense, previousStatus);
+        expenseSummaryCounterService.changeStatus(updatedExpense, previousStatus);
 
         return expenseMapper.toResponse(updatedExpense);
     }
@@ -300,12 +524,23 @@ public class ExpenseService {
      * @throws UnauthorizedExpenseAccessException if access is denied
      */
     private void validateAccess(Expense expense) {
+        validateAccess(expense.getId(), expense.getUser().getId());
+    }
+
+    /**
+     * Same check by IDs, for expenses read without their entity.
+     *
+     * @param expenseId the expense ID
+     * @param ownerId the ID of the expense owner
+     * @throws UnauthorizedExpenseAccessException if access is denied
+     */
+    private void validateAccess(Long expenseId, Long ownerId) {
         User currentUser = getCurrentUser();
 
         if (currentUser.getRole() == UserRole.EMPLOYEE &&
-                !expense.getUser().getId().equals(currentUser.getId())) {
+                !ownerId.equals(currentUser.getId())) {
             log.warn("User {} attempted to access expense {} owned by user {}",
-                    currentUser.getId(), expense.getId(), expense.getUser().getId());
+                    currentUser.getId(), expenseId, ownerId);
             throw new UnauthorizedExpenseAccessException(Messages.formatMessage(Messages.UNAUTHORIZED_ACCESS_EXPENSE));
         }
     }
@@ -328,54 +563,122 @@ public class ExpenseService {
     }
 
     /**
-     * Retrieves the complete audit history for an expense (asc order).
+     * Retrieves the audit history for an expense (asc order), optionally limited to a
+     * revision range, in one native query over {@code expenses_aud}. At most
+     * {@value #MAX_UNPAGED_AUDIT_REVISIONS} revisions are loaded; longer histories must be
+     * read page by page with {@link #getAuditHistoryPage}.
      *
      * @param id expense identifier
-     * @return list of all audited versions of the expense
+     * @param fromRevision the first revision to include, or {@code null} for the first one
+     * @param toRevision the last revision to include, or {@code null} for the latest one
+     * @return all audited versions of the expense in the range
+     * @throws AuditHistoryTooLongException if the range holds more than {@value #MAX_UNPAGED_AUDIT_REVISIONS} revisions
      */
-    @SuppressWarnings("unchecked")
-    public List<ExpenseAuditResponse> getAuditHistory(Long id) {
-        if (!expenseRepository.existsById(id)) {
+    @Transactional(readOnly = true)
+    public List<ExpenseAuditResponse> getAuditHistory(Long id, Integer fromRevision, Integer toRevision) {
+        requireExpenseExists(id);
+
+        List<ExpenseAuditRow> revisions = expenseRepository.findAuditRevisions(
+                id, revisionBefore(fromRevision), lastRevision(toRevision), MAX_UNPAGED_AUDIT_REVISIONS + 1);
+        if (revisions.size() > MAX_UNPAGED_AUDIT_REVISIONS) {
+            throw new AuditHistoryTooLongException(MAX_UNPAGED_AUDIT_REVISIONS);
+        }
+        return revisions.stream()
+                .map(this::toAuditResponse)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of the audit history for an expense (asc order), optionally
+     * limited to a revision range, in a constant number of statements per page.
+     *
+     * @param id expense identifier
+     * @param after the cursor returned with the previous page, or {@code null} for the first page
+     * @param size the page size, capped at {@value #MAX_CURSOR_PAGE_SIZE}
+     * @param fromRevision the first revision to include, or {@code null} for the first one
+     * @param toRevision the last revision to include, or {@code null} for the latest one
+     * @return the page of audited versions
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ExpenseAuditResponse> getAuditHistoryPage(
+            Long id, String after, int size, Integer fromRevision, Integer toRevision) {
+        requireExpenseExists(id);
+
+        int afterRevision = revisionBefore(fromRevision);
+        if (after != null && !after.isBlank()) {
+            try {
+                afterRevision = Math.max(afterRevision, Integer.parseInt(KeysetCursor.decode(after, 1)[0]));
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException();
+            }
+        }
+
+        int limit = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        Slice<ExpenseAuditRow> slice = KeysetCursor.toSlice(
+                expenseRepository.findAuditRevisions(id, afterRevision, lastRevision(toRevision), limit + 1), limit);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            nextCursor = KeysetCursor.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getRevisionNumber());
+        }
+        return CursorPageResponse.of(slice.map(this::toAuditResponse), nextCursor);
+    }
+
+    private void requireExpenseExists(Long id) {
+        if (!expenseRepository.existsById(id) && !expenseRepository.existsArchivedById(id)) {
             throw new ResourceNotFoundException(Messages.EXPENSE_NOT_FOUND);
         }
+    }
+
+    private static int revisionBefore(Integer fromRevision) {
+        return fromRevision != null ? fromRevision - 1 : 0;
+    }
+
+    private static int lastRevision(Integer toRevision) {
+        return toRevision != null ? toRevision : Integer.MAX_VALUE;
+    }
+
+    private ExpenseAuditResponse toAuditResponse(ExpenseAuditRow revision) {
+        return ExpenseAuditResponse.builder()
+                .id(revision.getId())
+                .amount(revision.getAmount())
+                .description(revision.getDescription())
+                .expenseDate(revision.getExpenseDate())
+                .userId(revision.getUserId())
+                .userName(revision.getUserName())
+                .expenseCategoryId(revision.getExpenseCategoryId())
+                .expenseCategoryName(revision.getExpenseCategoryName())
+                .currencyName(revision.getCurrencyName())
+                .exchangeRate(revision.getExchangeRate())
+                .receiptUrl(revision.getReceiptUrl())
+                .status(revision.getStatus() != null ? ExpenseStatus.valueOf(revision.getStatus()) : null)
+                .revisionNumber(revision.getRevisionNumber())
+                .revisionType(revision.getRevisionType())
+                .revisionDate(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(revision.getRevisionTimestamp()), ZoneId.systemDefault()))
+                .revisionUserEmail(revision.getRevisionUserEmail())
+                .build();
+    }
 
-        var auditReader = AuditReaderFactory.get(entityManager);
-
-        List<Object[]> results = auditReader.createQuery()
-                .forRevisionsOfEntity(Expense.class, false, true)
-                .add(AuditEntity.id().eq(id))
-                .getResultList();
-
-        return results.stream()
-                .map(result -> {
-                    Expense entity = (Expense) result[0];
-                    CustomRevisionEntity revEntity = (CustomRevisionEntity) result[1];
-                    Number revNumber = revEntity.getId();
-                    long revTimestamp = revEntity.getTimestamp();
-                    String revUserEmail = revEntity.getModifiedBy();
-                    RevisionType revType = (RevisionType) result[2];
-
-                    return ExpenseAuditResponse.builder()
-                            .id(entity.getId())
-                            .amount(entity.getAmount())
-                            .description(entity.getDescription())
-                            .expenseDate(entity.getExpenseDate())
-                            .userId(entity.getUser().getId())
-                            .userName(entity.getUser().getName())
-                            .expenseCategoryId(entity.getExpenseCategory().getId())
-                            .expenseCategoryName(entity.getExpenseCategory().getName())
-                            .currencyName(entity.getCurrency().getName())
-                            .exchangeRate(entity.getCurrency().getExchangeRate())
-                            .receiptUrl(entity.getReceiptUrl())
-                            .status(entity.getStatus())
-                            .revisionNumber(revNumber)
-                            .revisionType((short) revType.ordinal())
-                            .revisionDate(java.time.LocalDateTime.ofInstant(
-                                    Instant.ofEpochMilli(revTimestamp), ZoneId.systemDefault()))
-                            .revisionUserEmail(revUserEmail)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    private static ExpenseBatchItemResponse failedItem(int index, HttpStatus status, String error) {
+        return ExpenseBatchItemResponse.builder()
+                .index(index)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Loads the current user as the owner of new expenses. The principal only references
+     * its department by ID, while budget checks read the department's budgets.
+     *
+     * @param currentUser the authenticated principal
+     * @return the managed user
+     */
+    private User loadOwner(User currentUser) {
+        return userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.USER_NOT_FOUND));
     }
 
     /**
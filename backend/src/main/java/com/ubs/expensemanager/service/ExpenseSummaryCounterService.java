@@ -0,0 +1,142 @@
+package com.ubs.expensemanager.service;
+
+import com.ubs.expensemanager.config.DatabasePlatform;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.repository.ExpenseSummaryCounterRepository;
+import com.ubs.expensemanager.util.CurrencyConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Service responsible for keeping the {@code expense_summary_counters} table in sync with expenses.
+ *
+ * <p>Every expense write updates the counter row of its owner for the month of the expense,
+ * inside the caller's transaction. Like {@link ExpenseDailyRollupService}, the deltas are
+ * merged per row and written just before commit in key order, each as one atomic upsert.
+ * There is no row for all users; the overall summary sums the rows of every user.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseSummaryCounterService {
+
+    private final ExpenseSummaryCounterRepository counterRepository;
+    private final DatabasePlatform databasePlatform;
+    private final SortedRowDeltas<CounterRow, CounterDelta> pendingRows =
+            new SortedRowDeltas<>(1, CounterDelta::plus, this::write);
+
+    /**
+     * Counts an expense using its current values.
+     *
+     * @param expense the created or updated expense
+     */
+    public void add(Expense expense) {
+        apply(expense, null, expense.getStatus());
+    }
+
+    /**
+     * Removes an expense from the counters using its current values.
+     * Must be called before the expense is modified or deleted.
+     *
+     * @param expense the expense about to change
+     */
+    public void subtract(Expense expense) {
+        apply(expense, expense.getStatus(), null);
+    }
+
+    /**
+     * Moves an expense between counters after a status transition.
+     *
+     * @param expense the expense, already holding its new status
+     * @param previousStatus the status before the transition
+     */
+    public void changeStatus(Expense expense, ExpenseStatus previousStatus) {
+        if (previousStatus == expense.getStatus()) {
+            return;
+        }
+        apply(expense, previousStatus, expense.getStatus());
+    }
+
+    /**
+     * Recomputes all counters from the {@code expense_daily_rollup} table, which must be
+     * up to date. Concurrent expense writes during the rebuild may be missed.
+     *
+     * @return number of counter rows written
+     */
+    @Transactional
+    public int rebuild() {
+        int deleted = counterRepository.deleteAllRows();
+        int inserted = counterRepository.insertAggregatedFromRollup();
+        log.info("Rebuilt expense summary counters: {} rows removed, {} rows written", deleted, inserted);
+        return inserted;
+    }
+
+    /**
+     * Applies the difference between the contribution of the expense with the old status
+     * and with the new status. A null status means the expense is not counted.
+     */
+    private void apply(Expense expense, ExpenseStatus oldStatus, ExpenseStatus newStatus) {
+        BigDecimal amountUsd = CurrencyConverter.storedUsd(expense);
+        BigDecimal amountUsdDelta = amountUsd.multiply(BigDecimal.valueOf(isCounted(newStatus) - isCounted(oldStatus)));
+        long approvedDelta = isApproved(newStatus) - isApproved(oldStatus);
+        long pendingDelta = isPending(newStatus) - isPending(oldStatus);
+
+        if (amountUsdDelta.signum() == 0 && approvedDelta == 0 && pendingDelta == 0) {
+            return;
+        }
+
+        pendingRows.add(new CounterRow(expense.getUser().getId(), expense.getExpenseDate().withDayOfMonth(1)),
+                new CounterDelta(amountUsdDelta, approvedDelta, pendingDelta));
+    }
+
+    private void write(CounterRow row, CounterDelta delta) {
+        if (delta.amountUsd().signum() == 0 && delta.approved() == 0 && delta.pending() == 0) {
+            return;
+        }
+        if (databasePlatform.isH2()) {
+            counterRepository.mergeRow(row.userId(), row.monthStart(), delta.amountUsd(), delta.approved(), delta.pending());
+        } else {
+            counterRepository.upsertRow(row.userId(), row.monthStart(), delta.amountUsd(), delta.approved(), delta.pending());
+        }
+    }
+
+    private static int isCounted(ExpenseStatus status) {
+        return status != null && status != ExpenseStatus.REJECTED ? 1 : 0;
+    }
+
+    private static int isApproved(ExpenseStatus status) {
+        return status == ExpenseStatus.APPROVED_BY_FINANCE ? 1 : 0;
+    }
+
+    private static int isPending(ExpenseStatus status) {
+        return status == ExpenseStatus.PENDING || status == ExpenseStatus.APPROVED_BY_MANAGER ? 1 : 0;
+    }
+
+    /**
+     * Primary key of a counter row, ordered like the table's primary key.
+     */
+    private record CounterRow(Long userId, LocalDate monthStart) implements Comparable<CounterRow> {
+
+        private static final Comparator<CounterRow> ORDER = Comparator.comparing(CounterRow::userId)
+                .thenComparing(CounterRow::monthStart);
+
+        @Override
+        public int compareTo(CounterRow other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private record CounterDelta(BigDecimal amountUsd, long approved, long pending) {
+
+        CounterDelta plus(CounterDelta other) {
+            return new CounterDelta(amountUsd.add(other.amountUsd()), approved + other.approved(), pending + other.pending());
+        }
+    }
+}
@@ -1,46 +1,77 @@
 package com.ubs.expensemanager.service;
 
+import com.ubs.expensemanager.cache.ReportResultCache;
 import com.ubs.expensemanager.dto.response.CategoryExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.DepartmentExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.EmployeeExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.LastExpenseDto;
 import com.ubs.expensemanager.dto.response.PersonalExpenseSummaryResponse;
 import com.ubs.expensemanager.model.Department;
-import com.ubs.expensemanager.model.Expense;
 import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.model.ReportJobType;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
 import com.ubs.expensemanager.repository.DepartmentRepository;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
 import com.ubs.expensemanager.repository.ExpenseRepository;
-import com.ubs.expensemanager.util.CurrencyConverter;
+import com.ubs.expensemanager.repository.ExpenseSummaryCounterRepository;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotal;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotalRow;
+import com.ubs.expensemanager.repository.projection.ExpenseSummaryTotals;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotal;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotalRow;
+import com.ubs.expensemanager.util.CsvExport;
+import com.ubs.expensemanager.util.CsvWriter;
 import com.ubs.expensemanager.util.DateRangeValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for generating expense reports.
  * 
- * <p>This service handles data aggregation for various types of expense reports.</p>
+ * <p>This service handles data aggregation for various types of expense reports.
+ * Reports read the daily rollup, or, given a past instant ({@code asOf}), the expenses as
+ * they were then, rebuilt from their audit revisions. Names and department budgets are
+ * always the current ones.</p>
+ *
+ * <p>Current-state reports go through the {@link ReportResultCache}, which serves
+ * identical requests one computation. They open their own read-only transaction around
+ * that computation, so requests waiting on it hold no connection.</p>
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
+    private static final String EMPLOYEE_CSV_HEADER = "Employee,Total (USD)\n";
+    private static final String CATEGORY_CSV_HEADER = "Category,Total (USD)\n";
+    private static final String DEPARTMENT_CSV_HEADER = "Department,Used (USD),Remaining (USD),Over Budget (USD)\n";
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseDailyRollupRepository expenseDailyRollupRepository;
+    private final ExpenseSummaryCounterRepository expenseSummaryCounterRepository;
     private final DepartmentRepository departmentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ReportResultCache reportResultCache;
 
     /**
      * Generates expense report grouped by employee for a given date range.
@@ -48,18 +79,21 @@ public class ReportService {
      * 
      * @param startDate start date (nullable, defaults to first day of current month)
      * @param endDate end date (nullable, defaults to current date)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of employee expense totals in USD
      */
-    @Transactional(readOnly = true)
-    public List<EmployeeExpenseReportResponse> getExpensesByEmployeeReport(LocalDate startDate, LocalDate endDate) {
+    public List<EmployeeExpenseReportResponse> getExpensesByEmployeeReport(LocalDate startDate, LocalDate endDate,
+                                                                           OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         DateRangeValidator.validate(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating expense report by employee from {} to {}", effectiveStartDate, effectiveEndDate);
+        log.info("Generating expense report by employee from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
         
-        List<EmployeeExpenseReportResponse> report = getExpensesByEmployee(effectiveStartDate, effectiveEndDate);
+        List<EmployeeExpenseReportResponse> report = cached(ReportJobType.EXPENSES_BY_EMPLOYEE,
+                effectiveStartDate, effectiveEndDate, asOf,
+                () -> getExpensesByEmployee(effectiveStartDate, effectiveEndDate, asOf));
         
         log.info("Report generated with {} employees", report.size());
         return report;
@@ -67,26 +101,33 @@ public class ReportService {
 
     /**
      * Generates CSV report grouped by employee for a given date range.
-     * Applies defaults and validates dates.
+     * Applies defaults and validates dates eagerly; rows are streamed from a database
+     * cursor only when the returned export is written.
      * 
      * @param startDate start date (nullable, defaults to first day of current month)
      * @param endDate end date (nullable, defaults to current date)
-     * @return CSV formatted string
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
+     * @return CSV export to be written to the response
      */
-    @Transactional(readOnly = true)
-    public String getExpensesByEmployeeCsvReport(LocalDate startDate, LocalDate endDate) {
+    public CsvExport getExpensesByEmployeeCsvReport(LocalDate startDate, LocalDate endDate, OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         DateRangeValidator.validate(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating CSV expense report by employee from {} to {}", effectiveStartDate, effectiveEndDate);
+        log.info("Generating CSV expense report by employee from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
         
-        List<EmployeeExpenseReportResponse> report = getExpensesByEmployee(effectiveStartDate, effectiveEndDate);
-        String csv = generateEmployeeCsv(report);
-        
-        log.info("CSV report generated with {} employees", report.size());
-        return csv;
+        if (asOf != null) {
+            return out -> writeNamedTotalsCsv(out, EMPLOYEE_CSV_HEADER, () -> toNamedTotals(
+                    expenseRepository.sumUsdAsOfGroupedByEmployee(
+                            effectiveStartDate, effectiveEndDate, ExpenseStatus.REJECTED.name(), toRevisionTimestamp(asOf)))
+                    .stream());
+        }
+        return out -> writeNamedTotalsCsv(out, EMPLOYEE_CSV_HEADER, () -> expenseDailyRollupRepository.streamUsdGroupedByEmployee(
+                effectiveStartDate,
+                effectiveEndDate,
+                ExpenseStatus.REJECTED
+        ));
     }
 
     /**
@@ -114,28 +155,31 @@ public class ReportService {
      * 
      * @param startDate start date (inclusive)
      * @param endDate end date (inclusive)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of employee expense totals in USD
      */
     @Transactional(readOnly = true)
-    public List<EmployeeExpenseReportResponse> getExpensesByEmployee(LocalDate startDate, LocalDate endDate) {
-        // Fetch all expenses within the date range (excluding REJECTED)
-        List<Expense> expenses = expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                startDate, 
-                endDate,
-                ExpenseStatus.REJECTED
-        );
-        
-        // Group by employee and sum amounts (converted to USD)
-        Map<String, BigDecimal> employeeTotals = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getUser().getName(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                CurrencyConverter::convertToUsd,
-                                BigDecimal::add
-                        )
-                ));
-        
+    public List<EmployeeExpenseReportResponse> getExpensesByEmployee(LocalDate startDate, LocalDate endDate,
+                                                                     OffsetDateTime asOf) {
+        // Sum amounts (converted to USD) grouped by employee in the database (excluding REJECTED)
+        List<NamedExpenseTotal> totals = asOf == null
+                ? expenseDailyRollupRepository.sumUsdGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED)
+                : toNamedTotals(expenseRepository.sumUsdAsOfGroupedByEmployee(
+                        startDate, endDate, ExpenseStatus.REJECTED.name(), toRevisionTimestamp(asOf)));
+        Map<String, BigDecimal> employeeTotals = totals.stream()
+                .collect(Collectors.toMap(NamedExpenseTotal::name, NamedExpenseTotal::total));
+        
+        return toEmployeeReport(employeeTotals);
+    }
+
+    /**
+     * Builds the employee report from USD totals per employee name, such as totals merged
+     * from several date ranges.
+     *
+     * @param employeeTotals USD totals keyed by employee name
+     * @return list of employee expense totals in USD, highest first
+     */
+    public List<EmployeeExpenseReportResponse> toEmployeeReport(Map<String, BigDecimal> employeeTotals) {
         // Convert map to list of DTOs and sort by total (descending)
         List<EmployeeExpenseReportResponse> report = employeeTotals.entrySet().stream()
                 .map(entry -> EmployeeExpenseReportResponse.builder()
@@ -148,44 +192,27 @@ public class ReportService {
         return report;
     }
 
-    /**
-     * Generates CSV content from employee report data.
-     * 
-     * @param report the report data
-     * @return CSV formatted string
-     */
-    private String generateEmployeeCsv(List<EmployeeExpenseReportResponse> report) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Employee,Total (USD)\n");
-        
-        for (EmployeeExpenseReportResponse row : report) {
-            csv.append(escapeCsv(row.getEmployee()))
-               .append(",")
-               .append(row.getTotal())
-               .append("\n");
-        }
-        
-        return csv.toString();
-    }
-
     /**
      * Generates expense report grouped by category for a given date range.
      * Applies defaults and validates dates.
      * 
      * @param startDate start date (nullable, defaults to first day of current month)
      * @param endDate end date (nullable, defaults to current date)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of category expense totals in USD
      */
-    @Transactional(readOnly = true)
-    public List<CategoryExpenseReportResponse> getExpensesByCategoryReport(LocalDate startDate, LocalDate endDate) {
+    public List<CategoryExpenseReportResponse> getExpensesByCategoryReport(LocalDate startDate, LocalDate endDate,
+                                                                           OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         DateRangeValidator.validate(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating expense report by category from {} to {}", effectiveStartDate, effectiveEndDate);
+        log.info("Generating expense report by category from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
         
-        List<CategoryExpenseReportResponse> report = getExpensesByCategory(effectiveStartDate, effectiveEndDate);
+        List<CategoryExpenseReportResponse> report = cached(ReportJobType.EXPENSES_BY_CATEGORY,
+                effectiveStartDate, effectiveEndDate, asOf,
+                () -> getExpensesByCategory(effectiveStartDate, effectiveEndDate, asOf));
         
         log.info("Report generated with {} categories", report.size());
         return report;
@@ -197,27 +224,30 @@ public class ReportService {
      * 
      * @param startDate start date (inclusive)
      * @param endDate end date (inclusive)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of category expense totals in USD
      */
-    private List<CategoryExpenseReportResponse> getExpensesByCategory(LocalDate startDate, LocalDate endDate) {
-        // Fetch all expenses within the date range (excluding REJECTED)
-        List<Expense> expenses = expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                startDate, 
-                endDate,
-                ExpenseStatus.REJECTED
-        );
-        
-        // Group by category and sum amounts (converted to USD)
-        Map<String, BigDecimal> categoryTotals = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getExpenseCategory().getName(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                CurrencyConverter::convertToUsd,
-                                BigDecimal::add
-                        )
-                ));
-        
+    private List<CategoryExpenseReportResponse> getExpensesByCategory(LocalDate startDate, LocalDate endDate,
+                                                                      OffsetDateTime asOf) {
+        // Sum amounts (converted to USD) grouped by category in the database (excluding REJECTED)
+        List<NamedExpenseTotal> totals = asOf == null
+                ? expenseDailyRollupRepository.sumUsdGroupedByCategory(startDate, endDate, ExpenseStatus.REJECTED)
+                : toNamedTotals(expenseRepository.sumUsdAsOfGroupedByCategory(
+                        startDate, endDate, ExpenseStatus.REJECTED.name(), toRevisionTimestamp(asOf)));
+        Map<String, BigDecimal> categoryTotals = totals.stream()
+                .collect(Collectors.toMap(NamedExpenseTotal::name, NamedExpenseTotal::total));
+        
+        return toCategoryReport(categoryTotals);
+    }
+
+    /**
+     * Builds the category report from USD totals per category name, such as totals merged
+     * from several date ranges.
+     *
+     * @param categoryTotals USD totals keyed by category name
+     * @return list of category expense totals in USD, highest first
+     */
+    public List<CategoryExpenseReportResponse> toCategoryReport(Map<String, BigDecimal> categoryTotals) {
         // Convert map to list of DTOs and sort by total (descending)
         List<CategoryExpenseReportResponse> report = categoryTotals.entrySet().stream()
                 .map(entry -> CategoryExpenseReportResponse.builder()
@@ -232,46 +262,62 @@ public class ReportService {
 
     /**
      * Generates CSV report grouped by category for a given date range.
-     * Applies defaults and validates dates.
+     * Applies defaults and validates dates eagerly; rows are streamed from a database
+     * cursor only when the returned export is written.
      * 
      * @param startDate start date (nullable, defaults to first day of current month)
      * @param endDate end date (nullable, defaults to current date)
-     * @return CSV formatted string
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
+     * @return CSV export to be written to the response
      */
-    @Transactional(readOnly = true)
-    public String getExpensesByCategoryCsvReport(LocalDate startDate, LocalDate endDate) {
+    public CsvExport getExpensesByCategoryCsvReport(LocalDate startDate, LocalDate endDate, OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now().withDayOfMonth(1);
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         DateRangeValidator.validate(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating CSV expense report by category from {} to {}", effectiveStartDate, effectiveEndDate);
+        log.info("Generating CSV expense report by category from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
         
-        List<CategoryExpenseReportResponse> report = getExpensesByCategory(effectiveStartDate, effectiveEndDate);
-        String csv = generateCategoryCsv(report);
-        
-        log.info("CSV report generated with {} categories", report.size());
-        return csv;
+        if (asOf != null) {
+            return out -> writeNamedTotalsCsv(out, CATEGORY_CSV_HEADER, () -> toNamedTotals(
+                    expenseRepository.sumUsdAsOfGroupedByCategory(
+                            effectiveStartDate, effectiveEndDate, ExpenseStatus.REJECTED.name(), toRevisionTimestamp(asOf)))
+                    .stream());
+        }
+        return out -> writeNamedTotalsCsv(out, CATEGORY_CSV_HEADER, () -> expenseDailyRollupRepository.streamUsdGroupedByCategory(
+                effectiveStartDate,
+                effectiveEndDate,
+                ExpenseStatus.REJECTED
+        ));
     }
 
     /**
-     * Generates CSV content from category report data.
+     * Writes a two column CSV (name, total) from a stream of aggregated rows.
+     * The stream is opened, consumed and closed inside a read-only transaction
+     * so the JDBC cursor stays open while rows are written.
      * 
-     * @param report the report data
-     * @return CSV formatted string
+     * @param out the target stream
+     * @param header the header line
+     * @param rows supplier opening the row stream
      */
-    private String generateCategoryCsv(List<CategoryExpenseReportResponse> report) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Category,Total (USD)\n");
-        
-        for (CategoryExpenseReportResponse row : report) {
-            csv.append(escapeCsv(row.getCategory()))
-               .append(",")
-               .append(row.getTotal())
-               .append("\n");
-        }
-        
-        return csv.toString();
+    private void writeNamedTotalsCsv(OutputStream out, String header, Supplier<Stream<NamedExpenseTotal>> rows) {
+        readOnlyTransaction().executeWithoutResult(status -> {
+            CsvWriter csv = new CsvWriter(out).raw(header);
+            long count = 0;
+            try (Stream<NamedExpenseTotal> stream = rows.get()) {
+                Iterator<NamedExpenseTotal> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    NamedExpenseTotal row = iterator.next();
+                    csv.text(row.name())
+                            .comma()
+                            .decimal(row.total().setScale(2, RoundingMode.HALF_UP))
+                            .endRow();
+                    count++;
+                }
+            }
+            csv.flush();
+            log.info("CSV report streamed with {} rows", count);
+        });
     }
 
     /**
@@ -280,26 +326,22 @@ public class ReportService {
      * 
      * @param startDate start date (nullable, defaults to current date)
      * @param endDate end date (nullable, defaults to current date)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of department expense reports with budget information in USD
      */
-    @Transactional(readOnly = true)
-    public List<DepartmentExpenseReportResponse> getExpensesByDepartmentReport(LocalDate startDate, LocalDate endDate) {
+    public List<DepartmentExpenseReportResponse> getExpensesByDepartmentReport(LocalDate startDate, LocalDate endDate,
+                                                                               OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now();
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         // Special validation for department reports: same month/year or single day
         DateRangeValidator.validateSameMonthOrSingleDay(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating expense report by department from {} to {}", effectiveStartDate, effectiveEndDate);
-        
-        List<DepartmentExpenseReportResponse> report;
+        log.info("Generating expense report by department from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
         
-        // Check if it's a daily report or period report
-        if (effectiveStartDate.equals(effectiveEndDate)) {
-            report = getExpensesByDepartmentDaily(effectiveStartDate);
-        } else {
-            report = getExpensesByDepartmentPeriod(effectiveStartDate, effectiveEndDate);
-        }
+        List<DepartmentExpenseReportResponse> report = cached(ReportJobType.DEPARTMENT_BUDGETS,
+                effectiveStartDate, effectiveEndDate, asOf,
+                () -> getExpensesByDepartment(effectiveStartDate, effectiveEndDate, asOf));
         
         log.info("Report generated with {} departments", report.size());
         return report;
@@ -307,35 +349,99 @@ public class ReportService {
 
     /**
      * Generates CSV report grouped by department with budget tracking.
-     * Applies defaults and validates dates.
+     * Applies defaults and validates dates eagerly. One row is written per department,
+     * so the rows are built in memory and only the output is streamed.
      * 
      * @param startDate start date (nullable, defaults to current date)
      * @param endDate end date (nullable, defaults to current date)
-     * @return CSV formatted string
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
+     * @return CSV export to be written to the response
      */
-    @Transactional(readOnly = true)
-    public String getExpensesByDepartmentCsvReport(LocalDate startDate, LocalDate endDate) {
+    public CsvExport getExpensesByDepartmentCsvReport(LocalDate startDate, LocalDate endDate, OffsetDateTime asOf) {
         LocalDate effectiveStartDate = startDate != null ? startDate : LocalDate.now();
         LocalDate effectiveEndDate = endDate != null ? endDate : LocalDate.now();
         
         // Special validation for department reports: same month/year or single day
         DateRangeValidator.validateSameMonthOrSingleDay(effectiveStartDate, effectiveEndDate);
         
-        log.info("Generating CSV expense report by department from {} to {}", effectiveStartDate, effectiveEndDate);
-        
-        List<DepartmentExpenseReportResponse> report;
-        
+        log.info("Generating CSV expense report by department from {} to {} as of {}", effectiveStartDate, effectiveEndDate, asOf);
+        
+        return out -> {
+            List<DepartmentExpenseReportResponse> report = cached(ReportJobType.DEPARTMENT_BUDGETS,
+                    effectiveStartDate, effectiveEndDate, asOf,
+                    () -> getExpensesByDepartment(effectiveStartDate, effectiveEndDate, asOf));
+            
+            writeDepartmentCsv(out, report);
+            
+            log.info("CSV report generated with {} departments", report.size());
+        };
+    }
+
+    /**
+     * Writes an employee report in the format of its CSV export.
+     *
+     * @param out the target stream, not closed
+     * @param report the report rows
+     */
+    public void writeEmployeeCsv(OutputStream out, List<EmployeeExpenseReportResponse> report) {
+        CsvWriter csv = new CsvWriter(out).raw(EMPLOYEE_CSV_HEADER);
+        for (EmployeeExpenseReportResponse row : report) {
+            csv.text(row.getEmployee()).comma().decimal(row.getTotal()).endRow();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Writes a category report in the format of its CSV export.
+     *
+     * @param out the target stream, not closed
+     * @param report the report rows
+     */
+    public void writeCategoryCsv(OutputStream out, List<CategoryExpenseReportResponse> report) {
+        CsvWriter csv = new CsvWriter(out).raw(CATEGORY_CSV_HEADER);
+        for (CategoryExpenseReportResponse row : report) {
+            csv.text(row.getCategory()).comma().decimal(row.getTotal()).endRow();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Writes a department report in the format of its CSV export.
+     *
+     * @param out the target stream, not closed
+     * @param report the report rows
+     */
+    public void writeDepartmentCsv(OutputStream out, List<DepartmentExpenseReportResponse> report) {
+        CsvWriter csv = new CsvWriter(out).raw(DEPARTMENT_CSV_HEADER);
+        for (DepartmentExpenseReportResponse row : report) {
+            csv.text(row.getDepartment())
+                    .comma()
+                    .decimal(row.getUsed())
+                    .comma()
+                    .decimal(row.getRemaining())
+                    .comma()
+                    .decimal(row.getOverBudget())
+                    .endRow();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Generates expense report grouped by department for a single day or a period within
+     * the same month.
+     *
+     * @param startDate start date (inclusive)
+     * @param endDate end date (inclusive)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
+     * @return list of department expense reports with budget information
+     */
+    private List<DepartmentExpenseReportResponse> getExpensesByDepartment(LocalDate startDate, LocalDate endDate,
+                                                                          OffsetDateTime asOf) {
         // Check if it's a daily report or period report
-        if (effectiveStartDate.equals(effectiveEndDate)) {
-            report = getExpensesByDepartmentDaily(effectiveStartDate);
-        } else {
-            report = getExpensesByDepartmentPeriod(effectiveStartDate, effectiveEndDate);
+        if (startDate.equals(endDate)) {
+            return getExpensesByDepartmentDaily(startDate, asOf);
         }
-        
-        String csv = generateDepartmentCsv(report);
-        
-        log.info("CSV report generated with {} departments", report.size());
-        return csv;
+        return getExpensesByDepartmentPeriod(startDate, endDate, asOf);
     }
 
     /**
@@ -344,27 +450,13 @@ public class ReportService {
      * 
      * @param startDate start date (inclusive)
      * @param endDate end date (inclusive)
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of department expense reports with budget information
      */
-    private List<DepartmentExpenseReportResponse> getExpensesByDepartmentPeriod(LocalDate startDate, LocalDate endDate) {
-        // Fetch all expenses within the date range (excluding REJECTED)
-        List<Expense> expenses = expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                startDate, 
-                endDate,
-                ExpenseStatus.REJECTED
-        );
-        
-        // Group by department and sum amounts (converted to USD)
-        Map<Department, BigDecimal> departmentTotals = expenses.stream()
-                .filter(expense -> expense.getUser().getDepartment() != null)
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getUser().getDepartment(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                CurrencyConverter::convertToUsd,
-                                BigDecimal::add
-                        )
-                ));
+    private List<DepartmentExpenseReportResponse> getExpensesByDepartmentPeriod(LocalDate startDate, LocalDate endDate,
+                                                                                OffsetDateTime asOf) {
+        // Sum amounts (converted to USD) grouped by department in the database (excluding REJECTED)
+        Map<Long, BigDecimal> departmentTotals = sumUsdByDepartment(startDate, endDate, asOf);
         
         // Get all departments to include those with no expenses
         List<Department> allDepartments = departmentRepository.findAll();
@@ -372,7 +464,7 @@ public class ReportService {
         // Convert map to list of DTOs with budget calculations (using monthly budget)
         List<DepartmentExpenseReportResponse> report = allDepartments.stream()
                 .map(department -> {
-                    BigDecimal used = departmentTotals.getOrDefault(department, BigDecimal.ZERO)
+                    BigDecimal used = departmentTotals.getOrDefault(department.getId(), BigDecimal.ZERO)
                             .setScale(2, RoundingMode.HALF_UP);
                     
                     // Convert monthly budget to USD using department's currency exchange rate
@@ -411,27 +503,12 @@ public class ReportService {
      * Uses daily budget for comparison.
      * 
      * @param date the date to report on
+     * @param asOf instant to report the expenses as they were at (nullable, for the current state)
      * @return list of department expense reports with budget information
      */
-    private List<DepartmentExpenseReportResponse> getExpensesByDepartmentDaily(LocalDate date) {
-        // Fetch all expenses for the specific date (excluding REJECTED)
-        List<Expense> expenses = expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                date, 
-                date,
-                ExpenseStatus.REJECTED
-        );
-        
-        // Group by department and sum amounts (converted to USD)
-        Map<Department, BigDecimal> departmentTotals = expenses.stream()
-                .filter(expense -> expense.getUser().getDepartment() != null)
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getUser().getDepartment(),
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                CurrencyConverter::convertToUsd,
-                                BigDecimal::add
-                        )
-                ));
+    private List<DepartmentExpenseReportResponse> getExpensesByDepartmentDaily(LocalDate date, OffsetDateTime asOf) {
+        // Sum amounts (converted to USD) grouped by department in the database (excluding REJECTED)
+        Map<Long, BigDecimal> departmentTotals = sumUsdByDepartment(date, date, asOf);
         
         // Get all departments to include those with no expenses
         List<Department> allDepartments = departmentRepository.findAll();
@@ -439,7 +516,7 @@ public class ReportService {
         // Convert map to list of DTOs with budget calculations (using daily budget)
         List<DepartmentExpenseReportResponse> report = allDepartments.stream()
                 .map(department -> {
-                    BigDecimal used = departmentTotals.getOrDefault(department, BigDecimal.ZERO)
+                    BigDecimal used = departmentTotals.getOrDefault(department.getId(), BigDecimal.ZERO)
                             .setScale(2, RoundingMode.HALF_UP);
                     
                     // Use daily budget for single-day reports (if available, otherwise use monthly)
@@ -479,43 +556,69 @@ public class ReportService {
     }
 
     /**
-     * Generates CSV content from department report data.
-     * 
-     * @param report the report data
-     * @return CSV formatted string
+     * Sums the USD amount of expenses grouped by department for a date range (excluding REJECTED).
+     *
+     * @param startDate start date (inclusive)
+     * @param endDate end date (inclusive)
+     * @param asOf instant to sum the expenses as they were at (nullable, for the current state)
+     * @return USD totals keyed by department ID
      */
-    private String generateDepartmentCsv(List<DepartmentExpenseReportResponse> report) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Department,Used (USD),Remaining (USD),Over Budget (USD)\n");
-        
-        for (DepartmentExpenseReportResponse row : report) {
-            csv.append(escapeCsv(row.getDepartment()))
-               .append(",")
-               .append(row.getUsed())
-               .append(",")
-               .append(row.getRemaining())
-               .append(",")
-               .append(row.getOverBudget())
-               .append("\n");
+    private Map<Long, BigDecimal> sumUsdByDepartment(LocalDate startDate, LocalDate endDate, OffsetDateTime asOf) {
+        if (asOf != null) {
+            return expenseRepository.sumUsdAsOfGroupedByDepartment(
+                            startDate, endDate, ExpenseStatus.REJECTED.name(), toRevisionTimestamp(asOf))
+                    .stream()
+                    .collect(Collectors.toMap(DepartmentExpenseTotalRow::getDepartmentId, DepartmentExpenseTotalRow::getTotal));
         }
-        
-        return csv.toString();
+        return expenseDailyRollupRepository.sumUsdGroupedByDepartment(startDate, endDate, ExpenseStatus.REJECTED)
+                .stream()
+                .collect(Collectors.toMap(DepartmentExpenseTotal::departmentId, DepartmentExpenseTotal::total));
     }
 
     /**
-     * Escapes CSV values that contain special characters.
-     * 
-     * @param value the value to escape
-     * @return escaped value wrapped in quotes if necessary
+     * Computes a report in a read-only transaction, through the {@link ReportResultCache}
+     * unless it is a report of a past instant.
+     *
+     * @param type the report type
+     * @param startDate effective start date (inclusive)
+     * @param endDate effective end date (inclusive)
+     * @param asOf instant the report is as of (nullable, for the current state)
+     * @param report computes the report
+     * @return the report, unmodifiable
      */
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
+    private <T> List<T> cached(ReportJobType type, LocalDate startDate, LocalDate endDate, OffsetDateTime asOf,
+                               Supplier<List<T>> report) {
+        Supplier<List<T>> inTransaction = () -> readOnlyTransaction().execute(status -> List.copyOf(report.get()));
+        if (asOf != null) {
+            return inTransaction.get();
         }
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+        return reportResultCache.get(type, startDate, endDate, inTransaction);
+    }
+
+    private static List<NamedExpenseTotal> toNamedTotals(List<NamedExpenseTotalRow> rows) {
+        return rows.stream()
+                .map(row -> new NamedExpenseTotal(row.getName(), row.getTotal()))
+                .toList();
+    }
+
+    /**
+     * @param asOf a point in time
+     * @return the point in time as Envers stores revision timestamps, in epoch milliseconds
+     */
+    private static long toRevisionTimestamp(OffsetDateTime asOf) {
+        return asOf.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Builds a read-only transaction template for the reports and the lazily written CSV
+     * exports, which run after the controller method has returned.
+     * 
+     * @return read-only transaction template
+     */
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
     }
 
     /**
@@ -551,20 +654,16 @@ public class ReportService {
         
         log.info("Generating personal expense summary for user {}", userId);
         
-        // Get all expenses for the user (excluding REJECTED)
-        List<Expense> allExpenses = expenseRepository.findAllByUserIdAndStatusNot(userId, ExpenseStatus.REJECTED);
+        // Read the user's counters (excluding REJECTED); expense dates cannot be in the future,
+        // so the current month's counter covers the first day of the month up to today
+        ExpenseSummaryTotals totals = expenseSummaryCounterRepository.sumTotals(
+                userId, LocalDate.now().withDayOfMonth(1));
         
         // Get last 3 expenses for the user
-        List<Expense> recentExpenses = expenseRepository.findTopByUserIdAndStatusNotOrderByExpenseDateDesc(
+        List<LastExpenseDto> lastExpenses = expenseRepository.findLastExpensesByUserIdAndStatusNot(
                 userId, ExpenseStatus.REJECTED, PageRequest.of(0, 3));
         
-        // Get this month's expenses for the user
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        LocalDate endOfMonth = LocalDate.now();
-        List<Expense> thisMonthExpenses = expenseRepository.findAllByUserIdAndExpenseDateBetweenAndStatusNot(
-                userId, startOfMonth, endOfMonth, ExpenseStatus.REJECTED);
-        
-        PersonalExpenseSummaryResponse summary = buildExpenseSummary(allExpenses, thisMonthExpenses, recentExpenses);
+        PersonalExpenseSummaryResponse summary = buildExpenseSummary(totals, lastExpenses);
         
         log.info("Personal summary generated: total={}, approvedCount={}, pendingCount={}, thisMonth={}, lastExpenses={}",
                 summary.getTotalExpenses(), summary.getApprovedExpensesCount(), 
@@ -582,20 +681,15 @@ public class ReportService {
     private PersonalExpenseSummaryResponse getOverallExpenseSummary() {
         log.info("Generating overall expense summary for all users");
         
-        // Get all expenses (excluding REJECTED)
-        List<Expense> allExpenses = expenseRepository.findAllByStatusNot(ExpenseStatus.REJECTED);
+        // Sum the counters of every user (excluding REJECTED)
+        ExpenseSummaryTotals totals = expenseSummaryCounterRepository.sumTotalsOfAllUsers(
+                LocalDate.now().withDayOfMonth(1));
         
         // Get last 3 expenses
-        List<Expense> recentExpenses = expenseRepository.findTopByStatusNotOrderByExpenseDateDesc(
+        List<LastExpenseDto> lastExpenses = expenseRepository.findLastExpensesByStatusNot(
                 ExpenseStatus.REJECTED, PageRequest.of(0, 3));
         
-        // Get this month's expenses
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        LocalDate endOfMonth = LocalDate.now();
-        List<Expense> thisMonthExpenses = expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                startOfMonth, endOfMonth, ExpenseStatus.REJECTED);
-        
-        PersonalExpenseSummaryResponse summary = buildExpenseSummary(allExpenses, thisMonthExpenses, recentExpenses);
+        PersonalExpenseSummaryResponse summary = buildExpenseSummary(totals, lastExpenses);
         
         log.info("Overall summary generated: total={}, approvedCount={}, pendingCount={}, thisMonth={}, lastExpenses={}",
                 summary.getTotalExpenses(), summary.getApprovedExpensesCount(), 
@@ -606,65 +700,32 @@ public class ReportService {
     }
 
     /**
-     * Builds an expense summary from the given expense lists.
+     * Builds an expense summary from the summary counters and the most recent expenses.
      * Helper method to avoid code duplication.
      *
-     * @param allExpenses all expenses (excluding REJECTED)
-     * @param thisMonthExpenses expenses for the current month
-     * @param recentExpenses the most recent expenses
+     * @param totals the summary counter totals (fields are null when no expense was counted)
+     * @param lastExpenses the most recent expenses
      * @return expense summary response
      */
     private PersonalExpenseSummaryResponse buildExpenseSummary(
-            List<Expense> allExpenses,
-            List<Expense> thisMonthExpenses,
-            List<Expense> recentExpenses) {
-        
-        // Calculate total expenses in USD
-        BigDecimal totalExpenses = calculateTotalInUsd(allExpenses);
-        
-        // Count approved expenses (APPROVED_BY_FINANCE)
-        Integer approvedExpensesCount = (int) allExpenses.stream()
-                .filter(expense -> expense.getStatus() == ExpenseStatus.APPROVED_BY_FINANCE)
-                .count();
-        
-        // Count pending expenses (PENDING, APPROVED_BY_MANAGER)
-        Integer pendingExpensesCount = (int) allExpenses.stream()
-                .filter(expense -> expense.getStatus() == ExpenseStatus.PENDING ||
-                                 expense.getStatus() == ExpenseStatus.APPROVED_BY_MANAGER)
-                .count();
-        
-        // Calculate this month's expenses in USD
-        BigDecimal expensesThisMonth = calculateTotalInUsd(thisMonthExpenses);
-        
-        // Convert recent expenses to DTOs
-        List<LastExpenseDto> lastExpenses = recentExpenses.stream()
-                .map(expense -> LastExpenseDto.builder()
-                        .description(expense.getDescription())
-                        .date(expense.getExpenseDate())
-                        .status(expense.getStatus())
-                        .build())
-                .collect(Collectors.toList());
+            ExpenseSummaryTotals totals,
+            List<LastExpenseDto> lastExpenses) {
         
         return PersonalExpenseSummaryResponse.builder()
-                .totalExpenses(totalExpenses)
-                .approvedExpensesCount(approvedExpensesCount)
-                .pendingExpensesCount(pendingExpensesCount)
-                .expensesThisMonth(expensesThisMonth)
+                .totalExpenses(toUsdAmount(totals.totalUsd()))
+                .approvedExpensesCount(toCount(totals.approvedCount()))
+                .pendingExpensesCount(toCount(totals.pendingCount()))
+                .expensesThisMonth(toUsdAmount(totals.monthUsd()))
                 .lastExpenses(lastExpenses)
                 .build();
     }
 
-    /**
-     * Calculates the total amount of expenses in USD.
-     *
-     * @param expenses list of expenses
-     * @return total amount in USD
-     */
-    private BigDecimal calculateTotalInUsd(List<Expense> expenses) {
-        return expenses.stream()
-                .map(CurrencyConverter::convertToUsd)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
+    private static BigDecimal toUsdAmount(BigDecimal amount) {
+        return (amount != null ? amount : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Integer toCount(Long count) {
+        return count != null ? Math.toIntExact(count) : 0;
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.ubs.expensemanager.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * Deltas to the rows of an aggregate table, collected during a transaction and written just
+ * before it commits.
+ *
+ * <p>Deltas to the same row are merged, and rows are written in ascending key order. Every
+ * transaction therefore locks the rows of the table in the same order, so two transactions
+ * touching the same rows, e.g. a batch of expenses and an expense moved to another month,
+ * wait for each other instead of deadlocking. Without transaction synchronization each
+ * delta is written at once.</p>
+ *
+ * @param <K> the row key
+ * @param <D> the delta of one row
+ */
+class SortedRowDeltas<K extends Comparable<K>, D> {
+
+    private final int order;
+    private final BinaryOperator<D> merge;
+    private final BiConsumer<K, D> writer;
+
+    /**
+     * @param order order of the write among the before-commit callbacks; tables written by
+     *              the same transactions must use distinct orders so they are written in a fixed sequence
+     * @param merge combines two deltas to the same row
+     * @param writer writes the delta of one row
+     */
+    SortedRowDeltas(int order, BinaryOperator<D> merge, BiConsumer<K, D> writer) {
+        this.order = order;
+        this.merge = merge;
+        this.writer = writer;
+    }
+
+    /**
+     * Adds a delta to the row with the given key.
+     */
+    void add(K key, D delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writer.accept(key, delta);
+            return;
+        }
+        pendingRows().merge(key, delta, merge);
+    }
+
+    /**
+     * Returns the rows pending in the current transaction, registering their write on first use.
+     * The rows live in the synchronization, so a suspended outer transaction keeps its own.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<K, D> pendingRows() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRows<?, ?> pending && pending.owner == this) {
+                return (Map<K, D>) pending.rows;
+            }
+        }
+        PendingRows<K, D> pending = new PendingRows<>(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.rows;
+    }
+
+    private static final class PendingRows<K extends Comparable<K>, D> implements TransactionSynchronization {
+
+        private final SortedRowDeltas<K, D> owner;
+        private final Map<K, D> rows = new TreeMap<>();
+
+        private PendingRows(SortedRowDeltas<K, D> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public int getOrder() {
+            return owner.order;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            rows.forEach(owner.writer);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.ubs.expensemanager.service;
 
 import com.ubs.expensemanager.messages.Messages;
+import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.repository.UserRepository;
+import com.ubs.expensemanager.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,10 +14,30 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository repository;
+    private final PrincipalCache principalCache;
 
+    /**
+     * Loads the full user, e.g. to check a password on login.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return repository.findByEmail(username)
+        return findByEmail(username);
+    }
+
+    /**
+     * Loads the principal of an authenticated request from {@link PrincipalCache}; its
+     * department and manager are ID-only references.
+     *
+     * @param username the email in the token
+     * @return the principal
+     * @throws UsernameNotFoundException if there is no such user
+     */
+    public User loadPrincipal(String username) {
+        return principalCache.get(username, this::findByEmail);
+    }
+
+    private User findByEmail(String email) {
+        return repository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException(Messages.USER_NOT_FOUND));
     }
 }
@@ -17,8 +17,11 @@ import com.ubs.expensemanager.model.Department;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
 import com.ubs.expensemanager.repository.DepartmentRepository;
+import com.ubs.expensemanager.repository.ExpenseRepository;
 import com.ubs.expensemanager.repository.UserRepository;
 import com.ubs.expensemanager.repository.specification.UserSpecifications;
+import com.ubs.expensemanager.security.PrincipalCache;
+import com.ubs.expensemanager.security.TokenRevocationList;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -27,13 +30,19 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository repository;
     private final DepartmentRepository departmentRepository;
+    private final ExpenseRepository expenseRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final ExpenseDailyRollupService expenseDailyRollupService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
 
     /**
      * Creates a new user (used by AuthService during registration).
@@ -58,7 +67,10 @@ public class UserService {
 
     /**
      * Updates an existing user.
+     * When the department changes, the user's expenses and their rollup rows follow it.
+     * When the department or manager changes, the user's self-contained tokens are revoked.
      */
+    @Transactional
     public UserResponse update(Long id, UserUpdateRequest request) {
         User user = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -75,10 +87,25 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setName(request.getName());
 
+        Long previousDepartmentId = user.getDepartment() != null ? user.getDepartment().getId() : null;
+        Long previousManagerId = user.getManager() != null ? user.getManager().getId() : null;
         validateAndSetDepartment(user, request.getDepartmentId());
         validateAndSetManager(user, request.getManagerEmail(), user.getRole());
 
+        Long managerId = user.getManager() != null ? user.getManager().getId() : null;
+        if (!Objects.equals(previousDepartmentId, user.getDepartment().getId())
+                || !Objects.equals(previousManagerId, managerId)) {
+            tokenRevocationList.revoke(user);
+        }
+
         User updatedUser = repository.save(user);
+        principalCache.invalidate(updatedUser.getEmail());
+        Long departmentId = updatedUser.getDepartment() != null ? updatedUser.getDepartment().getId() : null;
+        if (!Objects.equals(previousDepartmentId, departmentId)) {
+            expenseRepository.reassignDepartment(updatedUser.getId(), departmentId);
+            expenseRepository.reassignArchivedDepartment(updatedUser.getId(), departmentId);
+            expenseDailyRollupService.reassignDepartment(updatedUser.getId(), departmentId);
+        }
         return userMapper.toResponse(updatedUser);
     }
 
@@ -114,6 +141,8 @@ public class UserService {
         }
 
         user.setActive(false);
+        tokenRevocationList.revoke(user);
+        principalCache.invalidate(user.getEmail());
     }
 
     @Transactional
@@ -126,6 +155,7 @@ public class UserService {
             throw new UserAlreadyActiveException();
 
         user.setActive(true);
+        principalCache.invalidate(user.getEmail());
         return userMapper.toResponse(user);
     }
 
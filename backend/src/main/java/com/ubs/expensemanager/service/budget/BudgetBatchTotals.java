@@ -0,0 +1,90 @@
+package com.ubs.expensemanager.service.budget;
+
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.repository.projection.ScopedDailyTotal;
+import com.ubs.expensemanager.util.CurrencyConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running budget totals of a bulk submission.
+ *
+ * <p>Built once from the committed daily totals of every department and category the batch
+ * touches, then advanced with each accepted expense, so every item of the batch is checked
+ * against the committed totals plus the items accepted before it, without another query.</p>
+ */
+public class BudgetBatchTotals {
+
+    private final Map<Cell, BigDecimal> totals = new HashMap<>();
+
+    BudgetBatchTotals(List<ScopedDailyTotal> departmentDays, List<ScopedDailyTotal> categoryDays) {
+        departmentDays.forEach(row -> addDay(Scope.DEPARTMENT, row.scopeId(), row.date(), row.total()));
+        categoryDays.forEach(row -> addDay(Scope.CATEGORY, row.scopeId(), row.date(), row.total()));
+    }
+
+    /**
+     * @param expense an expense of the batch that has not been added yet
+     * @return the totals the expense is checked against
+     */
+    public BudgetTotals totalsFor(Expense expense) {
+        Department department = expense.getUser().getDepartment();
+        Long departmentId = department != null ? department.getId() : null;
+        Long categoryId = expense.getExpenseCategory().getId();
+        LocalDate date = expense.getExpenseDate();
+        return new BudgetTotals(
+                read(new Cell(Scope.DEPARTMENT, departmentId, date, false)),
+                read(new Cell(Scope.DEPARTMENT, departmentId, date, true)),
+                read(new Cell(Scope.CATEGORY, categoryId, date, false)),
+                read(new Cell(Scope.CATEGORY, categoryId, date, true)));
+    }
+
+    /**
+     * Adds an accepted expense, so the following items of the batch see it.
+     *
+     * @param expense the accepted expense
+     */
+    public void add(Expense expense) {
+        BigDecimal amountUsd = CurrencyConverter.storedUsd(expense);
+        Department department = expense.getUser().getDepartment();
+        if (department != null) {
+            addDay(Scope.DEPARTMENT, department.getId(), expense.getExpenseDate(), amountUsd);
+        }
+        addDay(Scope.CATEGORY, expense.getExpenseCategory().getId(), expense.getExpenseDate(), amountUsd);
+    }
+
+    private void addDay(Scope scope, Long id, LocalDate date, BigDecimal amount) {
+        if (amount == null) {
+            return;
+        }
+        totals.merge(new Cell(scope, id, date, false), amount, BigDecimal::add);
+        totals.merge(new Cell(scope, id, date, true), amount, BigDecimal::add);
+    }
+
+    private BigDecimal read(Cell cell) {
+        if (cell.id() == null) {
+            return BigDecimal.ZERO;
+        }
+        return totals.getOrDefault(cell, BigDecimal.ZERO);
+    }
+
+    private enum Scope {
+        DEPARTMENT, CATEGORY
+    }
+
+    /**
+     * Total of one scope for a day, or for the month of that day.
+     */
+    private record Cell(Scope scope, Long id, LocalDate period, boolean month) {
+
+        Cell {
+            if (month) {
+                period = period.withDayOfMonth(1);
+            }
+        }
+    }
+}
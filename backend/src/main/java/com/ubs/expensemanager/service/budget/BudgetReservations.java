@@ -0,0 +1,193 @@
+package com.ubs.expensemanager.service.budget;
+
+import com.ubs.expensemanager.exception.ConflictException;
+import com.ubs.expensemanager.messages.Messages;
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.Expense;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes budget checks per budget scope until the checking transaction completes.
+ *
+ * <p>A budget check reads the committed total and then inserts the expense, so two
+ * transactions checking the same budget at the same time could both pass. Reserving the
+ * scopes of an expense first makes the second one wait until the first has committed or
+ * rolled back, and then read a total that includes it. The scopes are
+ * (department, month), which guards the blocking monthly department budget, and
+ * (category, day). Expenses of other departments and categories take other locks and run
+ * in parallel.</p>
+ *
+ * <p>Inside one instance a reservation is a striped {@link ReentrantLock}, held until the
+ * transaction has completed and every after-commit callback has run. Across instances it is additionally a Postgres
+ * transaction-level advisory lock on the same key, released by the database on commit or
+ * rollback. Locks are always taken in a fixed order so reservations cannot deadlock. Both
+ * waits together are bounded by {@code app.budget-reservations.lock-timeout-ms}; the
+ * advisory locks through a transaction-local {@code lock_timeout}, which is reset to its
+ * default once they are held.</p>
+ */
+@Component
+@Slf4j
+public class BudgetReservations {
+
+    private static final int STRIPES = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Timer waitTimer;
+
+    @Value("${app.budget-reservations.advisory-locks:true}")
+    private boolean advisoryLocks;
+
+    @Value("${app.budget-reservations.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    public BudgetReservations(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.waitTimer = Timer.builder("budget.reservation.wait")
+                .description("Time spent waiting for budget scope reservations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves the department-month and category-day budgets of an expense until the
+     * current transaction completes.
+     *
+     * @param expense the expense about to be checked and written
+     * @throws ConflictException if the budget stays reserved longer than the lock timeout
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void reserve(Expense expense) {
+        reserve(List.of(expense));
+    }
+
+    /**
+     * Reserves the budgets of several expenses at once, e.g. a bulk submission, until the
+     * current transaction completes. All scopes are locked together in the same global order
+     * as single reservations, so a batch cannot deadlock with other reservations.
+     *
+     * @param expenses the expenses about to be checked and written
+     * @throws ConflictException if a budget stays reserved longer than the lock timeout
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void reserve(Collection<Expense> expenses) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Budget reservations require an active transaction");
+        }
+
+        List<Scope> scopes = new ArrayList<>(2 * expenses.size());
+        for (Expense expense : expenses) {
+            Department department = expense.getUser().getDepartment();
+            if (department != null) {
+                scopes.add(Scope.of(Scope.DEPARTMENT_MONTH, department.getId(), expense.getExpenseDate().withDayOfMonth(1)));
+            }
+            scopes.add(Scope.of(Scope.CATEGORY_DAY, expense.getExpenseCategory().getId(), expense.getExpenseDate()));
+        }
+
+        long started = System.nanoTime();
+        List<ReentrantLock> held = lockStripes(scopes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = held.size() - 1; i >= 0; i--) {
+                    held.get(i).unlock();
+                }
+            }
+        });
+
+        if (advisoryLocks) {
+            long remainingMs = lockTimeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            lockAdvisory(scopes, Math.max(remainingMs, 1));
+        }
+        waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes the advisory locks of the given scopes in ascending key order, waiting at most
+     * the given time for all of them. A timeout aborts the transaction, which is rolled back
+     * when the exception propagates.
+     */
+    private void lockAdvisory(List<Scope> scopes, long timeoutMs) {
+        jdbcTemplate.query("SELECT set_config('lock_timeout', ?, true)",
+                (ResultSetExtractor<Void>) rs -> null, timeoutMs + "ms");
+        try {
+            scopes.stream()
+                    .sorted(Comparator.comparingInt(Scope::namespace).thenComparingInt(Scope::key))
+                    .distinct()
+                    .forEach(scope -> jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)",
+                            (ResultSetExtractor<Void>) rs -> null, scope.namespace(), scope.key()));
+        } catch (PessimisticLockingFailureException e) {
+            log.warn("Timed out after {} ms waiting for budget reservation {}", lockTimeoutMs, scopes);
+            throw new ConflictException(Messages.BUDGET_RESERVATION_TIMEOUT);
+        }
+        jdbcTemplate.execute("SET LOCAL lock_timeout TO DEFAULT");
+    }
+
+    /**
+     * Locks the stripes of the given scopes in ascending stripe order. On failure every
+     * stripe taken so far is released again before the exception propagates.
+     */
+    private List<ReentrantLock> lockStripes(List<Scope> scopes) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        scopes.forEach(scope -> indexes.add(scope.stripe()));
+
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    log.warn("Timed out after {} ms waiting for budget reservation {}", lockTimeoutMs, scopes);
+                    throw new ConflictException(Messages.BUDGET_RESERVATION_TIMEOUT);
+                }
+                held.add(lock);
+            }
+            return held;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(Messages.BUDGET_RESERVATION_TIMEOUT);
+        } finally {
+            if (held.size() < indexes.size()) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        }
+    }
+
+    /**
+     * Reserved budget scope, reduced to the two 32-bit keys of a Postgres advisory lock.
+     * Different scopes may share a key; that only makes them wait for each other.
+     */
+    private record Scope(int namespace, int key) {
+
+        static final int DEPARTMENT_MONTH = 0x42440001;
+        static final int CATEGORY_DAY = 0x42440002;
+
+        static Scope of(int namespace, Long id, LocalDate period) {
+            return new Scope(namespace, Objects.hash(id, period));
+        }
+
+        int stripe() {
+            return Math.floorMod(31 * namespace + key, STRIPES);
+        }
+    }
+}
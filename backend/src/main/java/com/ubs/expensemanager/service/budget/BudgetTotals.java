@@ -0,0 +1,16 @@
+package com.ubs.expensemanager.service.budget;
+
+import java.math.BigDecimal;
+
+/**
+ * Committed, non-rejected USD totals of the budgets an expense counts against,
+ * excluding the expense itself.
+ *
+ * @param departmentDay   total of the expense owner's department on the expense date
+ * @param departmentMonth total of the expense owner's department in the expense month
+ * @param categoryDay     total of the expense category on the expense date
+ * @param categoryMonth   total of the expense category in the expense month
+ */
+public record BudgetTotals(BigDecimal departmentDay, BigDecimal departmentMonth,
+                           BigDecimal categoryDay, BigDecimal categoryMonth) {
+}
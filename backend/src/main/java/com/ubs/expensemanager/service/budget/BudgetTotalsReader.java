@@ -0,0 +1,81 @@
+package com.ubs.expensemanager.service.budget;
+
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
+import com.ubs.expensemanager.repository.projection.BudgetTotalsRow;
+import com.ubs.expensemanager.repository.projection.ScopedDailyTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the committed, non-rejected USD expense totals that budget checks compare against,
+ * from {@code expense_daily_rollup}.
+ *
+ * <p>Totals always come from the database. The caller holds the {@link BudgetReservations}
+ * of the checked expenses, which serialize writers of the same budgets across every
+ * instance, so the totals read include every expense committed against those budgets.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class BudgetTotalsReader {
+
+    private final ExpenseDailyRollupRepository expenseDailyRollupRepository;
+
+    /**
+     * Returns the totals of the budgets an expense counts against, with a single query on the rollup.
+     *
+     * @param expense the expense being checked; it must not be part of the totals yet
+     * @return the department and category totals for the expense day and month
+     */
+    public BudgetTotals totalsFor(Expense expense) {
+        Department department = expense.getUser().getDepartment();
+        Long departmentId = department != null ? department.getId() : null;
+        LocalDate date = expense.getExpenseDate();
+        YearMonth month = YearMonth.from(date);
+
+        BudgetTotalsRow row = expenseDailyRollupRepository.sumBudgetTotals(
+                departmentId, expense.getExpenseCategory().getId(), date, month.atDay(1), month.atEndOfMonth());
+        return new BudgetTotals(row.getDepartmentDay(), row.getDepartmentMonth(),
+                row.getCategoryDay(), row.getCategoryMonth());
+    }
+
+    /**
+     * Returns the running totals of a bulk submission, read from the database with one
+     * query for the department and one for the categories, over all months of the batch.
+     * The caller must hold the reservations of every expense in the batch.
+     *
+     * @param expenses the expenses of the batch; they must not be part of the totals yet
+     * @return totals to check the expenses against one after the other
+     */
+    public BudgetBatchTotals batchTotalsFor(Collection<Expense> expenses) {
+        LocalDate start = expenses.stream().map(Expense::getExpenseDate).min(Comparator.naturalOrder())
+                .orElseThrow().withDayOfMonth(1);
+        LocalDate end = YearMonth.from(expenses.stream().map(Expense::getExpenseDate).max(Comparator.naturalOrder())
+                .orElseThrow()).atEndOfMonth();
+        Set<Long> departmentIds = expenses.stream()
+                .map(expense -> expense.getUser().getDepartment())
+                .filter(Objects::nonNull)
+                .map(Department::getId)
+                .collect(Collectors.toSet());
+        Set<Long> categoryIds = expenses.stream()
+                .map(expense -> expense.getExpenseCategory().getId())
+                .collect(Collectors.toSet());
+
+        List<ScopedDailyTotal> departmentDays = new ArrayList<>();
+        departmentIds.forEach(departmentId -> departmentDays.addAll(
+                expenseDailyRollupRepository.sumUsdGroupedByDateForDepartment(departmentId, start, end)));
+        return new BudgetBatchTotals(departmentDays,
+                expenseDailyRollupRepository.sumUsdGroupedByCategoryAndDateBetween(categoryIds, start, end));
+    }
+}
@@ -11,13 +11,14 @@ import java.math.BigDecimal;
 public interface BudgetValidationStrategy {
     
     /**
-     * Validates budget limits for the expense.
-     * Logs warnings if budget is exceeded but does not block creation.
+     * Validates budget limits for the expense against precomputed running totals.
+     * Publishes warnings for limits that do not block creation and throws for those that do.
      *
      * @param userId user ID
      * @param category expense category
      * @param expense object expense
      * @param newAmount amount of the new expense
+     * @param totals running totals of the expense's budgets, excluding the expense itself
      */
-    void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount);
+    void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount, BudgetTotals totals);
 }
\ No newline at end of file
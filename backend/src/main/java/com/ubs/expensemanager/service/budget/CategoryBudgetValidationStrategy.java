@@ -4,14 +4,12 @@ import com.ubs.expensemanager.event.BudgetExceededEvent;
 import com.ubs.expensemanager.event.EventPublisher;
 import com.ubs.expensemanager.model.Expense;
 import com.ubs.expensemanager.model.ExpenseCategory;
-import com.ubs.expensemanager.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.Optional;
 
@@ -23,30 +21,28 @@ import java.util.Optional;
 @Slf4j
 public class CategoryBudgetValidationStrategy implements BudgetValidationStrategy {
 
-    private final ExpenseRepository expenseRepository;
     private final EventPublisher eventPublisher;
 
     @Override
-    public void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount) {
-        validateDailyBudget(userId, category, expense, newAmount);
-        validateMonthlyBudget(userId, category, expense, newAmount);
+    public void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount, BudgetTotals totals) {
+        validateDailyBudget(userId, category, expense, newAmount, totals);
+        validateMonthlyBudget(userId, category, expense, newAmount, totals);
     }
 
     /**
      * Validates daily budget limits for the category.
      * All amounts are converted to USD before comparison.
      */
-    private void validateDailyBudget(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount) {
+    private void validateDailyBudget(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount,
+                                     BudgetTotals totals) {
         // Convert the new expense amount to USD
         BigDecimal newAmountUsd = newAmount.divide(expense.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
         // Convert the category budget limit to USD
         BigDecimal dailyBudgetUsd = category.getDailyBudget().divide(category.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
-        // The repository already returns amounts in USD
-        BigDecimal dailyTotal = Optional.ofNullable(
-                expenseRepository.sumAmountByCategoryAndDateExcludingExpense(category.getId(), expense.getExpenseDate(), expense.getId())
-        ).orElse(BigDecimal.ZERO);
+        // The totals are already in USD and do not contain this expense yet
+        BigDecimal dailyTotal = Optional.ofNullable(totals.categoryDay()).orElse(BigDecimal.ZERO);
         BigDecimal newDailyTotal = dailyTotal.add(newAmountUsd);
 
         if (newDailyTotal.compareTo(dailyBudgetUsd) > 0) {
@@ -73,7 +69,8 @@ public class CategoryBudgetValidationStrategy implements BudgetValidationStrateg
      * Validates monthly budget limits for the category.
      * All amounts are converted to USD before comparison.
      */
-    private void validateMonthlyBudget(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount) {
+    private void validateMonthlyBudget(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount,
+                                       BudgetTotals totals) {
         // Convert the new expense amount to USD
         BigDecimal newAmountUsd = newAmount.divide(expense.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
@@ -81,13 +78,9 @@ public class CategoryBudgetValidationStrategy implements BudgetValidationStrateg
         BigDecimal monthlyBudgetUsd = category.getMonthlyBudget().divide(category.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
         YearMonth yearMonth = YearMonth.from(expense.getExpenseDate());
-        LocalDate monthStart = yearMonth.atDay(1);
-        LocalDate monthEnd = yearMonth.atEndOfMonth();
 
-        // The repository already returns amounts in USD
-        BigDecimal monthlyTotal = Optional.ofNullable(
-                expenseRepository.sumAmountByCategoryAndDateRangeExcludingExpense(category.getId(), monthStart, monthEnd, expense.getId())
-        ).orElse(BigDecimal.ZERO);
+        // The totals are already in USD and do not contain this expense yet
+        BigDecimal monthlyTotal = Optional.ofNullable(totals.categoryMonth()).orElse(BigDecimal.ZERO);
 
         BigDecimal newMonthlyTotal = monthlyTotal.add(newAmountUsd);
 
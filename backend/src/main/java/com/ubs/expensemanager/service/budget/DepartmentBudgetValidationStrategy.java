@@ -6,14 +6,12 @@ import com.ubs.expensemanager.exception.BudgetExceededException;
 import com.ubs.expensemanager.model.Department;
 import com.ubs.expensemanager.model.Expense;
 import com.ubs.expensemanager.model.ExpenseCategory;
-import com.ubs.expensemanager.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.Optional;
 
@@ -25,57 +23,55 @@ import java.util.Optional;
 @Slf4j
 public class DepartmentBudgetValidationStrategy implements BudgetValidationStrategy {
 
-    private final ExpenseRepository expenseRepository;
     private final EventPublisher eventPublisher;
 
     /**
-     * Validates only the monthly department budget limit.
-     * This method should be called BEFORE saving the expense.
-     * Throws BudgetExceededException if monthly limit is exceeded (blocking behavior).
+     * Validates the monthly and then the daily department budget limit in one pass.
+     * The caller must hold the expense's budget reservation (see {@link BudgetReservations#reserve})
+     * so the totals cannot change before the expense commits.
+     * Throws BudgetExceededException if the monthly limit is exceeded (blocking behavior);
+     * publishes BudgetExceededEvent if the daily limit is exceeded (warning-only behavior).
      */
     @Override
-    public void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount) {
+    public void validate(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount, BudgetTotals totals) {
         Department department = expense.getUser().getDepartment();
-        if (department != null) {
-            // Only validate monthly budget here (blocking) - called BEFORE save
-            validateMonthlyBudget(expense, newAmount, department);
+        if (department == null) {
+            return;
+        }
+        validateMonthlyBudget(expense, newAmount, department, totals);
+        if (department.getDailyBudget() != null) {
+            validateDailyBudget(userId, category, expense, newAmount, department, totals);
         }
     }
 
     /**
-     * Validates only the daily department budget limit.
-     * This method should be called AFTER saving the expense.
-     * Publishes BudgetExceededEvent if daily limit is exceeded (warning-only behavior).
+     * Checks only the blocking monthly department budget, so a bulk submission can reject
+     * an item before writing it. Expenses of users without a department always pass.
+     *
+     * @throws BudgetExceededException if the monthly limit would be exceeded
      */
-    public void validateDailyBudgetOnly(Long userId, ExpenseCategory category, Expense expense, BigDecimal newAmount) {
+    public void checkMonthlyBudget(Expense expense, BigDecimal newAmount, BudgetTotals totals) {
         Department department = expense.getUser().getDepartment();
-        if (department != null && department.getDailyBudget() != null) {
-            validateDailyBudget(userId, category, expense, newAmount, department);
+        if (department == null) {
+            return;
         }
+        validateMonthlyBudget(expense, newAmount, department, totals);
     }
 
     /**
      * Validates daily budget limits for the department.
      * All amounts are converted to USD before comparison.
      */
-    private void validateDailyBudget(Long userId, ExpenseCategory category, Expense expense, 
-                                    BigDecimal newAmount, Department department) {
+    private void validateDailyBudget(Long userId, ExpenseCategory category, Expense expense,
+                                    BigDecimal newAmount, Department department, BudgetTotals totals) {
         // Convert the new expense amount to USD
         BigDecimal newAmountUsd = newAmount.divide(expense.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
         // Convert the department budget limit to USD
         BigDecimal dailyBudgetUsd = department.getDailyBudget().divide(department.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
 
-        BigDecimal deptDailyTotal;
-        if (expense.getId() == null) {
-            deptDailyTotal = Optional.ofNullable(
-                    expenseRepository.sumAmountByDepartmentAndDate(department.getId(), expense.getExpenseDate())
-            ).orElse(BigDecimal.ZERO);
-        } else {
-            deptDailyTotal = Optional.ofNullable(
-                    expenseRepository.sumAmountByDepartmentAndDateExcludingExpense(department.getId(), expense.getExpenseDate(), expense.getId())
-            ).orElse(BigDecimal.ZERO);
-        }
+        // The totals do not contain this expense yet, so no exclusion is needed
+        BigDecimal deptDailyTotal = Optional.ofNullable(totals.departmentDay()).orElse(BigDecimal.ZERO);
 
         BigDecimal newDeptDailyTotal = deptDailyTotal.add(newAmountUsd);
 
@@ -103,7 +99,7 @@ public class DepartmentBudgetValidationStrategy implements BudgetValidationStrat
      * Validates monthly budget limits for the department.
      * All amounts are converted to USD before comparison.
      */
-    private void validateMonthlyBudget(Expense expense, BigDecimal newAmount, Department department) {
+    private void validateMonthlyBudget(Expense expense, BigDecimal newAmount, Department department, BudgetTotals totals) {
         // Convert the new expense amount to USD
         BigDecimal newAmountUsd = newAmount.divide(expense.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
@@ -111,19 +107,9 @@ public class DepartmentBudgetValidationStrategy implements BudgetValidationStrat
         BigDecimal monthlyBudgetUsd = department.getMonthlyBudget().divide(department.getCurrency().getExchangeRate(), 2, RoundingMode.HALF_UP);
         
         YearMonth yearMonth = YearMonth.from(expense.getExpenseDate());
-        LocalDate monthStart = yearMonth.atDay(1);
-        LocalDate monthEnd = yearMonth.atEndOfMonth();
-
-        BigDecimal deptMonthlyTotal;
-        if (expense.getId() == null) {
-            deptMonthlyTotal = Optional.ofNullable(
-                    expenseRepository.sumAmountByDepartmentAndDateRange(department.getId(), monthStart, monthEnd)
-            ).orElse(BigDecimal.ZERO);
-        } else {
-            deptMonthlyTotal = Optional.ofNullable(
-                    expenseRepository.sumAmountByDepartmentAndDateRangeExcludingExpense(department.getId(), monthStart, monthEnd, expense.getId())
-            ).orElse(BigDecimal.ZERO);
-        }
+
+        // The totals do not contain this expense yet, so no exclusion is needed
+        BigDecimal deptMonthlyTotal = Optional.ofNullable(totals.departmentMonth()).orElse(BigDecimal.ZERO);
 
         BigDecimal newDeptMonthlyTotal = deptMonthlyTotal.add(newAmountUsd);
 
@@ -0,0 +1,389 @@
+package com.ubs.expensemanager.service.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubs.expensemanager.dto.request.ReportJobCreateRequest;
+import com.ubs.expensemanager.dto.response.ReportJobResponse;
+import com.ubs.expensemanager.exception.ConflictException;
+import com.ubs.expensemanager.exception.ResourceNotFoundException;
+import com.ubs.expensemanager.messages.Messages;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.model.ReportFormat;
+import com.ubs.expensemanager.model.ReportJobStatus;
+import com.ubs.expensemanager.model.ReportJobType;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotal;
+import com.ubs.expensemanager.service.ReportService;
+import com.ubs.expensemanager.util.DateRangeValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Generates reports in the background, off the request threads, and keeps their files for
+ * download.
+ *
+ * <p>Jobs run on a pool of {@code app.report-jobs.pool-size} workers fed by a queue of
+ * {@code app.report-jobs.queue-capacity}; submissions beyond it are refused. A worker splits
+ * the range of an employee or category report into calendar months, sums each month from
+ * the daily rollup in its own short read-only transaction on a second pool of
+ * {@code app.report-jobs.chunk-parallelism} threads, and merges the partial totals. The
+ * department report covers one month at most and runs as one chunk.</p>
+ *
+ * <p>Jobs and their files are kept in the {@link ReportJobStore}, shared by all instances,
+ * for {@code app.report-jobs.retention-hours}. A submission identical to a queued or running
+ * job, or to one completed less than {@code app.report-jobs.dedup-window-ms} ago, on any
+ * instance, returns that job instead of starting another. A job runs on the instance it was
+ * submitted to; one still unfinished {@code app.report-jobs.timeout-minutes} after its
+ * submission, e.g. because that instance stopped, is failed so the report can be submitted
+ * again.</p>
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private static final int CHUNK_QUEUE_CAPACITY = 64;
+    private static final String FAILURE_MESSAGE = "Report generation failed";
+
+    private final ReportService reportService;
+    private final ExpenseDailyRollupRepository expenseDailyRollupRepository;
+    private final ReportJobStore reportJobStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ThreadPoolExecutor chunkExecutor;
+    private final Duration retention;
+    private final Duration dedupWindow;
+    private final Duration timeout;
+    private final Counter submittedCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter failedCounter;
+    private final Timer durationTimer;
+
+    public ReportJobService(ReportService reportService,
+                            ExpenseDailyRollupRepository expenseDailyRollupRepository,
+                            ReportJobStore reportJobStore,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.report-jobs.pool-size:2}") int poolSize,
+                            @Value("${app.report-jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.report-jobs.chunk-parallelism:4}") int chunkParallelism,
+                            @Value("${app.report-jobs.retention-hours:24}") long retentionHours,
+                            @Value("${app.report-jobs.dedup-window-ms:300000}") long dedupWindowMs,
+                            @Value("${app.report-jobs.timeout-minutes:30}") long timeoutMinutes) {
+        this.reportService = reportService;
+        this.expenseDailyRollupRepository = expenseDailyRollupRepository;
+        this.reportJobStore = reportJobStore;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jobExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("report-job-", 1).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // A full chunk queue makes the job's own worker sum the month
+        this.chunkExecutor = new ThreadPoolExecutor(chunkParallelism, chunkParallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CHUNK_QUEUE_CAPACITY), Thread.ofPlatform().name("report-chunk-", 1).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.retention = Duration.ofHours(retentionHours);
+        this.dedupWindow = Duration.ofMillis(dedupWindowMs);
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+        this.submittedCounter = Counter.builder("report.jobs.submitted")
+                .description("Report jobs started")
+                .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("report.jobs.deduplicated")
+                .description("Report job submissions answered with an identical existing job")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("report.jobs.failed")
+                .description("Report jobs that failed")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("report.jobs.duration")
+                .description("Time to generate and store a report job's file")
+                .register(meterRegistry);
+        Gauge.builder("report.jobs.queued", jobExecutor, executor -> executor.getQueue().size())
+                .description("Report jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submits a report for background generation, applying the defaults and validation of
+     * the synchronous report endpoints.
+     *
+     * @param request the report to generate
+     * @return the new job, or the identical job it was deduplicated against
+     * @throws IllegalArgumentException if the date range is invalid
+     * @throws ConflictException if the queue is full
+     */
+    public ReportJobResponse submit(ReportJobCreateRequest request) {
+        ReportJobType type = request.getType();
+        ReportFormat format = request.getFormat() != null ? request.getFormat() : ReportFormat.CSV;
+        LocalDate effectiveEndDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+        LocalDate effectiveStartDate;
+        if (type == ReportJobType.DEPARTMENT_BUDGETS) {
+            effectiveStartDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+            DateRangeValidator.validateSameMonthOrSingleDay(effectiveStartDate, effectiveEndDate);
+        } else {
+            effectiveStartDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().withDayOfMonth(1);
+            DateRangeValidator.validate(effectiveStartDate, effectiveEndDate);
+        }
+
+        JobKey key = new JobKey(type, effectiveStartDate, effectiveEndDate, format);
+        ReportJob job;
+        do {
+            Optional<ReportJob> existing = findReusable(key, Instant.now());
+            if (existing.isPresent()) {
+                deduplicatedCounter.increment();
+                log.info("Report job {} reused for {}", existing.get().id(), key);
+                return toResponse(existing.get());
+            }
+            job = new ReportJob(UUID.randomUUID(), key, ReportJobStatus.QUEUED, Instant.now(), null, null);
+            // Fails when an identical submission, possibly on another instance, queued the report first
+        } while (!reportJobStore.insert(job));
+
+        ReportJob queued = job;
+        try {
+            jobExecutor.execute(() -> run(queued));
+        } catch (RejectedExecutionException e) {
+            reportJobStore.delete(queued.id());
+            throw new ConflictException(Messages.REPORT_JOB_QUEUE_FULL);
+        }
+        submittedCounter.increment();
+        log.info("Report job {} queued for {}", queued.id(), key);
+        return toResponse(queued);
+    }
+
+    /**
+     * @param id job identifier
+     * @return the job and where it stands
+     * @throws ResourceNotFoundException if there is no such job, or it has been purged
+     */
+    public ReportJobResponse findById(UUID id) {
+        return toResponse(getJob(id));
+    }
+
+    /**
+     * Reads the file of a completed job.
+     *
+     * @param id job identifier
+     * @return the file with the name and content type to download it as
+     * @throws ResourceNotFoundException if there is no such job or file
+     * @throws ConflictException if the job has not completed
+     */
+    public Download download(UUID id) {
+        ReportJob job = getJob(id);
+        if (job.status() != ReportJobStatus.COMPLETED) {
+            throw new ConflictException(Messages.formatMessage(Messages.REPORT_JOB_NOT_COMPLETED, job.status()));
+        }
+        byte[] content = reportJobStore.findContent(id)
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.REPORT_JOB_NOT_FOUND));
+        JobKey key = job.key();
+        String filename = String.format("%s_%s_to_%s.%s", key.type().getBaseName(),
+                key.startDate(), key.endDate(), key.format().getExtension());
+        return new Download(content, filename, key.format().getContentType());
+    }
+
+    /**
+     * Fails the jobs unfinished after the timeout, and deletes the jobs, with their files,
+     * that finished longer than the retention period ago. Every instance runs the purge;
+     * it is idempotent.
+     */
+    @Scheduled(cron = "${app.report-jobs.purge-cron:0 45 * * * *}")
+    public void purge() {
+        Instant now = Instant.now();
+        int timedOut = reportJobStore.failActiveCreatedBefore(now.minus(timeout), FAILURE_MESSAGE, now);
+        int deleted = reportJobStore.deleteFinishedBefore(now.minus(retention));
+        if (timedOut > 0 || deleted > 0) {
+            log.info("Failed {} timed out report jobs and purged {} report jobs", timedOut, deleted);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        UUID id = job.id();
+        if (!reportJobStore.markRunning(id)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeReport(job, out);
+            if (reportJobStore.complete(id, out.toByteArray(), Instant.now())) {
+                log.info("Report job {} completed in {} ms", id, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                log.warn("Report job {} timed out before it completed", id);
+            }
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            reportJobStore.fail(id, FAILURE_MESSAGE, Instant.now());
+            log.error("Report job {} failed", id, e);
+        } finally {
+            durationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeReport(ReportJob job, OutputStream out) throws IOException {
+        JobKey key = job.key();
+        switch (key.type()) {
+            case EXPENSES_BY_EMPLOYEE -> write(out, key.format(),
+                    reportService.toEmployeeReport(sumByMonth(key, (from, to) ->
+                            expenseDailyRollupRepository.sumUsdGroupedByEmployee(from, to, ExpenseStatus.REJECTED))),
+                    reportService::writeEmployeeCsv);
+            case EXPENSES_BY_CATEGORY -> write(out, key.format(),
+                    reportService.toCategoryReport(sumByMonth(key, (from, to) ->
+                            expenseDailyRollupRepository.sumUsdGroupedByCategory(from, to, ExpenseStatus.REJECTED))),
+                    reportService::writeCategoryCsv);
+            case DEPARTMENT_BUDGETS -> write(out, key.format(),
+                    reportService.getExpensesByDepartmentReport(key.startDate(), key.endDate(), null),
+                    reportService::writeDepartmentCsv);
+        }
+    }
+
+    private <T> void write(OutputStream out, ReportFormat format, List<T> report,
+                           BiConsumer<OutputStream, List<T>> csvWriter) throws IOException {
+        if (format == ReportFormat.JSON) {
+            objectMapper.writeValue(out, report);
+        } else {
+            csvWriter.accept(out, report);
+        }
+    }
+
+    /**
+     * Sums each calendar month of the job's range in parallel and merges the totals.
+     *
+     * @param key the job's report
+     * @param query sums one month, or the part of it within the range
+     * @return USD totals keyed by name over the whole range
+     */
+    private Map<String, BigDecimal> sumByMonth(JobKey key, BiFunction<LocalDate, LocalDate, List<NamedExpenseTotal>> query) {
+        List<CompletableFuture<List<NamedExpenseTotal>>> months = monthChunks(key.startDate(), key.endDate()).stream()
+                .map(month -> CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> query.apply(month.startDate(), month.endDate())),
+                        chunkExecutor))
+                .toList();
+
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (CompletableFuture<List<NamedExpenseTotal>> month : months) {
+            for (NamedExpenseTotal row : month.join()) {
+                totals.merge(row.name(), row.total(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Splits a date range at calendar month boundaries.
+     *
+     * @param startDate start date (inclusive)
+     * @param endDate end date (inclusive)
+     * @return one range per month touched, in order
+     */
+    static List<DateRange> monthChunks(LocalDate startDate, LocalDate endDate) {
+        List<DateRange> chunks = new ArrayList<>();
+        LocalDate from = startDate;
+        while (!from.isAfter(endDate)) {
+            LocalDate monthEnd = YearMonth.from(from).atEndOfMonth();
+            LocalDate to = monthEnd.isBefore(endDate) ? monthEnd : endDate;
+            chunks.add(new DateRange(from, to));
+            from = to.plusDays(1);
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds a job identical submissions can share: the queued or running job of the report,
+     * unless it has timed out, or else the latest one completed within the dedup window.
+     */
+    private Optional<ReportJob> findReusable(JobKey key, Instant now) {
+        Optional<ReportJob> active = reportJobStore.findActive(key);
+        if (active.isPresent()) {
+            if (active.get().createdAt().plus(timeout).isAfter(now)) {
+                return active;
+            }
+            reportJobStore.fail(active.get().id(), FAILURE_MESSAGE, now);
+            log.warn("Report job {} timed out", active.get().id());
+        }
+        return reportJobStore.findCompletedSince(key, now.minus(dedupWindow));
+    }
+
+    private ReportJob getJob(UUID id) {
+        return reportJobStore.find(id)
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.REPORT_JOB_NOT_FOUND));
+    }
+
+    private static ReportJobResponse toResponse(ReportJob job) {
+        return ReportJobResponse.builder()
+                .id(job.id())
+                .type(job.key().type())
+                .startDate(job.key().startDate())
+                .endDate(job.key().endDate())
+                .format(job.key().format())
+                .status(job.status())
+                .createdAt(job.createdAt())
+                .finishedAt(job.finishedAt())
+                .error(job.error())
+                .build();
+    }
+
+    /**
+     * File of a completed job.
+     *
+     * @param content the file content
+     * @param filename name to download the file as
+     * @param contentType media type of the file
+     */
+    public record Download(byte[] content, String filename, String contentType) {
+    }
+
+    /**
+     * Inclusive date range of one chunk of a job.
+     */
+    record DateRange(LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * What identifies identical submissions.
+     */
+    record JobKey(ReportJobType type, LocalDate startDate, LocalDate endDate, ReportFormat format) {
+    }
+
+    /**
+     * A job as stored in the {@link ReportJobStore}, without its file.
+     */
+    record ReportJob(UUID id, JobKey key, ReportJobStatus status, Instant createdAt, Instant finishedAt,
+                     String error) {
+    }
+}
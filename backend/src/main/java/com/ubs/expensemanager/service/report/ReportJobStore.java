@@ -0,0 +1,230 @@
+package com.ubs.expensemanager.service.report;
+
+import com.ubs.expensemanager.model.ReportFormat;
+import com.ubs.expensemanager.model.ReportJobStatus;
+import com.ubs.expensemanager.model.ReportJobType;
+import com.ubs.expensemanager.service.report.ReportJobService.JobKey;
+import com.ubs.expensemanager.service.report.ReportJobService.ReportJob;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code report_jobs} table, holding the report jobs of all instances and the files of
+ * the completed ones.
+ *
+ * <p>A queued or running job holds its report's {@code active_key}, which is unique, so
+ * only one job per report is generated at a time across the cluster. Finishing a job
+ * releases the key. Report files are aggregates of one row per employee, category or
+ * department, small enough to be kept in the table.</p>
+ */
+@Component
+public class ReportJobStore {
+
+    private static final String COLUMNS = "id, type, start_date, end_date, format, status, created_at, finished_at, error";
+
+    private static final RowMapper<ReportJob> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        return new ReportJob(
+                rs.getObject("id", UUID.class),
+                new JobKey(
+                        ReportJobType.valueOf(rs.getString("type")),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getObject("end_date", LocalDate.class),
+                        ReportFormat.valueOf(rs.getString("format"))),
+                ReportJobStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("created_at").toInstant(),
+                finishedAt != null ? finishedAt.toInstant() : null,
+                rs.getString("error"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ReportJobStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param id job identifier
+     * @return the job, without its file
+     */
+    public Optional<ReportJob> find(UUID id) {
+        return first(jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM report_jobs WHERE id = :id",
+                new MapSqlParameterSource("id", id),
+                ROW_MAPPER));
+    }
+
+    /**
+     * @param key the report
+     * @return the queued or running job of the report, on any instance
+     */
+    public Optional<ReportJob> findActive(JobKey key) {
+        return first(jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM report_jobs WHERE active_key = :activeKey",
+                new MapSqlParameterSource("activeKey", activeKey(key)),
+                ROW_MAPPER));
+    }
+
+    /**
+     * @param key the report
+     * @param since the earliest completion to consider
+     * @return the latest job of the report completed since the given instant
+     */
+    public Optional<ReportJob> findCompletedSince(JobKey key, Instant since) {
+        return first(jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM report_jobs " +
+                "WHERE type = :type AND start_date = :startDate AND end_date = :endDate AND format = :format " +
+                "AND status = :status AND finished_at >= :since ORDER BY finished_at DESC LIMIT 1",
+                keyParams(key)
+                        .addValue("status", ReportJobStatus.COMPLETED.name())
+                        .addValue("since", Timestamp.from(since)),
+                ROW_MAPPER));
+    }
+
+    /**
+     * @param id job identifier
+     * @return the file of the job, if it has completed and has not been purged
+     */
+    public Optional<byte[]> findContent(UUID id) {
+        return first(jdbcTemplate.query(
+                "SELECT content FROM report_jobs WHERE id = :id AND content IS NOT NULL",
+                new MapSqlParameterSource("id", id),
+                (rs, rowNum) -> rs.getBytes("content")));
+    }
+
+    /**
+     * Inserts a queued job.
+     *
+     * @param job the job
+     * @return false if an identical job is already queued or running
+     */
+    public boolean insert(ReportJob job) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO report_jobs (" + COLUMNS + ", active_key) " +
+                    "VALUES (:id, :type, :startDate, :endDate, :format, :status, :createdAt, NULL, NULL, :activeKey)",
+                    keyParams(job.key())
+                            .addValue("id", job.id())
+                            .addValue("status", job.status().name())
+                            .addValue("createdAt", Timestamp.from(job.createdAt()))
+                            .addValue("activeKey", activeKey(job.key())));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves a queued job to running.
+     *
+     * @param id job identifier
+     * @return false if the job is no longer queued
+     */
+    public boolean markRunning(UUID id) {
+        return jdbcTemplate.update(
+                "UPDATE report_jobs SET status = :running WHERE id = :id AND status = :queued",
+                new MapSqlParameterSource("id", id)
+                        .addValue("running", ReportJobStatus.RUNNING.name())
+                        .addValue("queued", ReportJobStatus.QUEUED.name())) > 0;
+    }
+
+    /**
+     * Stores the file of a running job and completes it.
+     *
+     * @param id job identifier
+     * @param content the report file
+     * @param finishedAt completion instant
+     * @return false if the job is no longer running, e.g. it was failed as stale
+     */
+    public boolean complete(UUID id, byte[] content, Instant finishedAt) {
+        return jdbcTemplate.update(
+                "UPDATE report_jobs SET status = :completed, finished_at = :finishedAt, content = :content, " +
+                "active_key = NULL WHERE id = :id AND status = :running",
+                new MapSqlParameterSource("id", id)
+                        .addValue("completed", ReportJobStatus.COMPLETED.name())
+                        .addValue("running", ReportJobStatus.RUNNING.name())
+                        .addValue("finishedAt", Timestamp.from(finishedAt))
+                        .addValue("content", content)) > 0;
+    }
+
+    /**
+     * Fails a queued or running job.
+     *
+     * @param id job identifier
+     * @param error the error shown to the client
+     * @param finishedAt failure instant
+     */
+    public void fail(UUID id, String error, Instant finishedAt) {
+        jdbcTemplate.update(
+                "UPDATE report_jobs SET status = :failed, finished_at = :finishedAt, error = :error, " +
+                "active_key = NULL WHERE id = :id AND active_key IS NOT NULL",
+                new MapSqlParameterSource("id", id)
+                        .addValue("failed", ReportJobStatus.FAILED.name())
+                        .addValue("finishedAt", Timestamp.from(finishedAt))
+                        .addValue("error", error));
+    }
+
+    /**
+     * Fails the queued and running jobs created before a cutoff, such as those of an
+     * instance that stopped before finishing them.
+     *
+     * @param cutoff jobs created before this instant are failed
+     * @param error the error shown to the client
+     * @param finishedAt failure instant
+     * @return number of jobs failed
+     */
+    public int failActiveCreatedBefore(Instant cutoff, String error, Instant finishedAt) {
+        return jdbcTemplate.update(
+                "UPDATE report_jobs SET status = :failed, finished_at = :finishedAt, error = :error, " +
+                "active_key = NULL WHERE active_key IS NOT NULL AND created_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.from(cutoff))
+                        .addValue("failed", ReportJobStatus.FAILED.name())
+                        .addValue("finishedAt", Timestamp.from(finishedAt))
+                        .addValue("error", error));
+    }
+
+    /**
+     * @param id job identifier
+     */
+    public void delete(UUID id) {
+        jdbcTemplate.update("DELETE FROM report_jobs WHERE id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    /**
+     * Deletes the jobs, and their files, that finished before a cutoff.
+     *
+     * @param cutoff jobs finished before this instant are deleted
+     * @return number of jobs deleted
+     */
+    public int deleteFinishedBefore(Instant cutoff) {
+        return jdbcTemplate.update(
+                "DELETE FROM report_jobs WHERE finished_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.from(cutoff)));
+    }
+
+    private static MapSqlParameterSource keyParams(JobKey key) {
+        return new MapSqlParameterSource()
+                .addValue("type", key.type().name())
+                .addValue("startDate", key.startDate())
+                .addValue("endDate", key.endDate())
+                .addValue("format", key.format().name());
+    }
+
+    private static String activeKey(JobKey key) {
+        return key.type() + "/" + key.startDate() + "/" + key.endDate() + "/" + key.format();
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.stream().findFirst();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ubs.expensemanager.util;
+
+import java.util.BitSet;
+
+/**
+ * Bloom filter of {@code long} keys: {@link #mightContain} never misses an added key and
+ * reports keys that were not added with about the false-positive rate it was sized for.
+ *
+ * <p>Not thread-safe; share it read-only once built, or copy it before adding.</p>
+ */
+public final class BloomFilter {
+
+    private final BitSet bits;
+    private final int size;
+    private final int hashes;
+
+    /**
+     * @param expectedEntries the number of keys the filter is sized for
+     * @param falsePositiveRate the false-positive rate at {@code expectedEntries} keys
+     */
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(expectedEntries, 1);
+        this.size = (int) Math.max(64, Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.hashes = (int) Math.max(1, Math.round((double) size / entries * Math.log(2)));
+        this.bits = new BitSet(size);
+    }
+
+    private BloomFilter(BloomFilter other) {
+        this.size = other.size;
+        this.hashes = other.hashes;
+        this.bits = (BitSet) other.bits.clone();
+    }
+
+    public void add(long key) {
+        long hash = mix(key);
+        for (int i = 0; i < hashes; i++) {
+            bits.set(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        for (int i = 0; i < hashes; i++) {
+            if (!bits.get(index(hash, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return an independent copy of this filter
+     */
+    public BloomFilter copy() {
+        return new BloomFilter(this);
+    }
+
+    // Double hashing: the i-th index is h1 + i * h2 over the two halves of one 64-bit hash
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % size;
+    }
+
+    // SplitMix64 finalizer, so that sequential IDs spread over the whole bit set
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ubs.expensemanager.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A CSV export whose rows are produced lazily when written.
+ *
+ * <p>Returned by report services after the request parameters have been validated,
+ * so that validation errors are still reported before any bytes reach the client.</p>
+ */
+@FunctionalInterface
+public interface CsvExport {
+
+    /**
+     * Writes the CSV content to the given stream. The stream is not closed.
+     *
+     * @param out the target stream
+     * @throws IOException if writing fails
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.ubs.expensemanager.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal UTF-8 CSV writer used by the streaming report exports, so that rows are written
+ * to the response as they are read instead of building the whole file in memory.
+ *
+ * <p>A field is quoted only when it contains a comma, a double quote or a line feed.
+ * I/O failures are rethrown as {@link UncheckedIOException} so the writer can be used
+ * inside {@code Stream.forEach}. The underlying stream is flushed but never closed.</p>
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    public CsvWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a text field, quoting and escaping it if necessary.
+     *
+     * @param value the field value (null is written as an empty field)
+     * @return this writer
+     */
+    public CsvWriter text(String value) {
+        if (value == null) {
+            return this;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return raw("\"" + value.replace("\"", "\"\"") + "\"");
+        }
+        return raw(value);
+    }
+
+    /**
+     * Writes a decimal field in plain notation, e.g. {@code 1234.50}.
+     *
+     * @param value the field value (null is written as an empty field)
+     * @return this writer
+     */
+    public CsvWriter decimal(BigDecimal value) {
+        return value == null ? this : raw(value.toPlainString());
+    }
+
+    /**
+     * Writes the field separator.
+     *
+     * @return this writer
+     */
+    public CsvWriter comma() {
+        return raw(",");
+    }
+
+    /**
+     * Terminates the current row.
+     *
+     * @return this writer
+     */
+    public CsvWriter endRow() {
+        return raw("\n");
+    }
+
+    /**
+     * Writes text as-is, e.g. a constant header line.
+     *
+     * @param text the text to write
+     * @return this writer
+     */
+    public CsvWriter raw(String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes any buffered characters and flushes the underlying stream.
+     */
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -33,4 +33,16 @@ public class CurrencyConverter {
         // Convert to USD by dividing by exchange rate
         return amount.divide(exchangeRate, 2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * Returns the USD amount stored on the expense, which was fixed when its amount or
+     * currency was last set, so that removing the expense from a total takes out exactly
+     * what adding it put in. Converts at the current rate when none is stored.
+     *
+     * @param expense the expense
+     * @return amount in USD
+     */
+    public static BigDecimal storedUsd(Expense expense) {
+        return expense.getAmountUsd() != null ? expense.getAmountUsd() : convertToUsd(expense);
+    }
 }
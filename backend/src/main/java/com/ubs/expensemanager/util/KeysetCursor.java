@@ -0,0 +1,72 @@
+package com.ubs.expensemanager.util;
+
+import com.ubs.expensemanager.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for keyset (cursor) pagination.
+ *
+ * <p>A cursor holds the sort keys of the last row of a page, encoded as an opaque URL-safe
+ * token. The next page is read with a predicate on those keys instead of an offset, so
+ * the database seeks straight to it through the matching index, and with one extra row
+ * instead of a count query to know whether there is a page after it.</p>
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Encodes the sort keys of a row as a cursor.
+     *
+     * @param keys the sort keys, in sort order
+     * @return the opaque cursor
+     */
+    public static String encode(Object... keys) {
+        String joined = Stream.of(keys).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return ENCODER.encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into its sort keys.
+     *
+     * @param cursor the cursor returned with a previous page
+     * @param keyCount the number of sort keys the cursor must hold
+     * @return the sort keys as strings, in sort order
+     * @throws InvalidCursorException if the cursor is malformed
+     */
+    public static String[] decode(String cursor, int keyCount) {
+        try {
+            String joined = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = joined.split("\\|", -1);
+            if (keys.length != keyCount) {
+                throw new InvalidCursorException();
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    /**
+     * Turns the rows of a keyset query that asked for one row more than the page size into
+     * a slice of at most {@code size} rows.
+     *
+     * @param rows the rows read with a limit of {@code size + 1}
+     * @param size the page size
+     * @return the page, telling whether more rows follow
+     */
+    public static <T> Slice<T> toSlice(List<T> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.ofSize(size), hasNext);
+    }
+}
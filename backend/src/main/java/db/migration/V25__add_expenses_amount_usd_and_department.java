@@ -0,0 +1,92 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the denormalised {@code amount_usd} and {@code department_id} columns to
+ * {@code expenses}, backfills them and indexes them for budget and report scans.
+ *
+ * <p>A Java migration because the backfill commits in batches of {@value #BATCH_SIZE}
+ * IDs, so it never holds the locks of the whole table, and the indexes are built
+ * concurrently; neither is possible inside the transaction of a SQL migration.</p>
+ */
+public class V25__add_expenses_amount_usd_and_department extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 10_000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // USD amount at the rate in effect when the amount or currency was set, and the owner's department
+            statement.execute("ALTER TABLE expenses ADD COLUMN IF NOT EXISTS amount_usd DECIMAL(19,2)");
+            statement.execute("ALTER TABLE expenses ADD COLUMN IF NOT EXISTS department_id BIGINT");
+            statement.execute("ALTER TABLE expenses_AUD ADD COLUMN IF NOT EXISTS amount_usd DECIMAL(19,2)");
+            statement.execute("ALTER TABLE expenses_AUD ADD COLUMN IF NOT EXISTS department_id BIGINT");
+            commit(connection);
+
+            backfill(connection);
+
+            statement.execute("ALTER TABLE expenses ALTER COLUMN amount_usd SET NOT NULL");
+            statement.execute("ALTER TABLE expenses ADD CONSTRAINT fk_expenses_department " +
+                    "FOREIGN KEY (department_id) REFERENCES departments(id)");
+            commit(connection);
+
+            // Budget and report scans by department or category and date, answered from the index alone
+            statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_department_date " +
+                    "ON expenses(department_id, expense_date) INCLUDE (amount_usd, status)");
+            statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_category_date " +
+                    "ON expenses(expense_category_id, expense_date) INCLUDE (amount_usd, status)");
+        }
+    }
+
+    /**
+     * Fills the new columns in ID ranges, committing after each one, then once more for
+     * the rows inserted past the last range while the ranges were being filled.
+     */
+    private void backfill(Connection connection) throws SQLException {
+        long minId;
+        long maxId;
+        try (Statement statement = connection.createStatement();
+             ResultSet range = statement.executeQuery("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM expenses")) {
+            range.next();
+            minId = range.getLong(1);
+            maxId = range.getLong(2);
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE expenses e SET amount_usd = ROUND(e.amount / c.exchange_rate, 2), department_id = u.department_id " +
+                "FROM users u, currencies c " +
+                "WHERE u.id = e.user_id AND c.id = e.currency_id " +
+                "AND e.amount_usd IS NULL AND e.id >= ? AND e.id < ?")) {
+            for (long from = minId; from <= maxId; from += BATCH_SIZE) {
+                update.setLong(1, from);
+                update.setLong(2, from + BATCH_SIZE);
+                update.executeUpdate();
+                commit(connection);
+            }
+            update.setLong(1, maxId + 1);
+            update.setLong(2, Long.MAX_VALUE);
+            update.executeUpdate();
+            commit(connection);
+        }
+    }
+
+    private static void commit(Connection connection) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+}
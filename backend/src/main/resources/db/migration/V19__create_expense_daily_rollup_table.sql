@@ -0,0 +1,30 @@
+-- Create expense_daily_rollup table: one row per (date, user, category, currency, status)
+-- with the expense count and the sum of per-expense USD amounts, maintained by the application
+CREATE TABLE expense_daily_rollup (
+    expense_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    department_id BIGINT,
+    category_id BIGINT NOT NULL,
+    currency_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    expense_count BIGINT NOT NULL DEFAULT 0,
+    amount_usd DECIMAL(19,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (expense_date, user_id, category_id, currency_id, status),
+    CONSTRAINT fk_expense_daily_rollup_user FOREIGN KEY (user_id) REFERENCES users(id),
+    CONSTRAINT fk_expense_daily_rollup_category FOREIGN KEY (category_id) REFERENCES expense_categories(id),
+    CONSTRAINT fk_expense_daily_rollup_currency FOREIGN KEY (currency_id) REFERENCES currencies(id)
+);
+
+-- Indexes for budget checks and reports
+CREATE INDEX idx_expense_daily_rollup_department_date ON expense_daily_rollup(department_id, expense_date);
+CREATE INDEX idx_expense_daily_rollup_category_date ON expense_daily_rollup(category_id, expense_date);
+
+-- Backfill from existing expenses
+INSERT INTO expense_daily_rollup
+    (expense_date, user_id, department_id, category_id, currency_id, status, expense_count, amount_usd)
+SELECT e.expense_date, e.user_id, u.department_id, e.expense_category_id, e.currency_id, e.status,
+       COUNT(*), SUM(ROUND(e.amount / c.exchange_rate, 2))
+FROM expenses e
+JOIN users u ON u.id = e.user_id
+JOIN currencies c ON c.id = e.currency_id
+GROUP BY e.expense_date, e.user_id, u.department_id, e.expense_category_id, e.currency_id, e.status;
@@ -0,0 +1,20 @@
+-- Create expense_summary_counters table: dashboard summary counters per user and month
+CREATE TABLE expense_summary_counters (
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    amount_usd DECIMAL(19,2) NOT NULL DEFAULT 0,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    pending_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, month_start)
+);
+
+-- Backfill from the daily rollup
+INSERT INTO expense_summary_counters (user_id, month_start, amount_usd, approved_count, pending_count)
+SELECT r.user_id, r.month_start,
+       SUM(r.amount_usd),
+       SUM(CASE WHEN r.status = 'APPROVED_BY_FINANCE' THEN r.expense_count ELSE 0 END),
+       SUM(CASE WHEN r.status IN ('PENDING', 'APPROVED_BY_MANAGER') THEN r.expense_count ELSE 0 END)
+FROM (SELECT user_id, CAST(DATE_TRUNC('month', expense_date) AS DATE) AS month_start,
+             status, expense_count, amount_usd
+      FROM expense_daily_rollup WHERE status <> 'REJECTED') r
+GROUP BY r.user_id, r.month_start;
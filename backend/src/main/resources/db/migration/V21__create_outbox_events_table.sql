@@ -0,0 +1,19 @@
+-- Create outbox_events table: domain events written in the transaction of the change they
+-- describe and delivered to in-process handlers by the outbox dispatcher
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id BIGINT,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    dispatched_at TIMESTAMP
+);
+
+-- Dispatcher polls undelivered events in id order
+CREATE INDEX idx_outbox_events_pending ON outbox_events (id) WHERE dispatched_at IS NULL;
+
+-- Retention purge of delivered events
+CREATE INDEX idx_outbox_events_dispatched_at ON outbox_events (dispatched_at) WHERE dispatched_at IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Move expense IDs from the identity column to a pooled sequence: Hibernate cannot batch
+-- inserts into identity columns, because it needs each generated ID back immediately
+ALTER TABLE expenses ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE expenses_seq INCREMENT BY 50;
+
+-- Continue after the existing IDs
+SELECT setval('expenses_seq', COALESCE((SELECT MAX(id) FROM expenses), 0) + 1);
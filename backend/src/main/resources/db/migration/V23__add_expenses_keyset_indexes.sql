@@ -0,0 +1,8 @@
+-- Keyset pagination of the expense list, newest first: ORDER BY expense_date DESC, id DESC
+CREATE INDEX idx_expenses_date_id ON expenses(expense_date DESC, id DESC);
+
+-- Same order for the list of an employee, who only sees their own expenses
+CREATE INDEX idx_expenses_user_date_id ON expenses(user_id, expense_date DESC, id DESC);
+
+-- Covered by idx_expenses_date_id, which has expense_date as its leading column
+DROP INDEX IF EXISTS idx_expenses_date;
@@ -0,0 +1,13 @@
+-- Version of a user's self-contained JWTs; tokens carrying an older version are revoked
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+-- Latest revocation per user, loaded into the in-memory denylist of every instance.
+-- Rows older than the token lifetime are purged, as every token they revoke has expired
+CREATE TABLE token_revocations (
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    token_version INT NOT NULL,
+    revoked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
+CREATE INDEX idx_token_revocations_revoked_at ON token_revocations(revoked_at);
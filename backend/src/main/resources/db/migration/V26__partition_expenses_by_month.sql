@@ -0,0 +1,67 @@
+-- Partition expenses by month of expense_date, so month-scoped budget and report scans
+-- only read their months and vacuum works on one month at a time.
+-- Partitions are named expenses_pYYYYMM; ExpensePartitionScheduler creates the upcoming
+-- ones and indexes the old ones with BRIN. Rows outside every partition land in expenses_default.
+
+-- A foreign key to a partitioned table must include the partition key, which alerts do not
+-- have; the trigger at the end of this migration keeps deleting an alerted expense an error
+ALTER TABLE alerts DROP CONSTRAINT IF EXISTS alerts_expense_id_fkey;
+
+ALTER TABLE expenses RENAME TO expenses_unpartitioned;
+ALTER TABLE expenses_unpartitioned RENAME CONSTRAINT expenses_pkey TO expenses_unpartitioned_pkey;
+
+CREATE TABLE expenses (LIKE expenses_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (expense_date);
+
+-- The primary key must include the partition key; IDs stay unique through expenses_seq
+ALTER TABLE expenses ADD PRIMARY KEY (id, expense_date);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users(id);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_expense_category FOREIGN KEY (expense_category_id) REFERENCES expense_categories(id);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_currency FOREIGN KEY (currency_id) REFERENCES currencies(id);
+ALTER TABLE expenses ADD CONSTRAINT fk_expenses_department FOREIGN KEY (department_id) REFERENCES departments(id);
+
+CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+
+-- One partition per month from the oldest expense up to three months ahead
+DO $$
+DECLARE
+    first_month DATE := DATE_TRUNC('month', COALESCE((SELECT MIN(expense_date) FROM expenses_unpartitioned), CURRENT_DATE));
+    last_month DATE := DATE_TRUNC('month', GREATEST(COALESCE((SELECT MAX(expense_date) FROM expenses_unpartitioned), CURRENT_DATE),
+                                                    CURRENT_DATE + INTERVAL '3 months'));
+    month DATE;
+BEGIN
+    FOR month IN SELECT generate_series(first_month, last_month, INTERVAL '1 month')::DATE LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF expenses FOR VALUES FROM (%L) TO (%L)',
+                       'expenses_p' || TO_CHAR(month, 'YYYYMM'), month, (month + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
+
+INSERT INTO expenses SELECT * FROM expenses_unpartitioned;
+
+DROP TABLE expenses_unpartitioned;
+
+-- Indexes are built once the rows are in, and cascade to every current and future partition
+CREATE INDEX idx_expenses_user_category_date ON expenses(user_id, expense_category_id, expense_date);
+CREATE INDEX idx_expenses_status ON expenses(status);
+CREATE INDEX idx_expenses_date_id ON expenses(expense_date DESC, id DESC);
+CREATE INDEX idx_expenses_user_date_id ON expenses(user_id, expense_date DESC, id DESC);
+CREATE INDEX idx_expenses_department_date ON expenses(department_id, expense_date) INCLUDE (amount_usd, status);
+CREATE INDEX idx_expenses_category_date ON expenses(expense_category_id, expense_date) INCLUDE (amount_usd, status);
+
+-- Replaces the dropped foreign key from alerts: deleting an expense that still has alerts
+-- fails as before. An update that moves an expense to another month deletes and re-inserts
+-- it, so the check only fails when no row with the ID is left at the end of the statement.
+CREATE FUNCTION expenses_restrict_alerts() RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM alerts WHERE expense_id = OLD.id)
+            AND NOT EXISTS (SELECT 1 FROM expenses WHERE id = OLD.id) THEN
+        RAISE EXCEPTION 'Expense % is still referenced from table "alerts"', OLD.id
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_expenses_restrict_alerts
+    AFTER DELETE ON expenses
+    FOR EACH ROW EXECUTE FUNCTION expenses_restrict_alerts();
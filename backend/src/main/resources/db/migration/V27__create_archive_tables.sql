@@ -0,0 +1,14 @@
+-- Cold archive of closed expenses older than app.archive.horizon-months, and of their alerts.
+-- ExpenseArchiveScheduler moves rows here with INSERT ... SELECT *, so the archive tables
+-- must keep the columns of expenses and alerts in the same order: a column added to either
+-- must be added to its archive table in the same migration.
+
+CREATE TABLE expenses_archive (LIKE expenses INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+ALTER TABLE expenses_archive ADD PRIMARY KEY (id);
+
+-- Audits look archived expenses up by ID, or by owner and date
+CREATE INDEX idx_expenses_archive_user_date ON expenses_archive(user_id, expense_date);
+
+CREATE TABLE alerts_archive (LIKE alerts INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+ALTER TABLE alerts_archive ADD PRIMARY KEY (id);
+CREATE INDEX idx_alerts_archive_expense ON alerts_archive(expense_id);
@@ -0,0 +1,3 @@
+-- Point-in-time lookups of audited entities: the latest revision at or before a timestamp.
+-- rev is included so the lookup reads the index only.
+CREATE INDEX idx_revinfo_revtstmp ON revinfo(revtstmp, rev);
@@ -0,0 +1,2 @@
+-- As-of reports: the expenses with a revision dated within the report range
+CREATE INDEX idx_expenses_aud_date_id ON expenses_aud(expense_date, id);
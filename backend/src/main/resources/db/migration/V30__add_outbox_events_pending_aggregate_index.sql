@@ -0,0 +1,2 @@
+-- Approving an expense checks for budget alerts of the expense still waiting in the outbox
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events (aggregate_id, event_type) WHERE dispatched_at IS NULL;
@@ -0,0 +1,17 @@
+-- The other half of the foreign key V26 dropped: an alert inserted or moved to an expense
+-- that does not exist fails as before. Locking the expense row keeps it from being deleted
+-- until the alert is committed, after which trg_expenses_restrict_alerts sees the alert.
+CREATE FUNCTION alerts_check_expense() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM 1 FROM expenses WHERE id = NEW.expense_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Expense % referenced from table "alerts" does not exist', NEW.expense_id
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_alerts_check_expense
+    BEFORE INSERT OR UPDATE OF expense_id ON alerts
+    FOR EACH ROW EXECUTE FUNCTION alerts_check_expense();
@@ -0,0 +1,23 @@
+-- Create report_jobs table: background report jobs of all instances, with the file of each
+-- completed job. active_key is set while a job is queued or running, so one job per report
+-- is generated at a time across the cluster; finishing the job clears it
+CREATE TABLE report_jobs (
+    id UUID PRIMARY KEY,
+    type VARCHAR(40) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    active_key VARCHAR(100) UNIQUE,
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    error VARCHAR(255),
+    content BYTEA
+);
+
+-- Submissions reuse a report completed within the dedup window
+CREATE INDEX idx_report_jobs_completed ON report_jobs (type, start_date, end_date, format, finished_at)
+    WHERE status = 'COMPLETED';
+
+-- Retention purge of finished jobs
+CREATE INDEX idx_report_jobs_finished_at ON report_jobs (finished_at) WHERE finished_at IS NOT NULL;
@@ -0,0 +1,110 @@
+package com.ubs.expensemanager.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two buses, standing for two instances, against one Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationBusTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.4");
+
+    private DriverManagerDataSource dataSource;
+    private CacheInvalidationBus publisher;
+    private CacheInvalidationBus subscriber;
+    private SimpleMeterRegistry subscriberMeters;
+    private final BlockingQueue<String> evicted = new LinkedBlockingQueue<>();
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        publisher = bus(new SimpleMeterRegistry());
+        subscriberMeters = new SimpleMeterRegistry();
+        subscriber = bus(subscriberMeters);
+        subscriber.subscribe("departments", evicted::add, flushes::incrementAndGet);
+        subscriber.start();
+        awaitConnected(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        subscriber.stop();
+    }
+
+    @Test
+    void publish_inCommittedTransaction_evictsOnOtherInstance() throws Exception {
+        // When
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status -> publisher.publish("departments", 101L));
+
+        // Then
+        assertEquals("101", evicted.poll(5, TimeUnit.SECONDS));
+        assertEquals(1, subscriberMeters.get("cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void publish_inRolledBackTransaction_isNotDelivered() throws Exception {
+        // When
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status -> {
+                    publisher.publish("departments", 101L);
+                    status.setRollbackOnly();
+                });
+        publisher.publish("departments", 102L);
+
+        // Then
+        assertEquals("102", evicted.poll(5, TimeUnit.SECONDS));
+        assertNull(evicted.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void listener_afterConnectionLoss_reconnectsAndFlushes() throws Exception {
+        // When
+        new JdbcTemplate(dataSource).queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                CacheInvalidationBus.LISTENER_NAME);
+
+        // Then
+        awaitConnected(2);
+        assertEquals(2, flushes.get());
+        publisher.publish("departments", 103L);
+        assertEquals("103", evicted.poll(5, TimeUnit.SECONDS));
+    }
+
+    private CacheInvalidationBus bus(SimpleMeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(new NamedParameterJdbcTemplate(dataSource), meterRegistry, true,
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), 100, 200);
+    }
+
+    private void awaitConnected(int connections) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(subscriber.isConnected()
+                && subscriberMeters.get("cache.invalidation.connections").counter().count() >= connections)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Listener did not connect");
+            Thread.sleep(50);
+        }
+    }
+}
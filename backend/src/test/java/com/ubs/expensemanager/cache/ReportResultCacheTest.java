@@ -0,0 +1,168 @@
+package com.ubs.expensemanager.cache;
+
+import com.ubs.expensemanager.model.ReportJobType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ReportResultCacheTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private ReportResultCache cache;
+    private AtomicInteger loads;
+    private Supplier<List<String>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        cache = new ReportResultCache(60_000, 100, meterRegistry, cacheInvalidationBus);
+        loads = new AtomicInteger();
+        loader = () -> List.of("report " + loads.incrementAndGet());
+    }
+
+    @Test
+    void get_repeatedWithinTtl_computesOnce() {
+        // When
+        List<String> first = cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+        List<String> second = cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("miss"));
+        assertEquals(1.0, count("hit"));
+    }
+
+    @Test
+    void get_otherTypeOrRange_computesSeparately() {
+        // When
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+        cache.get(ReportJobType.EXPENSES_BY_CATEGORY, START, END, loader);
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END.minusDays(1), loader);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_concurrentIdenticalRequests_shareOneComputation() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<List<String>> slowLoader = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.get();
+        };
+
+        // When
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(
+                () -> cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, slowLoader));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(
+                () -> cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, slowLoader));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // Then
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("coalesced"));
+    }
+
+    @Test
+    void invalidate_dateWithinRange_dropsReport() {
+        // Given
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, END.plusDays(1), END.plusDays(1), loader);
+
+        // When
+        cache.invalidate(END);
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, END.plusDays(1), END.plusDays(1), loader);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidate_insideTransaction_publishesDatesOnceAndDropsReportsAfterCommit() {
+        // Given
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            cache.invalidate(END);
+            cache.invalidate(START);
+            cache.invalidate(END);
+            cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+            verify(cacheInvalidationBus, never()).publish(anyString(), any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+            }
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+
+            // Then
+            verify(cacheInvalidationBus).publish(ReportResultCache.INVALIDATION_REGION, "2025-01-01,2025-01-31");
+            assertEquals(2, loads.get());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loaderFails_doesNotCacheFailure() {
+        // Given
+        Supplier<List<String>> failing = () -> {
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        // When
+        assertThrows(IllegalStateException.class,
+                () -> cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, failing));
+        cache.get(ReportJobType.DEPARTMENT_BUDGETS, START, END, loader);
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(2.0, count("miss"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("report.cache").tag("result", result).counter().count();
+    }
+}
@@ -2,7 +2,10 @@ package com.ubs.expensemanager.controller;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -12,6 +15,7 @@ import com.github.database.rider.core.api.dataset.ExpectedDataSet;
 import com.ubs.expensemanager.config.TestSecurityConfig;
 import com.ubs.expensemanager.dto.response.AlertListResponse;
 import com.ubs.expensemanager.dto.response.AlertResponse;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.security.JwtUtil;
 import java.math.BigDecimal;
@@ -79,6 +83,42 @@ public class AlertControllerAPITest extends ControllerAPITest {
     );
   }
 
+  /**
+   * Verifies if {@link AlertController#listAlertsAfter} will walk all alerts in ID order, following
+   * the returned cursor.
+   */
+  @Test
+  @DataSet(value = BASE_DATASET + "input/alerts.yml", tableOrdering = {"DEPARTMENTS", "USERS", "CURRENCIES", "EXPENSE_CATEGORIES", "EXPENSES", "ALERTS"})
+  void shouldWalkAlertsWithCursor() {
+    // given
+    authenticateAsFinance();
+
+    // when
+    ResponseEntity<CursorPageResponse<AlertListResponse>> first = restTemplate.exchange(
+        getPath() + "?size=1&after=",
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        new ParameterizedTypeReference<CursorPageResponse<AlertListResponse>>() {}
+    );
+    ResponseEntity<CursorPageResponse<AlertListResponse>> second = restTemplate.exchange(
+        getPath() + "?size=1&after=" + Objects.requireNonNull(first.getBody()).getNextCursor(),
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        new ParameterizedTypeReference<CursorPageResponse<AlertListResponse>>() {}
+    );
+
+    // then
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, first.getStatusCode()),
+        () -> assertEquals(1L, first.getBody().getContent().get(0).getIdAlert()),
+        () -> assertTrue(first.getBody().isHasNext()),
+        () -> assertEquals(HttpStatus.OK, second.getStatusCode()),
+        () -> assertEquals(2L, Objects.requireNonNull(second.getBody()).getContent().get(0).getIdAlert()),
+        () -> assertFalse(second.getBody().isHasNext()),
+        () -> assertNull(second.getBody().getNextCursor())
+    );
+  }
+
   /**
    * Verifies if {@link AlertController#listAlerts} will return 403 when non-finance user requests.
    */
@@ -0,0 +1,147 @@
+package com.ubs.expensemanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import com.ubs.expensemanager.config.TestSecurityConfig;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.security.JwtUtil;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Concurrency test for the blocking monthly department budget of {@link ExpenseController#create}
+ */
+@Import(TestSecurityConfig.class)
+public class ExpenseBudgetConcurrencyAPITest extends ControllerAPITest {
+
+  private static final String BASE_DATASET = "datasets/expense/";
+
+  // Each department has a monthly budget of 1000.00 USD, i.e. room for exactly 100 expenses
+  private static final int REQUESTS = 2000;
+  private static final int CLIENT_THREADS = 4;
+  private static final BigDecimal MONTHLY_BUDGET = new BigDecimal("1000.00");
+  private static final String AMOUNT = "10.00";
+
+  @Autowired
+  private JwtUtil jwtUtil;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void init() {
+    basePath = "http://localhost:%d/api/expenses";
+  }
+
+  /**
+   * Verifies that thousands of parallel creates against two departments never push either
+   * department over its monthly budget, and that every expense within the budget is accepted.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses-concurrent-budget.yml")
+  void shouldNeverExceedMonthlyDepartmentBudgetUnderConcurrentCreates() throws Exception {
+    // given
+    final String endpointPath = getPath();
+    final HttpHeaders itHeaders = headersFor("employee@ubs.com");
+    final HttpHeaders hrHeaders = headersFor("employee2@ubs.com");
+    final Map<HttpStatusCode, AtomicInteger> statuses = new ConcurrentHashMap<>();
+
+    // when
+    ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>(REQUESTS);
+      for (int i = 0; i < REQUESTS; i++) {
+        final boolean it = i % 2 == 0;
+        futures.add(executor.submit(() -> {
+          ResponseEntity<String> response = restTemplate.exchange(
+              endpointPath,
+              HttpMethod.POST,
+              new HttpEntity<>(createRequest(it ? 101 : 102), it ? itHeaders : hrHeaders),
+              String.class
+          );
+          statuses.computeIfAbsent(response.getStatusCode(), status -> new AtomicInteger()).incrementAndGet();
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // then
+    BigDecimal itTotal = departmentTotal(101L);
+    BigDecimal hrTotal = departmentTotal(102L);
+
+    assertAll(
+        () -> assertEquals(200, count(statuses, HttpStatus.CREATED),
+            "Exactly the expenses fitting into both budgets should be accepted"),
+        () -> assertEquals(REQUESTS - 200, count(statuses, HttpStatus.BAD_REQUEST),
+            "Every other expense should be rejected as exceeding the budget"),
+        () -> assertTrue(itTotal.compareTo(MONTHLY_BUDGET) <= 0, "IT budget exceeded: " + itTotal),
+        () -> assertTrue(hrTotal.compareTo(MONTHLY_BUDGET) <= 0, "HR budget exceeded: " + hrTotal),
+        () -> assertEquals(0, MONTHLY_BUDGET.compareTo(itTotal)),
+        () -> assertEquals(0, MONTHLY_BUDGET.compareTo(hrTotal)),
+        () -> assertEquals(0, itTotal.compareTo(rollupTotal(101L)), "Rollup out of sync for IT"),
+        () -> assertEquals(0, hrTotal.compareTo(rollupTotal(102L)), "Rollup out of sync for HR")
+    );
+  }
+
+  private HttpHeaders headersFor(String email) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set("Authorization", "Bearer " + jwtUtil.generateToken(User.builder().email(email).build()));
+    return headers;
+  }
+
+  private String createRequest(long categoryId) {
+    return """
+        {
+          "amount": %s,
+          "description": "Concurrent expense",
+          "expenseDate": "2026-01-09",
+          "expenseCategoryId": %d,
+          "currencyName": "USD"
+        }
+        """.formatted(AMOUNT, categoryId);
+  }
+
+  private BigDecimal departmentTotal(Long departmentId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(e.amount), 0) FROM expenses e JOIN users u ON u.id = e.user_id WHERE u.department_id = ?",
+        BigDecimal.class, departmentId);
+  }
+
+  private BigDecimal rollupTotal(Long departmentId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(amount_usd), 0) FROM expense_daily_rollup WHERE department_id = ?",
+        BigDecimal.class, departmentId);
+  }
+
+  private static int count(Map<HttpStatusCode, AtomicInteger> statuses, HttpStatus status) {
+    AtomicInteger count = statuses.get(status);
+    return count != null ? count.get() : 0;
+  }
+}
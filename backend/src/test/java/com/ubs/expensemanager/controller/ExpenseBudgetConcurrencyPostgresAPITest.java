@@ -0,0 +1,210 @@
+package com.ubs.expensemanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ubs.expensemanager.ExpenseManagerApplication;
+import com.ubs.expensemanager.config.TestJpaAuditingConfig;
+import com.ubs.expensemanager.config.TestSecurityConfig;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.security.JwtUtil;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Concurrency test for the blocking monthly department budget of {@link ExpenseController#create}
+ * across instances. Two application instances share one Postgres with advisory locks enabled, so
+ * concurrent creates of the same department only serialize through the database.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ExpenseBudgetConcurrencyPostgresAPITest {
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.4");
+
+  // Each department has a monthly budget of 1000.00 USD, i.e. room for exactly 100 expenses
+  private static final int REQUESTS = 4000;
+  private static final int CLIENT_THREADS = 64;
+  private static final BigDecimal MONTHLY_BUDGET = new BigDecimal("1000.00");
+  private static final String AMOUNT = "10.00";
+
+  private static final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+  private static final TestRestTemplate restTemplate = new TestRestTemplate();
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void startInstances() {
+    instances.add(startInstance());
+    jdbcTemplate = instances.get(0).getBean(JdbcTemplate.class);
+    seed();
+    instances.add(startInstance());
+  }
+
+  @AfterAll
+  static void stopInstances() {
+    instances.forEach(ConfigurableApplicationContext::close);
+  }
+
+  /**
+   * Verifies that thousands of parallel creates, spread over two instances and two departments,
+   * never push either department over its monthly budget, and that every expense within the
+   * budget is accepted.
+   */
+  @Test
+  void shouldNeverExceedMonthlyDepartmentBudgetUnderConcurrentCreatesOnTwoInstances() throws Exception {
+    // given
+    final JwtUtil jwtUtil = instances.get(0).getBean(JwtUtil.class);
+    final HttpHeaders itHeaders = headersFor(jwtUtil, "employee@ubs.com");
+    final HttpHeaders hrHeaders = headersFor(jwtUtil, "employee2@ubs.com");
+    final Map<HttpStatusCode, AtomicInteger> statuses = new ConcurrentHashMap<>();
+
+    // when
+    ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>(REQUESTS);
+      for (int i = 0; i < REQUESTS; i++) {
+        final boolean it = i % 2 == 0;
+        final String endpointPath = endpointPath(instances.get(i / 2 % instances.size()));
+        futures.add(executor.submit(() -> {
+          ResponseEntity<String> response = restTemplate.exchange(
+              endpointPath,
+              HttpMethod.POST,
+              new HttpEntity<>(createRequest(it ? 101 : 102), it ? itHeaders : hrHeaders),
+              String.class
+          );
+          statuses.computeIfAbsent(response.getStatusCode(), status -> new AtomicInteger()).incrementAndGet();
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // then
+    BigDecimal itTotal = departmentTotal(101L);
+    BigDecimal hrTotal = departmentTotal(102L);
+
+    assertAll(
+        () -> assertEquals(200, count(statuses, HttpStatus.CREATED),
+            "Exactly the expenses fitting into both budgets should be accepted"),
+        () -> assertEquals(REQUESTS - 200, count(statuses, HttpStatus.BAD_REQUEST),
+            "Every other expense should be rejected as exceeding the budget"),
+        () -> assertTrue(itTotal.compareTo(MONTHLY_BUDGET) <= 0, "IT budget exceeded: " + itTotal),
+        () -> assertTrue(hrTotal.compareTo(MONTHLY_BUDGET) <= 0, "HR budget exceeded: " + hrTotal),
+        () -> assertEquals(0, MONTHLY_BUDGET.compareTo(itTotal)),
+        () -> assertEquals(0, MONTHLY_BUDGET.compareTo(hrTotal)),
+        () -> assertEquals(0, itTotal.compareTo(rollupTotal(101L)), "Rollup out of sync for IT"),
+        () -> assertEquals(0, hrTotal.compareTo(rollupTotal(102L)), "Rollup out of sync for HR")
+    );
+  }
+
+  /**
+   * Starts an instance with the test profile against the container. Command line arguments take
+   * precedence over application-test.yml, which points at H2.
+   */
+  private static ConfigurableApplicationContext startInstance() {
+    return new SpringApplicationBuilder(ExpenseManagerApplication.class, TestJpaAuditingConfig.class, TestSecurityConfig.class)
+        .profiles("test")
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+            "--spring.datasource.username=" + POSTGRES.getUsername(),
+            "--spring.datasource.password=" + POSTGRES.getPassword(),
+            "--spring.datasource.driver-class-name=org.postgresql.Driver",
+            "--spring.datasource.hikari.maximum-pool-size=32",
+            "--spring.jpa.hibernate.ddl-auto=validate",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+            "--spring.flyway.enabled=true",
+            "--spring.sql.init.mode=never",
+            "--spring.h2.console.enabled=false",
+            "--app.budget-reservations.advisory-locks=true",
+            // Waits pile up behind 64 clients; a timeout would show up as a 409 instead of a budget decision
+            "--app.budget-reservations.lock-timeout-ms=60000",
+            "--app.cache-bus.enabled=true",
+            "--app.sql-budget.fail-on-exceed=false"
+        );
+  }
+
+  private static void seed() {
+    jdbcTemplate.update("INSERT INTO currencies (id, name, exchange_rate) VALUES (1, 'USD', 1)");
+    jdbcTemplate.update("INSERT INTO departments (id, name, daily_budget, monthly_budget, currency_id) " +
+        "VALUES (101, 'IT', 100000, 1000, 1), (102, 'HR', 100000, 1000, 1)");
+    jdbcTemplate.update("INSERT INTO expense_categories (id, name, daily_budget, monthly_budget, currency_id) " +
+        "VALUES (101, 'Food', 100000, 100000, 1), (102, 'Travel', 100000, 100000, 1)");
+    jdbcTemplate.update("INSERT INTO users (id, email, password, role, name, manager_id, department_id, active) VALUES " +
+        "(101, 'manager@ubs.com', 'x', 'MANAGER', 'Jane Manager', NULL, 101, TRUE), " +
+        "(102, 'manager2@ubs.com', 'x', 'MANAGER', 'Mark Manager', NULL, 102, TRUE)");
+    jdbcTemplate.update("INSERT INTO users (id, email, password, role, name, manager_id, department_id, active) VALUES " +
+        "(104, 'employee@ubs.com', 'x', 'EMPLOYEE', 'John Employee', 101, 101, TRUE), " +
+        "(105, 'employee2@ubs.com', 'x', 'EMPLOYEE', 'Mary Employee', 102, 102, TRUE)");
+  }
+
+  private static String endpointPath(ConfigurableApplicationContext instance) {
+    int port = ((ServletWebServerApplicationContext) instance).getWebServer().getPort();
+    return String.format("http://localhost:%d/api/expenses", port);
+  }
+
+  private static HttpHeaders headersFor(JwtUtil jwtUtil, String email) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set("Authorization", "Bearer " + jwtUtil.generateToken(User.builder().email(email).build()));
+    return headers;
+  }
+
+  private static String createRequest(long categoryId) {
+    return """
+        {
+          "amount": %s,
+          "description": "Concurrent expense",
+          "expenseDate": "2026-01-09",
+          "expenseCategoryId": %d,
+          "currencyName": "USD"
+        }
+        """.formatted(AMOUNT, categoryId);
+  }
+
+  private static BigDecimal departmentTotal(Long departmentId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(amount), 0) FROM expenses WHERE department_id = ?",
+        BigDecimal.class, departmentId);
+  }
+
+  private static BigDecimal rollupTotal(Long departmentId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COALESCE(SUM(amount_usd), 0) FROM expense_daily_rollup WHERE department_id = ?",
+        BigDecimal.class, departmentId);
+  }
+
+  private static int count(Map<HttpStatusCode, AtomicInteger> statuses, HttpStatus status) {
+    AtomicInteger count = statuses.get(status);
+    return count != null ? count.get() : 0;
+  }
+}
@@ -2,7 +2,9 @@ package com.ubs.expensemanager.controller;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -11,13 +13,19 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.github.database.rider.core.api.dataset.DataSet;
 import com.github.database.rider.core.api.dataset.ExpectedDataSet;
 import com.ubs.expensemanager.config.TestSecurityConfig;
+import com.ubs.expensemanager.dto.response.CursorPageResponse;
+import com.ubs.expensemanager.dto.response.ExpenseAuditResponse;
+import com.ubs.expensemanager.dto.response.ExpenseBatchItemResponse;
+import com.ubs.expensemanager.dto.response.ExpenseBatchResponse;
 import com.ubs.expensemanager.dto.response.ExpenseResponse;
 import com.ubs.expensemanager.model.AlertStatus;
 import com.ubs.expensemanager.model.AlertType;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.repository.AlertRepository;
+import com.ubs.expensemanager.repository.ExpenseRepository;
 import com.ubs.expensemanager.security.JwtUtil;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +56,9 @@ public class ExpenseControllerAPITest extends ControllerAPITest {
   @Autowired
   private AlertRepository alertRepository;
 
+  @Autowired
+  private ExpenseRepository expenseRepository;
+
   private HttpHeaders headers;
 
   @BeforeEach
@@ -94,6 +105,90 @@ public class ExpenseControllerAPITest extends ControllerAPITest {
     );
   }
 
+  /**
+   * Verifies if {@link ExpenseController#findAllAfter} will walk all own expenses of an employee
+   * newest first, page by page, following the returned cursors.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  void shouldWalkOwnExpensesWithCursor() {
+    // given
+    authenticateAsEmployee();
+    List<Long> ids = new ArrayList<>();
+    String after = "";
+
+    // when
+    for (int page = 0; page < 3; page++) {
+      ResponseEntity<CursorPageResponse<ExpenseResponse>> response = restTemplate.exchange(
+          getPath() + "?size=2&after=" + after,
+          HttpMethod.GET,
+          new HttpEntity<>(headers),
+          new ParameterizedTypeReference<>() {
+          }
+      );
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      CursorPageResponse<ExpenseResponse> body = Objects.requireNonNull(response.getBody());
+      body.getContent().forEach(expense -> ids.add(expense.getId()));
+      assertEquals(page < 2, body.isHasNext());
+      after = body.getNextCursor();
+    }
+
+    // then
+    final String lastCursor = after;
+    assertAll(
+        () -> assertEquals(List.of(101L, 102L, 103L, 104L, 105L), ids, "Expenses should be newest first without gaps"),
+        () -> assertNull(lastCursor, "Last page should have no cursor")
+    );
+  }
+
+  /**
+   * Verifies if {@link ExpenseController#findAllAfter} will apply the list filters in cursor mode.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  void shouldFilterExpensesWithCursor() {
+    // given
+    authenticateAsEmployee();
+
+    // when
+    ResponseEntity<CursorPageResponse<ExpenseResponse>> response = restTemplate.exchange(
+        getPath() + "?after=&expenseCategoryId=102",
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        new ParameterizedTypeReference<>() {
+        }
+    );
+
+    // then
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+        () -> assertEquals(List.of(103L, 105L), Objects.requireNonNull(response.getBody()).getContent().stream()
+            .map(ExpenseResponse::getId).toList()),
+        () -> assertFalse(response.getBody().isHasNext())
+    );
+  }
+
+  /**
+   * Verifies if {@link ExpenseController#findAllAfter} will return 400 for a cursor it did not issue.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  void shouldReturn400WhenCursorIsInvalid() {
+    // given
+    authenticateAsEmployee();
+
+    // when
+    ResponseEntity<String> response = restTemplate.exchange(
+        getPath() + "?after=not-a-cursor",
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        String.class
+    );
+
+    // then
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+  }
+
   /**
    * Verifies if {@link ExpenseController#findById} will successfully return expense when employee
    * is the owner.
@@ -547,6 +642,58 @@ public class ExpenseControllerAPITest extends ControllerAPITest {
     );
   }
 
+  /**
+   * Verifies if {@link ExpenseController#getAuditHistoryPage} will walk the revisions of an
+   * expense oldest first, one per page, and return the same revisions as the full history.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  void shouldWalkAuditHistoryWithCursor() {
+    // given
+    final String data = readFixtureFile("__files/expense/request/update-expense.json");
+    authenticateAsEmployee();
+    for (String amount : List.of("60.00", "55.00")) {
+      restTemplate.exchange(getPath() + "/101", HttpMethod.PUT,
+          new HttpEntity<>(data.replace("60.00", amount), headers), ExpenseResponse.class);
+    }
+    List<ExpenseAuditResponse> walked = new ArrayList<>();
+    String after = "";
+
+    // when
+    for (int page = 0; page < 2; page++) {
+      ResponseEntity<CursorPageResponse<ExpenseAuditResponse>> response = restTemplate.exchange(
+          getPath() + "/101/audit?size=1&after=" + after,
+          HttpMethod.GET,
+          new HttpEntity<>(headers),
+          new ParameterizedTypeReference<>() {
+          }
+      );
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      CursorPageResponse<ExpenseAuditResponse> body = Objects.requireNonNull(response.getBody());
+      walked.addAll(body.getContent());
+      after = body.getNextCursor();
+    }
+    ResponseEntity<List<ExpenseAuditResponse>> full = restTemplate.exchange(
+        getPath() + "/101/audit",
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        new ParameterizedTypeReference<>() {
+        }
+    );
+
+    // then
+    final String lastCursor = after;
+    assertAll(
+        () -> assertEquals(List.of(new BigDecimal("60.00"), new BigDecimal("55.00")),
+            walked.stream().map(ExpenseAuditResponse::getAmount).toList()),
+        () -> assertEquals("John Employee", walked.get(0).getUserName()),
+        () -> assertNull(lastCursor, "Last page should have no cursor"),
+        () -> assertEquals(walked.stream().map(ExpenseAuditResponse::getRevisionNumber).map(Number::intValue).toList(),
+            Objects.requireNonNull(full.getBody()).stream()
+                .map(ExpenseAuditResponse::getRevisionNumber).map(Number::intValue).toList())
+    );
+  }
+
   /**
    * Verifies if {@link ExpenseController#update} will return 400 when employee tries to update
    * approved expense.
@@ -656,6 +803,103 @@ public class ExpenseControllerAPITest extends ControllerAPITest {
     );
   }
 
+  /**
+   * Verifies if {@link ExpenseController#createBatch} will create the valid items and report the
+   * invalid ones per item, without failing the whole batch.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  void shouldCreateValidItemsAndReportFailedItemsOfBatch() {
+    // given
+    final String endpointPath = getPath() + "/batch";
+    final String data = readFixtureFile("__files/expense/request/create-expense-batch.json");
+    final long expensesBefore = expenseRepository.count();
+    authenticateAsEmployee();
+
+    // when
+    ResponseEntity<ExpenseBatchResponse> response = restTemplate.exchange(
+        endpointPath,
+        HttpMethod.POST,
+        new HttpEntity<>(data, headers),
+        ExpenseBatchResponse.class
+    );
+
+    // then
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+        () -> {
+          ExpenseBatchResponse body = Objects.requireNonNull(response.getBody());
+          assertEquals(2, body.getCreatedCount());
+          assertEquals(2, body.getFailedCount());
+          assertEquals(List.of(201, 404, 400, 201),
+              body.getItems().stream().map(ExpenseBatchItemResponse::getStatus).toList());
+          assertEquals(new BigDecimal("25.50"), body.getItems().get(0).getExpense().getAmount());
+          assertEquals("Expense category not found", body.getItems().get(1).getError());
+          assertEquals("amount is required", body.getItems().get(2).getError());
+          assertNotNull(body.getItems().get(3).getExpense().getId());
+        },
+        () -> assertEquals(expensesBefore + 2, expenseRepository.count())
+    );
+  }
+
+  /**
+   * Verifies if {@link ExpenseController#createBatch} will check each item against the monthly
+   * department budget including the items accepted before it, rejecting only the item that
+   * exceeds it.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses-concurrent-budget.yml")
+  void shouldRejectOnlyBatchItemExceedingMonthlyDepartmentBudget() {
+    // given - department 101 has a monthly budget of 1000 USD
+    final String endpointPath = getPath() + "/batch";
+    final String data = readFixtureFile("__files/expense/request/create-expense-batch-over-monthly-budget.json");
+    authenticateAsEmployee();
+
+    // when
+    ResponseEntity<ExpenseBatchResponse> response = restTemplate.exchange(
+        endpointPath,
+        HttpMethod.POST,
+        new HttpEntity<>(data, headers),
+        ExpenseBatchResponse.class
+    );
+
+    // then
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+        () -> {
+          ExpenseBatchResponse body = Objects.requireNonNull(response.getBody());
+          assertEquals(2, body.getCreatedCount());
+          assertEquals(List.of(201, 201, 400),
+              body.getItems().stream().map(ExpenseBatchItemResponse::getStatus).toList());
+          assertTrue(body.getItems().get(2).getError().startsWith("Monthly budget exceeded for department 'IT'"));
+        },
+        () -> assertEquals(2, expenseRepository.count())
+    );
+  }
+
+  /**
+   * Verifies if {@link ExpenseController#createBatch} will return 400 for an empty batch.
+   */
+  @Test
+  @DataSet(BASE_DATASET + "input/expenses.yml")
+  @ExpectedDataSet(BASE_DATASET + "expected/expenses-no-change.yml")
+  void shouldReturn400WhenBatchIsEmpty() {
+    // given
+    final String endpointPath = getPath() + "/batch";
+    authenticateAsEmployee();
+
+    // when
+    ResponseEntity<String> response = restTemplate.exchange(
+        endpointPath,
+        HttpMethod.POST,
+        new HttpEntity<>("{\"expenses\": []}", headers),
+        String.class
+    );
+
+    // then
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+  }
+
   // ==================== MANAGER TESTS ====================
 
   /**
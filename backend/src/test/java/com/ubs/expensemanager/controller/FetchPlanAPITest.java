@@ -0,0 +1,149 @@
+package com.ubs.expensemanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import com.ubs.expensemanager.config.TestSecurityConfig;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.security.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Integration test of the fetch plans of the main read paths: counts the SQL statements
+ * Hibernate issues per request, the principal lookup of the JWT filter included, and
+ * checks that no association is loaded by a statement of its own.
+ */
+@Import(TestSecurityConfig.class)
+public class FetchPlanAPITest extends ControllerAPITest {
+
+  private static final String EXPENSES_DATASET = "datasets/expense/input/expenses.yml";
+  private static final String ALERTS_DATASET = "datasets/alert/input/alerts.yml";
+
+  @Autowired
+  private JwtUtil jwtUtil;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  private HttpHeaders headers;
+
+  @BeforeEach
+  void init() {
+    basePath = "http://localhost:%d/api";
+    headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    statistics.setStatisticsEnabled(false);
+  }
+
+  /**
+   * Verifies that an expense page is read with its user, category and currency in one query.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldListExpensesWithinStatementBudget() {
+    authenticateAs("finance@ubs.com");
+    assertStatementBudget(HttpMethod.GET, "/expenses", 3);
+  }
+
+  /**
+   * Verifies that a keyset page of expenses fetches the same associations as the offset page.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldListExpensesAfterCursorWithinStatementBudget() {
+    authenticateAs("finance@ubs.com");
+    assertStatementBudget(HttpMethod.GET, "/expenses?after=&size=10", 2);
+  }
+
+  /**
+   * Verifies that an expense detail is a single query besides the principal lookup.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldReadExpenseWithinStatementBudget() {
+    authenticateAs("employee@ubs.com");
+    assertStatementBudget(HttpMethod.GET, "/expenses/101", 2);
+  }
+
+  /**
+   * Verifies that approving an expense reads its owner's department and the budget currencies
+   * with the expense rather than one by one.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldApproveExpenseWithinStatementBudget() {
+    authenticateAs("manager@ubs.com");
+    assertStatementBudget(HttpMethod.PATCH, "/expenses/101/approve", 12);
+  }
+
+  /**
+   * Verifies that an alert page is read with the expense, owner and currency it shows.
+   */
+  @Test
+  @DataSet(value = ALERTS_DATASET, tableOrdering = {"DEPARTMENTS", "USERS", "CURRENCIES", "EXPENSE_CATEGORIES", "EXPENSES", "ALERTS"})
+  void shouldListAlertsWithinStatementBudget() {
+    authenticateAs("finance@ubs.com");
+    assertStatementBudget(HttpMethod.GET, "/alerts", 3);
+  }
+
+  /**
+   * Verifies that the department report reads every department with its currency at once.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldReportDepartmentsWithinStatementBudget() {
+    authenticateAs("finance@ubs.com");
+    assertStatementBudget(HttpMethod.GET, "/reports/department/budgets-vs-expenses", 3);
+  }
+
+  private void assertStatementBudget(HttpMethod method, String path, long maxStatements) {
+    // given
+    statistics.clear();
+
+    // when
+    ResponseEntity<String> response = restTemplate.exchange(
+        getPath() + path,
+        method,
+        new HttpEntity<>(headers),
+        String.class
+    );
+
+    // then
+    long statements = statistics.getPrepareStatementCount();
+    assertAll(
+        () -> assertEquals(HttpStatus.OK, response.getStatusCode()),
+        () -> assertEquals(0, statistics.getEntityFetchCount(), "No association should be fetched on its own"),
+        () -> assertTrue(statements <= maxStatements,
+            method + " " + path + " issued " + statements + " statements, budget is " + maxStatements)
+    );
+  }
+
+  private void authenticateAs(String email) {
+    // The real user will be loaded from database by UserDetailsService
+    String token = jwtUtil.generateToken(User.builder().email(email).build());
+    headers.set("Authorization", "Bearer " + token);
+  }
+}
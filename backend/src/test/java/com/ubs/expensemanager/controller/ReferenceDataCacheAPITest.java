@@ -0,0 +1,126 @@
+package com.ubs.expensemanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import com.ubs.expensemanager.config.CacheRegions;
+import com.ubs.expensemanager.config.TestSecurityConfig;
+import com.ubs.expensemanager.dto.request.DepartmentUpdateRequest;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration test of the reference data cache, with the second-level cache that the
+ * test profile otherwise disables. The regions are emptied before each test, as DBRider
+ * writes the datasets past Hibernate.
+ */
+@Import(TestSecurityConfig.class)
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ReferenceDataCacheAPITest extends ControllerAPITest {
+
+  private static final String EXPENSES_DATASET = "datasets/expense/input/expenses.yml";
+
+  @Autowired
+  private JwtUtil jwtUtil;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private HttpHeaders headers;
+
+  @BeforeEach
+  void init() {
+    basePath = "http://localhost:%d/api";
+    headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.set("Authorization", "Bearer " + jwtUtil.generateToken(User.builder().email("finance@ubs.com").build()));
+    entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+  }
+
+  /**
+   * Verifies that a repeated department list is served from the query cache.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldServeRepeatedDepartmentListFromCache() {
+    // given
+    double hits = queryCacheHits();
+    ResponseEntity<String> first = listDepartments();
+
+    // when
+    ResponseEntity<String> second = listDepartments();
+
+    // then
+    assertEquals(HttpStatus.OK, second.getStatusCode());
+    assertEquals(first.getBody(), second.getBody());
+    assertTrue(queryCacheHits() > hits, "The second list should be a cache hit");
+  }
+
+  /**
+   * Verifies that a department update is visible to the next cached read.
+   */
+  @Test
+  @DataSet(EXPENSES_DATASET)
+  void shouldListUpdatedDepartmentAfterWrite() {
+    // given
+    listDepartments();
+    DepartmentUpdateRequest request = DepartmentUpdateRequest.builder()
+        .name("Engineering")
+        .monthlyBudget(new BigDecimal("12000.00"))
+        .dailyBudget(new BigDecimal("400.00"))
+        .currencyId(1L)
+        .build();
+
+    // when
+    ResponseEntity<String> update = restTemplate.exchange(
+        getPath() + "/departments/101",
+        HttpMethod.PUT,
+        new HttpEntity<>(request, headers),
+        String.class
+    );
+    ResponseEntity<String> list = listDepartments();
+
+    // then
+    assertEquals(HttpStatus.OK, update.getStatusCode());
+    assertTrue(list.getBody().contains("\"Engineering\""), list.getBody());
+  }
+
+  private ResponseEntity<String> listDepartments() {
+    return restTemplate.exchange(
+        getPath() + "/departments",
+        HttpMethod.GET,
+        new HttpEntity<>(headers),
+        String.class
+    );
+  }
+
+  private double queryCacheHits() {
+    return meterRegistry.get("cache.gets")
+        .tags("cache", CacheRegions.REFERENCE_QUERIES, "result", "hit")
+        .functionCounter()
+        .count();
+  }
+}
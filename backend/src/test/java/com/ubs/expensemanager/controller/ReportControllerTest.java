@@ -7,6 +7,8 @@ import com.ubs.expensemanager.dto.response.LastExpenseDto;
 import com.ubs.expensemanager.dto.response.PersonalExpenseSummaryResponse;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.security.JwtUtil;
+import com.ubs.expensemanager.service.ExpenseDailyRollupService;
+import com.ubs.expensemanager.service.ExpenseSummaryCounterService;
 import com.ubs.expensemanager.service.ReportService;
 import com.ubs.expensemanager.service.UserDetailsServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,15 +17,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -44,6 +54,12 @@ class ReportControllerTest {
     @MockBean
     private ReportService reportService;
 
+    @MockBean
+    private ExpenseDailyRollupService expenseDailyRollupService;
+
+    @MockBean
+    private ExpenseSummaryCounterService expenseSummaryCounterService;
+
     @MockBean
     private JwtUtil jwtUtil;
 
@@ -91,7 +107,7 @@ class ReportControllerTest {
 
     @Test
     void getExpensesByEmployee_success_returnsOk() throws Exception {
-        when(reportService.getExpensesByEmployeeReport(any(), any()))
+        when(reportService.getExpensesByEmployeeReport(any(), any(), any()))
                 .thenReturn(List.of(employeeReport));
 
         mockMvc.perform(get(BASE_URL + "/expenses/by-employee")
@@ -101,45 +117,93 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$[0].employee").value("John Doe"))
                 .andExpect(jsonPath("$[0].total").value(3500.50));
 
-        verify(reportService).getExpensesByEmployeeReport(any(), any());
+        verify(reportService).getExpensesByEmployeeReport(any(), any(), any());
     }
 
     @Test
     void getExpensesByEmployee_noDateParams_returnsOk() throws Exception {
-        when(reportService.getExpensesByEmployeeReport(null, null))
+        when(reportService.getExpensesByEmployeeReport(null, null, null))
                 .thenReturn(List.of(employeeReport));
 
         mockMvc.perform(get(BASE_URL + "/expenses/by-employee"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].employee").value("John Doe"));
 
-        verify(reportService).getExpensesByEmployeeReport(null, null);
+        verify(reportService).getExpensesByEmployeeReport(null, null, null);
     }
 
     @Test
     void getExpensesByEmployeeCsv_success_returnsOk() throws Exception {
         String csvContent = "Employee,Total (USD)\nJohn Doe,3500.50\n";
-        when(reportService.getExpensesByEmployeeCsvReport(any(), any()))
-                .thenReturn(csvContent);
+        when(reportService.getExpensesByEmployeeCsvReport(any(), any(), any()))
+                .thenReturn(out -> out.write(csvContent.getBytes(StandardCharsets.UTF_8)));
         when(reportService.generateCsvFilename(anyString(), any(), any()))
                 .thenReturn("expenses-by-employee_2026-01-01_to_2026-01-31.csv");
 
-        mockMvc.perform(get(BASE_URL + "/expenses/by-employee/csv")
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/expenses/by-employee/csv")
                         .param("startDate", "2026-01-01")
                         .param("endDate", "2026-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition",
                         "attachment; filename=\"expenses-by-employee_2026-01-01_to_2026-01-31.csv\""))
                 .andExpect(content().contentType("text/csv"))
                 .andExpect(content().string(csvContent));
 
-        verify(reportService).getExpensesByEmployeeCsvReport(any(), any());
+        verify(reportService).getExpensesByEmployeeCsvReport(any(), any(), any());
         verify(reportService).generateCsvFilename(anyString(), any(), any());
     }
 
+    @Test
+    void getExpensesByEmployeeCsv_acceptsGzip_returnsCompressedBody() throws Exception {
+        String csvContent = "Employee,Total (USD)\nJohn Doe,3500.50\n";
+        when(reportService.getExpensesByEmployeeCsvReport(any(), any(), any()))
+                .thenReturn(out -> out.write(csvContent.getBytes(StandardCharsets.UTF_8)));
+        when(reportService.generateCsvFilename(anyString(), any(), any()))
+                .thenReturn("expenses-by-employee_2026-01-01_to_2026-01-31.csv");
+
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/expenses/by-employee/csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().contentType("text/csv"))
+                .andReturn();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals(csvContent, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getExpensesByEmployeeCsv_refusesGzip_returnsPlainBody() throws Exception {
+        String csvContent = "Employee,Total (USD)\nJohn Doe,3500.50\n";
+        when(reportService.getExpensesByEmployeeCsvReport(any(), any(), any()))
+                .thenReturn(out -> out.write(csvContent.getBytes(StandardCharsets.UTF_8)));
+        when(reportService.generateCsvFilename(anyString(), any(), any()))
+                .thenReturn("expenses-by-employee_2026-01-01_to_2026-01-31.csv");
+
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/expenses/by-employee/csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(csvContent));
+    }
+
     @Test
     void getExpensesByCategory_success_returnsOk() throws Exception {
-        when(reportService.getExpensesByCategoryReport(any(), any()))
+        when(reportService.getExpensesByCategoryReport(any(), any(), any()))
                 .thenReturn(List.of(categoryReport));
 
         mockMvc.perform(get(BASE_URL + "/expenses/by-category")
@@ -149,33 +213,37 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$[0].category").value("Food"))
                 .andExpect(jsonPath("$[0].total").value(1200.00));
 
-        verify(reportService).getExpensesByCategoryReport(any(), any());
+        verify(reportService).getExpensesByCategoryReport(any(), any(), any());
     }
 
     @Test
     void getExpensesByCategoryCsv_success_returnsOk() throws Exception {
         String csvContent = "Category,Total (USD)\nFood,1200.00\n";
-        when(reportService.getExpensesByCategoryCsvReport(any(), any()))
-                .thenReturn(csvContent);
+        when(reportService.getExpensesByCategoryCsvReport(any(), any(), any()))
+                .thenReturn(out -> out.write(csvContent.getBytes(StandardCharsets.UTF_8)));
         when(reportService.generateCsvFilename(anyString(), any(), any()))
                 .thenReturn("expenses-by-category_2026-01-01_to_2026-01-31.csv");
 
-        mockMvc.perform(get(BASE_URL + "/expenses/by-category/csv")
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/expenses/by-category/csv")
                         .param("startDate", "2026-01-01")
                         .param("endDate", "2026-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition",
                         "attachment; filename=\"expenses-by-category_2026-01-01_to_2026-01-31.csv\""))
                 .andExpect(content().contentType("text/csv"))
                 .andExpect(content().string(csvContent));
 
-        verify(reportService).getExpensesByCategoryCsvReport(any(), any());
+        verify(reportService).getExpensesByCategoryCsvReport(any(), any(), any());
         verify(reportService).generateCsvFilename(anyString(), any(), any());
     }
 
     @Test
     void getExpensesByDepartment_success_returnsOk() throws Exception {
-        when(reportService.getExpensesByDepartmentReport(any(), any()))
+        when(reportService.getExpensesByDepartmentReport(any(), any(), any()))
                 .thenReturn(List.of(departmentReport));
 
         mockMvc.perform(get(BASE_URL + "/department/budgets-vs-expenses")
@@ -187,27 +255,31 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$[0].remaining").value(3000.00))
                 .andExpect(jsonPath("$[0].overBudget").value(0));
 
-        verify(reportService).getExpensesByDepartmentReport(any(), any());
+        verify(reportService).getExpensesByDepartmentReport(any(), any(), any());
     }
 
     @Test
     void getExpensesByDepartmentCsv_success_returnsOk() throws Exception {
         String csvContent = "Department,Used (USD),Remaining (USD),Over Budget (USD)\nEngineering,5000.00,3000.00,0.00\n";
-        when(reportService.getExpensesByDepartmentCsvReport(any(), any()))
-                .thenReturn(csvContent);
+        when(reportService.getExpensesByDepartmentCsvReport(any(), any(), any()))
+                .thenReturn(out -> out.write(csvContent.getBytes(StandardCharsets.UTF_8)));
         when(reportService.generateCsvFilename(anyString(), any(), any()))
                 .thenReturn("expenses-by-department_2026-01-01_to_2026-01-31.csv");
 
-        mockMvc.perform(get(BASE_URL + "/department/budgets-vs-expenses/csv")
+        MvcResult asyncResult = mockMvc.perform(get(BASE_URL + "/department/budgets-vs-expenses/csv")
                         .param("startDate", "2026-01-01")
                         .param("endDate", "2026-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition",
                         "attachment; filename=\"expenses-by-department_2026-01-01_to_2026-01-31.csv\""))
                 .andExpect(content().contentType("text/csv"))
                 .andExpect(content().string(csvContent));
 
-        verify(reportService).getExpensesByDepartmentCsvReport(any(), any());
+        verify(reportService).getExpensesByDepartmentCsvReport(any(), any(), any());
         verify(reportService).generateCsvFilename(anyString(), any(), any());
     }
 
@@ -227,4 +299,16 @@ class ReportControllerTest {
 
         verify(reportService).getExpenseSummary();
     }
+
+    @Test
+    void rebuildRollup_success_returnsNoContent() throws Exception {
+        when(expenseDailyRollupService.rebuild()).thenReturn(12);
+        when(expenseSummaryCounterService.rebuild()).thenReturn(4);
+
+        mockMvc.perform(post(BASE_URL + "/rollup/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(expenseDailyRollupService).rebuild();
+        verify(expenseSummaryCounterService).rebuild();
+    }
 }
@@ -0,0 +1,184 @@
+package com.ubs.expensemanager.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubs.expensemanager.event.outbox.OutboxEvent;
+import com.ubs.expensemanager.model.AlertType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAlertPipelineTest {
+
+    private static final Long EXPENSE_ID = 1L;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<SqlParameterSource[]> batchCaptor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private BudgetAlertPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new BudgetAlertPipeline(jdbcTemplate, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void handle_departmentAndCategoryAlertsOfOneExpense_insertsSingleAllAlert() throws Exception {
+        // Given
+        expensesExist(EXPENSE_ID, 2L);
+
+        // When
+        pipeline.handle(List.of(
+                event(EXPENSE_ID, AlertType.DEPARTMENT, "department exceeded"),
+                event(EXPENSE_ID, AlertType.CATEGORY, "category exceeded"),
+                event(2L, AlertType.CATEGORY, "other expense")));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO alerts"), batchCaptor.capture());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE alerts"), any(SqlParameterSource[].class));
+        SqlParameterSource[] inserts = batchCaptor.getValue();
+        assertEquals(2, inserts.length);
+        assertEquals(EXPENSE_ID, inserts[0].getValue("expenseId"));
+        assertEquals("ALL", inserts[0].getValue("type"));
+        assertEquals("department exceeded; category exceeded", inserts[0].getValue("message"));
+        assertEquals("CATEGORY", inserts[1].getValue("type"));
+        assertEquals(1.0, meterRegistry.counter("alerts.pipeline.coalesced").count());
+        assertEquals(2.0, meterRegistry.counter("alerts.pipeline.written").count());
+    }
+
+    @Test
+    void handle_expenseWithNewAlert_mergesIntoExistingRow() throws Exception {
+        // Given
+        ResultSet existing = mock(ResultSet.class);
+        when(existing.getLong("expense_id")).thenReturn(EXPENSE_ID);
+        when(existing.getLong("alert_id")).thenReturn(7L);
+        when(existing.getString("type")).thenReturn("CATEGORY");
+        when(existing.getString("message")).thenReturn("daily category exceeded");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(2).processRow(existing);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        // When
+        pipeline.handle(List.of(event(EXPENSE_ID, AlertType.CATEGORY, "monthly category exceeded")));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE alerts"), batchCaptor.capture());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO alerts"), any(SqlParameterSource[].class));
+        SqlParameterSource update = batchCaptor.getValue()[0];
+        assertEquals(7L, update.getValue("id"));
+        assertEquals("CATEGORY", update.getValue("type"));
+        assertEquals("daily category exceeded; monthly category exceeded", update.getValue("message"));
+    }
+
+    @Test
+    void handle_expenseDeletedBeforeDispatch_alertSkipped() throws Exception {
+        // Given
+        expensesExist(2L);
+
+        // When
+        pipeline.handle(List.of(
+                event(EXPENSE_ID, AlertType.DEPARTMENT, "deleted expense"),
+                event(2L, AlertType.CATEGORY, "other expense")));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO alerts"), batchCaptor.capture());
+        assertEquals(1, batchCaptor.getValue().length);
+        assertEquals(2L, batchCaptor.getValue()[0].getValue("expenseId"));
+        assertEquals(1.0, meterRegistry.counter("alerts.pipeline.skipped").count());
+    }
+
+    @Test
+    void handle_allExpensesDeleted_writesNothing() {
+        // When
+        pipeline.handle(List.of(event(EXPENSE_ID, AlertType.DEPARTMENT, "deleted expense")));
+
+        // Then
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+        assertEquals(1.0, meterRegistry.counter("alerts.pipeline.skipped").count());
+    }
+
+    @Test
+    void handle_messageOverColumnLength_truncated() throws Exception {
+        // Given
+        expensesExist(EXPENSE_ID);
+
+        // When
+        pipeline.handle(List.of(event(EXPENSE_ID, AlertType.CATEGORY, "x".repeat(BudgetAlertPipeline.MAX_MESSAGE_LENGTH + 10))));
+
+        // Then
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO alerts"), batchCaptor.capture());
+        assertEquals(BudgetAlertPipeline.MAX_MESSAGE_LENGTH,
+                ((String) batchCaptor.getValue()[0].getValue("message")).length());
+    }
+
+    @Test
+    void handle_databaseFailure_propagatesForRedelivery() throws Exception {
+        // Given
+        expensesExist(EXPENSE_ID);
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        List<OutboxEvent> events = List.of(event(EXPENSE_ID, AlertType.DEPARTMENT, "department exceeded"));
+
+        // When & Then - the dispatcher rolls back and retries the events
+        assertThrows(DataAccessResourceFailureException.class, () -> pipeline.handle(events));
+        assertEquals(0.0, meterRegistry.counter("alerts.pipeline.written").count());
+    }
+
+    /**
+     * Answers the lookup of existing expenses and alerts with the given expenses, none with an alert.
+     */
+    private void expensesExist(Long... expenseIds) throws Exception {
+        List<ResultSet> rows = new ArrayList<>();
+        for (Long expenseId : expenseIds) {
+            ResultSet row = mock(ResultSet.class);
+            when(row.getLong("expense_id")).thenReturn(expenseId);
+            when(row.wasNull()).thenReturn(true);
+            rows.add(row);
+        }
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    private OutboxEvent event(Long expenseId, AlertType type, String message) {
+        try {
+            String payload = objectMapper.writeValueAsString(new BudgetAlertPipeline.PendingAlert(expenseId, type, message));
+            return new OutboxEvent(expenseId, BudgetAlertPipeline.EVENT_TYPE, expenseId, payload, LocalDateTime.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.ubs.expensemanager.event;
 
-import com.ubs.expensemanager.model.Alert;
-import com.ubs.expensemanager.model.AlertStatus;
+import com.ubs.expensemanager.event.outbox.OutboxPublisher;
 import com.ubs.expensemanager.model.AlertType;
 import com.ubs.expensemanager.model.Currency;
 import com.ubs.expensemanager.model.Department;
@@ -10,7 +9,6 @@ import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
-import com.ubs.expensemanager.repository.AlertRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,11 +21,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -35,13 +30,13 @@ import static org.mockito.Mockito.*;
 class BudgetExceededEventListenerTest {
 
     @Mock
-    private AlertRepository alertRepository;
+    private OutboxPublisher outboxPublisher;
 
     @InjectMocks
     private BudgetExceededEventListener eventListener;
 
     @Captor
-    private ArgumentCaptor<Alert> alertCaptor;
+    private ArgumentCaptor<BudgetAlertPipeline.PendingAlert> alertCaptor;
 
     private User employee;
     private Department itDepartment;
@@ -125,96 +120,32 @@ class BudgetExceededEventListenerTest {
     }
 
     @Test
-    void handleBudgetExceededEvent_categoryEvent_createsNewAlert() {
-        // Given
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.CATEGORY), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.ALL), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-
+    void handleBudgetExceededEvent_categoryEvent_appendsCategoryAlert() {
         // When
         eventListener.handleBudgetExceededEvent(categoryEvent);
 
         // Then
-        verify(alertRepository).save(alertCaptor.capture());
-        Alert savedAlert = alertCaptor.getValue();
-        assertEquals(AlertType.CATEGORY, savedAlert.getType());
-        assertEquals(expense, savedAlert.getExpense());
-        assertEquals(AlertStatus.NEW, savedAlert.getStatus());
-        assertNotNull(savedAlert.getMessage());
+        verify(outboxPublisher).append(eq(BudgetAlertPipeline.EVENT_TYPE), eq(expense.getId()), alertCaptor.capture());
+        assertEquals(AlertType.CATEGORY, alertCaptor.getValue().type());
+        assertTrue(alertCaptor.getValue().message().startsWith("Daily budget exceeded for category 'Food'"));
+        assertTrue(alertCaptor.getValue().message().contains("Budget limit: 100"));
     }
 
     @Test
-    void handleBudgetExceededEvent_departmentEvent_createsNewAlert() {
-        // Given
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.CATEGORY), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.ALL), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-
+    void handleBudgetExceededEvent_departmentEvent_appendsDepartmentAlert() {
         // When
         eventListener.handleBudgetExceededEvent(departmentEvent);
 
         // Then
-        verify(alertRepository).save(alertCaptor.capture());
-        Alert savedAlert = alertCaptor.getValue();
-        assertEquals(AlertType.DEPARTMENT, savedAlert.getType());
-        assertEquals(expense, savedAlert.getExpense());
-        assertEquals(AlertStatus.NEW, savedAlert.getStatus());
-        assertNotNull(savedAlert.getMessage());
+        verify(outboxPublisher).append(eq(BudgetAlertPipeline.EVENT_TYPE), eq(expense.getId()), alertCaptor.capture());
+        assertEquals(AlertType.DEPARTMENT, alertCaptor.getValue().type());
+        assertTrue(alertCaptor.getValue().message().startsWith("Daily budget exceeded for department 'IT'"));
+        assertTrue(alertCaptor.getValue().message().contains("New total: 410"));
     }
 
     @Test
-    void handleBudgetExceededEvent_departmentEventWithExistingCategoryAlert_updatesExistingAlert() {
+    void handleBudgetExceededEvent_monthlyEvent_messageNamesMonth() {
         // Given
-        Alert existingAlert = Alert.builder()
-                .id(1L)
-                .type(AlertType.CATEGORY)
-                .message("Daily budget exceeded for category 'Food' on 2026-01-08")
-                .status(AlertStatus.NEW)
-                .expense(expense)
-                .build();
-
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.CATEGORY), eq(AlertStatus.NEW)))
-                .thenReturn(List.of(existingAlert));
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.ALL), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-
-        // When
-        eventListener.handleBudgetExceededEvent(departmentEvent);
-
-        // Then
-        verify(alertRepository).save(alertCaptor.capture());
-        Alert savedAlert = alertCaptor.getValue();
-        assertEquals(existingAlert.getId(), savedAlert.getId());
-        assertEquals(AlertType.ALL, savedAlert.getType());
-        assertEquals(expense, savedAlert.getExpense());
-        assertEquals(AlertStatus.NEW, savedAlert.getStatus());
-        // Verify that the message was updated to include department information
-        assertTrue(savedAlert.getMessage().contains("Daily budget exceeded for category 'Food'"));
-        assertTrue(savedAlert.getMessage().contains("Daily budget exceeded for department"));
-    }
-
-    @Test
-    void handleBudgetExceededEvent_multipleCategoryEvents_consolidatesIntoSingleAlert() {
-        // Given - First event creates an alert
-        BudgetExceededEvent dailyBudgetEvent = BudgetExceededEvent.builder()
-                .budgetType(BudgetExceededEvent.BudgetType.CATEGORY)
-                .expense(expense)
-                .category(foodCategory)
-                .userId(employee.getId())
-                .currentTotal(BigDecimal.valueOf(60))
-                .newTotal(BigDecimal.valueOf(110))
-                .budgetLimit(BigDecimal.valueOf(100))
-                .date(LocalDate.now())
-                .build();
-
         BudgetExceededEvent monthlyBudgetEvent = BudgetExceededEvent.builder()
                 .budgetType(BudgetExceededEvent.BudgetType.CATEGORY)
                 .expense(expense)
@@ -223,54 +154,15 @@ class BudgetExceededEventListenerTest {
                 .currentTotal(BigDecimal.valueOf(2980))
                 .newTotal(BigDecimal.valueOf(3030))
                 .budgetLimit(BigDecimal.valueOf(3000))
-                .yearMonth(YearMonth.now())
-                .build();
-
-        // First event - no existing alerts
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.CATEGORY), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.ALL), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-
-        // When - handle first event
-        eventListener.handleBudgetExceededEvent(dailyBudgetEvent);
-
-        // Then - verify first alert created
-        verify(alertRepository, times(1)).save(any(Alert.class));
-
-        // Given - Second event finds the first alert
-        Alert firstAlert = Alert.builder()
-                .id(1L)
-                .type(AlertType.CATEGORY)
-                .message("Daily budget exceeded for category 'Food' on 2026-01-08. Current total: 60, New total: 110, Budget limit: 100")
-                .status(AlertStatus.NEW)
-                .expense(expense)
+                .yearMonth(YearMonth.of(2026, 1))
                 .build();
 
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.CATEGORY), eq(AlertStatus.NEW)))
-                .thenReturn(List.of(firstAlert));
-        when(alertRepository.findAllByExpenseAndTypeAndStatus(
-                eq(expense), eq(AlertType.ALL), eq(AlertStatus.NEW)))
-                .thenReturn(List.of());
-
-        // When - handle second event
+        // When
         eventListener.handleBudgetExceededEvent(monthlyBudgetEvent);
 
-        // Then - verify alert was updated (2 saves total: 1 create + 1 update)
-        verify(alertRepository, times(2)).save(alertCaptor.capture());
-        List<Alert> savedAlerts = alertCaptor.getAllValues();
-        Alert updatedAlert = savedAlerts.get(1);
-        
-        assertEquals(firstAlert.getId(), updatedAlert.getId());
-        assertEquals(AlertType.CATEGORY, updatedAlert.getType()); // Still CATEGORY, not DEPARTMENT
-        assertTrue(updatedAlert.getMessage().contains("Daily budget exceeded"));
-        assertTrue(updatedAlert.getMessage().contains("Monthly budget exceeded"));
+        // Then
+        verify(outboxPublisher).append(eq(BudgetAlertPipeline.EVENT_TYPE), eq(expense.getId()), alertCaptor.capture());
+        assertEquals(AlertType.CATEGORY, alertCaptor.getValue().type());
+        assertTrue(alertCaptor.getValue().message().startsWith("Monthly budget exceeded for category 'Food'"));
     }
-
-    // We can't directly test the private createAlertMessage method,
-    // but we can verify that the alert message contains the expected information
-    // through the handleBudgetExceededEvent tests above.
 }
@@ -0,0 +1,164 @@
+package com.ubs.expensemanager.event.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.database.rider.core.api.dataset.DataSet;
+import com.ubs.expensemanager.controller.ControllerAPITest;
+import com.ubs.expensemanager.event.BudgetAlertPipeline;
+import com.ubs.expensemanager.model.AlertType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration test of {@link OutboxPublisher} and {@link OutboxDispatcher} on the H2 stand-in database
+ */
+public class OutboxDispatcherIntegrationTest extends ControllerAPITest {
+
+  private static final String EXPENSE_DATASET = "datasets/expense/input/expense.yml";
+  private static final String TEST_EVENT = "TEST_EVENT";
+  private static final int EVENTS = 500;
+  private static final int DISPATCHERS = 4;
+
+  @Autowired
+  private OutboxPublisher outboxPublisher;
+
+  @Autowired
+  private OutboxDispatcher outboxDispatcher;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private RecordingHandler recordingHandler;
+
+  /**
+   * Verifies that an event appended in a committed transaction is delivered once and marked.
+   */
+  @Test
+  @DataSet(EXPENSE_DATASET)
+  void shouldDeliverEventAfterCommit() {
+    // when
+    new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+        outboxPublisher.append(BudgetAlertPipeline.EVENT_TYPE, 101L,
+            new BudgetAlertPipeline.PendingAlert(101L, AlertType.CATEGORY, "Daily budget exceeded")));
+
+    // then
+    assertAll(
+        () -> assertEquals(1, count("SELECT COUNT(*) FROM alerts WHERE expense_id = 101 AND type = 'CATEGORY' AND status = 'NEW'")),
+        () -> assertEquals(0, count("SELECT COUNT(*) FROM outbox_events WHERE dispatched_at IS NULL")),
+        () -> assertEquals(1, count("SELECT COUNT(*) FROM outbox_events WHERE dispatched_at IS NOT NULL"))
+    );
+  }
+
+  /**
+   * Verifies that an event appended in a rolled-back transaction is never stored nor delivered.
+   */
+  @Test
+  @DataSet(EXPENSE_DATASET)
+  void shouldDropEventOfRolledBackTransaction() {
+    // when
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      outboxPublisher.append(BudgetAlertPipeline.EVENT_TYPE, 101L,
+          new BudgetAlertPipeline.PendingAlert(101L, AlertType.CATEGORY, "Daily budget exceeded"));
+      status.setRollbackOnly();
+    });
+
+    // then
+    assertAll(
+        () -> assertEquals(0, count("SELECT COUNT(*) FROM alerts")),
+        () -> assertEquals(0, count("SELECT COUNT(*) FROM outbox_events"))
+    );
+  }
+
+  /**
+   * Verifies that dispatchers draining the outbox in parallel deliver every event exactly once.
+   */
+  @Test
+  @DataSet(EXPENSE_DATASET)
+  void shouldDeliverEachEventOnceWithParallelDispatchers() throws Exception {
+    // given - inserted directly so that no dispatch is triggered by a commit
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> rows = new ArrayList<>(EVENTS);
+    for (long i = 0; i < EVENTS; i++) {
+      rows.add(new Object[]{TEST_EVENT, i, "{}", now, now});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO outbox_events (event_type, aggregate_id, payload, attempts, created_at, available_at) VALUES (?, ?, ?, 0, ?, ?)",
+        rows);
+    recordingHandler.deliveries.clear();
+
+    // when
+    ExecutorService executor = Executors.newFixedThreadPool(DISPATCHERS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < DISPATCHERS; i++) {
+        futures.add(executor.submit(outboxDispatcher::drain));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // then
+    assertAll(
+        () -> assertEquals(EVENTS, recordingHandler.deliveries.size(), "Every event should be delivered"),
+        () -> assertTrue(recordingHandler.deliveries.values().stream().allMatch(count -> count.get() == 1),
+            "No event should be delivered twice"),
+        () -> assertEquals(0, count("SELECT COUNT(*) FROM outbox_events WHERE dispatched_at IS NULL"))
+    );
+  }
+
+  private int count(String sql) {
+    Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+    return count != null ? count : 0;
+  }
+
+  /**
+   * Handler for {@code TEST_EVENT} counting the deliveries of each event.
+   */
+  static class RecordingHandler implements OutboxEventHandler {
+
+    private final Map<Long, AtomicInteger> deliveries = new ConcurrentHashMap<>();
+
+    @Override
+    public String eventType() {
+      return TEST_EVENT;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+      events.forEach(event -> deliveries.computeIfAbsent(event.id(), id -> new AtomicInteger()).incrementAndGet());
+    }
+  }
+
+  @TestConfiguration
+  static class RecordingHandlerConfig {
+
+    @Bean
+    RecordingHandler recordingHandler() {
+      return new RecordingHandler();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.ubs.expensemanager.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlBudgetFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/api/expenses/101");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/expenses/{id}");
+    }
+
+    @Test
+    void doFilter_withinBudget_recordsStatementsPerEndpoint() throws Exception {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 50, false, List.of("GET /api/expenses/{id}=2"));
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), issuing(2));
+
+        // Then
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql.statements")
+                .tags("uri", "/api/expenses/{id}", "method", "GET")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+        assertNull(meterRegistry.find("http.server.requests.sql.budget.exceeded").counter());
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    void doFilter_overBudget_countsExceededRequest() throws Exception {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 50, false, List.of("GET /api/expenses/{id}=2"));
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), issuing(3));
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("http.server.requests.sql.budget.exceeded").counter().count());
+    }
+
+    @Test
+    void doFilter_overBudgetWithFailOnExceed_failsOnStatementOverBudget() {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 50, true, List.of("GET /api/expenses/{id}=2"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), issuing(3)));
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    void doFilter_unlistedEndpoint_usesDefaultBudget() throws Exception {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(meterRegistry, 3, true, List.of("GET /api/expenses/batch=1"));
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), issuing(3));
+
+        // Then
+        assertNull(meterRegistry.find("http.server.requests.sql.budget.exceeded").counter());
+    }
+
+    @Test
+    void constructor_entryWithoutBudget_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SqlBudgetFilter(meterRegistry, 50, false, List.of("GET /api/expenses")));
+    }
+
+    private FilterChain issuing(int statements) {
+        return (req, res) -> {
+            for (int i = 0; i < statements; i++) {
+                RequestSqlStats.current().statementPrepared("select " + i);
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.ubs.expensemanager.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlCountingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-counting;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new SqlCountingDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS counted (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("DELETE FROM counted");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestSqlStats.close();
+    }
+
+    @Test
+    void jdbcTemplateStatements_countedTowardsRequest() {
+        // Given
+        RequestSqlStats stats = RequestSqlStats.open(50, false);
+
+        // When: one plain statement, one prepared statement and one named-parameter query
+        jdbcTemplate.execute("INSERT INTO counted (id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO counted (id) VALUES (?)", 2L);
+        new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(
+                "SELECT COUNT(*) FROM counted WHERE id >= :id", new MapSqlParameterSource("id", 1L), Long.class);
+
+        // Then
+        assertEquals(3, stats.getStatements());
+    }
+
+    @Test
+    void batch_countedOnce() {
+        // Given
+        RequestSqlStats stats = RequestSqlStats.open(50, false);
+
+        // When
+        jdbcTemplate.batchUpdate("INSERT INTO counted (id) VALUES (?)",
+                List.of(new Object[]{1L}, new Object[]{2L}, new Object[]{3L}));
+
+        // Then
+        assertEquals(1, stats.getStatements());
+    }
+
+    @Test
+    void noRequest_nothingCounted() {
+        // When
+        jdbcTemplate.update("INSERT INTO counted (id) VALUES (?)", 1L);
+
+        // Then
+        assertNull(RequestSqlStats.current());
+    }
+}
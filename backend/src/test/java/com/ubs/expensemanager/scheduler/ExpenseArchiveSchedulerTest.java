@@ -0,0 +1,75 @@
+package com.ubs.expensemanager.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the migrations and the archive job against Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ExpenseArchiveSchedulerTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.4");
+
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO currencies (id, name, exchange_rate) VALUES (1, 'USD', 1)");
+        jdbc.update("INSERT INTO departments (id, name, monthly_budget, currency_id) VALUES (1, 'IT', 1000, 1)");
+        jdbc.update("INSERT INTO users (id, email, password, role, name, department_id) " +
+                "VALUES (1, 'employee@ubs.com', 'x', 'EMPLOYEE', 'Employee', 1)");
+        jdbc.update("INSERT INTO expense_categories (id, name, daily_budget, monthly_budget, currency_id) " +
+                "VALUES (1, 'Travel', 100, 1000, 1)");
+    }
+
+    @Test
+    void archive_movesClosedExpensesPastHorizonWithTheirAlerts() {
+        // Given
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        LocalDate today = LocalDate.now();
+        LocalDate old = today.minusYears(3);
+        insertExpense(jdbc, 1L, old, "APPROVED_BY_FINANCE");
+        insertExpense(jdbc, 2L, old, "REJECTED");
+        insertExpense(jdbc, 3L, old, "PENDING");
+        insertExpense(jdbc, 4L, today, "APPROVED_BY_FINANCE");
+        jdbc.update("INSERT INTO alerts (type, message, status, expense_id) VALUES ('CATEGORY', 'Over budget', 'RESOLVED', 1)");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExpenseArchiveScheduler scheduler = new ExpenseArchiveScheduler(new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), meterRegistry, true, 24, 1);
+
+        // When
+        int archived = scheduler.archive(today);
+
+        // Then
+        assertEquals(2, archived);
+        assertEquals(List.of(1L, 2L), jdbc.queryForList("SELECT id FROM expenses_archive ORDER BY id", Long.class));
+        assertEquals(List.of(3L, 4L), jdbc.queryForList("SELECT id FROM expenses ORDER BY id", Long.class));
+        assertEquals(List.of(1L), jdbc.queryForList("SELECT expense_id FROM alerts_archive", Long.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM alerts", Integer.class));
+        assertEquals(2.0, meterRegistry.get("archive.expenses.moved").counter().count());
+    }
+
+    private void insertExpense(JdbcTemplate jdbc, long id, LocalDate date, String status) {
+        jdbc.update("INSERT INTO expenses (id, amount, amount_usd, expense_date, user_id, department_id, " +
+                "expense_category_id, currency_id, status) VALUES (?, 10, 10, ?, 1, 1, 1, 1, ?)", id, date, status);
+    }
+}
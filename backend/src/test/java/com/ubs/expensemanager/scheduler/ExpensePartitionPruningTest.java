@@ -0,0 +1,292 @@
+package com.ubs.expensemanager.scheduler;
+
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.repository.specification.ExpenseSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Explains the statements Hibernate generates for the {@link ExpenseRepository} queries
+ * against the partitioned {@code expenses} table, with the parameters they were bound to.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ExpensePartitionPruningTest.RecorderConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ExpensePartitionPruningTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.4");
+
+    // The list query of ExpenseService#findAllAfter
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("expenseDate"), Sort.Order.desc("id"));
+    private static final List<String> LIST_ASSOCIATIONS = List.of("user", "expenseCategory", "currency");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    private final YearMonth month = YearMonth.now();
+    private final String partition = ExpensePartitionScheduler.partitionName(month);
+    private final String nextPartition = ExpensePartitionScheduler.partitionName(month.plusMonths(1));
+
+    @BeforeEach
+    void setUp() {
+        recorder.clear();
+    }
+
+    @Test
+    void keysetListWithDateFilter_scansOnlyTheMonthPartition() throws SQLException {
+        // Given
+        Specification<Expense> spec = ExpenseSpecifications.withStartDate(month.atDay(1))
+                .and(ExpenseSpecifications.withEndDate(month.atEndOfMonth()));
+
+        // When (first page and the page after a cursor)
+        String firstPage = explainLast(() -> list(spec));
+        String nextPage = explainLast(() -> list(spec.and(ExpenseSpecifications.before(month.atDay(15), 1_000L))));
+
+        // Then
+        for (String plan : List.of(firstPage, nextPage)) {
+            assertTrue(plan.contains(partition), plan);
+            assertFalse(plan.contains(nextPartition), plan);
+            assertFalse(plan.contains(ExpensePartitionScheduler.DEFAULT_PARTITION), plan);
+        }
+    }
+
+    @Test
+    void keysetListAfterCursor_skipsLaterPartitions() throws SQLException {
+        // When (no date filter; the cursor alone bounds the date from above)
+        String plan = explainLast(() -> list(ExpenseSpecifications.before(month.atDay(15), 1_000L)));
+
+        // Then
+        assertTrue(plan.contains(partition), plan);
+        assertFalse(plan.contains(nextPartition), plan);
+    }
+
+    @Test
+    void lastExpenses_withoutDateBound_readEveryPartition() throws SQLException {
+        // When
+        String allUsers = explainLast(() ->
+                expenseRepository.findLastExpensesByStatusNot(ExpenseStatus.REJECTED, PageRequest.of(0, 5)));
+        String oneUser = explainLast(() ->
+                expenseRepository.findLastExpensesByUserIdAndStatusNot(1L, ExpenseStatus.REJECTED, PageRequest.of(0, 5)));
+
+        // Then (nothing to prune by, so the newest rows may be in any partition)
+        for (String plan : List.of(allUsers, oneUser)) {
+            assertTrue(plan.contains(partition), plan);
+            assertTrue(plan.contains(nextPartition), plan);
+            assertTrue(plan.contains(ExpensePartitionScheduler.DEFAULT_PARTITION), plan);
+        }
+    }
+
+    @Test
+    void asOfTotals_readTheAuditTableByDate() throws SQLException {
+        // Given
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+        long asOf = System.currentTimeMillis();
+        String excluded = ExpenseStatus.REJECTED.name();
+
+        // When (with sequential scans discouraged, as on a populated table)
+        List<String> plans = List.of(
+                explainLast(() -> expenseRepository.sumUsdAsOfGroupedByEmployee(start, end, excluded, asOf), false),
+                explainLast(() -> expenseRepository.sumUsdAsOfGroupedByCategory(start, end, excluded, asOf), false),
+                explainLast(() -> expenseRepository.sumUsdAsOfGroupedByDepartment(start, end, excluded, asOf), false));
+
+        // Then (the revisions are found through their date; the expenses table is not read)
+        for (String plan : plans) {
+            assertTrue(plan.contains("idx_expenses_aud_date_id"), plan);
+            assertFalse(plan.contains(partition), plan);
+            assertFalse(plan.contains(ExpensePartitionScheduler.DEFAULT_PARTITION), plan);
+        }
+    }
+
+    private List<Expense> list(Specification<Expense> spec) {
+        return expenseRepository.findBy(spec, query -> query.project(LIST_ASSOCIATIONS)
+                .sortBy(KEYSET_SORT).limit(21).all());
+    }
+
+    private String explainLast(Runnable query) throws SQLException {
+        return explainLast(query, true);
+    }
+
+    /**
+     * Runs a repository query and explains the last statement it issued, with the same
+     * parameters.
+     */
+    private String explainLast(Runnable query, boolean seqScan) throws SQLException {
+        query.run();
+        RecordedStatement statement = recorder.last();
+        try (Connection connection = recorder.target().getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET LOCAL enable_seqscan = " + seqScan);
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bindings().forEach(binding -> binding.accept(explain));
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private record RecordedStatement(String sql, List<Consumer<PreparedStatement>> bindings) {
+    }
+
+    /**
+     * Records the queries issued through the data source, with the parameter setters called
+     * on each, so they can be replayed on an {@code EXPLAIN}.
+     */
+    static class StatementRecorder {
+
+        private final List<RecordedStatement> statements = new ArrayList<>();
+        private DataSource target;
+
+        DataSource wrap(DataSource dataSource) {
+            this.target = dataSource;
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recording(super.getConnection());
+                }
+            };
+        }
+
+        DataSource target() {
+            return target;
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+
+        synchronized RecordedStatement last() {
+            assertFalse(statements.isEmpty(), "No query was issued");
+            return statements.get(statements.size() - 1);
+        }
+
+        private Connection recording(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (method.getName().equals("prepareStatement") && isQuery((String) args[0])) {
+                    RecordedStatement statement = new RecordedStatement((String) args[0], new ArrayList<>());
+                    synchronized (this) {
+                        statements.add(statement);
+                    }
+                    return recording((PreparedStatement) result, statement);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement recording(PreparedStatement prepared, RecordedStatement statement) {
+            return proxy(PreparedStatement.class, prepared, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    statement.bindings().add(explain -> replay(method, explain, args));
+                }
+                return method.invoke(prepared, args);
+            });
+        }
+
+        private static boolean isQuery(String sql) {
+            String head = sql.stripLeading().toLowerCase();
+            return head.startsWith("select") || head.startsWith("with");
+        }
+
+        private static void replay(Method method, PreparedStatement target, Object[] args) {
+            try {
+                method.invoke(target, args);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not bind " + method.getName(), e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return invocation.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        private interface Invocation {
+            Object invoke(Method method, Object[] args) throws Exception;
+        }
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSource(StatementRecorder statementRecorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)
+                            ? statementRecorder.wrap(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ubs.expensemanager.scheduler;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the migrations and the partition maintenance against Postgres. Partition pruning of
+ * the repository queries is covered by {@link ExpensePartitionPruningTest}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ExpensePartitionSchedulerTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15.4");
+
+    private static DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ExpensePartitionScheduler scheduler;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO currencies (id, name, exchange_rate) VALUES (1, 'USD', 1)");
+        jdbc.update("INSERT INTO departments (id, name, monthly_budget, currency_id) VALUES (1, 'IT', 1000, 1)");
+        jdbc.update("INSERT INTO users (id, email, password, role, name, department_id) " +
+                "VALUES (1, 'employee@ubs.com', 'x', 'EMPLOYEE', 'Employee', 1)");
+        jdbc.update("INSERT INTO expense_categories (id, name, daily_budget, monthly_budget, currency_id) " +
+                "VALUES (1, 'Travel', 100, 1000, 1)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        scheduler = scheduler(3);
+    }
+
+    @Test
+    void maintain_createsUpcomingPartitions() {
+        // Given
+        YearMonth next = YearMonth.now().plusMonths(1);
+
+        // When
+        assertTrue(scheduler.maintain(next.atDay(1)));
+
+        // Then
+        assertTrue(exists(ExpensePartitionScheduler.partitionName(next.plusMonths(3))));
+    }
+
+    @Test
+    void maintain_movesRowsOutOfDefaultPartition() {
+        // Given
+        LocalDate farAhead = LocalDate.now().plusYears(2);
+        insertExpense(900_001L, farAhead);
+        assertEquals(ExpensePartitionScheduler.DEFAULT_PARTITION, partitionOf(900_001L));
+
+        // When (without indexing the partitions that the other tests expect unindexed)
+        scheduler(36).maintain(farAhead);
+
+        // Then
+        assertEquals(ExpensePartitionScheduler.partitionName(YearMonth.from(farAhead)), partitionOf(900_001L));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + ExpensePartitionScheduler.DEFAULT_PARTITION, Integer.class));
+    }
+
+    @Test
+    void maintain_addsBrinIndexToOldPartitions() {
+        // Given
+        YearMonth current = YearMonth.now();
+
+        // When
+        scheduler.maintain(current.plusMonths(4).atDay(1));
+
+        // Then
+        assertTrue(exists(ExpensePartitionScheduler.partitionName(current) + "_date_brin"));
+        assertFalse(exists(ExpensePartitionScheduler.partitionName(current.plusMonths(1)) + "_date_brin"));
+    }
+
+    private ExpensePartitionScheduler scheduler(int brinAfterMonths) {
+        return new ExpensePartitionScheduler(new NamedParameterJdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), true, 3, brinAfterMonths);
+    }
+
+    private void insertExpense(long id, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO expenses (id, amount, amount_usd, expense_date, user_id, department_id, " +
+                "expense_category_id, currency_id, status) VALUES (?, 10, 10, ?, 1, 1, 1, 1, 'PENDING')", id, date);
+    }
+
+    private String partitionOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM expenses WHERE id = ?", String.class, id);
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+}
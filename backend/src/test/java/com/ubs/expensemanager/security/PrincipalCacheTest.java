@@ -0,0 +1,131 @@
+package com.ubs.expensemanager.security;
+
+import com.ubs.expensemanager.cache.CacheInvalidationBus;
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PrincipalCacheTest {
+
+    private static final String EMAIL = "employee@ubs.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private AtomicInteger loads;
+    private Function<String, User> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        loads = new AtomicInteger();
+        loader = email -> {
+            loads.incrementAndGet();
+            return User.builder()
+                    .id(104L)
+                    .email(email)
+                    .name("John Employee")
+                    .role(UserRole.EMPLOYEE)
+                    .department(Department.builder().id(101L).name("IT").build())
+                    .manager(User.builder().id(101L).email("manager@ubs.com").build())
+                    .build();
+        };
+    }
+
+    @Test
+    void get_repeatedWithinTtl_loadsOnce() {
+        // Given
+        PrincipalCache cache = new PrincipalCache(60_000, 100, meterRegistry, cacheInvalidationBus);
+
+        // When
+        cache.get(EMAIL, loader);
+        User principal = cache.get(EMAIL, loader);
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(104L, principal.getId());
+        assertEquals(UserRole.EMPLOYEE, principal.getRole());
+        assertEquals(101L, principal.getDepartment().getId());
+        assertNull(principal.getDepartment().getName());
+        assertEquals(101L, principal.getManager().getId());
+        assertEquals(1.0, meterRegistry.get("auth.principal.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.principal.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_afterInvalidate_reloads() {
+        // Given
+        PrincipalCache cache = new PrincipalCache(60_000, 100, meterRegistry, cacheInvalidationBus);
+        cache.get(EMAIL, loader);
+
+        // When
+        cache.invalidate(EMAIL);
+        cache.get(EMAIL, loader);
+
+        // Then
+        assertEquals(2, loads.get());
+        verify(cacheInvalidationBus).publish(PrincipalCache.INVALIDATION_REGION, EMAIL);
+    }
+
+    @Test
+    void get_afterInvalidationFromOtherInstance_reloads() {
+        // Given
+        AtomicReference<Consumer<String>> evict = new AtomicReference<>();
+        doAnswer(invocation -> {
+            evict.set(invocation.getArgument(1));
+            return null;
+        }).when(cacheInvalidationBus).subscribe(eq(PrincipalCache.INVALIDATION_REGION), any(), any());
+        PrincipalCache cache = new PrincipalCache(60_000, 100, meterRegistry, cacheInvalidationBus);
+        cache.get(EMAIL, loader);
+
+        // When
+        evict.get().accept(EMAIL);
+        cache.get(EMAIL, loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_afterTtl_reloads() {
+        // Given
+        PrincipalCache cache = new PrincipalCache(0, 100, meterRegistry, cacheInvalidationBus);
+
+        // When
+        cache.get(EMAIL, loader);
+        cache.get(EMAIL, loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_overMaxSize_evictsLeastRecentlyUsed() {
+        // Given
+        PrincipalCache cache = new PrincipalCache(60_000, 1, meterRegistry, cacheInvalidationBus);
+        cache.get(EMAIL, loader);
+
+        // When
+        cache.get("other@ubs.com", loader);
+        cache.get(EMAIL, loader);
+
+        // Then
+        assertEquals(3, loads.get());
+    }
+}
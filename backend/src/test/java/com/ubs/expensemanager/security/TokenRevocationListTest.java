@@ -0,0 +1,88 @@
+package com.ubs.expensemanager.security;
+
+import com.ubs.expensemanager.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = new TokenRevocationList(jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    void revoke_revokesEarlierVersionsOnly() {
+        // Given
+        User user = User.builder().id(104L).tokenVersion(2).build();
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(SqlParameterSource.class))).thenReturn(0);
+
+        // When
+        revocationList.revoke(user);
+
+        // Then
+        assertEquals(3, user.getTokenVersion());
+        verify(jdbcTemplate).update(startsWith("INSERT"), any(SqlParameterSource.class));
+        assertTrue(revocationList.isRevoked(104L, 2));
+        assertFalse(revocationList.isRevoked(104L, 3));
+        assertFalse(revocationList.isRevoked(105L, 0));
+        assertEquals(1.0, meterRegistry.get("auth.token.revocations").gauge().value());
+    }
+
+    @Test
+    void refresh_loadsRevocationsFromTable() throws Exception {
+        // Given
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("user_id")).thenReturn(104L);
+        when(row.getInt("token_version")).thenReturn(1);
+        doAnswer(inv -> {
+            inv.getArgument(1, RowCallbackHandler.class).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        // When
+        revocationList.refresh();
+
+        // Then
+        verify(jdbcTemplate).update(startsWith("DELETE"), any(SqlParameterSource.class));
+        assertTrue(revocationList.isRevoked(104L, 0));
+        assertFalse(revocationList.isRevoked(104L, 1));
+    }
+
+    @Test
+    void refresh_keepsRevocationsAppliedLocally() {
+        // Given
+        User user = User.builder().id(104L).build();
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(SqlParameterSource.class))).thenReturn(1);
+        revocationList.revoke(user);
+
+        // When (the reload does not see the row yet)
+        revocationList.refresh();
+
+        // Then
+        assertTrue(revocationList.isRevoked(104L, 0));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ubs.expensemanager.service;
+
+import com.ubs.expensemanager.model.Department;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.model.ExpenseCategory;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
+import com.ubs.expensemanager.repository.projection.BudgetTotalsRow;
+import com.ubs.expensemanager.repository.projection.ScopedDailyTotal;
+import com.ubs.expensemanager.service.budget.BudgetBatchTotals;
+import com.ubs.expensemanager.service.budget.BudgetTotals;
+import com.ubs.expensemanager.service.budget.BudgetTotalsReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetTotalsReaderTest {
+
+    private static final Long DEPARTMENT_ID = 1L;
+    private static final Long CATEGORY_ID = 2L;
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 14);
+
+    @Mock
+    private ExpenseDailyRollupRepository expenseDailyRollupRepository;
+
+    @Mock
+    private BudgetTotalsRow budgetTotalsRow;
+
+    private BudgetTotalsReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new BudgetTotalsReader(expenseDailyRollupRepository);
+    }
+
+    @Test
+    void totalsFor_singleRollupQueryForDayAndMonth() {
+        when(budgetTotalsRow.getDepartmentMonth()).thenReturn(new BigDecimal("75.00"));
+        when(budgetTotalsRow.getCategoryDay()).thenReturn(new BigDecimal("40.00"));
+        when(expenseDailyRollupRepository.sumBudgetTotals(DEPARTMENT_ID, CATEGORY_ID, DATE,
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)))
+                .thenReturn(budgetTotalsRow);
+
+        BudgetTotals totals = reader.totalsFor(expense(DATE));
+
+        assertEquals(new BigDecimal("75.00"), totals.departmentMonth());
+        assertEquals(new BigDecimal("40.00"), totals.categoryDay());
+        verify(expenseDailyRollupRepository, times(1)).sumBudgetTotals(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void batchTotalsFor_readsWholeMonthsOfTheBatch() {
+        LocalDate later = LocalDate.of(2026, 4, 2);
+        when(expenseDailyRollupRepository.sumUsdGroupedByDateForDepartment(
+                DEPARTMENT_ID, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30)))
+                .thenReturn(List.of(new ScopedDailyTotal(DEPARTMENT_ID, DATE, new BigDecimal("30.00"))));
+        when(expenseDailyRollupRepository.sumUsdGroupedByCategoryAndDateBetween(
+                Set.of(CATEGORY_ID), LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30)))
+                .thenReturn(List.of(new ScopedDailyTotal(CATEGORY_ID, DATE, new BigDecimal("20.00"))));
+
+        BudgetBatchTotals totals = reader.batchTotalsFor(List.of(expense(DATE), expense(later)));
+
+        assertEquals(new BigDecimal("30.00"), totals.totalsFor(expense(DATE)).departmentMonth());
+        assertEquals(new BigDecimal("20.00"), totals.totalsFor(expense(DATE)).categoryDay());
+    }
+
+    private Expense expense(LocalDate date) {
+        return Expense.builder()
+                .expenseDate(date)
+                .user(User.builder().id(10L).department(Department.builder().id(DEPARTMENT_ID).build()).build())
+                .expenseCategory(ExpenseCategory.builder().id(CATEGORY_ID).build())
+                .build();
+    }
+}
@@ -9,7 +9,7 @@ import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
-import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.service.budget.BudgetTotals;
 import com.ubs.expensemanager.service.budget.CategoryBudgetValidationStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,15 +26,11 @@ import java.time.YearMonth;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryBudgetValidationStrategyTest {
 
-    @Mock
-    private ExpenseRepository expenseRepository;
-
     @Mock
     private EventPublisher eventPublisher;
 
@@ -106,16 +102,11 @@ class CategoryBudgetValidationStrategyTest {
         BigDecimal newAmount = BigDecimal.valueOf(50);
         // 40 + 50 = 90, which is less than the daily budget of 100
 
-        when(expenseRepository.sumAmountByCategoryAndDateExcludingExpense(
-                eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId())))
-                .thenReturn(currentDailyTotal);
-
         // When
-        strategy.validate(employee.getId(), foodCategory, expense, newAmount);
+        strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                categoryTotals(currentDailyTotal, currentDailyTotal));
 
         // Then
-        verify(expenseRepository).sumAmountByCategoryAndDateExcludingExpense(eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId()));
-        verify(expenseRepository).sumAmountByCategoryAndDateRangeExcludingExpense(eq(foodCategory.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId()));
         verify(eventPublisher, never()).publishBudgetExceededEvent(any());
     }
 
@@ -126,17 +117,12 @@ class CategoryBudgetValidationStrategyTest {
         BigDecimal newAmount = BigDecimal.valueOf(50);
         // 60 + 50 = 110, which exceeds the daily budget of 100
 
-      when(expenseRepository.sumAmountByCategoryAndDateExcludingExpense(eq(foodCategory.getId()),
-          any(LocalDate.class), eq(expense.getId())))
-          .thenReturn(currentDailyTotal);
-
         // When
-        strategy.validate(employee.getId(), foodCategory, expense, newAmount);
+        strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                categoryTotals(currentDailyTotal, currentDailyTotal));
 
-      // Then
-      verify(expenseRepository).sumAmountByCategoryAndDateExcludingExpense(eq(foodCategory.getId()),
-          any(LocalDate.class), eq(expense.getId()));
-      verify(eventPublisher).publishBudgetExceededEvent(eventCaptor.capture());
+        // Then
+        verify(eventPublisher).publishBudgetExceededEvent(eventCaptor.capture());
 
         BudgetExceededEvent capturedEvent = eventCaptor.getValue();
         assertEquals(BudgetExceededEvent.BudgetType.CATEGORY, capturedEvent.getBudgetType());
@@ -157,21 +143,12 @@ class CategoryBudgetValidationStrategyTest {
         BigDecimal newAmount = BigDecimal.valueOf(50);
         // 2980 + 50 = 3030, which exceeds the monthly budget of 3000
 
-        when(expenseRepository.sumAmountByCategoryAndDateExcludingExpense(eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId())))
-                .thenReturn(currentDailyTotal);
-        when(expenseRepository.sumAmountByCategoryAndDateRangeExcludingExpense(eq(foodCategory.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId())))
-                .thenReturn(currentMonthlyTotal);
-
         // When
-        strategy.validate(employee.getId(), foodCategory, expense, newAmount);
+        strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                categoryTotals(currentDailyTotal, currentMonthlyTotal));
 
-      // Then
-      verify(expenseRepository).sumAmountByCategoryAndDateExcludingExpense(
-          eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId()));
-      verify(expenseRepository).sumAmountByCategoryAndDateRangeExcludingExpense(
-          eq(foodCategory.getId()), any(LocalDate.class), any(LocalDate.class),
-          eq(expense.getId()));
-      verify(eventPublisher).publishBudgetExceededEvent(eventCaptor.capture());
+        // Then
+        verify(eventPublisher).publishBudgetExceededEvent(eventCaptor.capture());
 
         BudgetExceededEvent capturedEvent = eventCaptor.getValue();
         assertEquals(BudgetExceededEvent.BudgetType.CATEGORY, capturedEvent.getBudgetType());
@@ -194,21 +171,27 @@ class CategoryBudgetValidationStrategyTest {
         // Daily: 60 + 50 = 110, which exceeds the daily budget of 100
         // Monthly: 2980 + 50 = 3030, which exceeds the monthly budget of 3000
 
-        when(expenseRepository.sumAmountByCategoryAndDateExcludingExpense(
-                eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId())))
-                .thenReturn(currentDailyTotal);
-        when(expenseRepository.sumAmountByCategoryAndDateRangeExcludingExpense(
-                eq(foodCategory.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId())))
-                .thenReturn(currentMonthlyTotal);
-
         // When
-        strategy.validate(employee.getId(), foodCategory, expense, newAmount);
+        strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                categoryTotals(currentDailyTotal, currentMonthlyTotal));
 
         // Then
-        verify(expenseRepository).sumAmountByCategoryAndDateExcludingExpense(
-                eq(foodCategory.getId()), any(LocalDate.class), eq(expense.getId()));
-        verify(expenseRepository).sumAmountByCategoryAndDateRangeExcludingExpense(
-                eq(foodCategory.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId()));
         verify(eventPublisher, times(2)).publishBudgetExceededEvent(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void validate_nullTotals_treatedAsZero() {
+        // Given
+        BigDecimal newAmount = BigDecimal.valueOf(50);
+
+        // When
+        strategy.validate(employee.getId(), foodCategory, expense, newAmount, categoryTotals(null, null));
+
+        // Then
+        verify(eventPublisher, never()).publishBudgetExceededEvent(any());
+    }
+
+    private BudgetTotals categoryTotals(BigDecimal dailyTotal, BigDecimal monthlyTotal) {
+        return new BudgetTotals(BigDecimal.ZERO, BigDecimal.ZERO, dailyTotal, monthlyTotal);
+    }
+}
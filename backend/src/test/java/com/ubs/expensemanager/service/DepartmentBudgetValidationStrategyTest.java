@@ -10,7 +10,7 @@ import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.ExpenseStatus;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
-import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.service.budget.BudgetTotals;
 import com.ubs.expensemanager.service.budget.DepartmentBudgetValidationStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,15 +29,11 @@ import java.time.YearMonth;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DepartmentBudgetValidationStrategyTest {
 
-    @Mock
-    private ExpenseRepository expenseRepository;
-
     @Mock
     private EventPublisher eventPublisher;
 
@@ -130,11 +126,11 @@ class DepartmentBudgetValidationStrategyTest {
                     .status(ExpenseStatus.PENDING)
                     .build();
 
-            // When
-            strategy.validate(userWithNoDepartment.getId(), foodCategory, expenseWithNoDepartment, BigDecimal.valueOf(50));
-
-            // Then
-            verifyNoInteractions(expenseRepository);
+            // When & Then - even totals far over any budget are ignored
+            assertDoesNotThrow(() ->
+                strategy.validate(userWithNoDepartment.getId(), foodCategory, expenseWithNoDepartment,
+                        BigDecimal.valueOf(50), departmentTotals(BigDecimal.valueOf(99999), BigDecimal.valueOf(99999)))
+            );
             verifyNoInteractions(eventPublisher);
         }
 
@@ -145,20 +141,13 @@ class DepartmentBudgetValidationStrategyTest {
             BigDecimal newAmount = BigDecimal.valueOf(50);
             // 11000 + 50 = 11050, which is less than the monthly budget of 12000
 
-            when(expenseRepository.sumAmountByDepartmentAndDateRangeExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId())))
-                    .thenReturn(currentMonthlyTotal);
-
             // When & Then - no exception thrown
             assertDoesNotThrow(() ->
-                strategy.validate(employee.getId(), foodCategory, expense, newAmount)
+                strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                        departmentTotals(BigDecimal.ZERO, currentMonthlyTotal))
             );
 
-            // Verify monthly budget was checked
-            verify(expenseRepository).sumAmountByDepartmentAndDateRangeExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId()));
-
-            // Verify no event was published (validate() only does monthly which throws, not publishes)
+            // Verify no event was published (daily budget is not exceeded either)
             verify(eventPublisher, never()).publishBudgetExceededEvent(any());
         }
 
@@ -169,13 +158,10 @@ class DepartmentBudgetValidationStrategyTest {
             BigDecimal newAmount = BigDecimal.valueOf(50);
             // 11980 + 50 = 12030, which exceeds the monthly budget of 12000
 
-            when(expenseRepository.sumAmountByDepartmentAndDateRangeExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), any(LocalDate.class), eq(expense.getId())))
-                    .thenReturn(currentMonthlyTotal);
-
             // When & Then
             BudgetExceededException exception = assertThrows(BudgetExceededException.class, () ->
-                strategy.validate(employee.getId(), foodCategory, expense, newAmount)
+                strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                        departmentTotals(BigDecimal.ZERO, currentMonthlyTotal))
             );
 
             // Verify exception details
@@ -190,80 +176,50 @@ class DepartmentBudgetValidationStrategyTest {
         }
 
         @Test
-        void validate_newExpenseWithNullId_usesNonExcludingQuery() {
-            // Given - expense with null ID (new expense)
-            Expense newExpense = Expense.builder()
-                    .id(null)  // New expense has no ID yet
-                    .amount(BigDecimal.valueOf(50))
-                    .description("New expense")
-                    .expenseDate(LocalDate.now())
-                    .user(employee)
-                    .expenseCategory(foodCategory)
-                    .currency(usdCurrency)
-                    .status(ExpenseStatus.PENDING)
-                    .build();
-
-            BigDecimal currentMonthlyTotal = BigDecimal.valueOf(11000);
+        void validate_monthlyAndDailyBudgetExceeded_throwsBeforeDailyEvent() {
+            // Given - daily: 360 + 50 = 410 > 400, monthly: 11980 + 50 = 12030 > 12000
             BigDecimal newAmount = BigDecimal.valueOf(50);
 
-            when(expenseRepository.sumAmountByDepartmentAndDateRange(
-                    eq(itDepartment.getId()), any(LocalDate.class), any(LocalDate.class)))
-                    .thenReturn(currentMonthlyTotal);
-
-            // When & Then - no exception thrown
-            assertDoesNotThrow(() ->
-                strategy.validate(employee.getId(), foodCategory, newExpense, newAmount)
+            // When & Then - the blocking check wins, no warning is published for a rejected expense
+            assertThrows(BudgetExceededException.class, () ->
+                strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                        departmentTotals(BigDecimal.valueOf(360), BigDecimal.valueOf(11980)))
             );
-
-            // Verify non-excluding query was used (no expenseId parameter)
-            verify(expenseRepository).sumAmountByDepartmentAndDateRange(
-                    eq(itDepartment.getId()), any(LocalDate.class), any(LocalDate.class));
-            verify(expenseRepository, never()).sumAmountByDepartmentAndDateRangeExcludingExpense(
-                    any(), any(), any(), any());
+            verify(eventPublisher, never()).publishBudgetExceededEvent(any());
         }
     }
 
     @Nested
-    @DisplayName("validateDailyBudgetOnly() - Daily Budget Validation (Warning-Only)")
+    @DisplayName("validate() - Daily Budget Validation (Warning-Only)")
     class DailyBudgetValidationTests {
 
         @Test
-        void validateDailyBudgetOnly_dailyBudgetNotExceeded_noEventPublished() {
+        void validate_dailyBudgetNotExceeded_noEventPublished() {
             // Given
             BigDecimal currentDailyTotal = BigDecimal.valueOf(300);
             BigDecimal newAmount = BigDecimal.valueOf(50);
             // 300 + 50 = 350, which is less than the daily budget of 400
 
-            when(expenseRepository.sumAmountByDepartmentAndDateExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), eq(expense.getId())))
-                    .thenReturn(currentDailyTotal);
-
             // When
-            strategy.validateDailyBudgetOnly(employee.getId(), foodCategory, expense, newAmount);
+            strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                    departmentTotals(currentDailyTotal, currentDailyTotal));
 
             // Then
-            verify(expenseRepository).sumAmountByDepartmentAndDateExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), eq(expense.getId()));
             verify(eventPublisher, never()).publishBudgetExceededEvent(any());
         }
 
         @Test
-        void validateDailyBudgetOnly_dailyBudgetExceeded_eventPublished() {
+        void validate_dailyBudgetExceeded_eventPublished() {
             // Given
             BigDecimal currentDailyTotal = BigDecimal.valueOf(360);
             BigDecimal newAmount = BigDecimal.valueOf(50);
             // 360 + 50 = 410, which exceeds the daily budget of 400
 
-            when(expenseRepository.sumAmountByDepartmentAndDateExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), eq(expense.getId())))
-                    .thenReturn(currentDailyTotal);
-
             // When
-            strategy.validateDailyBudgetOnly(employee.getId(), foodCategory, expense, newAmount);
+            strategy.validate(employee.getId(), foodCategory, expense, newAmount,
+                    departmentTotals(currentDailyTotal, currentDailyTotal));
 
             // Then
-            verify(expenseRepository).sumAmountByDepartmentAndDateExcludingExpense(
-                    eq(itDepartment.getId()), any(LocalDate.class), eq(expense.getId()));
             verify(eventPublisher).publishBudgetExceededEvent(eventCaptor.capture());
 
             BudgetExceededEvent capturedEvent = eventCaptor.getValue();
@@ -278,38 +234,7 @@ class DepartmentBudgetValidationStrategyTest {
         }
 
         @Test
-        void validateDailyBudgetOnly_departmentIsNull_noValidationPerformed() {
-            // Given
-            User userWithNoDepartment = User.builder()
-                    .id(2L)
-                    .name("No Department User")
-                    .email("nodept@ubs.com")
-                    .role(UserRole.EMPLOYEE)
-                    .department(null)
-                    .active(true)
-                    .build();
-
-            Expense expenseWithNoDepartment = Expense.builder()
-                    .id(2L)
-                    .amount(BigDecimal.valueOf(50))
-                    .description("Team lunch")
-                    .expenseDate(LocalDate.now())
-                    .user(userWithNoDepartment)
-                    .expenseCategory(foodCategory)
-                    .currency(usdCurrency)
-                    .status(ExpenseStatus.PENDING)
-                    .build();
-
-            // When
-            strategy.validateDailyBudgetOnly(userWithNoDepartment.getId(), foodCategory, expenseWithNoDepartment, BigDecimal.valueOf(50));
-
-            // Then
-            verifyNoInteractions(expenseRepository);
-            verifyNoInteractions(eventPublisher);
-        }
-
-        @Test
-        void validateDailyBudgetOnly_nullDailyBudget_noValidationPerformed() {
+        void validate_nullDailyBudget_noDailyValidationPerformed() {
             // Given
             Department departmentWithNullDailyBudget = Department.builder()
                     .id(2L)
@@ -340,43 +265,25 @@ class DepartmentBudgetValidationStrategyTest {
                     .build();
 
             // When
-            strategy.validateDailyBudgetOnly(hrEmployee.getId(), foodCategory, hrExpense, BigDecimal.valueOf(50));
+            strategy.validate(hrEmployee.getId(), foodCategory, hrExpense, BigDecimal.valueOf(50),
+                    departmentTotals(BigDecimal.valueOf(5000), BigDecimal.valueOf(5000)));
 
             // Then - no daily budget validation performed
-            verify(expenseRepository, never()).sumAmountByDepartmentAndDateExcludingExpense(any(), any(), any());
             verify(eventPublisher, never()).publishBudgetExceededEvent(any());
         }
 
         @Test
-        void validateDailyBudgetOnly_newExpenseWithNullId_usesNonExcludingQuery() {
-            // Given - expense with null ID (new expense)
-            Expense newExpense = Expense.builder()
-                    .id(null)  // New expense has no ID yet
-                    .amount(BigDecimal.valueOf(50))
-                    .description("New expense")
-                    .expenseDate(LocalDate.now())
-                    .user(employee)
-                    .expenseCategory(foodCategory)
-                    .currency(usdCurrency)
-                    .status(ExpenseStatus.PENDING)
-                    .build();
-
-            BigDecimal currentDailyTotal = BigDecimal.valueOf(300);
-            BigDecimal newAmount = BigDecimal.valueOf(50);
-
-            when(expenseRepository.sumAmountByDepartmentAndDate(
-                    eq(itDepartment.getId()), any(LocalDate.class)))
-                    .thenReturn(currentDailyTotal);
-
+        void validate_nullTotals_treatedAsZero() {
             // When
-            strategy.validateDailyBudgetOnly(employee.getId(), foodCategory, newExpense, newAmount);
+            strategy.validate(employee.getId(), foodCategory, expense, BigDecimal.valueOf(50),
+                    departmentTotals(null, null));
 
-            // Then - non-excluding query was used (no expenseId parameter)
-            verify(expenseRepository).sumAmountByDepartmentAndDate(
-                    eq(itDepartment.getId()), any(LocalDate.class));
-            verify(expenseRepository, never()).sumAmountByDepartmentAndDateExcludingExpense(
-                    any(), any(), any());
+            // Then
             verify(eventPublisher, never()).publishBudgetExceededEvent(any());
         }
     }
+
+    private BudgetTotals departmentTotals(BigDecimal dailyTotal, BigDecimal monthlyTotal) {
+        return new BudgetTotals(dailyTotal, monthlyTotal, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
 }
@@ -1,5 +1,6 @@
 package com.ubs.expensemanager.service;
 
+import com.ubs.expensemanager.cache.ExpenseCategorySnapshotCache;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryFilterRequest;
 import com.ubs.expensemanager.dto.request.ExpenseCategoryUpdateRequest;
@@ -12,6 +13,8 @@ import com.ubs.expensemanager.model.ExpenseCategory;
 import com.ubs.expensemanager.model.audit.CustomRevisionEntity;
 import com.ubs.expensemanager.repository.CurrencyRepository;
 import com.ubs.expensemanager.repository.ExpenseCategoryRepository;
+import com.ubs.expensemanager.repository.projection.ExpenseCategorySnapshotRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
@@ -25,6 +28,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -34,12 +38,13 @@ import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
@@ -68,6 +73,10 @@ class ExpenseCategoryServiceTest {
     @Mock
     ExpenseCategoryMapper expenseCategoryMapper;
 
+    @Spy
+    ExpenseCategorySnapshotCache expenseCategorySnapshotCache =
+            new ExpenseCategorySnapshotCache(100, new SimpleMeterRegistry());
+
     @InjectMocks
     ExpenseCategoryService expenseCategoryService;
 
@@ -209,74 +218,66 @@ class ExpenseCategoryServiceTest {
     void findById_withDateTime_returnsHistoricalVersion() {
         // Date that corresponds to the first version (January 1, 2026)
         OffsetDateTime queryDateTime = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
-        Date queryDate = Date.from(queryDateTime.toInstant());
+        long queryTimestamp = queryDateTime.toInstant().toEpochMilli();
+        ExpenseCategorySnapshotRow firstVersion = snapshotRow("Food", "100.00", "3000.00");
 
-        // Revision 1: January 1, 2026 10:00 AM (creation)
-        Number revision1 = 1;
-        Date revision1Date = Date.from(OffsetDateTime.of(2026, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC).toInstant());
+        when(expenseCategoryRepository.findRevisionAt(1L, queryTimestamp)).thenReturn(Optional.of(1));
+        when(expenseCategoryRepository.findSnapshotAtRevision(1L, 1)).thenReturn(Optional.of(firstVersion));
 
-        try (MockedStatic<AuditReaderFactory> mockedFactory = mockStatic(AuditReaderFactory.class)) {
-            mockedFactory.when(() -> AuditReaderFactory.get(entityManager)).thenReturn(auditReader);
+        ExpenseCategoryResponse response = expenseCategoryService.findById(1L, queryDateTime);
 
-            when(auditReader.getRevisions(ExpenseCategory.class, 1L))
-                    .thenReturn(List.of(revision1));
-            when(auditReader.getRevisionDate(revision1)).thenReturn(revision1Date);
-            when(auditReader.createQuery()).thenReturn(auditQueryCreator);
-            when(auditQueryCreator.forEntitiesAtRevision(eq(ExpenseCategory.class), eq(revision1)))
-                    .thenReturn(auditQuery);
-            when(auditQuery.add(any(AuditCriterion.class))).thenReturn(auditQuery);
-            when(auditQuery.getResultList()).thenReturn(List.of(foodCategoryFirstVersion));
+        assertNotNull(response);
+        assertEquals(1L, response.getId());
+        assertEquals("Food", response.getName());
+        assertEquals(new BigDecimal("100.00"), response.getDailyBudget());
+        assertEquals(new BigDecimal("3000.00"), response.getMonthlyBudget());
+        assertEquals("USD", response.getCurrencyName());
+    }
 
-            ExpenseCategoryResponse response = expenseCategoryService.findById(1L, queryDateTime);
+    @Test
+    void findById_withDateTime_sameRevision_loadsSnapshotOnce() {
+        OffsetDateTime queryDateTime = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        OffsetDateTime laterDateTime = queryDateTime.plusHours(1);
+        ExpenseCategorySnapshotRow firstVersion = snapshotRow("Food", "100.00", "3000.00");
 
-            assertNotNull(response);
-            assertEquals(1L, response.getId());
-            assertEquals("Food", response.getName());
-            assertEquals(new BigDecimal("100.00"), response.getDailyBudget());
-            assertEquals(new BigDecimal("3000.00"), response.getMonthlyBudget());
-        }
+        when(expenseCategoryRepository.findRevisionAt(eq(1L), anyLong())).thenReturn(Optional.of(1));
+        when(expenseCategoryRepository.findSnapshotAtRevision(1L, 1)).thenReturn(Optional.of(firstVersion));
+
+        ExpenseCategoryResponse first = expenseCategoryService.findById(1L, queryDateTime);
+        ExpenseCategoryResponse second = expenseCategoryService.findById(1L, laterDateTime);
+
+        assertNotSame(first, second);
+        assertEquals("Food", second.getName());
+        verify(expenseCategoryRepository, times(2)).findRevisionAt(eq(1L), anyLong());
+        verify(expenseCategoryRepository, times(1)).findSnapshotAtRevision(1L, 1);
     }
 
     @Test
     void findById_withDateTime_noAuditRecord_throwsException() {
         OffsetDateTime queryDateTime = OffsetDateTime.of(2025, 12, 1, 12, 0, 0, 0, ZoneOffset.UTC);
 
-        try (MockedStatic<AuditReaderFactory> mockedFactory = mockStatic(AuditReaderFactory.class)) {
-            mockedFactory.when(() -> AuditReaderFactory.get(entityManager)).thenReturn(auditReader);
-
-            when(auditReader.getRevisions(ExpenseCategory.class, 1L))
-                    .thenReturn(List.of());
+        when(expenseCategoryRepository.findRevisionAt(1L, queryDateTime.toInstant().toEpochMilli()))
+                .thenReturn(Optional.empty());
 
-            assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> expenseCategoryService.findById(1L, queryDateTime)
-            );
-        }
+        assertThrows(
+                ResourceNotFoundException.class,
+                () -> expenseCategoryService.findById(1L, queryDateTime)
+        );
+        verify(expenseCategoryRepository, never()).findSnapshotAtRevision(any(), anyInt());
     }
 
     @Test
-    void findById_withDateTime_emptyResultList_throwsException() {
+    void findById_withDateTime_deletedAtRevision_throwsException() {
         OffsetDateTime queryDateTime = OffsetDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
-        Number revision1 = 1;
-        Date revision1Date = Date.from(OffsetDateTime.of(2026, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC).toInstant());
-
-        try (MockedStatic<AuditReaderFactory> mockedFactory = mockStatic(AuditReaderFactory.class)) {
-            mockedFactory.when(() -> AuditReaderFactory.get(entityManager)).thenReturn(auditReader);
 
-            when(auditReader.getRevisions(ExpenseCategory.class, 1L))
-                    .thenReturn(List.of(revision1));
-            when(auditReader.getRevisionDate(revision1)).thenReturn(revision1Date);
-            when(auditReader.createQuery()).thenReturn(auditQueryCreator);
-            when(auditQueryCreator.forEntitiesAtRevision(eq(ExpenseCategory.class), eq(revision1)))
-                    .thenReturn(auditQuery);
-            when(auditQuery.add(any(AuditCriterion.class))).thenReturn(auditQuery);
-            when(auditQuery.getResultList()).thenReturn(List.of());
+        when(expenseCategoryRepository.findRevisionAt(1L, queryDateTime.toInstant().toEpochMilli()))
+                .thenReturn(Optional.of(1));
+        when(expenseCategoryRepository.findSnapshotAtRevision(1L, 1)).thenReturn(Optional.empty());
 
-            assertThrows(
-                    ResourceNotFoundException.class,
-                    () -> expenseCategoryService.findById(1L, queryDateTime)
-            );
-        }
+        assertThrows(
+                ResourceNotFoundException.class,
+                () -> expenseCategoryService.findById(1L, queryDateTime)
+        );
     }
 
     @Test
@@ -393,4 +394,15 @@ class ExpenseCategoryServiceTest {
         verify(currencyRepository).findByName("USD");
         verify(expenseCategoryRepository).save(any(ExpenseCategory.class));
     }
+
+    private ExpenseCategorySnapshotRow snapshotRow(String name, String dailyBudget, String monthlyBudget) {
+        ExpenseCategorySnapshotRow row = mock(ExpenseCategorySnapshotRow.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getName()).thenReturn(name);
+        when(row.getDailyBudget()).thenReturn(new BigDecimal(dailyBudget));
+        when(row.getMonthlyBudget()).thenReturn(new BigDecimal(monthlyBudget));
+        when(row.getCurrencyName()).thenReturn("USD");
+        when(row.getExchangeRate()).thenReturn(BigDecimal.ONE);
+        return row;
+    }
 }
@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,6 +17,9 @@ import com.ubs.expensemanager.dto.request.ExpenseCreateRequest;
 import com.ubs.expensemanager.dto.request.ExpenseFilterRequest;
 import com.ubs.expensemanager.dto.request.ExpenseUpdateRequest;
 import com.ubs.expensemanager.dto.response.ExpenseResponse;
+import com.ubs.expensemanager.event.BudgetAlertPipeline;
+import com.ubs.expensemanager.event.outbox.OutboxDispatcher;
+import com.ubs.expensemanager.exception.AuditHistoryTooLongException;
 import com.ubs.expensemanager.exception.InvalidStatusTransitionException;
 import com.ubs.expensemanager.exception.ResourceNotFoundException;
 import com.ubs.expensemanager.exception.UnauthorizedExpenseAccessException;
@@ -33,6 +37,11 @@ import com.ubs.expensemanager.repository.AlertRepository;
 import com.ubs.expensemanager.repository.CurrencyRepository;
 import com.ubs.expensemanager.repository.ExpenseCategoryRepository;
 import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.repository.UserRepository;
+import com.ubs.expensemanager.repository.projection.ArchivedExpenseRow;
+import com.ubs.expensemanager.repository.projection.ExpenseAuditRow;
+import com.ubs.expensemanager.service.budget.BudgetReservations;
+import com.ubs.expensemanager.service.budget.BudgetTotalsReader;
 import com.ubs.expensemanager.service.budget.CategoryBudgetValidationStrategy;
 import com.ubs.expensemanager.service.budget.DepartmentBudgetValidationStrategy;
 import com.ubs.expensemanager.service.expense.state.ExpenseStateFactory;
@@ -42,6 +51,7 @@ import com.ubs.expensemanager.service.expense.state.ApprovedByFinanceState;
 import com.ubs.expensemanager.service.expense.state.RejectedState;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -68,6 +78,9 @@ class ExpenseServiceTest {
   @Mock
   ExpenseCategoryRepository expenseCategoryRepository;
 
+  @Mock
+  UserRepository userRepository;
+
   @Mock
   CurrencyRepository currencyRepository;
 
@@ -86,12 +99,27 @@ class ExpenseServiceTest {
   @Mock
   DepartmentBudgetValidationStrategy departmentBudgetValidationStrategy;
 
+  @Mock
+  BudgetReservations budgetReservations;
+
+  @Mock
+  BudgetTotalsReader budgetTotalsReader;
+
   @Mock
   ExpenseStateFactory stateFactory;
 
   @Mock
   AlertRepository alertRepository;
 
+  @Mock
+  OutboxDispatcher outboxDispatcher;
+
+  @Mock
+  ExpenseDailyRollupService expenseDailyRollupService;
+
+  @Mock
+  ExpenseSummaryCounterService expenseSummaryCounterService;
+
   @InjectMocks
   ExpenseService expenseService;
 
@@ -249,6 +277,7 @@ class ExpenseServiceTest {
     when(authentication.getPrincipal()).thenReturn(employee);
     when(expenseCategoryRepository.findById(1L)).thenReturn(Optional.of(foodCategory));
     when(currencyRepository.findByName("USD")).thenReturn(Optional.of(usdCurrency));
+    when(userRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
     when(expenseRepository.save(any(Expense.class))).thenReturn(pendingExpense);
     when(expenseMapper.toResponse(pendingExpense)).thenReturn(expenseResponse);
     when(expenseMapper.toEntity(any(ExpenseCreateRequest.class), any(Currency.class),
@@ -257,8 +286,8 @@ class ExpenseServiceTest {
 
     // Mock the budget validation strategies
     // doNothing() is the default behavior for void methods, but we'll be explicit for clarity
-    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any());
-    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any());
+    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
+    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
 
     ExpenseResponse result = expenseService.create(request);
 
@@ -266,8 +295,12 @@ class ExpenseServiceTest {
         () -> assertNotNull(result),
         () -> assertEquals(expenseResponse.getId(), result.getId()),
         () -> verify(expenseRepository).save(any(Expense.class)),
-        () -> verify(categoryBudgetValidationStrategy).validate(any(), any(), any(), any()),
-        () -> verify(departmentBudgetValidationStrategy).validate(any(), any(), any(), any())
+        () -> verify(categoryBudgetValidationStrategy).validate(any(), any(), any(), any(), any()),
+        () -> verify(budgetReservations).reserve(any()),
+        () -> verify(budgetTotalsReader).totalsFor(any()),
+        () -> verify(departmentBudgetValidationStrategy).validate(any(), any(), any(), any(), any()),
+        () -> verify(expenseDailyRollupService).add(pendingExpense),
+        () -> verify(expenseSummaryCounterService).add(pendingExpense)
     );
   }
 
@@ -340,13 +373,14 @@ class ExpenseServiceTest {
     when(authentication.getPrincipal()).thenReturn(employeeWithManager);
     when(expenseCategoryRepository.findById(1L)).thenReturn(Optional.of(foodCategory));
     when(currencyRepository.findByName("USD")).thenReturn(Optional.of(usdCurrency));
+    when(userRepository.findById(employeeWithManager.getId())).thenReturn(Optional.of(employeeWithManager));
     when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
     when(expenseMapper.toResponse(expense)).thenReturn(expenseResponse);
     when(expenseMapper.toEntity(any(ExpenseCreateRequest.class), any(Currency.class),
         any(ExpenseCategory.class), any(User.class), eq(ExpenseStatus.PENDING)))
         .thenReturn(expense);
-    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any());
-    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any());
+    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
+    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
 
     ExpenseResponse result = expenseService.create(request);
 
@@ -402,13 +436,14 @@ class ExpenseServiceTest {
     when(authentication.getPrincipal()).thenReturn(topLevelManager);
     when(expenseCategoryRepository.findById(1L)).thenReturn(Optional.of(foodCategory));
     when(currencyRepository.findByName("USD")).thenReturn(Optional.of(usdCurrency));
+    when(userRepository.findById(topLevelManager.getId())).thenReturn(Optional.of(topLevelManager));
     when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
     when(expenseMapper.toResponse(expense)).thenReturn(approvedResponse);
     when(expenseMapper.toEntity(any(ExpenseCreateRequest.class), any(Currency.class),
         any(ExpenseCategory.class), any(User.class), eq(ExpenseStatus.APPROVED_BY_MANAGER)))
         .thenReturn(expense);
-    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any());
-    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any());
+    doNothing().when(categoryBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
+    doNothing().when(departmentBudgetValidationStrategy).validate(any(), any(), any(), any(), any());
 
     ExpenseResponse result = expenseService.create(request);
 
@@ -507,6 +542,33 @@ class ExpenseServiceTest {
     assertThrows(ResourceNotFoundException.class, () -> expenseService.findById(999L));
   }
 
+  @Test
+  void findById_Archived_AsOwner_Success() {
+    ArchivedExpenseRow archived = mock(ArchivedExpenseRow.class);
+    when(archived.getUserId()).thenReturn(1L);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    when(authentication.getPrincipal()).thenReturn(employee);
+    when(expenseRepository.findById(1L)).thenReturn(Optional.empty());
+    when(expenseRepository.findArchivedById(1L)).thenReturn(Optional.of(archived));
+    when(expenseMapper.toResponse(archived)).thenReturn(expenseResponse);
+
+    ExpenseResponse result = expenseService.findById(1L);
+
+    assertEquals(expenseResponse, result);
+  }
+
+  @Test
+  void findById_Archived_AsEmployeeNotOwner_ThrowsException() {
+    ArchivedExpenseRow archived = mock(ArchivedExpenseRow.class);
+    when(archived.getUserId()).thenReturn(99L);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    when(authentication.getPrincipal()).thenReturn(employee);
+    when(expenseRepository.findById(1L)).thenReturn(Optional.empty());
+    when(expenseRepository.findArchivedById(1L)).thenReturn(Optional.of(archived));
+
+    assertThrows(UnauthorizedExpenseAccessException.class, () -> expenseService.findById(1L));
+  }
+
   // ==================== UPDATE TESTS ====================
 
   @Test
@@ -542,7 +604,9 @@ class ExpenseServiceTest {
 
     assertAll(
         () -> assertNotNull(result),
-        () -> verify(expenseRepository).save(any(Expense.class))
+        () -> verify(expenseRepository).save(any(Expense.class)),
+        () -> verify(expenseDailyRollupService).subtract(pendingExpense),
+        () -> verify(expenseDailyRollupService).add(pendingExpense)
     );
   }
 
@@ -598,6 +662,8 @@ class ExpenseServiceTest {
     expenseService.delete(1L);
 
     verify(expenseRepository).delete(pendingExpense);
+    verify(expenseDailyRollupService).subtract(pendingExpense);
+    verify(expenseSummaryCounterService).subtract(pendingExpense);
   }
 
   @Test
@@ -645,7 +711,9 @@ class ExpenseServiceTest {
     assertAll(
         () -> assertNotNull(result),
         () -> assertEquals(ExpenseStatus.APPROVED_BY_MANAGER, pendingExpense.getStatus()),
-        () -> verify(expenseRepository).save(pendingExpense)
+        () -> verify(expenseRepository).save(pendingExpense),
+        () -> verify(expenseDailyRollupService).changeStatus(pendingExpense, ExpenseStatus.PENDING),
+        () -> verify(expenseSummaryCounterService).changeStatus(pendingExpense, ExpenseStatus.PENDING)
     );
   }
 
@@ -791,6 +859,23 @@ class ExpenseServiceTest {
     );
   }
 
+  @Test
+  void approve_WithAlertStillInOutbox_ThrowsException() {
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    when(authentication.getPrincipal()).thenReturn(manager);
+    when(expenseRepository.findById(1L)).thenReturn(Optional.of(pendingExpense));
+    when(alertRepository.findByExpenseAndStatus(pendingExpense, AlertStatus.NEW))
+        .thenReturn(List.of());
+    when(outboxDispatcher.hasPending(BudgetAlertPipeline.EVENT_TYPE, pendingExpense.getId()))
+        .thenReturn(true);
+
+    assertAll(
+        () -> assertThrows(InvalidStatusTransitionException.class,
+            () -> expenseService.approve(1L)),
+        () -> verify(expenseRepository, never()).save(any())
+    );
+  }
+
   @Test
   void approve_WithResolvedAlert_Success() {
     when(securityContext.getAuthentication()).thenReturn(authentication);
@@ -809,4 +894,14 @@ class ExpenseServiceTest {
         () -> verify(expenseRepository).save(pendingExpense)
     );
   }
+
+  @Test
+  void getAuditHistory_OverUnpagedLimit_ThrowsException() {
+    when(expenseRepository.existsById(1L)).thenReturn(true);
+    when(expenseRepository.findAuditRevisions(1L, 0, Integer.MAX_VALUE, ExpenseService.MAX_UNPAGED_AUDIT_REVISIONS + 1))
+        .thenReturn(Collections.nCopies(ExpenseService.MAX_UNPAGED_AUDIT_REVISIONS + 1, mock(ExpenseAuditRow.class)));
+
+    assertThrows(AuditHistoryTooLongException.class,
+        () -> expenseService.getAuditHistory(1L, null, null));
+  }
 }
@@ -0,0 +1,139 @@
+package com.ubs.expensemanager.service;
+
+import com.ubs.expensemanager.config.DatabasePlatform;
+import com.ubs.expensemanager.model.Currency;
+import com.ubs.expensemanager.model.Expense;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.model.User;
+import com.ubs.expensemanager.model.UserRole;
+import com.ubs.expensemanager.repository.ExpenseSummaryCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSummaryCounterServiceTest {
+
+    private static final LocalDate MONTH_START = LocalDate.of(2026, 1, 1);
+
+    @Mock
+    ExpenseSummaryCounterRepository counterRepository;
+
+    @Mock
+    DatabasePlatform databasePlatform;
+
+    @InjectMocks
+    ExpenseSummaryCounterService counterService;
+
+    Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        User employee = User.builder()
+                .id(1L)
+                .name("John Employee")
+                .role(UserRole.EMPLOYEE)
+                .build();
+
+        Currency brlCurrency = Currency.builder()
+                .id(2L)
+                .name("BRL")
+                .exchangeRate(new BigDecimal("5.00"))
+                .build();
+
+        expense = Expense.builder()
+                .id(1L)
+                .amount(new BigDecimal("100.00"))
+                .expenseDate(LocalDate.of(2026, 1, 15))
+                .user(employee)
+                .currency(brlCurrency)
+                .status(ExpenseStatus.PENDING)
+                .build();
+    }
+
+    @Test
+    void add_pendingExpense_upsertsUserRow() {
+        counterService.add(expense);
+
+        verify(counterRepository).upsertRow(1L, MONTH_START, new BigDecimal("20.00"), 0L, 1L);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void add_onH2_mergesUserRow() {
+        when(databasePlatform.isH2()).thenReturn(true);
+
+        counterService.add(expense);
+
+        verify(counterRepository).mergeRow(1L, MONTH_START, new BigDecimal("20.00"), 0L, 1L);
+        verify(counterRepository, never()).upsertRow(any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void changeStatus_toApprovedByFinance_movesPendingToApproved() {
+        expense.setStatus(ExpenseStatus.APPROVED_BY_FINANCE);
+
+        counterService.changeStatus(expense, ExpenseStatus.APPROVED_BY_MANAGER);
+
+        verify(counterRepository).upsertRow(eq(1L), eq(MONTH_START), argThat(delta -> delta.signum() == 0), eq(1L), eq(-1L));
+    }
+
+    @Test
+    void changeStatus_toRejected_removesAmountAndPendingCount() {
+        expense.setStatus(ExpenseStatus.REJECTED);
+
+        counterService.changeStatus(expense, ExpenseStatus.PENDING);
+
+        verify(counterRepository).upsertRow(1L, MONTH_START, new BigDecimal("-20.00"), 0L, -1L);
+    }
+
+    @Test
+    void subtract_rejectedExpense_doesNothing() {
+        expense.setStatus(ExpenseStatus.REJECTED);
+
+        counterService.subtract(expense);
+
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    void add_inTransaction_writesMergedRowsInKeyOrderBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Given: an expense moved from February back to January, then a second January expense
+            expense.setExpenseDate(LocalDate.of(2026, 2, 10));
+            counterService.subtract(expense);
+            expense.setExpenseDate(LocalDate.of(2026, 1, 15));
+            counterService.add(expense);
+            counterService.add(expense);
+            verifyNoInteractions(counterRepository);
+
+            // When
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+            }
+
+            // Then
+            InOrder inOrder = inOrder(counterRepository);
+            inOrder.verify(counterRepository).upsertRow(1L, MONTH_START, new BigDecimal("40.00"), 0L, 2L);
+            inOrder.verify(counterRepository).upsertRow(1L, LocalDate.of(2026, 2, 1), new BigDecimal("-20.00"), 0L, -1L);
+            verifyNoMoreInteractions(counterRepository);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
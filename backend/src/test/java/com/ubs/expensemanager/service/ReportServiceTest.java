@@ -1,26 +1,46 @@
 package com.ubs.expensemanager.service;
 
+import com.ubs.expensemanager.cache.CacheInvalidationBus;
+import com.ubs.expensemanager.cache.ReportResultCache;
 import com.ubs.expensemanager.dto.response.CategoryExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.DepartmentExpenseReportResponse;
 import com.ubs.expensemanager.dto.response.EmployeeExpenseReportResponse;
+import com.ubs.expensemanager.dto.response.LastExpenseDto;
 import com.ubs.expensemanager.dto.response.PersonalExpenseSummaryResponse;
 import com.ubs.expensemanager.model.*;
 import com.ubs.expensemanager.repository.DepartmentRepository;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
 import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.repository.ExpenseSummaryCounterRepository;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotal;
+import com.ubs.expensemanager.repository.projection.DepartmentExpenseTotalRow;
+import com.ubs.expensemanager.repository.projection.ExpenseSummaryTotals;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotal;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotalRow;
+import com.ubs.expensemanager.util.CsvExport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,9 +53,22 @@ class ReportServiceTest {
     @Mock
     ExpenseRepository expenseRepository;
 
+    @Mock
+    ExpenseDailyRollupRepository expenseDailyRollupRepository;
+
+    @Mock
+    ExpenseSummaryCounterRepository expenseSummaryCounterRepository;
+
     @Mock
     DepartmentRepository departmentRepository;
 
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Spy
+    ReportResultCache reportResultCache =
+            new ReportResultCache(0, 100, new SimpleMeterRegistry(), mock(CacheInvalidationBus.class));
+
     @Mock
     SecurityContext securityContext;
 
@@ -144,17 +177,17 @@ class ReportServiceTest {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1, expense2, expense3));
+        when(expenseDailyRollupRepository.sumUsdGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED))
+                .thenReturn(List.of(new NamedExpenseTotal("John Employee", new BigDecimal("225.00"))));
 
-        List<EmployeeExpenseReportResponse> result = reportService.getExpensesByEmployeeReport(startDate, endDate);
+        List<EmployeeExpenseReportResponse> result = reportService.getExpensesByEmployeeReport(startDate, endDate, null);
 
         assertAll(
                 () -> assertNotNull(result),
                 () -> assertEquals(1, result.size()),
                 () -> assertEquals("John Employee", result.getFirst().getEmployee()),
                 () -> assertEquals(new BigDecimal("225.00"), result.getFirst().getTotal()),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED)
+                () -> verify(expenseDailyRollupRepository).sumUsdGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED)
         );
     }
 
@@ -163,13 +196,13 @@ class ReportServiceTest {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(expense1));
+        when(expenseDailyRollupRepository.sumUsdGroupedByEmployee(any(), any(), eq(ExpenseStatus.REJECTED)))
+                .thenReturn(List.of(new NamedExpenseTotal("John Employee", new BigDecimal("50.00"))));
 
-        List<EmployeeExpenseReportResponse> result = reportService.getExpensesByEmployeeReport(null, null);
+        List<EmployeeExpenseReportResponse> result = reportService.getExpensesByEmployeeReport(null, null, null);
 
         assertNotNull(result);
-        verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(any(LocalDate.class), any(LocalDate.class), eq(ExpenseStatus.REJECTED));
+        verify(expenseDailyRollupRepository).sumUsdGroupedByEmployee(any(LocalDate.class), any(LocalDate.class), eq(ExpenseStatus.REJECTED));
     }
 
     // ==================== EXPENSES BY CATEGORY REPORT TESTS ====================
@@ -179,17 +212,17 @@ class ReportServiceTest {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1, expense2, expense3));
+        when(expenseDailyRollupRepository.sumUsdGroupedByCategory(startDate, endDate, ExpenseStatus.REJECTED))
+                .thenReturn(List.of(new NamedExpenseTotal("Food", new BigDecimal("225.00"))));
 
-        List<CategoryExpenseReportResponse> result = reportService.getExpensesByCategoryReport(startDate, endDate);
+        List<CategoryExpenseReportResponse> result = reportService.getExpensesByCategoryReport(startDate, endDate, null);
 
         assertAll(
                 () -> assertNotNull(result),
                 () -> assertEquals(1, result.size()),
                 () -> assertEquals("Food", result.getFirst().getCategory()),
                 () -> assertEquals(new BigDecimal("225.00"), result.getFirst().getTotal()),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED)
+                () -> verify(expenseDailyRollupRepository).sumUsdGroupedByCategory(startDate, endDate, ExpenseStatus.REJECTED)
         );
     }
 
@@ -200,11 +233,11 @@ class ReportServiceTest {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(expense1, expense2, expense3));
+        when(expenseDailyRollupRepository.sumUsdGroupedByDepartment(any(), any(), eq(ExpenseStatus.REJECTED)))
+                .thenReturn(List.of(new DepartmentExpenseTotal(1L, new BigDecimal("225.00"))));
         when(departmentRepository.findAll()).thenReturn(List.of(itDepartment));
 
-        List<DepartmentExpenseReportResponse> result = reportService.getExpensesByDepartmentReport(startDate, endDate);
+        List<DepartmentExpenseReportResponse> result = reportService.getExpensesByDepartmentReport(startDate, endDate, null);
 
         assertAll(
                 () -> assertNotNull(result),
@@ -212,69 +245,125 @@ class ReportServiceTest {
                 () -> assertEquals("IT", result.getFirst().getDepartment()),
                 () -> assertEquals(new BigDecimal("225.00"), result.getFirst().getUsed()),
                 () -> assertTrue(result.getFirst().getRemaining().compareTo(BigDecimal.ZERO) > 0),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(any(), any(), eq(ExpenseStatus.REJECTED)),
+                () -> verify(expenseDailyRollupRepository).sumUsdGroupedByDepartment(any(), any(), eq(ExpenseStatus.REJECTED)),
                 () -> verify(departmentRepository).findAll()
         );
     }
 
+    // ==================== AS-OF REPORT TESTS ====================
+
+    @Test
+    void getExpensesByEmployeeReport_asOf_readsAuditRevisions() {
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        LocalDate endDate = LocalDate.of(2026, 1, 31);
+        OffsetDateTime asOf = OffsetDateTime.of(2026, 2, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        long asOfMillis = asOf.toInstant().toEpochMilli();
+        NamedExpenseTotalRow row = mock(NamedExpenseTotalRow.class);
+        when(row.getName()).thenReturn("John Employee");
+        when(row.getTotal()).thenReturn(new BigDecimal("60"));
+
+        when(expenseRepository.sumUsdAsOfGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED.name(), asOfMillis))
+                .thenReturn(List.of(row));
+
+        List<EmployeeExpenseReportResponse> result = reportService.getExpensesByEmployeeReport(startDate, endDate, asOf);
+
+        assertAll(
+                () -> assertEquals(1, result.size()),
+                () -> assertEquals("John Employee", result.getFirst().getEmployee()),
+                () -> assertEquals(new BigDecimal("60.00"), result.getFirst().getTotal()),
+                () -> verifyNoInteractions(expenseDailyRollupRepository)
+        );
+    }
+
+    @Test
+    void getExpensesByDepartmentReport_asOf_readsAuditRevisions() {
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        LocalDate endDate = LocalDate.of(2026, 1, 31);
+        OffsetDateTime asOf = OffsetDateTime.of(2026, 2, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+        DepartmentExpenseTotalRow row = mock(DepartmentExpenseTotalRow.class);
+        when(row.getDepartmentId()).thenReturn(1L);
+        when(row.getTotal()).thenReturn(new BigDecimal("225.00"));
+
+        when(expenseRepository.sumUsdAsOfGroupedByDepartment(
+                startDate, endDate, ExpenseStatus.REJECTED.name(), asOf.toInstant().toEpochMilli()))
+                .thenReturn(List.of(row));
+        when(departmentRepository.findAll()).thenReturn(List.of(itDepartment));
+
+        List<DepartmentExpenseReportResponse> result = reportService.getExpensesByDepartmentReport(startDate, endDate, asOf);
+
+        assertAll(
+                () -> assertEquals("IT", result.getFirst().getDepartment()),
+                () -> assertEquals(new BigDecimal("225.00"), result.getFirst().getUsed()),
+                () -> verifyNoInteractions(expenseDailyRollupRepository)
+        );
+    }
+
     // ==================== CSV GENERATION TESTS ====================
 
     @Test
-    void getExpensesByEmployeeCsvReport_success() {
+    void getExpensesByEmployeeCsvReport_success() throws IOException {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1));
+        when(expenseDailyRollupRepository.streamUsdGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED))
+                .thenReturn(Stream.of(
+                        new NamedExpenseTotal("John Employee", new BigDecimal("50.00")),
+                        new NamedExpenseTotal("Doe, Jane", new BigDecimal("7.5"))
+                ));
 
-        String csv = reportService.getExpensesByEmployeeCsvReport(startDate, endDate);
+        String csv = writeToString(reportService.getExpensesByEmployeeCsvReport(startDate, endDate, null));
 
         assertAll(
-                () -> assertNotNull(csv),
-                () -> assertTrue(csv.contains("Employee,Total (USD)")),
-                () -> assertTrue(csv.contains("John Employee")),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED)
+                () -> assertEquals("Employee,Total (USD)\nJohn Employee,50.00\n\"Doe, Jane\",7.50\n", csv),
+                () -> verify(expenseDailyRollupRepository).streamUsdGroupedByEmployee(startDate, endDate, ExpenseStatus.REJECTED)
         );
     }
 
     @Test
-    void getExpensesByCategoryCsvReport_success() {
+    void getExpensesByCategoryCsvReport_success() throws IOException {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1));
+        when(expenseDailyRollupRepository.streamUsdGroupedByCategory(startDate, endDate, ExpenseStatus.REJECTED))
+                .thenReturn(Stream.of(new NamedExpenseTotal("Food", new BigDecimal("50.00"))));
 
-        String csv = reportService.getExpensesByCategoryCsvReport(startDate, endDate);
+        String csv = writeToString(reportService.getExpensesByCategoryCsvReport(startDate, endDate, null));
 
         assertAll(
-                () -> assertNotNull(csv),
-                () -> assertTrue(csv.contains("Category,Total (USD)")),
-                () -> assertTrue(csv.contains("Food")),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(startDate, endDate, ExpenseStatus.REJECTED)
+                () -> assertEquals("Category,Total (USD)\nFood,50.00\n", csv),
+                () -> verify(expenseDailyRollupRepository).streamUsdGroupedByCategory(startDate, endDate, ExpenseStatus.REJECTED)
         );
     }
 
     @Test
-    void getExpensesByDepartmentCsvReport_success() {
+    void getExpensesByDepartmentCsvReport_success() throws IOException {
         LocalDate startDate = LocalDate.now().withDayOfMonth(1);
         LocalDate endDate = LocalDate.now();
 
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(expense1));
+        when(expenseDailyRollupRepository.sumUsdGroupedByDepartment(any(), any(), eq(ExpenseStatus.REJECTED)))
+                .thenReturn(List.of(new DepartmentExpenseTotal(1L, new BigDecimal("50.00"))));
         when(departmentRepository.findAll()).thenReturn(List.of(itDepartment));
 
-        String csv = reportService.getExpensesByDepartmentCsvReport(startDate, endDate);
+        String csv = writeToString(reportService.getExpensesByDepartmentCsvReport(startDate, endDate, null));
 
         assertAll(
-                () -> assertNotNull(csv),
-                () -> assertTrue(csv.contains("Department,Used (USD),Remaining (USD),Over Budget (USD)")),
-                () -> assertTrue(csv.contains("IT")),
-                () -> verify(expenseRepository).findAllByExpenseDateBetweenAndStatusNot(any(), any(), eq(ExpenseStatus.REJECTED)),
+                () -> assertTrue(csv.startsWith("Department,Used (USD),Remaining (USD),Over Budget (USD)\n")),
+                () -> assertTrue(csv.contains("IT,50.00,")),
+                () -> verify(expenseDailyRollupRepository).sumUsdGroupedByDepartment(any(), any(), eq(ExpenseStatus.REJECTED)),
                 () -> verify(departmentRepository).findAll()
         );
     }
 
+    @Test
+    void getExpensesByEmployeeCsvReport_invalidRange_failsBeforeStreaming() {
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now().minusDays(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.getExpensesByEmployeeCsvReport(startDate, endDate, null));
+        verifyNoInteractions(expenseRepository);
+    }
+
     @Test
     void generateCsvFilename_success() {
         LocalDate startDate = LocalDate.of(2026, 1, 1);
@@ -295,16 +384,14 @@ class ReportServiceTest {
 
     @Test
     void getExpenseSummary_asEmployee_returnsPersonalSummary() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(employee);
-        when(expenseRepository.findAllByUserIdAndStatusNot(1L, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1, expense2, expense3));
-        when(expenseRepository.findTopByUserIdAndStatusNotOrderByExpenseDateDesc(
+        when(expenseSummaryCounterRepository.sumTotals(1L, monthStart))
+                .thenReturn(new ExpenseSummaryTotals(new BigDecimal("225.00"), 1L, 2L, new BigDecimal("125.00")));
+        when(expenseRepository.findLastExpensesByUserIdAndStatusNot(
                 eq(1L), eq(ExpenseStatus.REJECTED), any(PageRequest.class)))
-                .thenReturn(List.of(expense1, expense2, expense3));
-        when(expenseRepository.findAllByUserIdAndExpenseDateBetweenAndStatusNot(
-                eq(1L), any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(expense1, expense2));
+                .thenReturn(List.of(lastExpense(expense1), lastExpense(expense2), lastExpense(expense3)));
 
         PersonalExpenseSummaryResponse result = reportService.getExpenseSummary();
 
@@ -315,22 +402,20 @@ class ReportServiceTest {
                 () -> assertEquals(2, result.getPendingExpensesCount()),
                 () -> assertEquals(new BigDecimal("125.00"), result.getExpensesThisMonth()),
                 () -> assertEquals(3, result.getLastExpenses().size()),
-                () -> verify(expenseRepository).findAllByUserIdAndStatusNot(1L, ExpenseStatus.REJECTED)
+                () -> verify(expenseSummaryCounterRepository).sumTotals(1L, monthStart)
         );
     }
 
     @Test
     void getExpenseSummary_asManager_returnsOverallSummary() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(manager);
-        when(expenseRepository.findAllByStatusNot(ExpenseStatus.REJECTED))
-                .thenReturn(List.of(expense1, expense2, expense3));
-        when(expenseRepository.findTopByStatusNotOrderByExpenseDateDesc(
+        when(expenseSummaryCounterRepository.sumTotalsOfAllUsers(monthStart))
+                .thenReturn(new ExpenseSummaryTotals(new BigDecimal("225.00"), 1L, 2L, new BigDecimal("125.00")));
+        when(expenseRepository.findLastExpensesByStatusNot(
                 eq(ExpenseStatus.REJECTED), any(PageRequest.class)))
-                .thenReturn(List.of(expense1, expense2, expense3));
-        when(expenseRepository.findAllByExpenseDateBetweenAndStatusNot(
-                any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(expense1, expense2));
+                .thenReturn(List.of(lastExpense(expense1), lastExpense(expense2), lastExpense(expense3)));
 
         PersonalExpenseSummaryResponse result = reportService.getExpenseSummary();
 
@@ -341,50 +426,38 @@ class ReportServiceTest {
                 () -> assertEquals(2, result.getPendingExpensesCount()),
                 () -> assertEquals(new BigDecimal("125.00"), result.getExpensesThisMonth()),
                 () -> assertEquals(3, result.getLastExpenses().size()),
-                () -> verify(expenseRepository).findAllByStatusNot(ExpenseStatus.REJECTED)
+                () -> verify(expenseSummaryCounterRepository).sumTotalsOfAllUsers(monthStart)
         );
     }
 
     @Test
-    void getExpenseSummary_countsCorrectStatuses() {
-        Expense approvedExpense = Expense.builder()
-                .id(4L)
-                .amount(BigDecimal.valueOf(200))
-                .description("Approved expense")
-                .expenseDate(LocalDate.now())
-                .user(employee)
-                .expenseCategory(foodCategory)
-                .currency(usdCurrency)
-                .status(ExpenseStatus.APPROVED_BY_FINANCE)
-                .build();
-
-        Expense pendingExpense = Expense.builder()
-                .id(5L)
-                .amount(BigDecimal.valueOf(150))
-                .description("Pending expense")
-                .expenseDate(LocalDate.now())
-                .user(employee)
-                .expenseCategory(foodCategory)
-                .currency(usdCurrency)
-                .status(ExpenseStatus.PENDING)
-                .build();
-
+    void getExpenseSummary_noCounters_returnsZeros() {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(employee);
-        when(expenseRepository.findAllByUserIdAndStatusNot(1L, ExpenseStatus.REJECTED))
-                .thenReturn(List.of(approvedExpense, pendingExpense));
-        when(expenseRepository.findTopByUserIdAndStatusNotOrderByExpenseDateDesc(
+        when(expenseSummaryCounterRepository.sumTotals(eq(1L), any(LocalDate.class)))
+                .thenReturn(new ExpenseSummaryTotals(null, null, null, null));
+        when(expenseRepository.findLastExpensesByUserIdAndStatusNot(
                 eq(1L), eq(ExpenseStatus.REJECTED), any(PageRequest.class)))
-                .thenReturn(List.of(approvedExpense));
-        when(expenseRepository.findAllByUserIdAndExpenseDateBetweenAndStatusNot(
-                eq(1L), any(), any(), eq(ExpenseStatus.REJECTED)))
-                .thenReturn(List.of(approvedExpense));
+                .thenReturn(List.of());
 
         PersonalExpenseSummaryResponse result = reportService.getExpenseSummary();
 
         assertAll(
-                () -> assertEquals(1, result.getApprovedExpensesCount()),
-                () -> assertEquals(1, result.getPendingExpensesCount())
+                () -> assertEquals(new BigDecimal("0.00"), result.getTotalExpenses()),
+                () -> assertEquals(0, result.getApprovedExpensesCount()),
+                () -> assertEquals(0, result.getPendingExpensesCount()),
+                () -> assertEquals(new BigDecimal("0.00"), result.getExpensesThisMonth()),
+                () -> assertTrue(result.getLastExpenses().isEmpty())
         );
     }
+
+    private static LastExpenseDto lastExpense(Expense expense) {
+        return new LastExpenseDto(expense.getDescription(), expense.getExpenseDate(), expense.getStatus());
+    }
+
+    private static String writeToString(CsvExport export) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
 }
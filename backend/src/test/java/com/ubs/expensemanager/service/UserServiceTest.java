@@ -12,7 +12,10 @@ import com.ubs.expensemanager.model.Department;
 import com.ubs.expensemanager.model.User;
 import com.ubs.expensemanager.model.UserRole;
 import com.ubs.expensemanager.repository.DepartmentRepository;
+import com.ubs.expensemanager.repository.ExpenseRepository;
 import com.ubs.expensemanager.repository.UserRepository;
+import com.ubs.expensemanager.security.PrincipalCache;
+import com.ubs.expensemanager.security.TokenRevocationList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,12 +46,24 @@ class UserServiceTest {
     @Mock
     DepartmentRepository departmentRepository;
 
+    @Mock
+    ExpenseRepository expenseRepository;
+
     @Mock
     PasswordEncoder passwordEncoder;
 
     @Mock
     UserMapper userMapper;
 
+    @Mock
+    ExpenseDailyRollupService expenseDailyRollupService;
+
+    @Mock
+    PrincipalCache principalCache;
+
+    @Mock
+    TokenRevocationList tokenRevocationList;
+
     @InjectMocks
     UserService userService;
 
@@ -170,6 +185,40 @@ class UserServiceTest {
 
         assertEquals("Employee Updated", response.getName());
         assertEquals("manager@ubs.com", response.getManager().getEmail());
+        verify(expenseRepository, never()).reassignDepartment(any(), any());
+        verify(expenseRepository, never()).reassignArchivedDepartment(any(), any());
+        verify(expenseDailyRollupService, never()).reassignDepartment(any(), any());
+        verify(principalCache).invalidate("employee@ubs.com");
+        verify(tokenRevocationList, never()).revoke(any());
+    }
+
+    @Test
+    void updateUser_departmentChanged_reassignsExpenseRollup() {
+        Department hrDepartment = Department.builder()
+                .id(2L)
+                .name("HR")
+                .build();
+
+        UserUpdateRequest request = UserUpdateRequest.builder()
+                .email("employee@ubs.com")
+                .password("123456")
+                .role(UserRole.EMPLOYEE)
+                .name("Employee")
+                .departmentId(2L)
+                .managerEmail("manager@ubs.com")
+                .build();
+
+        when(repository.findById(2L)).thenReturn(Optional.of(employee));
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(hrDepartment));
+        when(repository.findByEmail("manager@ubs.com")).thenReturn(Optional.of(manager));
+        when(repository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        userService.update(2L, request);
+
+        verify(expenseRepository).reassignDepartment(2L, 2L);
+        verify(expenseRepository).reassignArchivedDepartment(2L, 2L);
+        verify(expenseDailyRollupService).reassignDepartment(2L, 2L);
+        verify(tokenRevocationList).revoke(employee);
     }
 
 
@@ -280,5 +329,7 @@ class UserServiceTest {
         userService.deactivate(2L);
 
         assertFalse(employee.isActive());
+        verify(principalCache).invalidate("employee@ubs.com");
+        verify(tokenRevocationList).revoke(employee);
     }
 }
\ No newline at end of file
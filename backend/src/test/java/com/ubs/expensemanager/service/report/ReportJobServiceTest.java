@@ -0,0 +1,246 @@
+package com.ubs.expensemanager.service.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ubs.expensemanager.cache.CacheInvalidationBus;
+import com.ubs.expensemanager.cache.ReportResultCache;
+import com.ubs.expensemanager.dto.request.ReportJobCreateRequest;
+import com.ubs.expensemanager.dto.response.ReportJobResponse;
+import com.ubs.expensemanager.exception.ConflictException;
+import com.ubs.expensemanager.exception.ResourceNotFoundException;
+import com.ubs.expensemanager.model.ExpenseStatus;
+import com.ubs.expensemanager.model.ReportFormat;
+import com.ubs.expensemanager.model.ReportJobStatus;
+import com.ubs.expensemanager.model.ReportJobType;
+import com.ubs.expensemanager.repository.DepartmentRepository;
+import com.ubs.expensemanager.repository.ExpenseDailyRollupRepository;
+import com.ubs.expensemanager.repository.ExpenseRepository;
+import com.ubs.expensemanager.repository.ExpenseSummaryCounterRepository;
+import com.ubs.expensemanager.repository.projection.NamedExpenseTotal;
+import com.ubs.expensemanager.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    ExpenseRepository expenseRepository;
+
+    @Mock
+    ExpenseDailyRollupRepository expenseDailyRollupRepository;
+
+    @Mock
+    ExpenseSummaryCounterRepository expenseSummaryCounterRepository;
+
+    @Mock
+    DepartmentRepository departmentRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    JdbcTemplate jdbcTemplate;
+    SimpleMeterRegistry meterRegistry;
+    ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:report-jobs;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(h2);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS report_jobs (id UUID PRIMARY KEY, type VARCHAR(40) NOT NULL, " +
+                "start_date DATE NOT NULL, end_date DATE NOT NULL, format VARCHAR(10) NOT NULL, " +
+                "status VARCHAR(20) NOT NULL, active_key VARCHAR(100) UNIQUE, created_at TIMESTAMP NOT NULL, " +
+                "finished_at TIMESTAMP, error VARCHAR(255), content VARBINARY)");
+        jdbcTemplate.execute("DELETE FROM report_jobs");
+        meterRegistry = new SimpleMeterRegistry();
+        ReportService reportService = new ReportService(expenseRepository, expenseDailyRollupRepository,
+                expenseSummaryCounterRepository, departmentRepository, transactionManager,
+                new ReportResultCache(0, 100, meterRegistry, mock(CacheInvalidationBus.class)));
+        reportJobService = new ReportJobService(reportService, expenseDailyRollupRepository,
+                new ReportJobStore(new NamedParameterJdbcTemplate(jdbcTemplate)), new ObjectMapper(),
+                transactionManager, meterRegistry, 1, 1, 2, 24, 300_000, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.shutdown();
+    }
+
+    @Test
+    void monthChunks_splitsRangeAtMonthBoundaries() {
+        List<ReportJobService.DateRange> chunks =
+                ReportJobService.monthChunks(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 10));
+
+        assertEquals(List.of(
+                new ReportJobService.DateRange(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 1, 31)),
+                new ReportJobService.DateRange(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)),
+                new ReportJobService.DateRange(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10))
+        ), chunks);
+    }
+
+    @Test
+    void submit_mergesMonthlyTotalsIntoCsvFile() throws Exception {
+        // Given
+        when(expenseDailyRollupRepository.sumUsdGroupedByEmployee(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), ExpenseStatus.REJECTED))
+                .thenReturn(List.of(
+                        new NamedExpenseTotal("Alice", new BigDecimal("100.00")),
+                        new NamedExpenseTotal("Bob", new BigDecimal("30.00"))));
+        when(expenseDailyRollupRepository.sumUsdGroupedByEmployee(
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 15), ExpenseStatus.REJECTED))
+                .thenReturn(List.of(new NamedExpenseTotal("Alice", new BigDecimal("50.00"))));
+
+        // When
+        ReportJobResponse submitted = reportJobService.submit(request(ReportJobType.EXPENSES_BY_EMPLOYEE,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 15)));
+        ReportJobResponse finished = awaitFinished(submitted.getId());
+
+        // Then
+        assertEquals(ReportJobStatus.COMPLETED, finished.getStatus());
+        ReportJobService.Download download = reportJobService.download(submitted.getId());
+        assertAll(
+                () -> assertEquals("expenses-by-employee_2025-01-01_to_2025-02-15.csv", download.filename()),
+                () -> assertEquals("text/csv", download.contentType()),
+                () -> assertEquals("Employee,Total (USD)\nAlice,150.00\nBob,30.00\n",
+                        new String(download.content(), StandardCharsets.UTF_8))
+        );
+    }
+
+    @Test
+    void submit_identicalRequestWhileRunning_returnsSameJob() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseDailyRollupRepository.sumUsdGroupedByCategory(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), ExpenseStatus.REJECTED))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+        ReportJobCreateRequest request = request(ReportJobType.EXPENSES_BY_CATEGORY,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        // When
+        ReportJobResponse first = reportJobService.submit(request);
+        started.await(5, TimeUnit.SECONDS);
+        ReportJobResponse second = reportJobService.submit(request);
+        release.countDown();
+        awaitFinished(first.getId());
+
+        // Then
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1.0, meterRegistry.get("report.jobs.deduplicated").counter().count());
+        verify(expenseDailyRollupRepository, times(1)).sumUsdGroupedByCategory(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), ExpenseStatus.REJECTED);
+    }
+
+    @Test
+    void download_jobNotCompleted_throwsConflict() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseDailyRollupRepository.sumUsdGroupedByCategory(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), ExpenseStatus.REJECTED))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+        ReportJobResponse submitted = reportJobService.submit(request(ReportJobType.EXPENSES_BY_CATEGORY,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+
+        started.await(5, TimeUnit.SECONDS);
+
+        // When / Then
+        try {
+            assertThrows(ConflictException.class, () -> reportJobService.download(submitted.getId()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_identicalJobQueuedByAnotherInstance_returnsThatJob() {
+        // Given
+        UUID otherInstanceJob = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO report_jobs (id, type, start_date, end_date, format, status, active_key, created_at) " +
+                        "VALUES (?, 'EXPENSES_BY_CATEGORY', ?, ?, 'CSV', 'RUNNING', " +
+                        "'EXPENSES_BY_CATEGORY/2025-01-01/2025-01-31/CSV', CURRENT_TIMESTAMP)",
+                otherInstanceJob, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        // When
+        ReportJobResponse submitted = reportJobService.submit(request(ReportJobType.EXPENSES_BY_CATEGORY,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+
+        // Then
+        assertEquals(otherInstanceJob, submitted.getId());
+        assertEquals(ReportJobStatus.RUNNING, submitted.getStatus());
+        verifyNoInteractions(expenseDailyRollupRepository);
+    }
+
+    @Test
+    void purge_jobUnfinishedAfterTimeout_failsItAndAllowsResubmission() throws Exception {
+        // Given
+        UUID abandonedJob = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO report_jobs (id, type, start_date, end_date, format, status, active_key, created_at) " +
+                        "VALUES (?, 'EXPENSES_BY_CATEGORY', ?, ?, 'CSV', 'RUNNING', " +
+                        "'EXPENSES_BY_CATEGORY/2025-01-01/2025-01-31/CSV', DATEADD('HOUR', -1, CURRENT_TIMESTAMP))",
+                abandonedJob, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        // When
+        reportJobService.purge();
+        ReportJobResponse resubmitted = reportJobService.submit(request(ReportJobType.EXPENSES_BY_CATEGORY,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)));
+        awaitFinished(resubmitted.getId());
+
+        // Then
+        assertEquals(ReportJobStatus.FAILED, reportJobService.findById(abandonedJob).getStatus());
+        assertNotEquals(abandonedJob, resubmitted.getId());
+    }
+
+    @Test
+    void findById_unknownJob_throwsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.findById(UUID.randomUUID()));
+    }
+
+    private ReportJobCreateRequest request(ReportJobType type, LocalDate startDate, LocalDate endDate) {
+        return ReportJobCreateRequest.builder()
+                .type(type)
+                .startDate(startDate)
+                .endDate(endDate)
+                .format(ReportFormat.CSV)
+                .build();
+    }
+
+    private ReportJobResponse awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReportJobResponse job = reportJobService.findById(id);
+        while ((job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = reportJobService.findById(id);
+        }
+        return job;
+    }
+}
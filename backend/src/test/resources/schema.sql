@@ -28,6 +28,7 @@ CREATE TABLE users (
     department_id BIGINT,
     manager_id BIGINT,
     active BOOLEAN NOT NULL DEFAULT TRUE,
+    token_version INT NOT NULL DEFAULT 0,
     PRIMARY KEY (id),
     FOREIGN KEY (department_id) REFERENCES departments(id),
     FOREIGN KEY (manager_id) REFERENCES users(id)
@@ -47,13 +48,15 @@ CREATE TABLE expense_categories (
 
 -- Create expenses table
 CREATE TABLE expenses (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id BIGINT NOT NULL,
     amount DECIMAL(15,2) NOT NULL CHECK (amount > 0),
     description VARCHAR(500),
     expense_date DATE NOT NULL,
     user_id BIGINT NOT NULL,
     expense_category_id BIGINT NOT NULL,
     currency_id BIGINT NOT NULL,
+    amount_usd DECIMAL(19,2),
+    department_id BIGINT,
     receipt_url VARCHAR(1000),
     status VARCHAR(50) NOT NULL CHECK (status IN ('PENDING', 'APPROVED_BY_MANAGER', 'APPROVED_BY_FINANCE', 'REJECTED')),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -64,6 +67,9 @@ CREATE TABLE expenses (
     CONSTRAINT fk_expenses_currency FOREIGN KEY (currency_id) REFERENCES currencies(id)
 );
 
+-- Expense IDs come from a pooled sequence so inserts can be batched
+CREATE SEQUENCE expenses_seq START WITH 1 INCREMENT BY 50;
+
 -- Create alerts table
 CREATE TABLE alerts (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY,
@@ -77,6 +83,96 @@ CREATE TABLE alerts (
     FOREIGN KEY (expense_id) REFERENCES expenses(id)
 );
 
+-- Create archive tables, with the columns of expenses and alerts in the same order
+CREATE TABLE expenses_archive (
+    id BIGINT NOT NULL,
+    amount DECIMAL(15,2) NOT NULL,
+    description VARCHAR(500),
+    expense_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    expense_category_id BIGINT NOT NULL,
+    currency_id BIGINT NOT NULL,
+    amount_usd DECIMAL(19,2),
+    department_id BIGINT,
+    receipt_url VARCHAR(1000),
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE alerts_archive (
+    id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    message VARCHAR(2000) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    expense_id BIGINT,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+-- Create expense daily rollup table
+CREATE TABLE expense_daily_rollup (
+    expense_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    department_id BIGINT,
+    category_id BIGINT NOT NULL,
+    currency_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    expense_count BIGINT NOT NULL DEFAULT 0,
+    amount_usd DECIMAL(19,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (expense_date, user_id, category_id, currency_id, status)
+);
+
+-- Create expense summary counters table
+CREATE TABLE expense_summary_counters (
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    amount_usd DECIMAL(19,2) NOT NULL DEFAULT 0,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    pending_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, month_start)
+);
+
+-- Create outbox events table
+CREATE TABLE outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_type VARCHAR(100) NOT NULL,
+    aggregate_id BIGINT,
+    payload CLOB NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    created_at TIMESTAMP NOT NULL,
+    available_at TIMESTAMP NOT NULL,
+    dispatched_at TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+-- Create report jobs table
+CREATE TABLE report_jobs (
+    id UUID NOT NULL,
+    type VARCHAR(40) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    active_key VARCHAR(100) UNIQUE,
+    created_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    error VARCHAR(255),
+    content VARBINARY,
+    PRIMARY KEY (id)
+);
+
+-- Create token revocations table
+CREATE TABLE token_revocations (
+    user_id BIGINT NOT NULL,
+    token_version INT NOT NULL,
+    revoked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
 -- Create REVINFO table for Hibernate Envers
 CREATE TABLE REVINFO (
     REV INTEGER GENERATED BY DEFAULT AS IDENTITY,